@@ -23,29 +23,47 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarFile;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.function.IOBiConsumer;
 import org.apache.commons.io.output.NullOutputStream;
 
 /**
  * Provides a high level API for expanding archives.
+ * <p>
+ * {@link ZipFile}, {@link TarFile} and {@link SevenZFile} archives can also be expanded using multiple threads, see {@link #expand(ZipFile, Path, int)},
+ * {@link #expand(TarFile, Path, int)} and {@link #expand(SevenZFile, Path, int)}. The same checks that prevent entries from escaping the target directory
+ * apply.
+ * </p>
  *
  * @since 1.17
  */
@@ -56,11 +74,110 @@ public class Expander {
         void accept(T entry, OutputStream out) throws IOException;
     }
 
+    @FunctionalInterface
+    private interface ArchiveEntryChannelConsumer<T extends ArchiveEntry> {
+        void accept(T entry, WritableByteChannel out) throws IOException;
+    }
+
     @FunctionalInterface
     private interface ArchiveEntrySupplier<T extends ArchiveEntry> {
         T get() throws IOException;
     }
 
+    private static void copy(final SevenZFile archive, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[8192];
+        int n;
+        while (-1 != (n = archive.read(buffer))) {
+            if (out != null) {
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    private static void createDirectories(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory) && Files.createDirectories(directory) == null) {
+            throw new IOException("Failed to create directory " + directory);
+        }
+    }
+
+    /**
+     * Opens a file for writing and sets its length to the expected size, so the file doesn't have to grow with every write.
+     */
+    private static FileChannel openPreallocated(final Path path, final long size) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (size > 0) {
+            try {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            } catch (final IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * Waits for the remaining tasks and rethrows the first failure.
+     */
+    private static void takeAll(final OrderedTaskQueue<Void> tasks) throws IOException {
+        while (!tasks.isEmpty()) {
+            tasks.take();
+        }
+    }
+
+    /**
+     * Writes the entries passed by {@link SevenZFile#extract(Predicate, IOBiConsumer, int)}, called concurrently for entries of different folders.
+     * <p>
+     * Entries of different folders may be written in any order, so of several files with the same name only the last one is written, as it would overwrite the
+     * others in the sequential expansion.
+     * </p>
+     *
+     * @param targetDirectory May be null to simulate output to dev/null on Linux and NUL on Windows.
+     */
+    private static IOBiConsumer<SevenZArchiveEntry, InputStream> toConsumer(final SevenZFile archive, final Path targetDirectory) {
+        final boolean nullTarget = targetDirectory == null;
+        final Path targetDirPath = nullTarget ? null : targetDirectory.normalize();
+        final Set<SevenZArchiveEntry> overwritten = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!nullTarget) {
+            final Map<Path, SevenZArchiveEntry> lastEntries = new HashMap<>();
+            for (final SevenZArchiveEntry entry : archive.getEntries()) {
+                final String name = entry.getName() != null ? entry.getName() : archive.getDefaultName();
+                if (!entry.isDirectory() && name != null) {
+                    final SevenZArchiveEntry previous = lastEntries.put(targetDirPath.resolve(name).normalize(), entry);
+                    if (previous != null) {
+                        overwritten.add(previous);
+                    }
+                }
+            }
+        }
+        return (entry, in) -> {
+            if (nullTarget || overwritten.contains(entry)) {
+                // the content is skipped by the archive
+                return;
+            }
+            final Path targetPath = entry.resolveIn(targetDirPath);
+            if (entry.isDirectory()) {
+                createDirectories(targetPath);
+            } else {
+                createDirectories(targetPath.getParent());
+                try (FileChannel channel = openPreallocated(targetPath, entry.getSize())) {
+                    IOUtils.copy(in, Channels.newOutputStream(channel));
+                    channel.truncate(channel.position());
+                }
+            }
+        };
+    }
+
+    private static ArchiveEntrySupplier<ZipArchiveEntry> toSupplier(final Enumeration<ZipArchiveEntry> entries, final ZipFile archive) {
+        return () -> {
+            ZipArchiveEntry next = entries.hasMoreElements() ? entries.nextElement() : null;
+            while (next != null && !archive.canReadEntryData(next)) {
+                next = entries.hasMoreElements() ? entries.nextElement() : null;
+            }
+            return next;
+        };
+    }
+
     /**
      * @param targetDirectory May be null to simulate output to dev/null on Linux and NUL on Windows.
      */
@@ -92,6 +209,62 @@ private <T extends ArchiveEntry> void expand(final ArchiveEntrySupplier<T> suppl
         }
     }
 
+    /**
+     * Creates directories on the calling thread and writes the entries on the tasks of the queue, every task reads and writes one entry.
+     * <p>
+     * An archive may hold several entries with the same name, an entry is only submitted once the task writing an earlier entry to the same file has completed,
+     * so the last one wins as in the sequential expansion.
+     * </p>
+     *
+     * @param targetDirectory May be null to simulate output to dev/null on Linux and NUL on Windows.
+     */
+    private <T extends ArchiveEntry> void expand(final ArchiveEntrySupplier<T> supplier, final ArchiveEntryChannelConsumer<T> writer,
+            final Path targetDirectory, final OrderedTaskQueue<Void> tasks) throws IOException {
+        final boolean nullTarget = targetDirectory == null;
+        final Path targetDirPath = nullTarget ? null : targetDirectory.normalize();
+        // the number of the task that last wrote a file, tasks complete in the order they are submitted
+        final Map<Path, Long> lastTasks = new HashMap<>();
+        long submitted = 0;
+        long taken = 0;
+        T nextEntry = supplier.get();
+        while (nextEntry != null) {
+            final T entry = nextEntry;
+            final Path targetPath = nullTarget ? null : entry.resolveIn(targetDirPath);
+            if (entry.isDirectory()) {
+                if (!nullTarget) {
+                    createDirectories(targetPath);
+                }
+            } else {
+                if (!nullTarget) {
+                    createDirectories(targetPath.getParent());
+                    final Long lastTask = lastTasks.put(targetPath, submitted);
+                    while (lastTask != null && taken <= lastTask) {
+                        tasks.take();
+                        taken++;
+                    }
+                }
+                while (tasks.isFull()) {
+                    tasks.take();
+                    taken++;
+                }
+                submitted++;
+                tasks.submit(() -> {
+                    if (nullTarget) {
+                        writer.accept(entry, Channels.newChannel(NullOutputStream.INSTANCE));
+                    } else {
+                        try (FileChannel channel = openPreallocated(targetPath, entry.getSize())) {
+                            writer.accept(entry, channel);
+                            channel.truncate(channel.position());
+                        }
+                    }
+                    return null;
+                });
+            }
+            nextEntry = supplier.get();
+        }
+        takeAll(tasks);
+    }
+
     /**
      * Expands {@code archive} into {@code targetDirectory}.
      *
@@ -225,15 +398,45 @@ public void expand(final SevenZFile archive, final File targetDirectory) throws
      * @since 1.22
      */
     public void expand(final SevenZFile archive, final Path targetDirectory) throws IOException {
-        expand(archive::getNextEntry, (entry, out) -> {
-            final byte[] buffer = new byte[8192];
-            int n;
-            while (-1 != (n = archive.read(buffer))) {
-                if (out != null) {
-                    out.write(buffer, 0, n);
-                }
-            }
-        }, targetDirectory);
+        expand(archive::getNextEntry, (entry, out) -> copy(archive, out), targetDirectory);
+    }
+
+    /**
+     * Expands {@code archive} into {@code targetDirectory}, decoding and writing the entries on the given executor service.
+     * <p>
+     * Every task decodes one folder of the archive with {@link SevenZFile#extract(Predicate, IOBiConsumer, ExecutorService, int)} and writes its entries,
+     * at most {@code maxInFlight} folders are expanded at the same time. Archives made of a single solid folder are expanded by a single thread.
+     * </p>
+     *
+     * @param archive         the file to expand
+     * @param targetDirectory the target directory, may be null to simulate output to dev/null on Linux and NUL on Windows.
+     * @param executorService the executor service expanding the folders, it is not shut down by this method.
+     * @param maxInFlight     the maximum number of folders expanded at the same time.
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if {@code maxInFlight < 1}.
+     * @since 1.26.0
+     */
+    public void expand(final SevenZFile archive, final Path targetDirectory, final ExecutorService executorService, final int maxInFlight)
+            throws IOException {
+        archive.extract(entry -> true, toConsumer(archive, targetDirectory), executorService, maxInFlight);
+    }
+
+    /**
+     * Expands {@code archive} into {@code targetDirectory}, decoding and writing the entries on {@code threads} threads.
+     * <p>
+     * Every thread decodes one folder of the archive at a time with {@link SevenZFile#extract(Predicate, IOBiConsumer, int)} and writes its entries.
+     * Archives made of a single solid folder are expanded by a single thread.
+     * </p>
+     *
+     * @param archive         the file to expand
+     * @param targetDirectory the target directory, may be null to simulate output to dev/null on Linux and NUL on Windows.
+     * @param threads         the number of threads expanding folders.
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     * @since 1.26.0
+     */
+    public void expand(final SevenZFile archive, final Path targetDirectory, final int threads) throws IOException {
+        archive.extract(entry -> true, toConsumer(archive, targetDirectory), threads);
     }
 
     /**
@@ -444,6 +647,55 @@ public void expand(final TarFile archive, final Path targetDirectory) throws IOE
         }, targetDirectory);
     }
 
+    /**
+     * Expands {@code archive} into {@code targetDirectory}, reading and writing the entries on the given executor service.
+     * <p>
+     * Every task reads one entry with positional reads of the archive and writes it to its file, at most {@code maxInFlight} entries are expanded at the
+     * same time.
+     * </p>
+     *
+     * @param archive         the file to expand
+     * @param targetDirectory the target directory, may be null to simulate output to dev/null on Linux and NUL on Windows.
+     * @param executorService the executor service expanding the entries, it is not shut down by this method.
+     * @param maxInFlight     the maximum number of entries expanded at the same time.
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if {@code maxInFlight < 1}.
+     * @since 1.26.0
+     */
+    public void expand(final TarFile archive, final Path targetDirectory, final ExecutorService executorService, final int maxInFlight) throws IOException {
+        try (OrderedTaskQueue<Void> tasks = new OrderedTaskQueue<>(executorService, maxInFlight)) {
+            expand(archive, targetDirectory, tasks);
+        }
+    }
+
+    /**
+     * Expands {@code archive} into {@code targetDirectory}, reading and writing the entries on {@code threads} threads.
+     * <p>
+     * Every thread reads one entry at a time with positional reads of the archive and writes it to its file.
+     * </p>
+     *
+     * @param archive         the file to expand
+     * @param targetDirectory the target directory, may be null to simulate output to dev/null on Linux and NUL on Windows.
+     * @param threads         the number of threads expanding entries.
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     * @since 1.26.0
+     */
+    public void expand(final TarFile archive, final Path targetDirectory, final int threads) throws IOException {
+        try (OrderedTaskQueue<Void> tasks = new OrderedTaskQueue<>(threads, 2 * threads)) {
+            expand(archive, targetDirectory, tasks);
+        }
+    }
+
+    private void expand(final TarFile archive, final Path targetDirectory, final OrderedTaskQueue<Void> tasks) throws IOException {
+        final Iterator<TarArchiveEntry> entryIterator = archive.getEntries().iterator();
+        expand(() -> entryIterator.hasNext() ? entryIterator.next() : null, (entry, out) -> {
+            try (InputStream in = archive.getInputStream(entry)) {
+                IOUtils.copy(in, Channels.newOutputStream(out));
+            }
+        }, targetDirectory, tasks);
+    }
+
     /**
      * Expands {@code archive} into {@code targetDirectory}.
      *
@@ -464,20 +716,65 @@ public void expand(final ZipFile archive, final File targetDirectory) throws IOE
      * @since 1.22
      */
     public void expand(final ZipFile archive, final Path targetDirectory) throws IOException {
-        final Enumeration<ZipArchiveEntry> entries = archive.getEntries();
-        expand(() -> {
-            ZipArchiveEntry next = entries.hasMoreElements() ? entries.nextElement() : null;
-            while (next != null && !archive.canReadEntryData(next)) {
-                next = entries.hasMoreElements() ? entries.nextElement() : null;
-            }
-            return next;
-        }, (entry, out) -> {
+        expand(toSupplier(archive.getEntries(), archive), (entry, out) -> {
             try (InputStream in = archive.getInputStream(entry)) {
                 IOUtils.copy(in, out);
             }
         }, targetDirectory);
     }
 
+    /**
+     * Expands {@code archive} into {@code targetDirectory}, decompressing and writing the entries on the given executor service.
+     * <p>
+     * Every task decompresses one entry and writes it to its file, at most {@code maxInFlight} entries are expanded at the same time. The entries are
+     * processed in the order they are stored in the archive, stored entries are transferred with {@link ZipFile#transferRawTo(ZipArchiveEntry,
+     * WritableByteChannel)}.
+     * </p>
+     *
+     * @param archive         the file to expand
+     * @param targetDirectory the target directory, may be null to simulate output to dev/null on Linux and NUL on Windows.
+     * @param executorService the executor service expanding the entries, it is not shut down by this method.
+     * @param maxInFlight     the maximum number of entries expanded at the same time.
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if {@code maxInFlight < 1}.
+     * @since 1.26.0
+     */
+    public void expand(final ZipFile archive, final Path targetDirectory, final ExecutorService executorService, final int maxInFlight) throws IOException {
+        try (OrderedTaskQueue<Void> tasks = new OrderedTaskQueue<>(executorService, maxInFlight)) {
+            expand(archive, targetDirectory, tasks);
+        }
+    }
+
+    /**
+     * Expands {@code archive} into {@code targetDirectory}, decompressing and writing the entries on {@code threads} threads.
+     * <p>
+     * Every thread decompresses one entry at a time and writes it to its file. The entries are processed in the order they are stored in the archive.
+     * </p>
+     *
+     * @param archive         the file to expand
+     * @param targetDirectory the target directory, may be null to simulate output to dev/null on Linux and NUL on Windows.
+     * @param threads         the number of threads expanding entries.
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     * @since 1.26.0
+     */
+    public void expand(final ZipFile archive, final Path targetDirectory, final int threads) throws IOException {
+        try (OrderedTaskQueue<Void> tasks = new OrderedTaskQueue<>(threads, 2 * threads)) {
+            expand(archive, targetDirectory, tasks);
+        }
+    }
+
+    private void expand(final ZipFile archive, final Path targetDirectory, final OrderedTaskQueue<Void> tasks) throws IOException {
+        expand(toSupplier(archive.getEntriesInPhysicalOrder(), archive), (entry, out) -> {
+            if (entry.getMethod() == ZipMethod.STORED.getCode() && archive.transferRawTo(entry, out) >= 0) {
+                return;
+            }
+            try (InputStream in = archive.getInputStream(entry)) {
+                IOUtils.copy(in, Channels.newOutputStream(out));
+            }
+        }, targetDirectory, tasks);
+    }
+
     private boolean prefersSeekableByteChannel(final String format) {
         return ArchiveStreamFactory.TAR.equalsIgnoreCase(format) || ArchiveStreamFactory.ZIP.equalsIgnoreCase(format)
                 || ArchiveStreamFactory.SEVEN_Z.equalsIgnoreCase(format);
@@ -21,14 +21,21 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 
+import org.apache.commons.compress.utils.IOUtils;
+
+/**
+ * Reads a range of a channel using positional reads, the position of the channel is neither used nor modified.
+ */
 final class BoundedSeekableByteChannelInputStream extends InputStream {
     private static final int MAX_BUF_LEN = 8192;
     private final ByteBuffer buffer;
     private final SeekableByteChannel channel;
+    private long position;
     private long bytesRemaining;
 
-    BoundedSeekableByteChannelInputStream(final SeekableByteChannel channel, final long size) {
+    BoundedSeekableByteChannelInputStream(final SeekableByteChannel channel, final long start, final long size) {
         this.channel = channel;
+        this.position = start;
         this.bytesRemaining = size;
         if (size < MAX_BUF_LEN && size > 0) {
             buffer = ByteBuffer.allocate((int) size);
@@ -50,6 +57,7 @@ public int read() throws IOException {
             if (read < 0) {
                 return read;
             }
+            position++;
             return buffer.get() & 0xff;
         }
         return -1;
@@ -85,19 +93,20 @@ public int read(final byte[] b, final int off, final int len) throws IOException
             bytesRead = read(bytesToRead);
         } else {
             buf = ByteBuffer.allocate(bytesToRead);
-            bytesRead = channel.read(buf);
+            bytesRead = IOUtils.read(channel, buf, position);
             buf.flip();
         }
         if (bytesRead >= 0) {
             buf.get(b, off, bytesRead);
             bytesRemaining -= bytesRead;
+            position += bytesRead;
         }
         return bytesRead;
     }
 
     private int read(final int len) throws IOException {
         buffer.rewind().limit(len);
-        final int read = channel.read(buffer);
+        final int read = IOUtils.read(channel, buffer, position);
         buffer.flip();
         return read;
     }
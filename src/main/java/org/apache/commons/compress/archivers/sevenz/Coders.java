@@ -33,6 +33,7 @@
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorInputStream;
+import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorOutputStream;
 import org.apache.commons.compress.utils.FlushShieldFilterOutputStream;
 import org.tukaani.xz.ARMOptions;
 import org.tukaani.xz.ARMThumbOptions;
@@ -110,6 +111,11 @@ InputStream decode(final String archiveName, final InputStream in, final long un
                 final int maxMemoryLimitInKb) throws IOException {
             return new Deflate64CompressorInputStream(in);
         }
+
+        @Override
+        OutputStream encode(final OutputStream out, final Object options) {
+            return new Deflate64CompressorOutputStream(out);
+        }
     }
 
     static class DeflateDecoder extends AbstractCoder {
@@ -28,7 +28,7 @@
 final class LZMA2Decoder extends AbstractCoder {
 
     LZMA2Decoder() {
-        super(LZMA2Options.class, Number.class);
+        super(LZMA2Options.class, ParallelLZMA2Options.class, Number.class);
     }
 
     @Override
@@ -49,6 +49,9 @@ InputStream decode(final String archiveName, final InputStream in, final long un
     @SuppressWarnings("resource") // Caller closes.
     @Override
     OutputStream encode(final OutputStream out, final Object opts) throws IOException {
+        if (opts instanceof ParallelLZMA2Options) {
+            return new ParallelLZMA2OutputStream(out, (ParallelLZMA2Options) opts);
+        }
         return getOptions(opts).getOutputStream(new FinishableWrapperOutputStream(out));
     }
 
@@ -76,6 +79,9 @@ private int getDictSize(final Object opts) {
         if (opts instanceof LZMA2Options) {
             return ((LZMA2Options) opts).getDictSize();
         }
+        if (opts instanceof ParallelLZMA2Options) {
+            return ((ParallelLZMA2Options) opts).getOptions().getDictSize();
+        }
         return numberOptionOrDefault(opts);
     }
 
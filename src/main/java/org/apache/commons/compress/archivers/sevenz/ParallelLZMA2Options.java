@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.archivers.sevenz;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.compress.compressors.xz.ParallelXZCompressorOutputStream;
+import org.tukaani.xz.LZMA2Options;
+
+/**
+ * Options for the {@link SevenZMethod#LZMA2} encoder that compress blocks of every entry on several threads.
+ * <p>
+ * The content of an entry is split into blocks that are compressed independently, each block starts with a dictionary reset so the LZMA2 chunks of all
+ * blocks form a single standard LZMA2 stream. As every block starts with an empty dictionary the result is slightly bigger than the one of a single encoder,
+ * the blocks should be considerably bigger than the dictionary to keep the difference small. Entries smaller than a block are compressed on the calling
+ * thread.
+ * </p>
+ * <p>
+ * Use it as options of a {@link SevenZMethodConfiguration}:
+ * </p>
+ *
+ * <pre>
+ * outputFile.setContentMethods(Collections.singletonList(new SevenZMethodConfiguration(SevenZMethod.LZMA2, new ParallelLZMA2Options(new LZMA2Options(), 4))));
+ * </pre>
+ *
+ * @since 1.26.0
+ * @Immutable
+ */
+public final class ParallelLZMA2Options {
+
+    private static int checkThreads(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads(" + threads + ") < 1");
+        }
+        return threads;
+    }
+
+    private final LZMA2Options options;
+    private final ExecutorService executorService;
+    private final int threads;
+    private final int blockSize;
+    private final int maxBlocksInFlight;
+
+    /**
+     * Constructs options that compress blocks of {@code blockSize} bytes using the given executor service, which is never shut down by the encoder.
+     *
+     * @param options           the LZMA2 options of every block.
+     * @param executorService   the executor service that compresses blocks.
+     * @param blockSize         the number of uncompressed bytes compressed by a single task.
+     * @param maxBlocksInFlight the maximum number of blocks compressed but not yet written.
+     * @throws IllegalArgumentException if {@code blockSize < 1} or {@code maxBlocksInFlight < 1}.
+     */
+    public ParallelLZMA2Options(final LZMA2Options options, final ExecutorService executorService, final int blockSize, final int maxBlocksInFlight) {
+        this(options, Objects.requireNonNull(executorService, "executorService"), 0, blockSize, maxBlocksInFlight);
+    }
+
+    /**
+     * Constructs options that compress blocks of the {@link ParallelXZCompressorOutputStream#getDefaultBlockSize(LZMA2Options) default size} using
+     * {@code threads} threads, which are started for every entry and stopped when the entry is closed.
+     * <p>
+     * At most {@code 2 * threads} blocks are in flight at any time.
+     * </p>
+     *
+     * @param options the LZMA2 options of every block.
+     * @param threads the number of threads that compress blocks.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelLZMA2Options(final LZMA2Options options, final int threads) {
+        this(options, null, checkThreads(threads), ParallelXZCompressorOutputStream.getDefaultBlockSize(options), 2 * threads);
+    }
+
+    private ParallelLZMA2Options(final LZMA2Options options, final ExecutorService executorService, final int threads, final int blockSize,
+            final int maxBlocksInFlight) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize(" + blockSize + ") < 1");
+        }
+        if (maxBlocksInFlight < 1) {
+            throw new IllegalArgumentException("maxBlocksInFlight(" + maxBlocksInFlight + ") < 1");
+        }
+        this.options = (LZMA2Options) options.clone();
+        this.executorService = executorService;
+        this.threads = threads;
+        this.blockSize = blockSize;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+    }
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    int getMaxBlocksInFlight() {
+        return maxBlocksInFlight;
+    }
+
+    LZMA2Options getOptions() {
+        return options;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+}
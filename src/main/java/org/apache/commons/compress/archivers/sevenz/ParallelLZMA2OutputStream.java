@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.archivers.sevenz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.tukaani.xz.FinishableOutputStream;
+import org.tukaani.xz.FinishableWrapperOutputStream;
+import org.tukaani.xz.LZMA2Options;
+
+/**
+ * Raw LZMA2 encoder that compresses blocks of the input on several threads.
+ * <p>
+ * Every block is compressed by its own encoder, so its first chunk resets the dictionary and the state. The chunks of all blocks are written in order without
+ * the end markers of the individual blocks, followed by a single end marker.
+ * </p>
+ *
+ * @NotThreadSafe
+ */
+final class ParallelLZMA2OutputStream extends OutputStream {
+
+    /** The LZMA2 end marker */
+    private static final int END_OF_STREAM = 0x00;
+
+    /** The underlying stream */
+    private final OutputStream out;
+
+    private final ParallelLZMA2Options options;
+
+    /** Compresses blocks on worker threads, created when the first block is full */
+    private OrderedTaskQueue<byte[]> compressorQueue;
+
+    /** The block being filled */
+    private byte[] block;
+
+    /** The number of bytes in the block being filled */
+    private int blockLength;
+
+    /** Indicates if the stream has been finished */
+    private boolean finished;
+
+    ParallelLZMA2OutputStream(final OutputStream out, final ParallelLZMA2Options options) {
+        this.out = out;
+        this.options = options;
+        this.block = new byte[options.getBlockSize()];
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            if (compressorQueue != null) {
+                compressorQueue.close();
+            }
+            out.close();
+        }
+    }
+
+    /**
+     * Compresses a block and returns its chunks without the end marker, runs on a worker thread unless the input fits into a single block.
+     */
+    private byte[] compress(final byte[] input, final int length) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(length / 2 + 1024);
+        final LZMA2Options blockOptions = (LZMA2Options) options.getOptions().clone();
+        try (FinishableOutputStream lzma2 = blockOptions.getOutputStream(new FinishableWrapperOutputStream(bos))) {
+            lzma2.write(input, 0, length);
+        }
+        final byte[] bytes = bos.toByteArray();
+        // every encoder ends its output with the end marker
+        final byte[] chunks = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, chunks, 0, chunks.length);
+        return chunks;
+    }
+
+    private void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (compressorQueue == null) {
+            if (blockLength > 0) {
+                out.write(compress(block, blockLength));
+            }
+        } else {
+            if (blockLength > 0) {
+                submitBlock();
+            }
+            while (!compressorQueue.isEmpty()) {
+                out.write(compressorQueue.take());
+            }
+        }
+        block = null;
+        out.write(END_OF_STREAM);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only flushes the underlying stream, blocks being compressed are written as soon as they are complete.
+     * </p>
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void submitBlock() throws IOException {
+        if (compressorQueue == null) {
+            compressorQueue = options.getExecutorService() != null ? new OrderedTaskQueue<>(options.getExecutorService(), options.getMaxBlocksInFlight())
+                    : new OrderedTaskQueue<>(options.getThreads(), options.getMaxBlocksInFlight());
+        }
+        while (compressorQueue.isFull()) {
+            out.write(compressorQueue.take());
+        }
+        final byte[] input = block;
+        final int length = blockLength;
+        compressorQueue.submit(() -> compress(input, length));
+        block = new byte[input.length];
+        blockLength = 0;
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (finished) {
+            throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
+        }
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int n = Math.min(remaining, block.length - blockLength);
+            System.arraycopy(buffer, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            remaining -= n;
+            if (blockLength == block.length) {
+                submitBlock();
+            }
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) (b & 0xff) }, 0, 1);
+    }
+}
@@ -39,23 +39,29 @@
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedInputStream;
 
 import org.apache.commons.compress.MemoryLimitException;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
 import org.apache.commons.compress.utils.BoundedInputStream;
 import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.CRC32VerifyingInputStream;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.commons.compress.utils.MemoryMappedByteChannel;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.build.AbstractOrigin.ByteArrayOrigin;
 import org.apache.commons.io.build.AbstractStreamBuilder;
+import org.apache.commons.io.function.IOBiConsumer;
 
 /**
  * Reads a 7z file, using SeekableByteChannel under the covers.
@@ -151,6 +157,40 @@ public String toString() {
         }
     }
 
+    /**
+     * Decoded content of solid folders, evicting the least recently used folders once more than a number of bytes is held.
+     */
+    private static final class SolidBlockCache {
+
+        private final long maxBytes;
+
+        private final LinkedHashMap<Integer, byte[]> folders = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long bytes;
+
+        SolidBlockCache(final long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        boolean fits(final long size) {
+            return size <= maxBytes && size <= MAX_CACHED_FOLDER_SIZE;
+        }
+
+        byte[] get(final int folderIndex) {
+            return folders.get(folderIndex);
+        }
+
+        void put(final int folderIndex, final byte[] content) {
+            folders.put(folderIndex, content);
+            bytes += content.length;
+            final Iterator<byte[]> eldest = folders.values().iterator();
+            while (bytes > maxBytes) {
+                bytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
     /**
      * Builds new instances of {@link SevenZFile}.
      *
@@ -168,6 +208,8 @@ public static class Builder extends AbstractStreamBuilder<SevenZFile, Builder> {
         private int maxMemoryLimitKb = MEMORY_LIMIT_IN_KB;
         private boolean useDefaultNameForUnnamedEntries = USE_DEFAULTNAME_FOR_UNNAMED_ENTRIES;
         private boolean tryToRecoverBrokenArchives = TRY_TO_RECOVER_BROKEN_ARCHIVES;
+        private boolean memoryMapped;
+        private long solidBlockCacheSize;
 
         @SuppressWarnings("resource") // Caller closes
         @Override
@@ -186,12 +228,12 @@ public SevenZFile get() throws IOException {
                     openOptions = new OpenOption[] { StandardOpenOption.READ };
                 }
                 final Path path = getPath();
-                actualChannel = Files.newByteChannel(path, openOptions);
+                actualChannel = memoryMapped ? MemoryMappedByteChannel.open(path) : Files.newByteChannel(path, openOptions);
                 actualDescription = path.toAbsolutePath().toString();
             }
             final boolean closeOnError = seekableByteChannel != null;
             return new SevenZFile(actualChannel, actualDescription, password, closeOnError, maxMemoryLimitKb, useDefaultNameForUnnamedEntries,
-                    tryToRecoverBrokenArchives);
+                    tryToRecoverBrokenArchives, solidBlockCacheSize);
         }
 
         /**
@@ -219,6 +261,21 @@ public Builder setMaxMemoryLimitKb(final int maxMemoryLimitKb) {
             return this;
         }
 
+        /**
+         * Sets whether to read an archive given as a File or Path through memory mappings, default is false.
+         * <p>
+         * The archive is read through a {@link MemoryMappedByteChannel}; headers are parsed straight from the mapped file and packed streams are read without
+         * system calls.
+         * </p>
+         *
+         * @param memoryMapped whether to map the archive into memory.
+         * @return this.
+         */
+        public Builder setMemoryMapped(final boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
         /**
          * Sets the password.
          *
@@ -279,6 +336,24 @@ public Builder setTryToRecoverBrokenArchives(final boolean tryToRecoverBrokenArc
             return this;
         }
 
+        /**
+         * Sets the maximum number of bytes of decoded solid blocks kept in memory for {@link SevenZFile#getInputStream(SevenZArchiveEntry)}, default is 0.
+         * <p>
+         * With solid compression the content of several entries is compressed as one block, which has to be decoded from its start to read any of them.
+         * If this size is not 0, {@link SevenZFile#getInputStream(SevenZArchiveEntry)} decodes a whole block at once when it fits in the cache and reads the
+         * entries from the decoded content until the block is evicted, the least recently used blocks are evicted first. This makes reading the entries of
+         * a block in random order as fast as reading them in order, at the cost of the memory of the decoded blocks.
+         * </p>
+         *
+         * @param solidBlockCacheSize the maximum number of bytes held, 0 to disable the cache.
+         * @return this.
+         * @since 1.26.0
+         */
+        public Builder setSolidBlockCacheSize(final long solidBlockCacheSize) {
+            this.solidBlockCacheSize = solidBlockCacheSize;
+            return this;
+        }
+
         /**
          * Sets whether entries without a name should get their names set to the archive's default file name.
          *
@@ -296,6 +371,9 @@ public Builder setUseDefaultNameForUnnamedEntries(final boolean useDefaultNameFo
 
     private static final String DEFAULT_FILE_NAME = "unknown archive";
 
+    /** The largest folder held by the solid block cache. */
+    private static final long MAX_CACHED_FOLDER_SIZE = Integer.MAX_VALUE - 8;
+
     /** Shared with SevenZOutputFile and tests, neither mutates it. */
     static final byte[] sevenZSignature = { // NOSONAR
             (byte) '7', (byte) 'z', (byte) 0xBC, (byte) 0xAF, (byte) 0x27, (byte) 0x1C };
@@ -411,6 +489,10 @@ private static long skipBytesFully(final ByteBuffer input, long bytesToSkip) {
     private long compressedBytesReadFromCurrentEntry;
     private long uncompressedBytesReadFromCurrentEntry;
     private final ArrayList<InputStream> deferredBlockStreams = new ArrayList<>();
+    /** Null if the cache is disabled. */
+    private final SolidBlockCache solidBlockCache;
+    /** Offsets of the entries in their folders, computed once the cache is used. */
+    private long[] entryOffsets;
     private final int maxMemoryLimitKb;
     private final boolean useDefaultNameForUnnamedEntries;
 
@@ -608,13 +690,14 @@ public SevenZFile(final SeekableByteChannel channel, final String fileName, fina
     }
 
     private SevenZFile(final SeekableByteChannel channel, final String fileName, final byte[] password, final boolean closeOnError, final int maxMemoryLimitKb,
-            final boolean useDefaultNameForUnnamedEntries, final boolean tryToRecoverBrokenArchives) throws IOException {
+            final boolean useDefaultNameForUnnamedEntries, final boolean tryToRecoverBrokenArchives, final long solidBlockCacheSize) throws IOException {
         boolean succeeded = false;
         this.channel = channel;
         this.fileName = fileName;
         this.maxMemoryLimitKb = maxMemoryLimitKb;
         this.useDefaultNameForUnnamedEntries = useDefaultNameForUnnamedEntries;
         this.tryToRecoverBrokenArchives = tryToRecoverBrokenArchives;
+        this.solidBlockCache = solidBlockCacheSize > 0 ? new SolidBlockCache(solidBlockCacheSize) : null;
         try {
             archive = readHeaders(password);
             if (password != null) {
@@ -645,7 +728,7 @@ private SevenZFile(final SeekableByteChannel channel, final String fileName, fin
     private SevenZFile(final SeekableByteChannel channel, final String fileName, final byte[] password, final boolean closeOnError,
             final SevenZFileOptions options) throws IOException {
         this(channel, fileName, password, closeOnError, options.getMaxMemoryLimitInKb(), options.getUseDefaultNameForUnnamedEntries(),
-                options.getTryToRecoverBrokenArchives());
+                options.getTryToRecoverBrokenArchives(), 0);
     }
 
     /**
@@ -703,11 +786,28 @@ public SevenZFile(final SeekableByteChannel channel, final String fileName, fina
         this(channel, fileName, null, false, options);
     }
 
+    private InputStream addDecoders(final Folder folder, final InputStream packStream, final SevenZArchiveEntry entry) throws IOException {
+        InputStream inputStreamStack = packStream;
+        final LinkedList<SevenZMethodConfiguration> methods = new LinkedList<>();
+        for (final Coder coder : folder.getOrderedCoders()) {
+            if (coder.numInStreams != 1 || coder.numOutStreams != 1) {
+                throw new IOException("Multi input/output stream coders are not yet supported");
+            }
+            final SevenZMethod method = SevenZMethod.byId(coder.decompressionMethodId);
+            inputStreamStack = Coders.addDecoder(fileName, inputStreamStack, folder.getUnpackSizeForCoder(coder), coder, password, maxMemoryLimitKb);
+            methods.addFirst(new SevenZMethodConfiguration(method, Coders.findByMethod(method).getOptionsFromCoder(coder, inputStreamStack)));
+        }
+        entry.setContentMethods(methods);
+        if (folder.hasCrc) {
+            return new CRC32VerifyingInputStream(inputStreamStack, folder.getUnpackSize(), folder.crc);
+        }
+        return inputStreamStack;
+    }
+
     private InputStream buildDecoderStack(final Folder folder, final long folderOffset, final int firstPackStreamIndex, final SevenZArchiveEntry entry)
             throws IOException {
-        channel.position(folderOffset);
         InputStream inputStreamStack = new FilterInputStream(
-                new BufferedInputStream(new BoundedSeekableByteChannelInputStream(channel, archive.packSizes[firstPackStreamIndex]))) {
+                new BufferedInputStream(new BoundedSeekableByteChannelInputStream(channel, folderOffset, archive.packSizes[firstPackStreamIndex]))) {
             private void count(final int c) {
                 compressedBytesReadFromCurrentEntry += c;
             }
@@ -738,20 +838,7 @@ public int read(final byte[] b, final int off, final int len) throws IOException
                 return r;
             }
         };
-        final LinkedList<SevenZMethodConfiguration> methods = new LinkedList<>();
-        for (final Coder coder : folder.getOrderedCoders()) {
-            if (coder.numInStreams != 1 || coder.numOutStreams != 1) {
-                throw new IOException("Multi input/output stream coders are not yet supported");
-            }
-            final SevenZMethod method = SevenZMethod.byId(coder.decompressionMethodId);
-            inputStreamStack = Coders.addDecoder(fileName, inputStreamStack, folder.getUnpackSizeForCoder(coder), coder, password, maxMemoryLimitKb);
-            methods.addFirst(new SevenZMethodConfiguration(method, Coders.findByMethod(method).getOptionsFromCoder(coder, inputStreamStack)));
-        }
-        entry.setContentMethods(methods);
-        if (folder.hasCrc) {
-            return new CRC32VerifyingInputStream(inputStreamStack, folder.getUnpackSize(), folder.crc);
-        }
-        return inputStreamStack;
+        return addDecoders(folder, inputStreamStack, entry);
     }
 
     /**
@@ -896,6 +983,220 @@ public void close() throws IOException {
         }
     }
 
+    /**
+     * Decodes a folder up to the last accepted entry, runs on a worker thread of {@link #extract(Predicate, IOBiConsumer, OrderedTaskQueue)}.
+     */
+    private void decodeFolder(final int folderIndex, final int lastEntryIndex, final boolean[] accepted,
+            final IOBiConsumer<SevenZArchiveEntry, InputStream> consumer) throws IOException {
+        final Folder folder = archive.folders[folderIndex];
+        final int firstPackStreamIndex = archive.streamMap.folderFirstPackStreamIndex[folderIndex];
+        final long folderOffset = SIGNATURE_HEADER_SIZE + archive.packPos + archive.streamMap.packStreamOffsets[firstPackStreamIndex];
+        final int firstEntryIndex = archive.streamMap.folderFirstFileIndex[folderIndex];
+        final SevenZArchiveEntry firstEntry = archive.files[firstEntryIndex];
+        // every task gets its own view of the channel, the pack stream is read with positional reads
+        final InputStream packStream = new BufferedInputStream(
+                new BoundedSeekableByteChannelInputStream(channel, folderOffset, archive.packSizes[firstPackStreamIndex]));
+        // IOUtils.skip reads into a buffer shared by all threads, but the checksums of skipped content are computed from the buffer
+        final byte[] skipBuffer = new byte[8192];
+        try (InputStream folderStream = addDecoders(folder, packStream, firstEntry)) {
+            for (int i = firstEntryIndex; i <= lastEntryIndex; i++) {
+                final SevenZArchiveEntry entry = archive.files[i];
+                if (!entry.hasStream()) {
+                    if (accepted[i]) {
+                        consumer.accept(entry, new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY));
+                    }
+                    continue;
+                }
+                entry.setContentMethods(firstEntry.getContentMethods());
+                InputStream entryStream = new BoundedInputStream(folderStream, entry.getSize());
+                if (accepted[i]) {
+                    if (entry.getHasCrc()) {
+                        entryStream = new CRC32VerifyingInputStream(entryStream, entry.getSize(), entry.getCrcValue());
+                    }
+                    consumer.accept(entry, entryStream);
+                }
+                org.apache.commons.io.IOUtils.skip(entryStream, Long.MAX_VALUE, () -> skipBuffer);
+            }
+        }
+    }
+
+    /**
+     * Extracts the entries accepted by {@code filter} using the given executor service, which is not shut down by this method.
+     * <p>
+     * Every task decodes one folder, the solid block holding the content of one or more entries, from its start up to the last accepted entry, reading the
+     * archive with positional reads. A folder is decoded at most once, and archives made of several folders are decoded on several threads at the same time.
+     * Folders without accepted entries are not decoded at all.
+     * </p>
+     * <p>
+     * {@code consumer} is called with every accepted entry and a stream of its content, which it doesn't need to close. Entries without content, like
+     * directories, are passed to it on the calling thread before any folder is decoded; all others are passed on the threads of the executor service. Entries
+     * of different folders are passed concurrently, so {@code consumer} has to be thread-safe, entries of one folder are passed in the order they are stored.
+     * Content not read by {@code consumer} is skipped, the CRCs of accepted entries are verified either way.
+     * </p>
+     * <p>
+     * This method doesn't change the position of {@link #getNextEntry()} and {@link #read()}.
+     * </p>
+     *
+     * @param filter             selects the entries to extract.
+     * @param consumer           receives the extracted entries.
+     * @param executorService    the executor service decoding the folders.
+     * @param maxFoldersInFlight the maximum number of folders decoded at the same time.
+     * @throws IOException              if an I/O error occurs, the archive is corrupt or {@code consumer} fails.
+     * @throws IllegalArgumentException if {@code maxFoldersInFlight < 1}.
+     * @since 1.26.0
+     */
+    public void extract(final Predicate<SevenZArchiveEntry> filter, final IOBiConsumer<SevenZArchiveEntry, InputStream> consumer,
+            final ExecutorService executorService, final int maxFoldersInFlight) throws IOException {
+        try (OrderedTaskQueue<Void> tasks = new OrderedTaskQueue<>(executorService, maxFoldersInFlight)) {
+            extract(filter, consumer, tasks);
+        }
+    }
+
+    /**
+     * Extracts the entries accepted by {@code filter} using {@code threads} threads of its own.
+     * <p>
+     * See {@link #extract(Predicate, IOBiConsumer, ExecutorService, int)}, at most {@code threads} folders are decoded at the same time.
+     * </p>
+     *
+     * @param filter   selects the entries to extract.
+     * @param consumer receives the extracted entries.
+     * @param threads  the number of threads decoding folders.
+     * @throws IOException              if an I/O error occurs, the archive is corrupt or {@code consumer} fails.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     * @since 1.26.0
+     */
+    public void extract(final Predicate<SevenZArchiveEntry> filter, final IOBiConsumer<SevenZArchiveEntry, InputStream> consumer, final int threads)
+            throws IOException {
+        try (OrderedTaskQueue<Void> tasks = new OrderedTaskQueue<>(threads, threads)) {
+            extract(filter, consumer, tasks);
+        }
+    }
+
+    private void extract(final Predicate<SevenZArchiveEntry> filter, final IOBiConsumer<SevenZArchiveEntry, InputStream> consumer,
+            final OrderedTaskQueue<Void> tasks) throws IOException {
+        if (archive.streamMap == null) {
+            throw new IOException("Archive doesn't contain stream information to read entries");
+        }
+        final SevenZArchiveEntry[] files = archive.files;
+        final boolean[] accepted = new boolean[files.length];
+        final int numFolders = archive.folders != null ? archive.folders.length : 0;
+        final int[] lastAcceptedEntryIndex = new int[numFolders];
+        Arrays.fill(lastAcceptedEntryIndex, -1);
+        for (int i = 0; i < files.length; i++) {
+            final SevenZArchiveEntry entry = files[i];
+            if (entry.getName() == null && useDefaultNameForUnnamedEntries) {
+                entry.setName(getDefaultName());
+            }
+            accepted[i] = filter.test(entry);
+            final int folderIndex = archive.streamMap.fileFolderIndex[i];
+            if (accepted[i] && folderIndex >= 0) {
+                lastAcceptedEntryIndex[folderIndex] = i;
+            }
+        }
+        for (int i = 0; i < files.length; i++) {
+            if (accepted[i] && archive.streamMap.fileFolderIndex[i] < 0) {
+                consumer.accept(files[i], new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY));
+            }
+        }
+        try {
+            for (int folderIndex = 0; folderIndex < numFolders; folderIndex++) {
+                final int index = folderIndex;
+                if (lastAcceptedEntryIndex[index] >= 0) {
+                    while (tasks.isFull()) {
+                        tasks.take();
+                    }
+                    tasks.submit(() -> {
+                        decodeFolder(index, lastAcceptedEntryIndex[index], accepted, consumer);
+                        return null;
+                    });
+                }
+            }
+            while (!tasks.isEmpty()) {
+                tasks.take();
+            }
+        } catch (final IOException | RuntimeException e) {
+            // wait for the other folders so consumer isn't called after this method returned
+            while (!tasks.isEmpty()) {
+                try {
+                    tasks.take();
+                } catch (final IOException | RuntimeException suppressed) {
+                    if (suppressed != e) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads an entry of a solid folder from the solid block cache, decoding the whole folder if it isn't cached yet.
+     *
+     * @return null if the folder can't be cached.
+     */
+    private InputStream getCachedInputStream(final int entryIndex) throws IOException {
+        if (archive.streamMap == null) {
+            return null;
+        }
+        final int folderIndex = archive.streamMap.fileFolderIndex[entryIndex];
+        if (folderIndex < 0) {
+            return null;
+        }
+        final Folder folder = archive.folders[folderIndex];
+        final long unpackSize = folder.getUnpackSize();
+        if (folder.numUnpackSubStreams < 2 || !solidBlockCache.fits(unpackSize)) {
+            return null;
+        }
+        final SevenZArchiveEntry firstFile = archive.files[archive.streamMap.folderFirstFileIndex[folderIndex]];
+        byte[] content = solidBlockCache.get(folderIndex);
+        if (content == null) {
+            final int firstPackStreamIndex = archive.streamMap.folderFirstPackStreamIndex[folderIndex];
+            final long folderOffset = SIGNATURE_HEADER_SIZE + archive.packPos + archive.streamMap.packStreamOffsets[firstPackStreamIndex];
+            content = new byte[(int) unpackSize];
+            try (InputStream folderStream = buildDecoderStack(folder, folderOffset, firstPackStreamIndex, firstFile)) {
+                if (IOUtils.readFully(folderStream, content) != content.length) {
+                    throw new IOException("Truncated 7z folder " + folderIndex);
+                }
+            }
+            solidBlockCache.put(folderIndex, content);
+        }
+        if (entryOffsets == null) {
+            entryOffsets = new long[archive.files.length];
+            long offset = 0;
+            for (int i = 0; i < archive.files.length; i++) {
+                final int fileFolderIndex = archive.streamMap.fileFolderIndex[i];
+                if (fileFolderIndex >= 0 && archive.streamMap.folderFirstFileIndex[fileFolderIndex] == i) {
+                    offset = 0;
+                }
+                entryOffsets[i] = offset;
+                if (archive.files[i].hasStream()) {
+                    offset += archive.files[i].getSize();
+                }
+            }
+        }
+        final SevenZArchiveEntry file = archive.files[entryIndex];
+        file.setContentMethods(firstFile.getContentMethods());
+        final int start = (int) entryOffsets[entryIndex];
+        final int end = start + (int) file.getSize();
+        if (start < 0 || end < start || end > content.length) {
+            throw new IOException("Entry " + file.getName() + " exceeds its 7z folder");
+        }
+        InputStream fileStream = new ByteArrayInputStream(content, start, end - start);
+        if (file.getHasCrc()) {
+            fileStream = new CRC32VerifyingInputStream(fileStream, file.getSize(), file.getCrcValue());
+        }
+        // sequential access goes on after this entry, like after entries read without the cache
+        deferredBlockStreams.clear();
+        deferredBlockStreams.add(fileStream);
+        if (currentFolderInputStream != null) {
+            currentFolderInputStream.close();
+        }
+        currentFolderInputStream = new ByteArrayInputStream(content, end, content.length - end);
+        currentEntryIndex = entryIndex;
+        currentFolderIndex = folderIndex;
+        return fileStream;
+    }
+
     private InputStream getCurrentStream() throws IOException {
         if (archive.files[currentEntryIndex].getSize() == 0) {
             return new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY);
@@ -961,7 +1262,8 @@ public Iterable<SevenZArchiveEntry> getEntries() {
     /**
      * Gets an InputStream for reading the contents of the given entry.
      * <p>
-     * For archives using solid compression randomly accessing entries will be significantly slower than reading the archive sequentially.
+     * For archives using solid compression randomly accessing entries will be significantly slower than reading the archive sequentially, unless a solid
+     * block cache has been set up with {@link Builder#setSolidBlockCacheSize(long)}.
      * </p>
      *
      * @param entry the entry to get the stream for.
@@ -982,6 +1284,12 @@ public InputStream getInputStream(final SevenZArchiveEntry entry) throws IOExcep
             throw new IllegalArgumentException("Can not find " + entry.getName() + " in " + this.fileName);
         }
 
+        if (solidBlockCache != null) {
+            final InputStream cached = getCachedInputStream(entryIndex);
+            if (cached != null) {
+                return cached;
+            }
+        }
         buildDecodingStream(entryIndex, true);
         currentEntryIndex = entryIndex;
         currentFolderIndex = archive.streamMap.fileFolderIndex[entryIndex];
@@ -1055,21 +1363,35 @@ private boolean hasCurrentEntryBeenRead() {
     private Archive initializeArchive(final StartHeader startHeader, final byte[] password, final boolean verifyCrc) throws IOException {
         assertFitsIntoNonNegativeInt("nextHeaderSize", startHeader.nextHeaderSize);
         final int nextHeaderSizeInt = (int) startHeader.nextHeaderSize;
-        channel.position(SIGNATURE_HEADER_SIZE + startHeader.nextHeaderOffset);
-        if (verifyCrc) {
-            final long position = channel.position();
-            final CheckedInputStream cis = new CheckedInputStream(Channels.newInputStream(channel), new CRC32());
-            if (cis.skip(nextHeaderSizeInt) != nextHeaderSizeInt) {
-                throw new IOException("Problem computing NextHeader CRC-32");
+        ByteBuffer buf;
+        if (channel instanceof MemoryMappedByteChannel) {
+            // parse the header straight from the mapped file
+            buf = ((MemoryMappedByteChannel) channel).slice(SIGNATURE_HEADER_SIZE + startHeader.nextHeaderOffset, nextHeaderSizeInt)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (verifyCrc) {
+                final CRC32 crc = new CRC32();
+                crc.update(buf.duplicate());
+                if (startHeader.nextHeaderCrc != crc.getValue()) {
+                    throw new IOException("NextHeader CRC-32 mismatch");
+                }
             }
-            if (startHeader.nextHeaderCrc != cis.getChecksum().getValue()) {
-                throw new IOException("NextHeader CRC-32 mismatch");
+        } else {
+            channel.position(SIGNATURE_HEADER_SIZE + startHeader.nextHeaderOffset);
+            if (verifyCrc) {
+                final long position = channel.position();
+                final CheckedInputStream cis = new CheckedInputStream(Channels.newInputStream(channel), new CRC32());
+                if (cis.skip(nextHeaderSizeInt) != nextHeaderSizeInt) {
+                    throw new IOException("Problem computing NextHeader CRC-32");
+                }
+                if (startHeader.nextHeaderCrc != cis.getChecksum().getValue()) {
+                    throw new IOException("NextHeader CRC-32 mismatch");
+                }
+                channel.position(position);
             }
-            channel.position(position);
+            buf = ByteBuffer.allocate(nextHeaderSizeInt).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(buf);
         }
         Archive archive = new Archive();
-        ByteBuffer buf = ByteBuffer.allocate(nextHeaderSizeInt).order(ByteOrder.LITTLE_ENDIAN);
-        readFully(buf);
         int nid = getUnsignedByte(buf);
         if (nid == NID.kEncodedHeader) {
             buf = readEncodedHeader(buf, archive, password);
@@ -1191,8 +1513,7 @@ private ByteBuffer readEncodedHeader(final ByteBuffer header, final Archive arch
         final int firstPackStreamIndex = 0;
         final long folderOffset = SIGNATURE_HEADER_SIZE + archive.packPos + 0;
 
-        channel.position(folderOffset);
-        InputStream inputStreamStack = new BoundedSeekableByteChannelInputStream(channel, archive.packSizes[firstPackStreamIndex]);
+        InputStream inputStreamStack = new BoundedSeekableByteChannelInputStream(channel, folderOffset, archive.packSizes[firstPackStreamIndex]);
         for (final Coder coder : folder.getOrderedCoders()) {
             if (coder.numInStreams != 1 || coder.numOutStreams != 1) {
                 throw new IOException("Multi input/output stream coders are not yet supported");
@@ -1537,7 +1858,7 @@ private StartHeader readStartHeader(final long startHeaderCrc) throws IOExceptio
         // using Stream rather than ByteBuffer for the benefit of the
         // built-in CRC check
         try (DataInputStream dataInputStream = new DataInputStream(
-                new CRC32VerifyingInputStream(new BoundedSeekableByteChannelInputStream(channel, 20), 20, startHeaderCrc))) {
+                new CRC32VerifyingInputStream(new BoundedSeekableByteChannelInputStream(channel, channel.position(), 20), 20, startHeaderCrc))) {
             final long nextHeaderOffset = Long.reverseBytes(dataInputStream.readLong());
             if (nextHeaderOffset < 0 || nextHeaderOffset + SIGNATURE_HEADER_SIZE > channel.size()) {
                 throw new IOException("nextHeaderOffset is out of bounds");
@@ -53,6 +53,11 @@
  * <td>Whole set of LZMA2 options.</td>
  * </tr>
  * <tr>
+ * <td>LZMA2</td>
+ * <td>{@link ParallelLZMA2Options}</td>
+ * <td>Whole set of LZMA2 options, compressing blocks of every entry on several threads (since 1.26.0).</td>
+ * </tr>
+ * <tr>
  * <td>DELTA_FILTER</td>
  * <td>Number</td>
  * <td>Delta Distance - a number between 1 and 256</td>
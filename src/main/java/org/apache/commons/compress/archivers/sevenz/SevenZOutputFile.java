@@ -46,22 +46,59 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.zip.CRC32;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.zip.DefaultBackingStoreSupplier;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStoreSupplier;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.file.attribute.FileTimes;
 import org.apache.commons.io.output.CountingOutputStream;
 
 /**
  * Writes a 7z file.
+ * <p>
+ * Every entry with content is compressed into a folder of its own, so entries are independent of each other. After a call to one of the
+ * {@code setParallelCompression} methods, the entries added with {@link #addArchiveEntry(SevenZArchiveEntry, InputStreamSupplier)} are compressed
+ * concurrently into {@link ScatterGatherBackingStore}s and appended to the archive in the order they have been added.
+ * </p>
  *
  * @since 1.6
  */
 public class SevenZOutputFile implements Closeable {
 
+    /**
+     * An entry compressed by {@link SevenZOutputFile#compress(SevenZArchiveEntry, Iterable, InputStreamSupplier)}.
+     */
+    private static final class CompressedEntry {
+
+        private final SevenZArchiveEntry entry;
+
+        /** The compressed content, null if the entry is empty. */
+        private ScatterGatherBackingStore store;
+
+        private long size;
+
+        /** The size of the content of the backing store. */
+        private long storedSize;
+
+        private long crc;
+
+        /** The sizes counted between the encoders. */
+        private long[] additionalSizes;
+
+        CompressedEntry(final SevenZArchiveEntry entry) {
+            this.entry = entry;
+        }
+    }
+
     private final class OutputStreamWrapper extends OutputStream {
 
         private static final int BUF_SIZE = 8192;
@@ -125,6 +162,8 @@ private static <T> Iterable<T> reverse(final Iterable<T> i) {
     private Iterable<? extends SevenZMethodConfiguration> contentMethods = Collections.singletonList(new SevenZMethodConfiguration(SevenZMethod.LZMA2));
     private final Map<SevenZArchiveEntry, long[]> additionalSizes = new HashMap<>();
     private AES256Options aes256Options;
+    private OrderedTaskQueue<CompressedEntry> compressionQueue;
+    private ScatterGatherBackingStoreSupplier backingStoreSupplier;
 
     /**
      * Opens file to write a 7z archive to.
@@ -184,6 +223,134 @@ public SevenZOutputFile(final SeekableByteChannel channel, final char[] password
         }
     }
 
+    /**
+     * Adds an archive entry with the content provided by {@code source}.
+     * <p>
+     * If parallel compression has been set up, the content is compressed on a thread of the executor service and appended to the archive once all entries
+     * added before have been appended, this method only blocks while the maximum number of entries is in flight. Otherwise the content is compressed
+     * right away, like {@link #putArchiveEntry(SevenZArchiveEntry)}, {@link #write(InputStream)} and {@link #closeArchiveEntry()} would.
+     * </p>
+     * <p>
+     * The content methods are the ones of the entry or the ones set for this archive when this method is called. This method must not be called while an
+     * entry added with {@link #putArchiveEntry(SevenZArchiveEntry)} hasn't been closed.
+     * </p>
+     *
+     * @param entry  describes the entry.
+     * @param source supplies the content of the entry, the stream is closed once it has been read.
+     * @throws IOException if an I/O error occurs while appending entries to the archive.
+     * @since 1.26.0
+     */
+    public void addArchiveEntry(final SevenZArchiveEntry entry, final InputStreamSupplier source) throws IOException {
+        if (compressionQueue == null) {
+            putArchiveEntry(entry);
+            try (InputStream in = source.get()) {
+                write(in);
+            }
+            closeArchiveEntry();
+            return;
+        }
+        files.add(entry);
+        // encryption is done while appending as the cipher can't be shared between threads
+        final Iterable<? extends SevenZMethodConfiguration> ms = entry.getContentMethods();
+        final Iterable<? extends SevenZMethodConfiguration> methods = ms == null ? contentMethods : ms;
+        try {
+            while (compressionQueue.isFull()) {
+                append(compressionQueue.take());
+            }
+        } catch (final IOException | RuntimeException e) {
+            discardCompressedEntries(e);
+            throw e;
+        }
+        compressionQueue.submit(() -> compress(entry, methods, source));
+    }
+
+    private OutputStream addEncoders(final OutputStream out, final Iterable<? extends SevenZMethodConfiguration> methods,
+            final List<CountingOutputStream> moreStreams) throws IOException {
+        OutputStream encoder = out;
+        boolean first = true;
+        for (final SevenZMethodConfiguration m : methods) {
+            if (!first) {
+                final CountingOutputStream cos = new CountingOutputStream(encoder);
+                moreStreams.add(cos);
+                encoder = cos;
+            }
+            encoder = Coders.addEncoder(encoder, m.getMethod(), m.getOptions());
+            first = false;
+        }
+        return encoder;
+    }
+
+    /**
+     * Appends an entry compressed in parallel to the archive, runs on the calling thread.
+     */
+    private void append(final CompressedEntry compressed) throws IOException {
+        final SevenZArchiveEntry entry = compressed.entry;
+        if (compressed.store == null) {
+            entry.setHasStream(false);
+            entry.setSize(0);
+            entry.setCompressedSize(0);
+            entry.setHasCrc(false);
+            return;
+        }
+        final CRC32 compressedCrc = new CRC32();
+        final CountingOutputStream channelStream = new CountingOutputStream(new OutputStream() {
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                final ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
+                }
+                compressedCrc.update(b, off, len);
+            }
+
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+        });
+        try (ScatterGatherBackingStore store = compressed.store;
+                InputStream in = store.getInputStream();
+                OutputStream out = aes256Options == null ? channelStream : Coders.addEncoder(channelStream, SevenZMethod.AES256SHA256, aes256Options)) {
+            IOUtils.copy(in, out);
+        }
+        entry.setHasStream(true);
+        ++numNonEmptyStreams;
+        entry.setSize(compressed.size);
+        entry.setCompressedSize(channelStream.getByteCount());
+        entry.setCrcValue(compressed.crc);
+        entry.setCompressedCrcValue(compressedCrc.getValue());
+        entry.setHasCrc(true);
+        long[] sizes = compressed.additionalSizes;
+        if (aes256Options != null) {
+            // the size of the content of the encryption like sequentially written entries record it
+            final long[] withEncryption = new long[sizes == null ? 1 : sizes.length + 1];
+            withEncryption[0] = compressed.storedSize;
+            if (sizes != null) {
+                System.arraycopy(sizes, 0, withEncryption, 1, sizes.length);
+            }
+            sizes = withEncryption;
+        }
+        if (sizes != null) {
+            additionalSizes.put(entry, sizes);
+        }
+    }
+
+    /**
+     * Appends all entries compressed in parallel, waiting for the ones still in flight.
+     */
+    private void appendCompressedEntries() throws IOException {
+        if (compressionQueue != null) {
+            try {
+                while (!compressionQueue.isEmpty()) {
+                    append(compressionQueue.take());
+                }
+            } catch (final IOException | RuntimeException e) {
+                discardCompressedEntries(e);
+                throw e;
+            }
+        }
+    }
+
     /**
      * Closes the archive, calling {@link #finish} if necessary.
      *
@@ -196,7 +363,13 @@ public void close() throws IOException {
                 finish();
             }
         } finally {
-            channel.close();
+            try {
+                if (compressionQueue != null) {
+                    compressionQueue.close();
+                }
+            } finally {
+                channel.close();
+            }
         }
     }
 
@@ -238,6 +411,58 @@ public void closeArchiveEntry() throws IOException {
         fileBytesWritten = 0;
     }
 
+    /**
+     * Compresses an entry into a backing store, runs on a thread of the executor service.
+     */
+    private CompressedEntry compress(final SevenZArchiveEntry entry, final Iterable<? extends SevenZMethodConfiguration> methods,
+            final InputStreamSupplier source) throws IOException {
+        final CompressedEntry compressed = new CompressedEntry(entry);
+        try (InputStream in = source.get()) {
+            final byte[] buffer = new byte[8192];
+            int n = in.read(buffer);
+            // like for sequentially written entries, no encoder is created for empty entries
+            if (n == -1) {
+                return compressed;
+            }
+            final ScatterGatherBackingStore store = backingStoreSupplier.get();
+            compressed.store = store;
+            final CountingOutputStream storeStream = new CountingOutputStream(new OutputStream() {
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    store.writeOut(b, off, len);
+                }
+
+                @Override
+                public void write(final int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+            });
+            final List<CountingOutputStream> moreStreams = new ArrayList<>();
+            final CRC32 crc = new CRC32();
+            long size = 0;
+            try (OutputStream out = addEncoders(storeStream, methods, moreStreams)) {
+                do {
+                    out.write(buffer, 0, n);
+                    crc.update(buffer, 0, n);
+                    size += n;
+                } while (-1 != (n = in.read(buffer)));
+            }
+            store.closeForWriting();
+            compressed.size = size;
+            compressed.storedSize = storeStream.getByteCount();
+            compressed.crc = crc.getValue();
+            if (!moreStreams.isEmpty()) {
+                compressed.additionalSizes = moreStreams.stream().mapToLong(CountingOutputStream::getByteCount).toArray();
+            }
+            return compressed;
+        } catch (final IOException | RuntimeException e) {
+            if (compressed.store != null) {
+                compressed.store.close();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Creates an archive entry using the inputFile and entryName provided.
      *
@@ -283,8 +508,29 @@ private void fillDates(final Path inputPath, final SevenZArchiveEntry entry, fin
         entry.setAccessTime(attributes.lastAccessTime());
     }
 
+    /**
+     * Waits for the entries still in flight after a failure and releases their backing stores, their failures are suppressed by {@code cause}.
+     */
+    private void discardCompressedEntries(final Throwable cause) {
+        while (!compressionQueue.isEmpty()) {
+            try {
+                final CompressedEntry compressed = compressionQueue.take();
+                if (compressed.store != null) {
+                    compressed.store.close();
+                }
+            } catch (final IOException | RuntimeException e) {
+                if (e != cause) {
+                    cause.addSuppressed(e);
+                }
+            }
+        }
+    }
+
     /**
      * Finishes the addition of entries to this archive, without closing it.
+     * <p>
+     * Entries compressed in parallel are appended to the archive before its header is written.
+     * </p>
      *
      * @throws IOException if archive is already closed.
      */
@@ -293,6 +539,7 @@ public void finish() throws IOException {
             throw new IOException("This archive has already been finished");
         }
         finished = true;
+        appendCompressedEntries();
 
         final long headerPosition = channel.position();
 
@@ -349,6 +596,8 @@ private Iterable<? extends SevenZMethodConfiguration> getContentMethods(final Se
      */
     private OutputStream getCurrentOutputStream() throws IOException {
         if (currentOutputStream == null) {
+            // the content of entries compressed in parallel comes first
+            appendCompressedEntries();
             currentOutputStream = setupFileOutputStream();
         }
         return currentOutputStream;
@@ -379,11 +628,74 @@ public void putArchiveEntry(final SevenZArchiveEntry archiveEntry) {
         files.add(archiveEntry);
     }
 
+    /**
+     * Sets up compressing the entries added with {@link #addArchiveEntry(SevenZArchiveEntry, InputStreamSupplier)} on the given executor service, which is
+     * not shut down by this class.
+     * <p>
+     * The compressed content of the entries is held in temporary files until it is appended to the archive.
+     * </p>
+     *
+     * @param executorService    the executor service compressing the entries.
+     * @param maxEntriesInFlight the maximum number of entries compressed or waiting to be appended.
+     * @throws IllegalArgumentException if {@code maxEntriesInFlight < 1}.
+     * @throws IllegalStateException    if parallel compression has already been set up.
+     * @since 1.26.0
+     */
+    public void setParallelCompression(final ExecutorService executorService, final int maxEntriesInFlight) {
+        setParallelCompression(executorService, maxEntriesInFlight, new DefaultBackingStoreSupplier(null));
+    }
+
+    /**
+     * Sets up compressing the entries added with {@link #addArchiveEntry(SevenZArchiveEntry, InputStreamSupplier)} on the given executor service, which is
+     * not shut down by this class.
+     *
+     * @param executorService      the executor service compressing the entries.
+     * @param maxEntriesInFlight   the maximum number of entries compressed or waiting to be appended.
+     * @param backingStoreSupplier supplies the backing stores holding the compressed content of the entries until it is appended to the archive.
+     * @throws IllegalArgumentException if {@code maxEntriesInFlight < 1}.
+     * @throws IllegalStateException    if parallel compression has already been set up.
+     * @since 1.26.0
+     */
+    public void setParallelCompression(final ExecutorService executorService, final int maxEntriesInFlight,
+            final ScatterGatherBackingStoreSupplier backingStoreSupplier) {
+        setParallelCompression(new OrderedTaskQueue<>(executorService, maxEntriesInFlight), backingStoreSupplier);
+    }
+
+    /**
+     * Sets up compressing the entries added with {@link #addArchiveEntry(SevenZArchiveEntry, InputStreamSupplier)} on {@code threads} threads of its own,
+     * which are stopped when this archive is closed.
+     * <p>
+     * At most {@code 2 * threads} entries are compressed or waiting to be appended, their compressed content is held in temporary files.
+     * </p>
+     *
+     * @param threads the number of threads compressing entries.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     * @throws IllegalStateException    if parallel compression has already been set up.
+     * @since 1.26.0
+     */
+    public void setParallelCompression(final int threads) {
+        if (compressionQueue != null) {
+            throw new IllegalStateException("Parallel compression has already been set up");
+        }
+        setParallelCompression(new OrderedTaskQueue<>(threads, 2 * threads), new DefaultBackingStoreSupplier(null));
+    }
+
+    private void setParallelCompression(final OrderedTaskQueue<CompressedEntry> compressionQueue,
+            final ScatterGatherBackingStoreSupplier backingStoreSupplier) {
+        if (this.compressionQueue != null) {
+            compressionQueue.close();
+            throw new IllegalStateException("Parallel compression has already been set up");
+        }
+        this.compressionQueue = compressionQueue;
+        this.backingStoreSupplier = backingStoreSupplier;
+    }
+
     /**
      * Sets the default compression method to use for entry contents - the default is LZMA2.
      *
      * <p>
-     * Currently only {@link SevenZMethod#COPY}, {@link SevenZMethod#LZMA2}, {@link SevenZMethod#BZIP2} and {@link SevenZMethod#DEFLATE} are supported.
+     * Currently only {@link SevenZMethod#COPY}, {@link SevenZMethod#LZMA2}, {@link SevenZMethod#BZIP2}, {@link SevenZMethod#DEFLATE} and
+     * {@link SevenZMethod#DEFLATE64} are supported.
      * </p>
      *
      * <p>
@@ -400,7 +712,8 @@ public void setContentCompression(final SevenZMethod method) {
      * Sets the default (compression) methods to use for entry contents - the default is LZMA2.
      *
      * <p>
-     * Currently only {@link SevenZMethod#COPY}, {@link SevenZMethod#LZMA2}, {@link SevenZMethod#BZIP2} and {@link SevenZMethod#DEFLATE} are supported.
+     * Currently only {@link SevenZMethod#COPY}, {@link SevenZMethod#LZMA2}, {@link SevenZMethod#BZIP2}, {@link SevenZMethod#DEFLATE} and
+     * {@link SevenZMethod#DEFLATE64} are supported.
      * </p>
      *
      * <p>
@@ -420,18 +733,8 @@ private CountingOutputStream setupFileOutputStream() throws IOException {
         }
 
         // doesn't need to be closed, just wraps the instance field channel
-        OutputStream out = new OutputStreamWrapper(); // NOSONAR
         final ArrayList<CountingOutputStream> moreStreams = new ArrayList<>();
-        boolean first = true;
-        for (final SevenZMethodConfiguration m : getContentMethods(files.get(files.size() - 1))) {
-            if (!first) {
-                final CountingOutputStream cos = new CountingOutputStream(out);
-                moreStreams.add(cos);
-                out = cos;
-            }
-            out = Coders.addEncoder(out, m.getMethod(), m.getOptions());
-            first = false;
-        }
+        final OutputStream out = addEncoders(new OutputStreamWrapper(), getContentMethods(files.get(files.size() - 1)), moreStreams); // NOSONAR
         if (!moreStreams.isEmpty()) {
             additionalCountingStreams = moreStreams.toArray(new CountingOutputStream[0]);
         }
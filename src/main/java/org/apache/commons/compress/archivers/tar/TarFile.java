@@ -38,6 +38,8 @@
 import org.apache.commons.compress.utils.BoundedArchiveInputStream;
 import org.apache.commons.compress.utils.BoundedInputStream;
 import org.apache.commons.compress.utils.BoundedSeekableByteChannelInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.MemoryMappedByteChannel;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 
 /**
@@ -92,8 +94,7 @@ protected int read(final long pos, final ByteBuffer buf) throws IOException {
         }
 
         private int readArchive(final long pos, final ByteBuffer buf) throws IOException {
-            channel.position(pos);
-            return channel.read(buf);
+            return IOUtils.read(channel, buf, pos);
         }
 
         private int readSparse(final long pos, final ByteBuffer buf, final int numToRead) throws IOException {
@@ -396,6 +397,45 @@ public List<TarArchiveEntry> getEntries() {
         return new ArrayList<>(entries);
     }
 
+    /**
+     * Gets the content of the provided Tar Archive Entry as a read-only buffer.
+     * <p>
+     * If the archive is read through a {@link MemoryMappedByteChannel}, the buffer is a view of the mapped file and the content isn't copied at all, except
+     * for sparse entries. Otherwise the content is read into a new heap buffer.
+     * </p>
+     *
+     * @param entry Entry to get the content of.
+     * @return a read-only buffer holding the content of the entry.
+     * @throws IOException Corrupted TAR archive, the content can't be read or is too big for a buffer.
+     * @since 1.26.0
+     */
+    public ByteBuffer getByteBuffer(final TarArchiveEntry entry) throws IOException {
+        final long size = entry.getRealSize();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Content of entry " + entry.getName() + " is too big for a buffer: " + size);
+        }
+        if (entry.isSparse()) {
+            try (InputStream in = getInputStream(entry)) {
+                final byte[] content = IOUtils.readRange(in, (int) size);
+                if (content.length < size) {
+                    throw new IOException("Truncated TAR archive");
+                }
+                return ByteBuffer.wrap(content).asReadOnlyBuffer();
+            }
+        }
+        final long start = entry.getDataOffset();
+        if (start < 0 || start + size < start || start + size > archive.size()) {
+            throw new IOException("Corrupted TAR archive. Can't read entry");
+        }
+        if (archive instanceof MemoryMappedByteChannel) {
+            return ((MemoryMappedByteChannel) archive).slice(start, (int) size);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        IOUtils.readFully(archive, buffer, start);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
     /**
      * Gets the input stream for the provided Tar Archive Entry.
      *
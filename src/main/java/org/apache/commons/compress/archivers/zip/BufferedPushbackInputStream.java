@@ -0,0 +1,176 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the wrapped stream in large chunks and allows bytes to be given back, used by {@link ZipArchiveInputStream} instead of a
+ * {@link java.io.PushbackInputStream}.
+ * <p>
+ * The {@link Inflater} is fed directly from the read buffer, bytes it didn't consume are given back by moving the read position rather than copying them.
+ * Only the inflater reads ahead, other reads take no more bytes from the wrapped stream than requested once the buffer has been drained, so the wrapped
+ * stream isn't consumed beyond the end of the archive.
+ * </p>
+ *
+ * @NotThreadSafe
+ */
+final class BufferedPushbackInputStream extends FilterInputStream {
+
+    private byte[] buffer;
+
+    /** Position of the next byte to read from {@link #buffer}. */
+    private int position;
+
+    /** Number of valid bytes in {@link #buffer}. */
+    private int limit;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param in         the stream to read from.
+     * @param bufferSize the size of the read buffer.
+     * @throws IllegalArgumentException if bufferSize is not positive.
+     */
+    BufferedPushbackInputStream(final InputStream in, final int bufferSize) {
+        super(in);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public int available() throws IOException {
+        return limit - position + in.available();
+    }
+
+    /**
+     * Hands all buffered bytes to the inflater, reading more from the wrapped stream if the buffer is empty. The bytes count as read.
+     *
+     * @param inflater the inflater to set the input of.
+     * @param maxRead  the maximum number of bytes to read from the wrapped stream if the buffer is empty.
+     * @return the number of bytes handed to the inflater, -1 at the end of the wrapped stream.
+     * @throws IOException if reading fails.
+     */
+    int fill(final Inflater inflater, final long maxRead) throws IOException {
+        final int length = fillBuffer(maxRead);
+        if (length > 0) {
+            inflater.setInput(buffer, position, length);
+            position = limit;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of buffered bytes, reads at most {@code maxRead} bytes from the wrapped stream if there are none.
+     */
+    private int fillBuffer(final long maxRead) throws IOException {
+        if (position < limit) {
+            return limit - position;
+        }
+        final int length = in.read(buffer, 0, (int) Math.min(buffer.length, maxRead));
+        if (length > 0) {
+            position = 0;
+            limit = length;
+        }
+        return length;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (fillBuffer(1) <= 0) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == limit && len >= buffer.length) {
+            return in.read(b, off, len);
+        }
+        final int available = fillBuffer(len);
+        if (available <= 0) {
+            return available;
+        }
+        final int length = Math.min(available, len);
+        System.arraycopy(buffer, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    /**
+     * Gives back the last bytes read from the buffer, they are returned again by the next read.
+     *
+     * @param length the number of bytes to give back, at most the number of bytes read from the current buffer.
+     * @throws IllegalStateException if fewer bytes have been read from the current buffer.
+     */
+    void rewind(final int length) {
+        if (length > position) {
+            throw new IllegalStateException("Cannot rewind " + length + " bytes, only " + position + " have been read from the buffer");
+        }
+        position -= length;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n <= 0 || fillBuffer(n) <= 0) {
+            return 0;
+        }
+        final int length = (int) Math.min(n, limit - position);
+        position += length;
+        return length;
+    }
+
+    /**
+     * Pushes back bytes so they are returned again by the next read.
+     *
+     * @param b      the array holding the bytes.
+     * @param off    the position of the first byte.
+     * @param length the number of bytes to push back.
+     */
+    void unread(final byte[] b, final int off, final int length) {
+        if (length <= position) {
+            position -= length;
+        } else {
+            final int remaining = limit - position;
+            if (length + remaining > buffer.length) {
+                final byte[] grown = new byte[length + remaining];
+                System.arraycopy(buffer, position, grown, length, remaining);
+                buffer = grown;
+            } else {
+                System.arraycopy(buffer, position, buffer, length, remaining);
+            }
+            position = 0;
+            limit = length + remaining;
+        }
+        System.arraycopy(b, off, buffer, position, length);
+    }
+}
@@ -19,11 +19,14 @@
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
+import org.apache.commons.compress.utils.IOUtils;
+
 /**
  * {@link RandomAccessOutputStream} implementation based on a file.
  */
@@ -60,6 +63,12 @@ public synchronized long position() {
         return position;
     }
 
+    @Override
+    synchronized void transferFrom(final SeekableByteChannel source, final long position, final long length) throws IOException {
+        IOUtils.copyRange(source, position, length, channel);
+        this.position += length;
+    }
+
     @Override
     public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
         ZipIoUtil.writeFully(this.channel, ByteBuffer.wrap(b, off, len));
@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.utils.ArchiveUtils;
+import org.apache.commons.compress.utils.CharsetNames;
+import org.apache.commons.compress.utils.InputStreamStatistics;
+
+/**
+ * Reads a ZIP archive from a stream like {@link ZipArchiveInputStream} does, inflating several entries in parallel.
+ * <p>
+ * When asked for an entry, this stream parses the local file headers ahead of the entry handed out and reads the compressed data of every STORED or DEFLATED
+ * entry whose sizes are part of its local file header into memory. Worker threads inflate these entries and verify their CRC-32 checksum while the client
+ * reads the entries before them, entries and their content are handed out in the order of the archive. At most {@code maxEntriesInFlight} entries are read
+ * ahead, and only entries whose compressed and uncompressed sizes don't exceed {@code maxBufferedEntrySize} are held in memory.
+ * </p>
+ * <p>
+ * Entries using a data descriptor, other compression methods, encrypted entries and entries too big to be held in memory are read by the client thread as
+ * {@link ZipArchiveInputStream} does, the read-ahead stops at such an entry until the client has moved past it. This stream gains nothing for archives
+ * written to a non-seekable stream by {@link ZipArchiveOutputStream}, which uses data descriptors for DEFLATED entries.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class ParallelZipArchiveInputStream extends ArchiveInputStream<ZipArchiveEntry> implements InputStreamStatistics {
+
+    /**
+     * Default value of the largest compressed or uncompressed size of entries read ahead and inflated by worker threads.
+     */
+    public static final int DEFAULT_MAX_BUFFERED_ENTRY_SIZE = 16 * 1024 * 1024;
+
+    private static final byte[] EMPTY = {};
+
+    /**
+     * Inflates the compressed data of a buffered entry and verifies its checksum, runs on a worker thread.
+     */
+    private static byte[] decode(final ZipArchiveEntry entry, final byte[] data) throws IOException {
+        final byte[] content;
+        if (entry.getMethod() == ZipMethod.STORED.getCode()) {
+            if (data.length != entry.getSize()) {
+                throw new ZipException("Compressed and uncompressed size of STORED entry " + ArchiveUtils.sanitize(entry.getName()) + " differ");
+            }
+            content = data;
+        } else {
+            content = new byte[(int) entry.getSize()];
+            final Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(data);
+                int length = 0;
+                while (length < content.length) {
+                    final int read = inflater.inflate(content, length, content.length - length);
+                    if (read == 0) {
+                        if (inflater.needsDictionary()) {
+                            throw new ZipException("This archive needs a preset dictionary which is not supported by Commons Compress.");
+                        }
+                        if (inflater.finished() || inflater.needsInput()) {
+                            throw new ZipException("Truncated ZIP entry: " + ArchiveUtils.sanitize(entry.getName()));
+                        }
+                    }
+                    length += read;
+                }
+            } catch (final DataFormatException e) {
+                throw (IOException) new ZipException(e.getMessage()).initCause(e);
+            } finally {
+                inflater.end();
+            }
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        if (crc.getValue() != entry.getCrc()) {
+            throw new ZipException("Bad CRC checksum for entry " + ArchiveUtils.sanitize(entry.getName()) + ": " + Long.toHexString(entry.getCrc())
+                    + " instead of " + Long.toHexString(crc.getValue()));
+        }
+        return content;
+    }
+
+    /** Parses the local file headers and reads the entries that are not buffered. */
+    private final ZipArchiveInputStream parser;
+
+    private final OrderedTaskQueue<byte[]> decoderQueue;
+
+    private final int maxBufferedEntrySize;
+
+    /** The buffered entries read ahead, in the order of their tasks in {@link #decoderQueue}. */
+    private final Deque<ZipArchiveEntry> bufferedEntries = new ArrayDeque<>();
+
+    /** The entry the read-ahead stopped at, its data is read from {@link #parser} once all buffered entries before it have been handed out. */
+    private ZipArchiveEntry nextUnbufferedEntry;
+
+    /** Whether {@link #parser} has no entries left or failed. */
+    private boolean parserExhausted;
+
+    /** The exception thrown while reading ahead, thrown to the client once all entries read before have been handed out. */
+    private IOException readAheadException;
+
+    private ZipArchiveEntry current;
+
+    /** Whether the data of {@link #current} is read from {@link #parser}. */
+    private boolean readingFromParser;
+
+    /** The content of {@link #current}, null while the result of its task has not been taken. */
+    private byte[] content = EMPTY;
+
+    private int contentPosition;
+
+    private boolean closed;
+
+    /**
+     * Constructs a new stream that reads the given stream using the given executor service, which is not shut down by this stream.
+     * <p>
+     * File names are read as UTF-8 and entries up to {@link #DEFAULT_MAX_BUFFERED_ENTRY_SIZE} bytes are inflated by worker threads.
+     * </p>
+     *
+     * @param inputStream        the stream to read from.
+     * @param executorService    the executor service that inflates entries.
+     * @param maxEntriesInFlight the maximum number of entries read ahead of the client.
+     * @throws IllegalArgumentException if {@code maxEntriesInFlight < 1}.
+     */
+    public ParallelZipArchiveInputStream(final InputStream inputStream, final ExecutorService executorService, final int maxEntriesInFlight) {
+        this(inputStream, CharsetNames.UTF_8, new OrderedTaskQueue<>(executorService, maxEntriesInFlight), DEFAULT_MAX_BUFFERED_ENTRY_SIZE);
+    }
+
+    /**
+     * Constructs a new stream that reads the given stream using {@code threads} threads of its own.
+     * <p>
+     * File names are read as UTF-8, at most {@code 2 * threads} entries are read ahead of the client and entries up to
+     * {@link #DEFAULT_MAX_BUFFERED_ENTRY_SIZE} bytes are inflated by worker threads.
+     * </p>
+     *
+     * @param inputStream the stream to read from.
+     * @param threads     the number of threads that inflate entries.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelZipArchiveInputStream(final InputStream inputStream, final int threads) {
+        this(inputStream, CharsetNames.UTF_8, new OrderedTaskQueue<>(threads, 2 * threads), DEFAULT_MAX_BUFFERED_ENTRY_SIZE);
+    }
+
+    /**
+     * Constructs a new stream that reads the given stream using the given encoding and executor service, which is not shut down by this stream.
+     *
+     * @param inputStream          the stream to read from.
+     * @param encoding             the encoding to use for file names, use null for the platform's default encoding.
+     * @param executorService      the executor service that inflates entries.
+     * @param maxEntriesInFlight   the maximum number of entries read ahead of the client.
+     * @param maxBufferedEntrySize the largest compressed or uncompressed size of entries read ahead and inflated by worker threads.
+     * @throws IllegalArgumentException if {@code maxEntriesInFlight < 1} or {@code maxBufferedEntrySize < 0}.
+     */
+    public ParallelZipArchiveInputStream(final InputStream inputStream, final String encoding, final ExecutorService executorService,
+            final int maxEntriesInFlight, final int maxBufferedEntrySize) {
+        this(inputStream, encoding, new OrderedTaskQueue<>(executorService, maxEntriesInFlight), maxBufferedEntrySize);
+    }
+
+    private ParallelZipArchiveInputStream(final InputStream inputStream, final String encoding, final OrderedTaskQueue<byte[]> decoderQueue,
+            final int maxBufferedEntrySize) {
+        super(inputStream, encoding);
+        if (maxBufferedEntrySize < 0) {
+            decoderQueue.close();
+            throw new IllegalArgumentException("maxBufferedEntrySize(" + maxBufferedEntrySize + ") < 0");
+        }
+        this.parser = new ZipArchiveInputStream(inputStream, encoding);
+        this.decoderQueue = decoderQueue;
+        this.maxBufferedEntrySize = maxBufferedEntrySize;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (readingFromParser) {
+            return parser.available();
+        }
+        return content == null ? 0 : content.length - contentPosition;
+    }
+
+    /**
+     * Whether this class is able to read the given entry.
+     *
+     * @see ZipArchiveInputStream#canReadEntryData(ArchiveEntry)
+     */
+    @Override
+    public boolean canReadEntryData(final ArchiveEntry ae) {
+        return parser.canReadEntryData(ae);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                decoderQueue.close();
+            } finally {
+                parser.close();
+            }
+        }
+    }
+
+    /**
+     * Reads entries ahead until enough entries are in flight, the end of the archive is reached or an entry can't be buffered.
+     */
+    private void fill() throws IOException {
+        while (!readingFromParser && nextUnbufferedEntry == null && !parserExhausted && !decoderQueue.isFull()) {
+            try {
+                final ZipArchiveEntry entry = parser.getNextEntry();
+                if (entry == null) {
+                    parserExhausted = true;
+                } else if (isBuffered(entry)) {
+                    final byte[] data = parser.readRawEntryData();
+                    bufferedEntries.add(entry);
+                    decoderQueue.submit(() -> decode(entry, data));
+                } else {
+                    nextUnbufferedEntry = entry;
+                }
+            } catch (final IOException e) {
+                parserExhausted = true;
+                readAheadException = e;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes read from the wrapped stream, which includes the entries read ahead of the client.
+     */
+    @Override
+    public long getBytesRead() {
+        return parser.getBytesRead();
+    }
+
+    /**
+     * @since 1.26.0
+     */
+    @Override
+    public long getCompressedCount() {
+        if (readingFromParser) {
+            return parser.getCompressedCount();
+        }
+        return current == null || content == null ? 0 : current.getCompressedSize();
+    }
+
+    @Override
+    public ZipArchiveEntry getNextEntry() throws IOException {
+        if (closed) {
+            return null;
+        }
+        if (content == null) {
+            content = EMPTY;
+            try {
+                decoderQueue.take();
+            } catch (final ZipException e) { // NOSONAR
+                // like ZipArchiveInputStream, skip the corrupt content of an entry nobody reads
+            }
+        }
+        current = null;
+        readingFromParser = false;
+        content = EMPTY;
+        contentPosition = 0;
+        fill();
+        if (!bufferedEntries.isEmpty()) {
+            current = bufferedEntries.poll();
+            content = null;
+        } else if (nextUnbufferedEntry != null) {
+            current = nextUnbufferedEntry;
+            nextUnbufferedEntry = null;
+            readingFromParser = true;
+        } else if (readAheadException != null) {
+            throw readAheadException;
+        }
+        return current;
+    }
+
+    /**
+     * @since 1.26.0
+     */
+    @Override
+    public long getUncompressedCount() {
+        if (readingFromParser) {
+            return parser.getUncompressedCount();
+        }
+        return contentPosition;
+    }
+
+    private boolean isBuffered(final ZipArchiveEntry entry) {
+        final int method = entry.getMethod();
+        return (method == ZipMethod.STORED.getCode() || method == ZipMethod.DEFLATED.getCode()) && !entry.getGeneralPurposeBit().usesDataDescriptor()
+                && ZipUtil.canHandleEntryData(entry) && entry.getCompressedSize() != ArchiveEntry.SIZE_UNKNOWN
+                && entry.getCompressedSize() <= maxBufferedEntrySize && entry.getSize() != ArchiveEntry.SIZE_UNKNOWN
+                && entry.getSize() <= maxBufferedEntrySize;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (closed) {
+            throw new IOException("The stream is closed");
+        }
+        if (current == null) {
+            return -1;
+        }
+        if (readingFromParser) {
+            return parser.read(buffer, offset, length);
+        }
+        // avoid int overflow, check null buffer
+        if (offset > buffer.length || length < 0 || offset < 0 || buffer.length - offset < length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        if (content == null) {
+            // don't take the result of the next entry if this one failed
+            content = EMPTY;
+            content = decoderQueue.take();
+            fill();
+        }
+        if (contentPosition >= content.length) {
+            return -1;
+        }
+        final int n = Math.min(length, content.length - contentPosition);
+        System.arraycopy(content, contentPosition, buffer, offset, n);
+        contentPosition += n;
+        return n;
+    }
+}
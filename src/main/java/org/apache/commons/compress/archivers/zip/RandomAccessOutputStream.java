@@ -18,6 +18,10 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+
+import org.apache.commons.compress.utils.IOUtils;
 
 /**
  * Abstraction over OutputStream which also allows random access writes.
@@ -33,6 +37,22 @@ abstract class RandomAccessOutputStream extends OutputStream {
      */
     public abstract long position() throws IOException;
 
+    /**
+     * Writes a range of a channel at the current position.
+     * <p>
+     * Implementations writing to a channel let {@link IOUtils#copyRange(SeekableByteChannel, long, long, java.nio.channels.WritableByteChannel)} transfer the
+     * bytes, this implementation copies them through {@link #write(byte[], int, int)}.
+     * </p>
+     *
+     * @param source   the channel to copy from.
+     * @param position the position of the first byte to copy.
+     * @param length   the number of bytes to copy.
+     * @throws IOException if an I/O error occurs.
+     */
+    void transferFrom(final SeekableByteChannel source, final long position, final long length) throws IOException {
+        IOUtils.copyRange(source, position, length, Channels.newChannel(this));
+    }
+
     @Override
     public void write(final int b) throws IOException {
         write(new byte[] { (byte) b });
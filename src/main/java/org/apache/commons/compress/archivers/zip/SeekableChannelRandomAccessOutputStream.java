@@ -20,6 +20,8 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 
+import org.apache.commons.compress.utils.IOUtils;
+
 /**
  * {@link RandomAccessOutputStream} implementation for SeekableByteChannel.
  */
@@ -42,6 +44,11 @@ public synchronized long position() throws IOException {
         return channel.position();
     }
 
+    @Override
+    synchronized void transferFrom(final SeekableByteChannel source, final long position, final long length) throws IOException {
+        IOUtils.copyRange(source, position, length, channel);
+    }
+
     @Override
     public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
         ZipIoUtil.writeFully(this.channel, ByteBuffer.wrap(b, off, len));
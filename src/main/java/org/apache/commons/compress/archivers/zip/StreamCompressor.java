@@ -18,6 +18,7 @@
 
 import java.io.Closeable;
 import java.io.DataOutput;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -27,11 +28,17 @@
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
+import org.apache.commons.compress.compressors.deflate.DeflateEncoder;
+import org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.LZ77HuffmanCompressor;
+import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorOutputStream;
 import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.apache.commons.compress.utils.IOUtils;
 
 /**
- * Encapsulates a {@link Deflater} and crc calculator, handling multiple types of output streams. Currently {@link java.util.zip.ZipEntry#DEFLATED} and
- * {@link java.util.zip.ZipEntry#STORED} are the only supported compression methods.
+ * Encapsulates a {@link Deflater} and crc calculator, handling multiple types of output streams. Currently {@link java.util.zip.ZipEntry#DEFLATED},
+ * {@link ZipMethod#ENHANCED_DEFLATED} and {@link java.util.zip.ZipEntry#STORED} are the only supported compression methods. DEFLATED entries are compressed by
+ * a {@link DeflateEncoder} instead of the {@link Deflater} if one has been set.
  *
  * @since 1.10
  */
@@ -59,6 +66,15 @@ private static final class OutputStreamCompressor extends StreamCompressor {
             this.os = os;
         }
 
+        @Override
+        protected void transferOut(final SeekableByteChannel source, final long position, final long length) throws IOException {
+            if (os instanceof RandomAccessOutputStream) {
+                ((RandomAccessOutputStream) os).transferFrom(source, position, length);
+            } else {
+                super.transferOut(source, position, length);
+            }
+        }
+
         @Override
         protected void writeOut(final byte[] data, final int offset, final int length) throws IOException {
             os.write(data, offset, length);
@@ -87,6 +103,11 @@ private static final class SeekableByteChannelCompressor extends StreamCompresso
             this.channel = channel;
         }
 
+        @Override
+        protected void transferOut(final SeekableByteChannel source, final long position, final long length) throws IOException {
+            IOUtils.copyRange(source, position, length, channel);
+        }
+
         @Override
         protected void writeOut(final byte[] data, final int offset, final int length) throws IOException {
             channel.write(ByteBuffer.wrap(data, offset, length));
@@ -182,6 +203,31 @@ static StreamCompressor create(final SeekableByteChannel os, final Deflater defl
 
     private final byte[] readerBuf = new byte[BUFFER_SIZE];
 
+    /** Used instead of {@link #def} for {@link ZipEntry#DEFLATED} entries if not {@code null}. */
+    private DeflateEncoder deflateEncoder;
+
+    /** Compresses the current entry if it uses {@link ZipMethod#ENHANCED_DEFLATED} or {@link #deflateEncoder}, created on the first write. */
+    private OutputStream encoded;
+
+    /** Receives the output of {@link #encoded}. */
+    private final OutputStream counted = new OutputStream() {
+        @Override
+        public void write(final byte[] data, final int off, final int len) throws IOException {
+            writeCounted(data, off, len);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+    };
+
+    /** Compresses {@link ZipMethod#ENHANCED_DEFLATED} entries, created for the first one and reset for each of them. */
+    private LZ77HuffmanCompressor deflate64Compressor;
+
+    /** Compresses {@link ZipEntry#DEFLATED} entries if {@link #deflateEncoder} is a level, created for the first one and reset for each of them. */
+    private LZ77HuffmanCompressor levelCompressor;
+
     StreamCompressor(final Deflater deflater) {
         this.def = deflater;
     }
@@ -215,16 +261,40 @@ public void deflate(final InputStream source, final int method) throws IOExcepti
         }
         if (method == ZipEntry.DEFLATED) {
             flushDeflater();
+        } else if (method == ZipMethod.ENHANCED_DEFLATED.getCode()) {
+            flushDeflate64();
         }
     }
 
+    private void finishEncoded(final int method) throws IOException {
+        if (encoded == null) {
+            writeEncoded(readerBuf, 0, 0, method);
+        }
+        // the encoder's stream doesn't close the output when closed
+        encoded.close();
+        encoded = null;
+    }
+
     private void deflateUntilInputIsNeeded() throws IOException {
         while (!def.needsInput()) {
             deflate();
         }
     }
 
+    /**
+     * Finishes the Deflate64 compressed data of the current entry, writes an empty compressed stream if no data has been written.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    void flushDeflate64() throws IOException {
+        finishEncoded(ZipMethod.ENHANCED_DEFLATED.getCode());
+    }
+
     void flushDeflater() throws IOException {
+        if (deflateEncoder != null) {
+            finishEncoded(ZipEntry.DEFLATED);
+            return;
+        }
         def.finish();
         while (!def.finished()) {
             deflate();
@@ -271,6 +341,7 @@ public long getTotalBytesWritten() {
     void reset() {
         crc.reset();
         def.reset();
+        encoded = null;
         sourcePayloadLength = 0;
         writtenToOutputStreamForLastEntry = 0;
     }
@@ -288,8 +359,10 @@ void reset() {
     long write(final byte[] b, final int offset, final int length, final int method) throws IOException {
         final long current = writtenToOutputStreamForLastEntry;
         crc.update(b, offset, length);
-        if (method == ZipEntry.DEFLATED) {
+        if (method == ZipEntry.DEFLATED && deflateEncoder == null) {
             writeDeflated(b, offset, length);
+        } else if (method == ZipEntry.DEFLATED || method == ZipMethod.ENHANCED_DEFLATED.getCode()) {
+            writeEncoded(b, offset, length, method);
         } else {
             writeCounted(b, offset, length);
         }
@@ -297,6 +370,54 @@ long write(final byte[] b, final int offset, final int length, final int method)
         return writtenToOutputStreamForLastEntry - current;
     }
 
+    /**
+     * Sets the encoder to use instead of the {@link Deflater} for {@link ZipEntry#DEFLATED} entries, takes effect with the next entry.
+     *
+     * @param deflateEncoder the encoder or {@code null} to use the {@link Deflater}.
+     */
+    void setDeflateEncoder(final DeflateEncoder deflateEncoder) {
+        if (deflateEncoder != this.deflateEncoder) {
+            levelCompressor = null;
+        }
+        this.deflateEncoder = deflateEncoder;
+    }
+
+    /**
+     * Writes a range of a channel to the output without compressing it, counted like {@link #writeCounted(byte[], int, int)}.
+     *
+     * @param source   the channel to copy from.
+     * @param position the position of the first byte to copy.
+     * @param length   the number of bytes to copy.
+     * @throws IOException if an I/O error occurs.
+     */
+    void transferCounted(final SeekableByteChannel source, final long position, final long length) throws IOException {
+        transferOut(source, position, length);
+        writtenToOutputStreamForLastEntry += length;
+        totalWrittenToOutputStream += length;
+    }
+
+    /**
+     * Writes a range of a channel to the output, subclasses writing to a channel may transfer the bytes without copying them.
+     *
+     * @param source   the channel to copy from.
+     * @param position the position of the first byte to copy.
+     * @param length   the number of bytes to copy.
+     * @throws IOException if an I/O error occurs.
+     * @since 1.26.0
+     */
+    protected void transferOut(final SeekableByteChannel source, final long position, final long length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(readerBuf);
+        for (long pos = position, end = position + length; pos < end;) {
+            buffer.clear().limit((int) Math.min(readerBuf.length, end - pos));
+            final int read = IOUtils.read(source, buffer, pos);
+            if (read <= 0) {
+                throw new EOFException();
+            }
+            writeOut(readerBuf, 0, read);
+            pos += read;
+        }
+    }
+
     public void writeCounted(final byte[] data) throws IOException {
         writeCounted(data, 0, data.length);
     }
@@ -307,6 +428,56 @@ public void writeCounted(final byte[] data, final int offset, final int length)
         totalWrittenToOutputStream += length;
     }
 
+    /**
+     * Creates the stream compressing the current entry, the built-in encoders are kept for all entries as their buffers are large.
+     */
+    private OutputStream createEncoded(final int method) {
+        if (method == ZipMethod.ENHANCED_DEFLATED.getCode()) {
+            if (deflate64Compressor == null) {
+                deflate64Compressor = new LZ77HuffmanCompressor(counted, Deflate64CompressorOutputStream.createParameterBuilder().build(), true);
+            }
+            return entryStream(deflate64Compressor);
+        }
+        if (deflateEncoder instanceof LZ77DeflateCompressorOutputStream.Level) {
+            if (levelCompressor == null) {
+                levelCompressor = new LZ77HuffmanCompressor(counted,
+                        LZ77DeflateCompressorOutputStream.createParameterBuilder((LZ77DeflateCompressorOutputStream.Level) deflateEncoder).build(), false);
+            }
+            return entryStream(levelCompressor);
+        }
+        return deflateEncoder.createOutputStream(counted);
+    }
+
+    /**
+     * Resets a reused compressor and returns a stream compressing a single entry with it, closing the stream finishes the entry.
+     */
+    private static OutputStream entryStream(final LZ77HuffmanCompressor compressor) {
+        compressor.reset();
+        return new OutputStream() {
+            @Override
+            public void close() throws IOException {
+                compressor.finish();
+            }
+
+            @Override
+            public void write(final byte[] data, final int off, final int len) throws IOException {
+                compressor.compress(data, off, len);
+            }
+
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+        };
+    }
+
+    private void writeEncoded(final byte[] b, final int offset, final int length, final int method) throws IOException {
+        if (encoded == null) {
+            encoded = createEncoded(method);
+        }
+        encoded.write(b, offset, length);
+    }
+
     private void writeDeflated(final byte[] b, final int offset, final int length) throws IOException {
         if (length > 0 && !def.finished()) {
             if (length <= DEFLATER_BLOCK_SIZE) {
@@ -28,7 +28,6 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackInputStream;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -179,6 +178,13 @@ private <T extends InputStream> T checkInputStream() {
 
     public static final int PREAMBLE_GARBAGE_MAX_SIZE = 4096;
 
+    /**
+     * Default size of the buffer used to read from the wrapped stream.
+     *
+     * @since 1.26.0
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
     private static final int LFH_LEN = 30;
 
     /*
@@ -245,7 +251,7 @@ public static boolean matches(final byte[] signature, final int length) {
     /** Inflater used for all deflated entries. */
     private final Inflater inf = new Inflater(true);
 
-    /** Buffer used to read from the wrapped stream. */
+    /** Buffer used to search for the data descriptor of STORED entries. */
     private final ByteBuffer buf = ByteBuffer.allocate(ZipArchiveOutputStream.BUFFER_SIZE);
 
     /** The entry that is currently being read. */
@@ -350,14 +356,34 @@ public ZipArchiveInputStream(final InputStream inputStream, final String encodin
      */
     public ZipArchiveInputStream(final InputStream inputStream, final String encoding, final boolean useUnicodeExtraFields,
             final boolean allowStoredEntriesWithDataDescriptor, final boolean skipSplitSig) {
+        this(inputStream, encoding, useUnicodeExtraFields, allowStoredEntriesWithDataDescriptor, skipSplitSig, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an instance using the specified encoding and size of the buffer used to read from the wrapped stream.
+     * <p>
+     * The compressed data of DEFLATED entries is handed to the {@link Inflater} straight from this buffer, a bigger buffer means fewer calls into native code
+     * and fewer reads from the wrapped stream.
+     * </p>
+     *
+     * @param inputStream                          the stream to wrap
+     * @param encoding                             the encoding to use for file names, use null for the platform's default encoding
+     * @param useUnicodeExtraFields                whether to use InfoZIP Unicode Extra Fields (if present) to set the file names.
+     * @param allowStoredEntriesWithDataDescriptor whether the stream will try to read STORED entries that use a data descriptor
+     * @param skipSplitSig                         Whether the stream will try to skip the zip split signature(08074B50) at the beginning. You will need to set
+     *                                             this to true if you want to read a split archive.
+     * @param bufferSize                           the size of the buffer used to read from the wrapped stream, {@link #DEFAULT_BUFFER_SIZE} by default.
+     * @throws IllegalArgumentException if bufferSize is not positive.
+     * @since 1.26.0
+     */
+    public ZipArchiveInputStream(final InputStream inputStream, final String encoding, final boolean useUnicodeExtraFields,
+            final boolean allowStoredEntriesWithDataDescriptor, final boolean skipSplitSig, final int bufferSize) {
         super(inputStream, encoding);
-        this.in = new PushbackInputStream(inputStream, buf.capacity());
+        this.in = new BufferedPushbackInputStream(inputStream, bufferSize);
         this.zipEncoding = ZipEncodingHelper.getZipEncoding(encoding);
         this.useUnicodeExtraFields = useUnicodeExtraFields;
         this.allowStoredEntriesWithDataDescriptor = allowStoredEntriesWithDataDescriptor;
         this.skipSplitSig = skipSplitSig;
-        // haven't read anything so far
-        buf.limit(0);
     }
 
     /**
@@ -479,9 +505,10 @@ private void closeEntry() throws IOException {
             // exceed the range of int
             final int diff = (int) (current.bytesReadFromStream - inB);
 
-            // Pushback any required bytes
+            // Give back the bytes the inflater hasn't consumed, they are still in the read buffer
             if (diff > 0) {
-                pushback(buf.array(), buf.limit() - diff, diff);
+                ((BufferedPushbackInputStream) in).rewind(diff);
+                pushedBackBytes(diff);
                 current.bytesReadFromStream -= diff;
             }
 
@@ -496,7 +523,6 @@ private void closeEntry() throws IOException {
         }
 
         inf.reset();
-        buf.clear().flip();
         current = null;
         lastStoredEntry = null;
     }
@@ -517,8 +543,8 @@ private boolean currentEntryHasOutstandingBytes() {
     private void drainCurrentEntryData() throws IOException {
         long remaining = current.entry.getCompressedSize() - current.bytesReadFromStream;
         while (remaining > 0) {
-            final long n = in.read(buf.array(), 0, (int) Math.min(buf.capacity(), remaining));
-            if (n < 0) {
+            final long n = in.skip(remaining);
+            if (n <= 0) {
                 throw new EOFException("Truncated ZIP entry: " + ArchiveUtils.sanitize(current.entry.getName()));
             }
             count(n);
@@ -530,11 +556,12 @@ private int fill() throws IOException {
         if (closed) {
             throw new IOException("The stream is closed");
         }
-        final int length = in.read(buf.array());
+        // don't read beyond the entry if its size is known, the wrapped stream may continue after the archive
+        final long remaining = current.entry.getCompressedSize() - current.bytesReadFromStream;
+        final long maxRead = !current.hasDataDescriptor && remaining > 0 ? remaining : Long.MAX_VALUE;
+        final int length = ((BufferedPushbackInputStream) in).fill(inf, maxRead);
         if (length > 0) {
-            buf.limit(length);
-            count(buf.limit());
-            inf.setInput(buf.array(), 0, buf.limit());
+            count(length);
         }
         return length;
     }
@@ -884,7 +911,7 @@ private void pushback(final byte[] buf, final int offset, final int length) thro
             // Instead of ArrayIndexOutOfBoundsException
             throw new IOException(String.format("Negative offset %,d into buffer", offset));
         }
-        ((PushbackInputStream) in).unread(buf, offset, length);
+        ((BufferedPushbackInputStream) in).unread(buf, offset, length);
         pushedBackBytes(length);
     }
 
@@ -1065,7 +1092,7 @@ private int readFromInflater(final byte[] buffer, final int offset, final int le
             if (inf.needsInput()) {
                 final int l = fill();
                 if (l > 0) {
-                    current.bytesReadFromStream += buf.limit();
+                    current.bytesReadFromStream += l;
                 } else if (l == -1) {
                     return -1;
                 } else {
@@ -1133,6 +1160,30 @@ private byte[] readRange(final int len) throws IOException {
         return ret;
     }
 
+    /**
+     * Reads the compressed data of the current entry without decompressing it, leaving the stream at the end of the entry.
+     * <p>
+     * Used by {@link ParallelZipArchiveInputStream}, the entry must not use a data descriptor, its compressed size must fit into an array and none of its data
+     * must have been read.
+     * </p>
+     */
+    byte[] readRawEntryData() throws IOException {
+        if (closed) {
+            throw new IOException("The stream is closed");
+        }
+        if (current == null || current.hasDataDescriptor || current.bytesReadFromStream > 0 || current.entry.getCompressedSize() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The raw data of the current entry cannot be read");
+        }
+        final byte[] data = new byte[(int) current.entry.getCompressedSize()];
+        try {
+            readFully(data);
+        } catch (final EOFException e) {
+            throw new EOFException("Truncated ZIP entry: " + ArchiveUtils.sanitize(current.entry.getName()));
+        }
+        current.bytesReadFromStream = data.length;
+        return data;
+    }
+
     /**
      * Implementation of read for STORED entries.
      */
@@ -1150,27 +1201,17 @@ private int readStored(final byte[] buffer, final int offset, final int length)
             return -1;
         }
 
-        if (buf.position() >= buf.limit()) {
-            buf.position(0);
-            final int l = in.read(buf.array());
-            if (l == -1) {
-                buf.limit(0);
-                throw new IOException("Truncated ZIP file");
-            }
-            buf.limit(l);
-
-            count(l);
-            current.bytesReadFromStream += l;
-        }
-
-        int toRead = Math.min(buf.remaining(), length);
-        if (csize - current.bytesRead < toRead) {
-            // if it is smaller than toRead then it fits into an int
-            toRead = (int) (csize - current.bytesRead);
+        // if it is smaller than length then it fits into an int
+        final int toRead = (int) Math.min(length, csize - current.bytesRead);
+        // never reads beyond the entry, so nothing needs to be given back when it is closed
+        final int l = in.read(buffer, offset, toRead);
+        if (l == -1) {
+            throw new IOException("Truncated ZIP file");
         }
-        buf.get(buffer, offset, toRead);
-        current.bytesRead += toRead;
-        return toRead;
+        count(l);
+        current.bytesReadFromStream += l;
+        current.bytesRead += l;
+        return l;
     }
 
     /**
@@ -1202,6 +1243,8 @@ private void readStoredEntry() throws IOException {
                 // central directory
                 throw new IOException("Truncated ZIP file");
             }
+            // bytes read too far are pushed back and uncounted once the data descriptor has been found
+            count(r);
             if (r + off < 4) {
                 // buffer too small to check for a signature, loop
                 off += r;
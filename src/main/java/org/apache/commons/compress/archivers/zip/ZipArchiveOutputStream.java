@@ -35,6 +35,7 @@
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflateEncoder;
 import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.CharsetNames;
 
@@ -47,8 +48,9 @@
  * </p>
  * <p>
  * If SeekableByteChannel cannot be used, this implementation will use a Data Descriptor to store size and CRC information for {@link #DEFLATED DEFLATED}
- * entries, you don't need to calculate them yourself. Unfortunately, this is not possible for the {@link #STORED STORED} method, where setting the CRC and
- * uncompressed size information is required before {@link #putArchiveEntry(ZipArchiveEntry)} can be called.
+ * and {@link ZipMethod#ENHANCED_DEFLATED Deflate64} entries, you don't need to calculate them yourself. Unfortunately, this is not possible for the
+ * {@link #STORED STORED} method, where setting the CRC and uncompressed size information is required before {@link #putArchiveEntry(ZipArchiveEntry)} can
+ * be called.
  * </p>
  * <p>
  * As of Apache Commons Compress 1.3, the class transparently supports Zip64 extensions and thus individual entries and archives larger than 4 GB or with more
@@ -276,6 +278,11 @@ public String toString() {
      */
     private boolean hasCompressionLevelChanged;
 
+    /**
+     * Encoder used instead of the Deflater for the next DEFLATED entry.
+     */
+    private DeflateEncoder deflateEncoder;
+
     /**
      * Default compression method for next entry.
      */
@@ -504,6 +511,37 @@ public void addRawArchiveEntry(final ZipArchiveEntry entry, final InputStream ra
         closeCopiedEntry(is2PhaseSource);
     }
 
+    /**
+     * Adds an archive entry whose raw data is a range of a channel.
+     * <p>
+     * Works like {@link #addRawArchiveEntry(ZipArchiveEntry, InputStream)} but copies {@link ZipArchiveEntry#getCompressedSize() compressed size} bytes of
+     * the channel starting at the given position. If the channel is a {@link java.nio.channels.FileChannel} and this stream writes to a file or channel, the
+     * bytes are transferred by the operating system without passing through the JVM heap.
+     * </p>
+     *
+     * @param entry    The archive entry to add, its compressed size must be known.
+     * @param source   The channel holding the raw data of a different entry. May be compressed/encrypted.
+     * @param position The position of the raw data in the channel.
+     * @throws IOException              If copying fails
+     * @throws IllegalArgumentException If the compressed size of the entry is unknown.
+     * @since 1.26.0
+     */
+    public void addRawArchiveEntry(final ZipArchiveEntry entry, final SeekableByteChannel source, final long position) throws IOException {
+        final long length = entry.getCompressedSize();
+        if (length == ArchiveEntry.SIZE_UNKNOWN) {
+            throw new IllegalArgumentException("Compressed size of " + entry.getName() + " is unknown");
+        }
+        final ZipArchiveEntry ae = new ZipArchiveEntry(entry);
+        if (hasZip64Extra(ae)) {
+            // see addRawArchiveEntry(ZipArchiveEntry, InputStream)
+            ae.removeExtraField(Zip64ExtendedInformationExtraField.HEADER_ID);
+        }
+        final boolean is2PhaseSource = ae.getCrc() != ZipArchiveEntry.CRC_UNKNOWN && ae.getSize() != ArchiveEntry.SIZE_UNKNOWN;
+        putArchiveEntry(ae, is2PhaseSource);
+        copyFromChannel(source, position, length);
+        closeCopiedEntry(is2PhaseSource);
+    }
+
     /**
      * Adds UnicodeExtra fields for name and file comment if mode is ALWAYS or the data cannot be encoded using the configured encoding.
      */
@@ -617,6 +655,16 @@ private void closeEntry(final boolean actuallyNeedsZip64, final boolean phased)
         entry = null;
     }
 
+    private void copyFromChannel(final SeekableByteChannel src, final long position, final long length) throws IOException {
+        if (entry == null) {
+            throw new IllegalStateException("No current entry");
+        }
+        ZipUtil.checkRequestedFeatures(entry.entry);
+        entry.hasWritten = true;
+        streamCompressor.transferCounted(src, position, length);
+        count(length);
+    }
+
     private void copyFromZipInputStream(final InputStream src) throws IOException {
         if (entry == null) {
             throw new IllegalStateException("No current entry");
@@ -847,7 +895,7 @@ private byte[] createLocalFileHeader(final ZipArchiveEntry ze, final ByteBuffer
         ZipUtil.toDosTime(ze.getTime(), buf, LFH_TIME_OFFSET);
 
         // CRC
-        if (phased || !(zipMethod == DEFLATED || outputStream instanceof RandomAccessOutputStream)) {
+        if (phased || !(isCompressed(zipMethod) || outputStream instanceof RandomAccessOutputStream)) {
             ZipLong.putLong(ze.getCrc(), buf, LFH_CRC_OFFSET);
         } else {
             System.arraycopy(LZERO, 0, buf, LFH_CRC_OFFSET, ZipConstants.WORD);
@@ -864,7 +912,7 @@ private byte[] createLocalFileHeader(final ZipArchiveEntry ze, final ByteBuffer
         } else if (phased) {
             ZipLong.putLong(ze.getCompressedSize(), buf, LFH_COMPRESSED_SIZE_OFFSET);
             ZipLong.putLong(ze.getSize(), buf, LFH_ORIGINAL_SIZE_OFFSET);
-        } else if (zipMethod == DEFLATED || outputStream instanceof RandomAccessOutputStream) {
+        } else if (isCompressed(zipMethod) || outputStream instanceof RandomAccessOutputStream) {
             System.arraycopy(LZERO, 0, buf, LFH_COMPRESSED_SIZE_OFFSET, ZipConstants.WORD);
             System.arraycopy(LZERO, 0, buf, LFH_ORIGINAL_SIZE_OFFSET, ZipConstants.WORD);
         } else { // Stored
@@ -979,6 +1027,8 @@ public void flush() throws IOException {
     private void flushDeflater() throws IOException {
         if (entry.entry.getMethod() == DEFLATED) {
             streamCompressor.flushDeflater();
+        } else if (entry.entry.getMethod() == ZipMethod.ENHANCED_DEFLATED.getCode()) {
+            streamCompressor.flushDeflate64();
         }
     }
 
@@ -1000,7 +1050,7 @@ public long getBytesWritten() {
      */
     private Zip64Mode getEffectiveZip64Mode(final ZipArchiveEntry ze) {
         if (zip64Mode != Zip64Mode.AsNeeded || outputStream instanceof RandomAccessOutputStream ||
-                ze.getMethod() != DEFLATED || ze.getSize() != ArchiveEntry.SIZE_UNKNOWN) {
+                !isCompressed(ze.getMethod()) || ze.getSize() != ArchiveEntry.SIZE_UNKNOWN) {
             return zip64Mode;
         }
         return Zip64Mode.Never;
@@ -1064,7 +1114,7 @@ private Zip64ExtendedInformationExtraField getZip64Extra(final ZipArchiveEntry z
      * whether the entry would require a Zip64 extra field.
      */
     private boolean handleSizesAndCrc(final long bytesWritten, final long crc, final Zip64Mode effectiveMode) throws ZipException {
-        if (entry.entry.getMethod() == DEFLATED) {
+        if (isCompressed(entry.entry.getMethod())) {
             /*
              * It turns out def.getBytesRead() returns wrong values if the size exceeds 4 GB on Java < Java7 entry.entry.setSize(def.getBytesRead());
              */
@@ -1141,6 +1191,13 @@ public boolean isSeekable() {
         return outputStream instanceof RandomAccessOutputStream;
     }
 
+    /**
+     * Whether entries of the given method are compressed by the {@link StreamCompressor} so their sizes and CRC are only known once they have been written.
+     */
+    private boolean isCompressed(final int zipMethod) {
+        return zipMethod == DEFLATED || zipMethod == ZipMethod.ENHANCED_DEFLATED.getCode();
+    }
+
     private boolean isTooLargeForZip32(final ZipArchiveEntry zipArchiveEntry) {
         return zipArchiveEntry.getSize() >= ZipConstants.ZIP64_MAGIC || zipArchiveEntry.getCompressedSize() >= ZipConstants.ZIP64_MAGIC;
     }
@@ -1229,6 +1286,7 @@ private void putArchiveEntry(final ZipArchiveEntry archiveEntry, final boolean p
             def.setLevel(level);
             hasCompressionLevelChanged = false;
         }
+        streamCompressor.setDeflateEncoder(deflateEncoder);
         writeLocalFileHeader(archiveEntry, phased);
     }
 
@@ -1318,6 +1376,20 @@ private void setDefaults(final ZipArchiveEntry entry) {
         }
     }
 
+    /**
+     * Sets the encoder used instead of the Deflater for subsequent DEFLATED entries, the compression level is ignored while an encoder is set.
+     * <p>
+     * Default is {@code null}, which uses the Deflater.
+     * </p>
+     *
+     * @param deflateEncoder the encoder or {@code null} to use the Deflater.
+     * @see org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream.Level
+     * @since 1.26.0
+     */
+    public void setDeflateEncoder(final DeflateEncoder deflateEncoder) {
+        this.deflateEncoder = deflateEncoder;
+    }
+
     /**
      * The encoding to use for file names and the file comment.
      * <p>
@@ -1466,7 +1538,7 @@ private boolean shouldUseZip64EOCD() {
     }
 
     private boolean usesDataDescriptor(final int zipMethod, final boolean phased) {
-        return !phased && zipMethod == DEFLATED && !(outputStream instanceof RandomAccessOutputStream);
+        return !phased && isCompressed(zipMethod) && !(outputStream instanceof RandomAccessOutputStream);
     }
 
     /**
@@ -1538,12 +1610,15 @@ private int versionNeededToExtract(final int zipMethod, final boolean zip64, fin
             return ZipConstants.ZIP64_MIN_VERSION;
         }
         if (usedDataDescriptor) {
-            return ZipConstants.DATA_DESCRIPTOR_MIN_VERSION;
+            return Math.max(ZipConstants.DATA_DESCRIPTOR_MIN_VERSION, versionNeededToExtractMethod(zipMethod));
         }
         return versionNeededToExtractMethod(zipMethod);
     }
 
     private int versionNeededToExtractMethod(final int zipMethod) {
+        if (zipMethod == ZipMethod.ENHANCED_DEFLATED.getCode()) {
+            return ZipConstants.DEFLATE64_MIN_VERSION;
+        }
         return zipMethod == DEFLATED ? ZipConstants.DEFLATE_MIN_VERSION : ZipConstants.INITIAL_VERSION;
     }
 
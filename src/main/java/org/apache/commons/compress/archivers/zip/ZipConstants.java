@@ -44,6 +44,13 @@ final class ZipConstants {
      */
     static final int DEFLATE_MIN_VERSION = 20;
 
+    /**
+     * ZIP specification version that introduced the Deflate64 compression method.
+     *
+     * @since 1.26.0
+     */
+    static final int DEFLATE64_MIN_VERSION = 21;
+
     /** ZIP specification version that introduced data descriptor method */
     static final int DATA_DESCRIPTOR_MIN_VERSION = 20;
 
@@ -24,10 +24,12 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -44,6 +46,7 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.zip.Inflater;
@@ -57,6 +60,7 @@
 import org.apache.commons.compress.utils.CharsetNames;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.commons.compress.utils.MemoryMappedByteChannel;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.Charsets;
 import org.apache.commons.io.FilenameUtils;
@@ -88,26 +92,6 @@
  */
 public class ZipFile implements Closeable {
 
-    /**
-     * Lock-free implementation of BoundedInputStream. The implementation uses positioned reads on the underlying archive file channel and therefore performs
-     * significantly faster in concurrent environment.
-     */
-    private static class BoundedFileChannelInputStream extends BoundedArchiveInputStream {
-        private final FileChannel archive;
-
-        BoundedFileChannelInputStream(final long start, final long remaining, final FileChannel archive) {
-            super(start, remaining);
-            this.archive = archive;
-        }
-
-        @Override
-        protected int read(final long pos, final ByteBuffer buf) throws IOException {
-            final int read = archive.read(buf, pos);
-            buf.flip();
-            return read;
-        }
-    }
-
     /**
      * Builds new {@link ZipFile} instances.
      * <p>
@@ -133,6 +117,8 @@ public static class Builder extends AbstractStreamBuilder<ZipFile, Builder> {
         private SeekableByteChannel seekableByteChannel;
         private boolean useUnicodeExtraFields = true;
         private boolean ignoreLocalFileHeader;
+        private boolean lazyCentralDirectory;
+        private boolean memoryMapped;
         private long maxNumberOfDisks = 1;
 
         public Builder() {
@@ -157,11 +143,13 @@ public ZipFile get() throws IOException {
                     openOptions = new OpenOption[] { StandardOpenOption.READ };
                 }
                 final Path path = getPath();
-                actualChannel = openZipChannel(path, maxNumberOfDisks, openOptions);
+                actualChannel = memoryMapped ? mapIfFileChannel(openZipChannel(path, maxNumberOfDisks, openOptions))
+                        : openZipChannel(path, maxNumberOfDisks, openOptions);
                 actualDescription = path.toString();
             }
             final boolean closeOnError = seekableByteChannel != null;
-            return new ZipFile(actualChannel, actualDescription, getCharset(), useUnicodeExtraFields, closeOnError, ignoreLocalFileHeader);
+            return new ZipFile(actualChannel, actualDescription, getCharset(), useUnicodeExtraFields, closeOnError, ignoreLocalFileHeader,
+                    lazyCentralDirectory);
         }
 
         /**
@@ -175,6 +163,29 @@ public Builder setIgnoreLocalFileHeader(final boolean ignoreLocalFileHeader) {
             return this;
         }
 
+        /**
+         * Sets whether to read the central directory lazily, default is false.
+         * <p>
+         * By default, opening an archive creates a {@link ZipArchiveEntry} for every record of the central directory, parsing its extra fields, and keeps
+         * all of them. In lazy mode, opening an archive only decodes the names and keeps a compact index of the positions of the central directory records,
+         * less than 32 bytes per entry. Entries are created whenever they are requested by {@link ZipFile#getEntry(String)}, {@link ZipFile#getEntries()} and
+         * the like, and are not kept by the ZipFile. This makes opening archives with many entries faster and uses much less memory if only a few entries
+         * are used.
+         * </p>
+         * <p>
+         * In lazy mode, broken central directory records are only detected when the entry is created, which then throws an {@link java.io.UncheckedIOException}
+         * from methods that don't throw {@link IOException}. Looking up entries by name only considers Unicode extra fields of the central directory, not
+         * the ones only present in local file headers.
+         * </p>
+         *
+         * @param lazyCentralDirectory whether to read the central directory lazily.
+         * @return this.
+         */
+        public Builder setLazyCentralDirectory(final boolean lazyCentralDirectory) {
+            this.lazyCentralDirectory = lazyCentralDirectory;
+            return this;
+        }
+
         /**
          * Sets max number of multi archive disks, default is 1 (no multi archive).
          *
@@ -187,6 +198,21 @@ public Builder setMaxNumberOfDisks(final long maxNumberOfDisks) {
             return this;
         }
 
+        /**
+         * Sets whether to read an archive given as a File or Path through memory mappings, default is false.
+         * <p>
+         * The archive is read through a {@link MemoryMappedByteChannel}, which makes reading headers and entries cheaper and allows
+         * {@link ZipFile#getRawByteBuffer(ZipArchiveEntry)} to return views of the mapped file. Split archives are not mapped.
+         * </p>
+         *
+         * @param memoryMapped whether to map the archive into memory.
+         * @return this.
+         */
+        public Builder setMemoryMapped(final boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
         /**
          * The actual channel, overrides any other input aspects like a File, Path, and so on.
          *
@@ -211,6 +237,67 @@ public Builder setUseUnicodeExtraFields(final boolean useUnicodeExtraFields) {
 
     }
 
+    /**
+     * Compact index of the central directory used in lazy mode.
+     * <p>
+     * Holds the position of each central directory record in the archive and an open addressing hash table from the hash codes of the entry names to the
+     * records. Records with equal names are found in the order of the central directory.
+     * </p>
+     */
+    private static final class CentralDirectoryIndex {
+
+        private static int slot(final int hash, final int mask) {
+            // spread the bits as String hash codes of similar names differ in their low bits only
+            return (hash ^ hash >>> 16) * 0x9E3779B9 & mask;
+        }
+
+        private long[] offsets = new long[16];
+        private int[] nameHashes = new int[16];
+        private int size;
+        /** Record index plus one, 0 for empty slots. */
+        private int[] table;
+
+        void add(final long offset, final int nameHash) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                nameHashes = Arrays.copyOf(nameHashes, size * 2);
+            }
+            offsets[size] = offset;
+            nameHashes[size] = nameHash;
+            size++;
+        }
+
+        /**
+         * Finds the records whose names have the given hash code, some of them may have different names.
+         */
+        List<Integer> find(final int nameHash) {
+            final List<Integer> found = new ArrayList<>(1);
+            final int mask = table.length - 1;
+            for (int slot = slot(nameHash, mask); table[slot] != 0; slot = slot + 1 & mask) {
+                final int index = table[slot] - 1;
+                if (nameHashes[index] == nameHash) {
+                    found.add(index);
+                }
+            }
+            return found;
+        }
+
+        void index() {
+            offsets = Arrays.copyOf(offsets, size);
+            nameHashes = Arrays.copyOf(nameHashes, size);
+            // a load factor of at most 0.5
+            table = new int[Integer.highestOneBit(Math.max(size, 1)) * 4];
+            final int mask = table.length - 1;
+            for (int index = 0; index < size; index++) {
+                int slot = slot(nameHashes[index], mask);
+                while (table[slot] != 0) {
+                    slot = slot + 1 & mask;
+                }
+                table[slot] = index + 1;
+            }
+        }
+    }
+
     /**
      * Extends ZipArchiveEntry to store the offset within the archive.
      */
@@ -485,6 +572,19 @@ public static void closeQuietly(final ZipFile zipFile) {
         org.apache.commons.io.IOUtils.closeQuietly(zipFile);
     }
 
+    /**
+     * Checks whether raw extra field data contains a field with the given header id without parsing the fields.
+     */
+    private static boolean hasExtraField(final byte[] extraData, final ZipShort headerId) {
+        for (int off = 0; off + ZipExtraField.EXTRAFIELD_HEADER_SIZE <= extraData.length;) {
+            if (ZipShort.getValue(extraData, off) == headerId.getValue()) {
+                return true;
+            }
+            off += ZipExtraField.EXTRAFIELD_HEADER_SIZE + ZipShort.getValue(extraData, off + ZipConstants.SHORT);
+        }
+        return false;
+    }
+
     /**
      * Creates a new SeekableByteChannel for reading.
      *
@@ -496,6 +596,19 @@ private static SeekableByteChannel newReadByteChannel(final Path path) throws IO
         return Files.newByteChannel(path, READ);
     }
 
+    @SuppressWarnings("resource") // closed by the returned channel
+    private static SeekableByteChannel mapIfFileChannel(final SeekableByteChannel channel) throws IOException {
+        if (!(channel instanceof FileChannel)) {
+            return channel;
+        }
+        try {
+            return new MemoryMappedByteChannel((FileChannel) channel);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
     private static SeekableByteChannel openZipChannel(final Path path, final long maxNumberOfDisks, final OpenOption[] openOptions) throws IOException {
         final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
         final List<FileChannel> channels = new ArrayList<>();
@@ -665,6 +778,16 @@ private static boolean tryToLocateSignature(final SeekableByteChannel channel, f
      */
     private final boolean isSplitZipArchive;
 
+    /**
+     * Whether to ignore information stored inside the local file header.
+     */
+    private final boolean ignoreLocalFileHeader;
+
+    /**
+     * The index of the central directory in lazy mode, {@code null} if all entries have been read when opening the archive.
+     */
+    private final CentralDirectoryIndex centralDirectoryIndex;
+
     // cached buffers - must only be used locally in the class (COMPRESS-172 - reduce garbage collection)
     private final byte[] dwordBuf = new byte[ZipConstants.DWORD];
 
@@ -853,19 +976,25 @@ public ZipFile(final SeekableByteChannel channel, final String encoding) throws
     }
 
     private ZipFile(final SeekableByteChannel channel, final String channelDescription, final Charset encoding, final boolean useUnicodeExtraFields,
-            final boolean closeOnError, final boolean ignoreLocalFileHeader) throws IOException {
+            final boolean closeOnError, final boolean ignoreLocalFileHeader, final boolean lazyCentralDirectory) throws IOException {
         this.isSplitZipArchive = channel instanceof ZipSplitReadOnlySeekableByteChannel;
         this.encoding = Charsets.toCharset(encoding, Builder.DEFAULT_CHARSET);
         this.zipEncoding = ZipEncodingHelper.getZipEncoding(encoding);
         this.useUnicodeExtraFields = useUnicodeExtraFields;
+        this.ignoreLocalFileHeader = ignoreLocalFileHeader;
         this.archive = channel;
         boolean success = false;
         try {
-            final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag = populateFromCentralDirectory();
-            if (!ignoreLocalFileHeader) {
-                resolveLocalFileHeaderData(entriesWithoutUTF8Flag);
+            if (lazyCentralDirectory) {
+                centralDirectoryIndex = indexCentralDirectory();
+            } else {
+                centralDirectoryIndex = null;
+                final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag = populateFromCentralDirectory();
+                if (!ignoreLocalFileHeader) {
+                    resolveLocalFileHeaderData(entriesWithoutUTF8Flag);
+                }
+                fillNameMap();
             }
-            fillNameMap();
             success = true;
         } catch (final IOException e) {
             throw new IOException("Error reading Zip content from " + channelDescription, e);
@@ -927,7 +1056,7 @@ public ZipFile(final SeekableByteChannel channel, final String channelDescriptio
 
     private ZipFile(final SeekableByteChannel channel, final String channelDescription, final String encoding, final boolean useUnicodeExtraFields,
             final boolean closeOnError, final boolean ignoreLocalFileHeader) throws IOException {
-        this(channel, channelDescription, Charsets.toCharset(encoding), useUnicodeExtraFields, closeOnError, ignoreLocalFileHeader);
+        this(channel, channelDescription, Charsets.toCharset(encoding), useUnicodeExtraFields, closeOnError, ignoreLocalFileHeader, false);
     }
 
     /**
@@ -969,6 +1098,12 @@ public boolean canReadEntryData(final ZipArchiveEntry entry) {
         return ZipUtil.canHandleEntryData(entry);
     }
 
+    private static void checkBounds(final long start, final long size) {
+        if (start < 0 || size < 0 || start + size < start) {
+            throw new IllegalArgumentException("Corrupted archive, stream boundaries" + " are out of range");
+        }
+    }
+
     /**
      * Closes the archive.
      *
@@ -986,7 +1121,8 @@ public void close() throws IOException {
     /**
      * Transfer selected entries from this ZIP file to a given #ZipArchiveOutputStream. Compression and all other attributes will be as in this file.
      * <p>
-     * This method transfers entries based on the central directory of the ZIP file.
+     * This method transfers entries based on the central directory of the ZIP file. The raw data is copied from the archive's channel straight to the
+     * target, using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} when both sides are backed by files.
      * </p>
      *
      * @param target    The zipArchiveOutputStream to write the entries to
@@ -998,20 +1134,23 @@ public void copyRawEntries(final ZipArchiveOutputStream target, final ZipArchive
         while (src.hasMoreElements()) {
             final ZipArchiveEntry entry = src.nextElement();
             if (predicate.test(entry)) {
-                target.addRawArchiveEntry(entry, getRawInputStream(entry));
+                final long start = getDataOffset(entry);
+                if (start == EntryStreamOffsets.OFFSET_UNKNOWN) {
+                    target.addRawArchiveEntry(entry, getRawInputStream(entry));
+                } else {
+                    checkBounds(start, entry.getCompressedSize());
+                    target.addRawArchiveEntry(entry, archive, start);
+                }
             }
         }
     }
 
     /**
-     * Creates new BoundedInputStream, according to implementation of underlying archive channel.
+     * Creates new BoundedInputStream, using lock-free positional reads if the underlying archive channel supports them.
      */
     private BoundedArchiveInputStream createBoundedInputStream(final long start, final long remaining) {
-        if (start < 0 || remaining < 0 || start + remaining < start) {
-            throw new IllegalArgumentException("Corrupted archive, stream boundaries" + " are out of range");
-        }
-        return archive instanceof FileChannel ? new BoundedFileChannelInputStream(start, remaining, (FileChannel) archive)
-                : new BoundedSeekableByteChannelInputStream(start, remaining, archive);
+        checkBounds(start, remaining);
+        return new BoundedSeekableByteChannelInputStream(start, remaining, archive);
     }
 
     private void fillNameMap() {
@@ -1024,6 +1163,27 @@ private void fillNameMap() {
         });
     }
 
+    /**
+     * Finds entries by name in lazy mode.
+     *
+     * @param name      the name of the entries.
+     * @param firstOnly whether to stop at the first entry found.
+     * @return the entries in the order of the central directory.
+     */
+    private List<ZipArchiveEntry> findEntries(final String name, final boolean firstOnly) {
+        final List<ZipArchiveEntry> found = new ArrayList<>(1);
+        for (final int index : centralDirectoryIndex.find(name.hashCode())) {
+            final ZipArchiveEntry entry = readEntryUnchecked(index);
+            if (entry.getName().equals(name)) {
+                found.add(entry);
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
     /**
      * Ensures that the close method of this ZIP file is called when there are no more references to it.
      *
@@ -1078,6 +1238,24 @@ public String getEncoding() {
      * @return all entries as {@link ZipArchiveEntry} instances
      */
     public Enumeration<ZipArchiveEntry> getEntries() {
+        if (centralDirectoryIndex != null) {
+            return new Enumeration<ZipArchiveEntry>() {
+                private int index;
+
+                @Override
+                public boolean hasMoreElements() {
+                    return index < centralDirectoryIndex.size;
+                }
+
+                @Override
+                public ZipArchiveEntry nextElement() {
+                    if (!hasMoreElements()) {
+                        throw new NoSuchElementException();
+                    }
+                    return readEntryUnchecked(index++);
+                }
+            };
+        }
         return Collections.enumeration(entries);
     }
 
@@ -1089,6 +1267,9 @@ public Enumeration<ZipArchiveEntry> getEntries() {
      * @since 1.6
      */
     public Iterable<ZipArchiveEntry> getEntries(final String name) {
+        if (centralDirectoryIndex != null) {
+            return findEntries(name, false);
+        }
         return nameMap.getOrDefault(name, ZipArchiveEntry.EMPTY_LINKED_LIST);
     }
 
@@ -1103,7 +1284,8 @@ public Iterable<ZipArchiveEntry> getEntries(final String name) {
      * @since 1.1
      */
     public Enumeration<ZipArchiveEntry> getEntriesInPhysicalOrder() {
-        final ZipArchiveEntry[] allEntries = entries.toArray(ZipArchiveEntry.EMPTY_ARRAY);
+        final ZipArchiveEntry[] allEntries = centralDirectoryIndex != null ? Collections.list(getEntries()).toArray(ZipArchiveEntry.EMPTY_ARRAY)
+                : entries.toArray(ZipArchiveEntry.EMPTY_ARRAY);
         return Collections.enumeration(Arrays.asList(sortByOffset(allEntries)));
     }
 
@@ -1115,8 +1297,9 @@ public Enumeration<ZipArchiveEntry> getEntriesInPhysicalOrder() {
      * @since 1.6
      */
     public Iterable<ZipArchiveEntry> getEntriesInPhysicalOrder(final String name) {
-        final LinkedList<ZipArchiveEntry> linkedList = nameMap.getOrDefault(name, ZipArchiveEntry.EMPTY_LINKED_LIST);
-        return Arrays.asList(sortByOffset(linkedList.toArray(ZipArchiveEntry.EMPTY_ARRAY)));
+        final List<ZipArchiveEntry> list = centralDirectoryIndex != null ? findEntries(name, false)
+                : nameMap.getOrDefault(name, ZipArchiveEntry.EMPTY_LINKED_LIST);
+        return Arrays.asList(sortByOffset(list.toArray(ZipArchiveEntry.EMPTY_ARRAY)));
     }
 
     /**
@@ -1129,6 +1312,10 @@ public Iterable<ZipArchiveEntry> getEntriesInPhysicalOrder(final String name) {
      * @return the ZipArchiveEntry corresponding to the given name - or {@code null} if not present.
      */
     public ZipArchiveEntry getEntry(final String name) {
+        if (centralDirectoryIndex != null) {
+            final List<ZipArchiveEntry> found = findEntries(name, true);
+            return found.isEmpty() ? null : found.get(0);
+        }
         final LinkedList<ZipArchiveEntry> entries = nameMap.get(name);
         return entries != null ? entries.getFirst() : null;
     }
@@ -1238,6 +1425,40 @@ public InputStream getRawInputStream(final ZipArchiveEntry entry) throws IOExcep
         return createBoundedInputStream(start, entry.getCompressedSize());
     }
 
+    /**
+     * Gets the raw data of the given entry as a read-only buffer, the data is still compressed unless the entry is {@link ZipMethod#STORED stored}.
+     * <p>
+     * If the archive is read through a {@link MemoryMappedByteChannel}, the buffer is a view of the mapped file and the data isn't copied at all. Otherwise
+     * the data is read into a new heap buffer.
+     * </p>
+     *
+     * @param entry The entry to get the data for.
+     * @return a read-only buffer holding the raw data of the entry, or null if the entry is not part of this archive.
+     * @throws IOException if the data cannot be read or is too big for a buffer.
+     * @since 1.26.0
+     */
+    public ByteBuffer getRawByteBuffer(final ZipArchiveEntry entry) throws IOException {
+        if (!(entry instanceof Entry)) {
+            return null;
+        }
+        final long start = getDataOffset(entry);
+        if (start == EntryStreamOffsets.OFFSET_UNKNOWN) {
+            return null;
+        }
+        final long size = entry.getCompressedSize();
+        checkBounds(start, size);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Data of entry " + entry.getName() + " is too big for a buffer: " + size);
+        }
+        if (archive instanceof MemoryMappedByteChannel) {
+            return ((MemoryMappedByteChannel) archive).slice(start, (int) size);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        IOUtils.readFully(archive, buffer, start);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
     /**
      * Gets the entry's content as a String if isUnixSymlink() returns true for it, otherwise returns null.
      * <p>
@@ -1258,6 +1479,58 @@ public String getUnixSymlink(final ZipArchiveEntry entry) throws IOException {
         return null;
     }
 
+    /**
+     * Reads the central directory of the given archive and builds the index used in lazy mode.
+     * <p>
+     * Only the names of the entries are decoded, taking Unicode extra fields of the central directory into account if local file headers are used.
+     * </p>
+     *
+     * @return the index.
+     */
+    private CentralDirectoryIndex indexCentralDirectory() throws IOException {
+        positionAtCentralDirectory();
+        centralDirectoryStartOffset = archive.position();
+        final CentralDirectoryIndex index = new CentralDirectoryIndex();
+        final InputStream in = new BufferedInputStream(createBoundedInputStream(centralDirectoryStartOffset, archive.size() - centralDirectoryStartOffset));
+        long offset = centralDirectoryStartOffset;
+        long sig = IOUtils.readFully(in, wordBuf) == ZipConstants.WORD ? ZipLong.getValue(wordBuf) : 0;
+        if (sig != CFH_SIG && startsWithLocalFileHeader()) {
+            throw new IOException("Central directory is empty, can't expand" + " corrupt archive.");
+        }
+        while (sig == CFH_SIG) {
+            if (IOUtils.readFully(in, cfhBuf) < CFH_LEN) {
+                throw new EOFException();
+            }
+            final boolean hasUTF8Flag = GeneralPurposeBit.parse(cfhBuf, 2 * ZipConstants.SHORT).usesUTF8ForNames();
+            final int fileNameLen = ZipShort.getValue(cfhBuf, 12 * ZipConstants.SHORT);
+            final int extraLen = ZipShort.getValue(cfhBuf, 13 * ZipConstants.SHORT);
+            final int commentLen = ZipShort.getValue(cfhBuf, 14 * ZipConstants.SHORT);
+            final byte[] fileName = IOUtils.readRange(in, fileNameLen);
+            final byte[] cdExtraData = IOUtils.readRange(in, extraLen);
+            if (fileName.length < fileNameLen || cdExtraData.length < extraLen || IOUtils.skip(in, commentLen) < commentLen) {
+                throw new EOFException();
+            }
+            String name = (hasUTF8Flag ? ZipEncodingHelper.ZIP_ENCODING_UTF_8 : zipEncoding).decode(fileName);
+            if (!hasUTF8Flag && useUnicodeExtraFields && !ignoreLocalFileHeader && hasExtraField(cdExtraData, UnicodePathExtraField.UPATH_ID)) {
+                final ZipArchiveEntry ze = new ZipArchiveEntry(name);
+                try {
+                    ze.setCentralDirectoryExtra(cdExtraData);
+                } catch (final RuntimeException e) {
+                    final ZipException z = new ZipException("Invalid extra data in entry " + name);
+                    z.initCause(e);
+                    throw z;
+                }
+                ZipUtil.setNameAndCommentFromExtraFields(ze, fileName, null);
+                name = ze.getName();
+            }
+            index.add(offset, name.hashCode());
+            offset += ZipConstants.WORD + CFH_LEN + fileNameLen + extraLen + commentLen;
+            sig = IOUtils.readFully(in, wordBuf) == ZipConstants.WORD ? ZipLong.getValue(wordBuf) : 0;
+        }
+        index.index();
+        return index;
+    }
+
     /**
      * Reads the central directory of the given archive and populates the internal tables with ZipArchiveEntry instances.
      * <p>
@@ -1282,7 +1555,7 @@ private Map<ZipArchiveEntry, NameAndComment> populateFromCentralDirectory() thro
         }
 
         while (sig == CFH_SIG) {
-            readCentralDirectoryEntry(noUTF8Flag);
+            entries.add(readCentralDirectoryEntry(noUTF8Flag));
             wordBbuf.rewind();
             IOUtils.readFully(archive, wordBbuf);
             sig = ZipLong.getValue(wordBuf);
@@ -1395,8 +1668,9 @@ private void positionAtCentralDirectory64() throws IOException {
      *
      * @param noUTF8Flag map used to collect entries that don't have their UTF-8 flag set and whose name will be set by data read from the local file header
      *                   later. The current entry may be added to this map.
+     * @return the entry.
      */
-    private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag) throws IOException {
+    private Entry readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag) throws IOException {
         cfhBbuf.rewind();
         IOUtils.readFully(archive, cfhBbuf);
         int off = 0;
@@ -1482,7 +1756,6 @@ private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment
         // LFH offset,
         ze.setLocalHeaderOffset(ZipLong.getValue(cfhBuf, off) + firstLocalFileHeaderOffset);
         // data offset will be filled later
-        entries.add(ze);
 
         final byte[] cdExtraData = IOUtils.readRange(archive, extraLen);
         if (cdExtraData.length < extraLen) {
@@ -1510,6 +1783,34 @@ private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment
         }
 
         ze.setStreamContiguous(true);
+        return ze;
+    }
+
+    /**
+     * Creates the entry of a record of the central directory in lazy mode, including the data of its local file header unless it is ignored.
+     *
+     * @param index the index of the record.
+     * @return the entry.
+     */
+    private ZipArchiveEntry readEntry(final int index) throws IOException {
+        // entries of the same archive may be created and read by different threads
+        synchronized (archive) {
+            archive.position(centralDirectoryIndex.offsets[index] + ZipConstants.WORD);
+            final Map<ZipArchiveEntry, NameAndComment> noUTF8Flag = new HashMap<>();
+            final Entry ze = readCentralDirectoryEntry(noUTF8Flag);
+            if (!ignoreLocalFileHeader) {
+                resolveLocalFileHeaderData(ze, noUTF8Flag.get(ze));
+            }
+            return ze;
+        }
+    }
+
+    private ZipArchiveEntry readEntryUnchecked(final int index) {
+        try {
+            return readEntry(index);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -1521,27 +1822,35 @@ private void readCentralDirectoryEntry(final Map<ZipArchiveEntry, NameAndComment
     private void resolveLocalFileHeaderData(final Map<ZipArchiveEntry, NameAndComment> entriesWithoutUTF8Flag) throws IOException {
         for (final ZipArchiveEntry zipArchiveEntry : entries) {
             // entries are filled in populateFromCentralDirectory and never modified
-            final Entry ze = (Entry) zipArchiveEntry;
-            final int[] lens = setDataOffset(ze);
-            final int fileNameLen = lens[0];
-            final int extraFieldLen = lens[1];
-            skipBytes(fileNameLen);
-            final byte[] localExtraData = IOUtils.readRange(archive, extraFieldLen);
-            if (localExtraData.length < extraFieldLen) {
-                throw new EOFException();
-            }
-            try {
-                ze.setExtra(localExtraData);
-            } catch (final RuntimeException e) {
-                final ZipException z = new ZipException("Invalid extra data in entry " + ze.getName());
-                z.initCause(e);
-                throw z;
-            }
+            resolveLocalFileHeaderData((Entry) zipArchiveEntry, entriesWithoutUTF8Flag.get(zipArchiveEntry));
+        }
+    }
 
-            if (entriesWithoutUTF8Flag.containsKey(ze)) {
-                final NameAndComment nc = entriesWithoutUTF8Flag.get(ze);
-                ZipUtil.setNameAndCommentFromExtraFields(ze, nc.name, nc.comment);
-            }
+    /**
+     * Adds the data available from the local file header to the given entry and records the offset of its data.
+     *
+     * @param ze the entry.
+     * @param nc the name and comment read from the central directory if the entry doesn't have its UTF-8 flag set, or null.
+     */
+    private void resolveLocalFileHeaderData(final Entry ze, final NameAndComment nc) throws IOException {
+        final int[] lens = setDataOffset(ze);
+        final int fileNameLen = lens[0];
+        final int extraFieldLen = lens[1];
+        skipBytes(fileNameLen);
+        final byte[] localExtraData = IOUtils.readRange(archive, extraFieldLen);
+        if (localExtraData.length < extraFieldLen) {
+            throw new EOFException();
+        }
+        try {
+            ze.setExtra(localExtraData);
+        } catch (final RuntimeException e) {
+            final ZipException z = new ZipException("Invalid extra data in entry " + ze.getName());
+            z.initCause(e);
+            throw z;
+        }
+
+        if (nc != null) {
+            ZipUtil.setNameAndCommentFromExtraFields(ze, nc.name, nc.comment);
         }
     }
 
@@ -1670,4 +1979,32 @@ private boolean startsWithLocalFileHeader() throws IOException {
         IOUtils.readFully(archive, wordBbuf);
         return Arrays.equals(wordBuf, ZipArchiveOutputStream.LFH_SIG);
     }
+
+    /**
+     * Transfers the raw data of the given entry to a channel, the data is still compressed unless the entry is {@link ZipMethod#STORED stored}.
+     * <p>
+     * If the archive is a file and the target is a file or socket channel, the data is transferred with
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} and may never enter the Java heap. Archives read through a
+     * {@link MemoryMappedByteChannel} write views of the mapping, all other archives are copied through a heap buffer.
+     * </p>
+     *
+     * @param entry  The entry to transfer.
+     * @param target The channel to write the raw data to.
+     * @return the number of bytes transferred or -1 if the entry is not part of this archive.
+     * @throws IOException if the data cannot be read or written.
+     * @since 1.26.0
+     */
+    public long transferRawTo(final ZipArchiveEntry entry, final WritableByteChannel target) throws IOException {
+        if (!(entry instanceof Entry)) {
+            return -1;
+        }
+        final long start = getDataOffset(entry);
+        if (start == EntryStreamOffsets.OFFSET_UNKNOWN) {
+            return -1;
+        }
+        final long size = entry.getCompressedSize();
+        checkBounds(start, size);
+        IOUtils.copyRange(archive, start, size, target);
+        return size;
+    }
 }
@@ -37,6 +37,7 @@
 import org.apache.commons.compress.compressors.deflate.DeflateCompressorInputStream;
 import org.apache.commons.compress.compressors.deflate.DeflateCompressorOutputStream;
 import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorInputStream;
+import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorInputStream;
@@ -619,7 +620,7 @@ public CompressorInputStream createCompressorInputStream(final String name, fina
      * Creates a compressor output stream from a compressor name and an output stream.
      *
      * @param name the compressor name, i.e. {@value #GZIP}, {@value #BZIP2}, {@value #XZ}, {@value #PACK200}, {@value #SNAPPY_FRAMED}, {@value #LZ4_BLOCK},
-     *             {@value #LZ4_FRAMED}, {@value #ZSTANDARD} or {@value #DEFLATE}
+     *             {@value #LZ4_FRAMED}, {@value #ZSTANDARD}, {@value #DEFLATE} or {@value #DEFLATE64}
      * @param out  the output stream
      * @return the compressor output stream
      * @throws CompressorException      if the archiver name is not known
@@ -672,6 +673,10 @@ public CompressorOutputStream createCompressorOutputStream(final String name, fi
             if (ZSTANDARD.equalsIgnoreCase(name)) {
                 return new ZstdCompressorOutputStream(out);
             }
+
+            if (DEFLATE64.equalsIgnoreCase(name)) {
+                return new Deflate64CompressorOutputStream(out);
+            }
         } catch (final IOException e) {
             throw new CompressorException("Could not create CompressorOutputStream", e);
         }
@@ -712,7 +717,7 @@ public Set<String> getInputStreamCompressorNames() {
 
     @Override
     public Set<String> getOutputStreamCompressorNames() {
-        return Sets.newHashSet(GZIP, BZIP2, XZ, LZMA, PACK200, DEFLATE, SNAPPY_FRAMED, LZ4_BLOCK, LZ4_FRAMED, ZSTANDARD);
+        return Sets.newHashSet(GZIP, BZIP2, XZ, LZMA, PACK200, DEFLATE, SNAPPY_FRAMED, LZ4_BLOCK, LZ4_FRAMED, ZSTANDARD, DEFLATE64);
     }
 
     /**
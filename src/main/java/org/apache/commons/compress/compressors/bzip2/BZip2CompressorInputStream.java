@@ -228,6 +228,10 @@ public static boolean matches(final byte[] signature, final int length) {
     private int nInUse;
     private BitInputStream bin;
     private final boolean decompressConcatenated;
+    /**
+     * Whether this instance decodes a single block only, see {@link #BZip2CompressorInputStream(BitInputStream, int)}.
+     */
+    private final boolean singleBlock;
     private int currentState = START_BLOCK_STATE;
     private int storedBlockCRC, storedCombinedCRC;
     private int computedBlockCRC, computedCombinedCRC;
@@ -278,11 +282,31 @@ public BZip2CompressorInputStream(final InputStream in) throws IOException {
     public BZip2CompressorInputStream(final InputStream in, final boolean decompressConcatenated) throws IOException {
         this.bin = new BitInputStream(in == System.in ? CloseShieldInputStream.wrap(in) : in, ByteOrder.BIG_ENDIAN);
         this.decompressConcatenated = decompressConcatenated;
+        this.singleBlock = false;
 
         init(true);
         initBlock();
     }
 
+    /**
+     * Constructs an instance that decodes the single block starting with the block magic at the current position of {@code bin}.
+     * <p>
+     * Used by {@link ParallelBZip2CompressorInputStream}. The constructor reads all compressed bits of the block, reading the decompressed content verifies
+     * the block CRC and ends at the end of the block.
+     * </p>
+     *
+     * @param bin           the source positioned at the block magic.
+     * @param blockSize100k the block size of the stream containing the block.
+     * @throws IOException if the block is malformed or an I/O error occurs.
+     */
+    BZip2CompressorInputStream(final BitInputStream bin, final int blockSize100k) throws IOException {
+        this.bin = bin;
+        this.blockSize100k = blockSize100k;
+        this.decompressConcatenated = false;
+        this.singleBlock = true;
+        initBlock();
+    }
+
     @Override
     public void close() throws IOException {
         final BitInputStream inShadow = this.bin;
@@ -557,7 +581,22 @@ private boolean init(final boolean isFirstStream) throws IOException {
         return true;
     }
 
+    /**
+     * Gets the CRC of the block decoded by a single block instance, valid once all content has been read.
+     *
+     * @return the CRC of the block.
+     */
+    int getBlockCRC() {
+        return this.computedBlockCRC;
+    }
+
     private void initBlock() throws IOException {
+        if (singleBlock && this.data != null) {
+            // the one and only block has been read completely
+            this.currentState = EOF;
+            this.data = null;
+            return;
+        }
         final BitInputStream bin = this.bin;
         char magic0;
         char magic1;
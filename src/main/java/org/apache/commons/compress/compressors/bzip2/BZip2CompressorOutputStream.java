@@ -18,11 +18,16 @@
  */
 package org.apache.commons.compress.compressors.bzip2;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
 
 /**
  * An output stream that compresses into the BZip2 format into another stream.
@@ -115,6 +120,11 @@
  * <p>
  * For decompression {@code BZip2CompressorInputStream} allocates less memory if the bzipped input is smaller than one block.
  * </p>
+ * <p>
+ * Blocks are independent of each other, apart from the combined CRC of the stream. The constructors that accept a number of threads or an
+ * {@link ExecutorService} sort and Huffman code blocks on worker threads and write them in order, like {@code pbzip2} does. The output is a standard single
+ * stream bzip2 file that is identical to the one written in serial mode. Each block in flight needs the compression memory given above.
+ * </p>
  *
  * <p>
  * Instances of this class are not threadsafe.
@@ -188,6 +198,31 @@ static final class Data {
 
     }
 
+    /**
+     * A block compressed on a worker thread, not necessarily ending on a byte boundary.
+     */
+    private static final class EncodedBlock {
+
+        /** The data the block was compressed from, free for reuse once the block has been written. */
+        final Data data;
+
+        /** The complete bytes of the compressed block. */
+        final byte[] bytes;
+
+        /** The number of bits following {@link #bytes}, 0 to 7. */
+        final int tailBits;
+
+        /** The bits following {@link #bytes}, left aligned. */
+        final int tail;
+
+        EncodedBlock(final Data data, final byte[] bytes, final int tailBits, final int tail) {
+            this.data = data;
+            this.bytes = bytes;
+            this.tailBits = tailBits;
+            this.tail = tail;
+        }
+    }
+
     /**
      * The minimum supported blocksize {@code  == 1}.
      */
@@ -402,6 +437,16 @@ private static void hbMakeCodeLengths(final byte[] len, final int[] freq, final
 
     private volatile boolean closed;
 
+    /**
+     * Compresses blocks on worker threads, {@code null} in serial mode.
+     */
+    private final OrderedTaskQueue<EncodedBlock> encoderQueue;
+
+    /**
+     * Data instances of written blocks ready to be filled again, parallel mode only.
+     */
+    private final Deque<Data> freeData;
+
     /**
      * Constructs a new {@code BZip2CompressorOutputStream} with a blocksize of 900k.
      *
@@ -428,15 +473,76 @@ public BZip2CompressorOutputStream(final OutputStream out) throws IOException {
      * @see #MAX_BLOCKSIZE
      */
     public BZip2CompressorOutputStream(final OutputStream out, final int blockSize) throws IOException {
-        if (blockSize < 1) {
-            throw new IllegalArgumentException("blockSize(" + blockSize + ") < 1");
-        }
-        if (blockSize > 9) {
-            throw new IllegalArgumentException("blockSize(" + blockSize + ") > 9");
+        this(out, blockSize, (OrderedTaskQueue<EncodedBlock>) null);
+    }
+
+    /**
+     * Constructs a new {@code BZip2CompressorOutputStream} with specified blocksize that compresses blocks on the given executor service.
+     * <p>
+     * The executor service is not shut down by this stream.
+     * </p>
+     *
+     * @param out               the destination stream.
+     * @param blockSize         the blockSize as 100k units.
+     * @param executorService   the executor service that sorts and Huffman codes blocks.
+     * @param maxBlocksInFlight the maximum number of blocks handed to the executor service but not yet written to {@code out}.
+     *
+     * @throws IOException              if an I/O error occurs in the specified stream.
+     * @throws IllegalArgumentException if {@code (blockSize &lt; 1) || (blockSize &gt; 9)} or {@code maxBlocksInFlight &lt; 1}.
+     * @throws NullPointerException     if {@code out == null}.
+     * @since 1.26.0
+     */
+    public BZip2CompressorOutputStream(final OutputStream out, final int blockSize, final ExecutorService executorService, final int maxBlocksInFlight)
+            throws IOException {
+        this(out, blockSize, new OrderedTaskQueue<>(executorService, maxBlocksInFlight));
+    }
+
+    /**
+     * Constructs a new {@code BZip2CompressorOutputStream} with specified blocksize that compresses blocks on {@code threads} threads of its own.
+     * <p>
+     * At most {@code 2 * threads} blocks are in flight at any time. The threads are stopped when the stream is finished.
+     * </p>
+     *
+     * @param out       the destination stream.
+     * @param blockSize the blockSize as 100k units.
+     * @param threads   the number of threads used to sort and Huffman code blocks.
+     *
+     * @throws IOException              if an I/O error occurs in the specified stream.
+     * @throws IllegalArgumentException if {@code (blockSize &lt; 1) || (blockSize &gt; 9)} or {@code threads &lt; 1}.
+     * @throws NullPointerException     if {@code out == null}.
+     * @since 1.26.0
+     */
+    public BZip2CompressorOutputStream(final OutputStream out, final int blockSize, final int threads) throws IOException {
+        this(out, blockSize, new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    /**
+     * Constructs an encoder for a single block that has already been filled by the stream running in parallel mode, see {@link #encodeBlock}.
+     */
+    private BZip2CompressorOutputStream(final OutputStream out, final int blockSize, final Data data, final int last, final int blockCRC) {
+        this.blockSize100k = blockSize;
+        this.allowableBlockSize = blockSize * BZip2Constants.BASEBLOCKSIZE - 20;
+        this.out = out;
+        this.data = data;
+        this.blockSorter = new BlockSort(data);
+        this.last = last;
+        this.blockCRC = blockCRC;
+        this.encoderQueue = null;
+        this.freeData = null;
+    }
+
+    private BZip2CompressorOutputStream(final OutputStream out, final int blockSize, final OrderedTaskQueue<EncodedBlock> encoderQueue) throws IOException {
+        if (blockSize < 1 || blockSize > 9) {
+            if (encoderQueue != null) {
+                encoderQueue.close();
+            }
+            throw new IllegalArgumentException("blockSize(" + blockSize + ")" + (blockSize < 1 ? " < 1" : " > 9"));
         }
 
         this.blockSize100k = blockSize;
         this.out = out;
+        this.encoderQueue = encoderQueue;
+        this.freeData = encoderQueue != null ? new ArrayDeque<>() : null;
 
         /* 20 is just a paranoia constant */
         this.allowableBlockSize = this.blockSize100k * BZip2Constants.BASEBLOCKSIZE - 20;
@@ -456,6 +562,30 @@ private void bsFinishedWithStream() throws IOException {
         }
     }
 
+    /**
+     * Appends a block compressed by a worker thread to the bit stream.
+     */
+    private void bsPutEncodedBlock(final EncodedBlock block) throws IOException {
+        final OutputStream outShadow = this.out;
+        while (this.bsLive >= 8) {
+            outShadow.write(this.bsBuff >> 24); // write 8-bit
+            this.bsBuff <<= 8;
+            this.bsLive -= 8;
+        }
+        if (this.bsLive == 0) {
+            // byte aligned, no need to shift
+            outShadow.write(block.bytes);
+        } else {
+            for (final byte b : block.bytes) {
+                bsW(8, b & 0xff);
+            }
+        }
+        if (block.tailBits > 0) {
+            bsW(block.tailBits, block.tail >>> 32 - block.tailBits);
+        }
+        freeData.add(block.data);
+    }
+
     private void bsPutInt(final int u) throws IOException {
         bsW(8, u >> 24 & 0xff);
         bsW(8, u >> 16 & 0xff);
@@ -501,6 +631,49 @@ private void endBlock() throws IOException {
             return;
         }
 
+        if (encoderQueue != null) {
+            submitBlock();
+        } else {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Compresses a block that has been filled by the client thread, runs on a worker thread.
+     *
+     * @return the compressed block.
+     */
+    private EncodedBlock encodeBlock(final Data block, final int blockLast, final int crc) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(blockLast / 2 + 64);
+        final BZip2CompressorOutputStream encoder = new BZip2CompressorOutputStream(bos, blockSize100k, block, blockLast, crc);
+        encoder.writeBlock();
+        while (encoder.bsLive >= 8) {
+            bos.write(encoder.bsBuff >> 24); // write 8-bit
+            encoder.bsBuff <<= 8;
+            encoder.bsLive -= 8;
+        }
+        return new EncodedBlock(block, bos.toByteArray(), encoder.bsLive, encoder.bsBuff);
+    }
+
+    /**
+     * Hands the current block to a worker thread and continues with a fresh one, writing completed blocks while too many are in flight.
+     */
+    private void submitBlock() throws IOException {
+        while (encoderQueue.isFull()) {
+            bsPutEncodedBlock(encoderQueue.take());
+        }
+        final Data block = this.data;
+        final int blockLast = this.last;
+        final int crc = this.blockCRC;
+        encoderQueue.submit(() -> encodeBlock(block, blockLast, crc));
+        final Data free = freeData.poll();
+        this.data = free != null ? free : new Data(this.blockSize100k);
+    }
+
+    /**
+     * Sorts and Huffman codes the current block and writes it to the bit stream.
+     */
+    private void writeBlock() throws IOException {
         /* sort the block and establish posn of original string */
         blockSort();
 
@@ -552,8 +725,17 @@ public void finish() throws IOException {
                 }
                 this.currentChar = -1;
                 endBlock();
+                if (encoderQueue != null) {
+                    while (!encoderQueue.isEmpty()) {
+                        bsPutEncodedBlock(encoderQueue.take());
+                    }
+                }
                 endCompression();
             } finally {
+                if (encoderQueue != null) {
+                    encoderQueue.close();
+                    freeData.clear();
+                }
                 this.out = null;
                 this.blockSorter = null;
                 this.data = null;
@@ -693,7 +875,9 @@ private void init() throws IOException {
         bsPutUByte('Z');
 
         this.data = new Data(this.blockSize100k);
-        this.blockSorter = new BlockSort(this.data);
+        if (encoderQueue == null) {
+            this.blockSorter = new BlockSort(this.data);
+        }
 
         // huffmanized magic bytes
         bsPutUByte('h');
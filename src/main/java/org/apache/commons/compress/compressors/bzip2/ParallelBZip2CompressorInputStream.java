@@ -0,0 +1,461 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.bzip2;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.compress.compressors.CompressorInputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.utils.BitInputStream;
+import org.apache.commons.compress.utils.BoundedSeekableByteChannelInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.InputStreamStatistics;
+
+/**
+ * An input stream that decompresses a BZip2 file from a {@link SeekableByteChannel}, decoding several blocks in parallel.
+ * <p>
+ * Every BZip2 block starts with the 48 bit magic {@code 0x314159265359} on an arbitrary bit boundary, every stream ends with the 48 bit magic
+ * {@code 0x177245385090}. This stream scans the channel for both magics, decodes the candidate blocks on worker threads and hands out their content in order.
+ * Block CRCs are verified by the workers, combined stream CRCs are verified while reassembling the blocks. As a magic may also appear inside the compressed
+ * data by chance, only candidates that start exactly where the previous block ended are used, all others are discarded.
+ * </p>
+ * <p>
+ * The decompressed content is identical to the one read by {@link BZip2CompressorInputStream}. Each block in flight needs the decompression memory documented
+ * in {@link BZip2CompressorOutputStream} plus the size of its decompressed content.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class ParallelBZip2CompressorInputStream extends CompressorInputStream implements InputStreamStatistics {
+
+    /**
+     * A decoded block or the end of a stream, found at a candidate position.
+     */
+    private static final class Block {
+
+        /** Bit position of the magic. */
+        final long startBit;
+
+        /** Whether this is the end of stream magic rather than a block. */
+        final boolean endOfStream;
+
+        /** The block size of the stream the scanner assumed for this block. */
+        final int blockSize100k;
+
+        /** Bit position right after the block, only valid for decoded blocks. */
+        long endBit;
+
+        /** The decompressed content. */
+        byte[] content;
+
+        /** The CRC of the decompressed content. */
+        int crc;
+
+        /** Why decoding failed, which is only an error if the block turns out to be a real one. */
+        IOException failure;
+
+        Block(final long startBit, final boolean endOfStream, final int blockSize100k) {
+            this.startBit = startBit;
+            this.endOfStream = endOfStream;
+            this.blockSize100k = blockSize100k;
+        }
+    }
+
+    private static final long BLOCK_MAGIC = 0x314159265359L;
+
+    private static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+
+    private static final long MAGIC_MASK = 0xffffffffffffL;
+
+    private static final int MAGIC_BITS = 48;
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private static int parseHeader(final byte[] header) {
+        if (header[0] != 'B' || header[1] != 'Z' || header[2] != 'h' || header[3] < '1' || header[3] > '9') {
+            return -1;
+        }
+        return header[3] - '0';
+    }
+
+    private final SeekableByteChannel channel;
+
+    private final long size;
+
+    private final boolean decompressConcatenated;
+
+    private final OrderedTaskQueue<Block> decoderQueue;
+
+    // scanner state
+
+    private final ByteBuffer scanBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+    /** Position of the next byte to scan. */
+    private long scanPosition;
+
+    /** The last bytes scanned. */
+    private long scanWindow;
+
+    /** Shift of the next magic to test in the current scan window, a negative value means the next byte has to be scanned. */
+    private int scanShift = -1;
+
+    /** Block size of the stream the scanner is in. */
+    private int scanBlockSize100k;
+
+    // reassembly state
+
+    /** Bit position where the next block or end of stream magic must start. */
+    private long expectedBit;
+
+    /** Block size of the current stream. */
+    private int blockSize100k;
+
+    private int computedCombinedCRC;
+
+    private byte[] content = new byte[0];
+
+    private int contentPosition;
+
+    private boolean eof;
+
+    private boolean closed;
+
+    /**
+     * Constructs a new stream that decompresses the given channel using the given executor service, which is not shut down by this stream.
+     * <p>
+     * The channel is read from its start and closed when this stream is closed.
+     * </p>
+     *
+     * @param channel                the channel to read from.
+     * @param decompressConcatenated if true, decompress until the end of the channel; if false, stop after the first .bz2 stream.
+     * @param executorService        the executor service that decodes blocks.
+     * @param maxBlocksInFlight      the maximum number of blocks decoded ahead of the reader.
+     * @throws IOException              if the channel does not contain a BZip2 stream or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code maxBlocksInFlight < 1}.
+     */
+    public ParallelBZip2CompressorInputStream(final SeekableByteChannel channel, final boolean decompressConcatenated, final ExecutorService executorService,
+            final int maxBlocksInFlight) throws IOException {
+        this(channel, decompressConcatenated, new OrderedTaskQueue<>(executorService, maxBlocksInFlight));
+    }
+
+    /**
+     * Constructs a new stream that decompresses the given channel using {@code threads} threads of its own.
+     * <p>
+     * At most {@code 2 * threads} blocks are decoded ahead of the reader. The channel is read from its start and closed when this stream is closed.
+     * </p>
+     *
+     * @param channel                the channel to read from.
+     * @param decompressConcatenated if true, decompress until the end of the channel; if false, stop after the first .bz2 stream.
+     * @param threads                the number of threads that decode blocks.
+     * @throws IOException              if the channel does not contain a BZip2 stream or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelBZip2CompressorInputStream(final SeekableByteChannel channel, final boolean decompressConcatenated, final int threads) throws IOException {
+        this(channel, decompressConcatenated, new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    private ParallelBZip2CompressorInputStream(final SeekableByteChannel channel, final boolean decompressConcatenated,
+            final OrderedTaskQueue<Block> decoderQueue) throws IOException {
+        this.channel = channel;
+        this.decompressConcatenated = decompressConcatenated;
+        this.decoderQueue = decoderQueue;
+        try {
+            this.size = channel.size();
+            blockSize100k = readHeader(0);
+            if (blockSize100k < 0) {
+                throw new IOException("Stream is not in the BZip2 format");
+            }
+        } catch (final IOException e) {
+            decoderQueue.close();
+            throw e;
+        }
+        scanBuffer.limit(0);
+        scanBlockSize100k = blockSize100k;
+        expectedBit = 4 * Byte.SIZE;
+    }
+
+    /**
+     * Constructs a new stream that decompresses the given file using {@code threads} threads of its own.
+     *
+     * @param path                   the file to read.
+     * @param decompressConcatenated if true, decompress until the end of the file; if false, stop after the first .bz2 stream.
+     * @param threads                the number of threads that decode blocks.
+     * @throws IOException              if the file does not contain a BZip2 stream or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelBZip2CompressorInputStream(final Path path, final boolean decompressConcatenated, final int threads) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), decompressConcatenated, threads);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                decoderQueue.close();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Decodes the block starting at the given bit position, runs on a worker thread.
+     */
+    private Block decode(final Block block) {
+        final long startByte = block.startBit >>> 3;
+        try (BitInputStream bin = new BitInputStream(new BufferedInputStream(new BoundedSeekableByteChannelInputStream(startByte, size - startByte, channel)),
+                ByteOrder.BIG_ENDIAN)) {
+            final int skip = (int) (block.startBit & 7);
+            if (skip > 0) {
+                bin.readBits(skip);
+            }
+            final BZip2CompressorInputStream decoder = new BZip2CompressorInputStream(bin, block.blockSize100k);
+            block.endBit = (startByte + bin.getBytesRead()) * Byte.SIZE - bin.bitsCached();
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream(block.blockSize100k * BZip2Constants.BASEBLOCKSIZE);
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = decoder.read(buffer)) != -1) {
+                bos.write(buffer, 0, n);
+            }
+            block.content = bos.toByteArray();
+            block.crc = decoder.getBlockCRC();
+        } catch (final IOException e) {
+            block.failure = e;
+        } catch (final RuntimeException e) {
+            // garbage decoded from a false candidate may trip the decoder's consistency checks
+            block.failure = new IOException(e);
+        }
+        return block;
+    }
+
+    /**
+     * Submits candidates until enough blocks are in flight or the channel has been scanned completely.
+     */
+    private void fill() throws IOException {
+        while (!decoderQueue.isFull()) {
+            final Block candidate = nextCandidate();
+            if (candidate == null) {
+                return;
+            }
+            decoderQueue.submit(candidate.endOfStream ? () -> candidate : () -> decode(candidate));
+        }
+    }
+
+    /**
+     * @since 1.26.0
+     */
+    @Override
+    public long getCompressedCount() {
+        return expectedBit >>> 3;
+    }
+
+    /**
+     * Moves on to the next block, returns false at the end of the input.
+     */
+    private boolean nextBlock() throws IOException {
+        while (true) {
+            fill();
+            if (decoderQueue.isEmpty()) {
+                throw new IOException("Unexpected end of stream");
+            }
+            Block block = decoderQueue.take();
+            if (block.startBit < expectedBit) {
+                // magic found inside the previous block
+                continue;
+            }
+            if (block.startBit > expectedBit) {
+                throw new IOException("Bad block header");
+            }
+            if (block.endOfStream) {
+                if (!nextStream(block)) {
+                    return false;
+                }
+                continue;
+            }
+            if (block.blockSize100k != blockSize100k) {
+                // the scanner has been misled by an end of stream magic inside a block
+                block = decode(new Block(block.startBit, false, blockSize100k));
+            }
+            if (block.failure != null) {
+                throw block.failure;
+            }
+            computedCombinedCRC = (computedCombinedCRC << 1 | computedCombinedCRC >>> 31) ^ block.crc;
+            expectedBit = block.endBit;
+            content = block.content;
+            contentPosition = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Finds the next block or end of stream magic in the channel.
+     *
+     * @return the candidate or null if the whole channel has been scanned.
+     */
+    private Block nextCandidate() throws IOException {
+        while (true) {
+            while (scanShift >= 0) {
+                final int shift = scanShift--;
+                final long magic = scanWindow >>> shift & MAGIC_MASK;
+                if (magic == BLOCK_MAGIC || magic == END_OF_STREAM_MAGIC) {
+                    final long startBit = scanPosition * Byte.SIZE - shift - MAGIC_BITS;
+                    if (magic == BLOCK_MAGIC) {
+                        return new Block(startBit, false, scanBlockSize100k);
+                    }
+                    if (decompressConcatenated) {
+                        final int next = readHeader(streamHeaderPosition(startBit));
+                        if (next > 0) {
+                            scanBlockSize100k = next;
+                        }
+                    }
+                    return new Block(startBit, true, scanBlockSize100k);
+                }
+            }
+            if (!scanBuffer.hasRemaining()) {
+                if (scanPosition >= size) {
+                    return null;
+                }
+                scanBuffer.clear();
+                // workers read the same channel
+                final int n = IOUtils.read(channel, scanBuffer, scanPosition);
+                if (n <= 0) {
+                    return null;
+                }
+                scanBuffer.flip();
+            }
+            scanWindow = scanWindow << Byte.SIZE | scanBuffer.get() & 0xff;
+            scanPosition++;
+            scanShift = Byte.SIZE - 1;
+        }
+    }
+
+    /**
+     * Verifies the combined CRC at the end of a stream and moves on to the next concatenated stream.
+     *
+     * @return false if there is no next stream.
+     */
+    private boolean nextStream(final Block endOfStream) throws IOException {
+        final long crcBit = endOfStream.startBit + MAGIC_BITS;
+        final int crcOffset = (int) (crcBit & 7);
+        final ByteBuffer crcBuffer = ByteBuffer.allocate(crcOffset == 0 ? 4 : 5);
+        readFully(crcBuffer, crcBit >>> 3);
+        long bits = 0;
+        for (final byte b : crcBuffer.array()) {
+            bits = bits << Byte.SIZE | b & 0xff;
+        }
+        final int storedCombinedCRC = (int) (bits >>> crcBuffer.capacity() * Byte.SIZE - Integer.SIZE - crcOffset);
+        if (storedCombinedCRC != computedCombinedCRC) {
+            throw new IOException("BZip2 CRC error");
+        }
+        final long headerPosition = streamHeaderPosition(endOfStream.startBit);
+        expectedBit = headerPosition * Byte.SIZE;
+        if (!decompressConcatenated || headerPosition >= size) {
+            return false;
+        }
+        blockSize100k = readHeader(headerPosition);
+        if (blockSize100k < 0) {
+            throw new IOException("Garbage after a valid BZip2 stream");
+        }
+        computedCombinedCRC = 0;
+        expectedBit += 4 * Byte.SIZE;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] single = new byte[1];
+        final int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] dest, final int offs, final int len) throws IOException {
+        if (offs < 0) {
+            throw new IndexOutOfBoundsException("offs(" + offs + ") < 0.");
+        }
+        if (len < 0) {
+            throw new IndexOutOfBoundsException("len(" + len + ") < 0.");
+        }
+        if (offs + len > dest.length) {
+            throw new IndexOutOfBoundsException("offs(" + offs + ") + len(" + len + ") > dest.length(" + dest.length + ").");
+        }
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (contentPosition >= content.length) {
+            if (eof || !nextBlock()) {
+                eof = true;
+                return -1;
+            }
+        }
+        final int n = Math.min(len, content.length - contentPosition);
+        System.arraycopy(content, contentPosition, dest, offs, n);
+        contentPosition += n;
+        count(n);
+        return n;
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        final BoundedSeekableByteChannelInputStream in = new BoundedSeekableByteChannelInputStream(position, buffer.remaining(), channel);
+        final byte[] bytes = buffer.array();
+        int off = 0;
+        while (off < bytes.length) {
+            final int n = in.read(bytes, off, bytes.length - off);
+            if (n < 0) {
+                throw new IOException("Unexpected end of stream");
+            }
+            off += n;
+        }
+    }
+
+    /**
+     * Reads a stream header.
+     *
+     * @return the block size or -1 if there is no valid header at the given position.
+     */
+    private int readHeader(final long position) throws IOException {
+        if (position + 4 > size) {
+            return -1;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(header, position);
+        return parseHeader(header.array());
+    }
+
+    /**
+     * Computes the byte position where a concatenated stream would start after the end of stream magic at the given bit position.
+     */
+    private long streamHeaderPosition(final long endOfStreamBit) {
+        return endOfStreamBit + MAGIC_BITS + Integer.SIZE + Byte.SIZE - 1 >>> 3;
+    }
+}
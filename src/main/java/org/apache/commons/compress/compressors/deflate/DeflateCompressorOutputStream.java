@@ -20,6 +20,7 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.Adler32;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
@@ -27,13 +28,33 @@
 
 /**
  * Deflate compressor.
+ * <p>
+ * Uses {@link Deflater} unless the parameters provide a {@link DeflateEncoder}.
+ * </p>
  *
  * @since 1.9
  */
 public class DeflateCompressorOutputStream extends CompressorOutputStream {
-    private final DeflaterOutputStream out;
+
+    /** zlib header for DEFLATE with a 32 KiB window and the default compression level. */
+    private static final byte[] ZLIB_HEADER = { 0x78, (byte) 0x9c };
+
+    /** The stream compressing the data, a {@link DeflaterOutputStream} unless an encoder is used. */
+    private final OutputStream out;
+
+    /** {@code null} if an encoder is used. */
     private final Deflater deflater;
 
+    /** The wrapped stream if an encoder is used, which writes the zlib header and trailer. */
+    private final OutputStream encoded;
+
+    /** The checksum of the uncompressed data if an encoder is used and a zlib header is written. */
+    private final Adler32 adler32;
+
+    private boolean headerWritten;
+
+    private boolean finished;
+
     /**
      * Creates a Deflate compressed output stream with the default parameters.
      *
@@ -50,12 +71,30 @@ public DeflateCompressorOutputStream(final OutputStream outputStream) {
      * @param parameters   the deflate parameters to apply
      */
     public DeflateCompressorOutputStream(final OutputStream outputStream, final DeflateParameters parameters) {
-        this.deflater = new Deflater(parameters.getCompressionLevel(), !parameters.withZlibHeader());
-        this.out = new DeflaterOutputStream(outputStream, deflater);
+        final DeflateEncoder encoder = parameters.getEncoder();
+        if (encoder == null) {
+            this.deflater = new Deflater(parameters.getCompressionLevel(), !parameters.withZlibHeader());
+            this.out = new DeflaterOutputStream(outputStream, deflater);
+            this.encoded = null;
+            this.adler32 = null;
+        } else {
+            this.deflater = null;
+            this.encoded = outputStream;
+            this.adler32 = parameters.withZlibHeader() ? new Adler32() : null;
+            this.out = encoder.createOutputStream(outputStream);
+        }
     }
 
     @Override
     public void close() throws IOException {
+        if (deflater == null) {
+            try {
+                finish();
+            } finally {
+                encoded.close();
+            }
+            return;
+        }
         try {
             out.close();
         } finally {
@@ -72,12 +111,25 @@ public void close() throws IOException {
      * @throws IOException on error
      */
     public void finish() throws IOException {
-        out.finish();
+        if (deflater != null) {
+            ((DeflaterOutputStream) out).finish();
+        } else if (!finished) {
+            finished = true;
+            writeHeader();
+            out.close();
+            if (adler32 != null) {
+                final long checksum = adler32.getValue();
+                encoded.write(new byte[] { (byte) (checksum >>> 24), (byte) (checksum >>> 16), (byte) (checksum >>> 8), (byte) checksum });
+            }
+        }
     }
 
     /**
      * Flushes the encoder and calls {@code outputStream.flush()}. All buffered pending data will then be decompressible from the output stream. Calling this
      * function very often may increase the compressed file size a lot.
+     * <p>
+     * If a {@link DeflateEncoder} is used, only {@code outputStream.flush()} is called.
+     * </p>
      */
     @Override
     public void flush() throws IOException {
@@ -86,11 +138,25 @@ public void flush() throws IOException {
 
     @Override
     public void write(final byte[] buf, final int off, final int len) throws IOException {
+        if (finished) {
+            throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
+        }
+        writeHeader();
         out.write(buf, off, len);
+        if (adler32 != null) {
+            adler32.update(buf, off, len);
+        }
     }
 
     @Override
     public void write(final int b) throws IOException {
-        out.write(b);
+        write(new byte[] { (byte) (b & 0xff) }, 0, 1);
+    }
+
+    private void writeHeader() throws IOException {
+        if (adler32 != null && !headerWritten) {
+            headerWritten = true;
+            encoded.write(ZLIB_HEADER);
+        }
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate;
+
+import java.io.OutputStream;
+
+/**
+ * Encodes raw DEFLATE data, used instead of {@link java.util.zip.Deflater} by {@link DeflateCompressorOutputStream},
+ * {@link org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream} and
+ * {@link org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream} when configured.
+ *
+ * @see LZ77DeflateCompressorOutputStream.Level
+ * @since 1.26.0
+ */
+@FunctionalInterface
+public interface DeflateEncoder {
+
+    /**
+     * Creates a stream that writes raw DEFLATE data, without zlib or gzip header and trailer, to the given stream.
+     * <p>
+     * Closing the returned stream must write all remaining compressed data to {@code out} without closing it.
+     * </p>
+     *
+     * @param out the stream to write the compressed data to.
+     * @return the stream to write the uncompressed data to.
+     */
+    OutputStream createOutputStream(OutputStream out);
+}
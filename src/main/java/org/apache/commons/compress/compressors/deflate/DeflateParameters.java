@@ -33,6 +33,7 @@ public class DeflateParameters {
 
     private boolean zlibHeader = true;
     private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private DeflateEncoder encoder;
 
     /**
      * The compression level.
@@ -44,6 +45,17 @@ public int getCompressionLevel() {
         return compressionLevel;
     }
 
+    /**
+     * Gets the encoder used instead of {@link Deflater}.
+     *
+     * @see #setEncoder
+     * @return the encoder or {@code null} if {@link Deflater} is used
+     * @since 1.26.0
+     */
+    public DeflateEncoder getEncoder() {
+        return encoder;
+    }
+
     /**
      * Sets the compression level.
      *
@@ -60,6 +72,17 @@ public void setCompressionLevel(final int compressionLevel) {
         this.compressionLevel = compressionLevel;
     }
 
+    /**
+     * Sets the encoder to use instead of {@link Deflater}, the compression level is ignored when an encoder is set.
+     *
+     * @param encoder the encoder or {@code null} to use {@link Deflater}
+     * @see LZ77DeflateCompressorOutputStream.Level
+     * @since 1.26.0
+     */
+    public void setEncoder(final DeflateEncoder encoder) {
+        this.encoder = encoder;
+    }
+
     /**
      * Sets the zlib header presence parameter.
      *
@@ -0,0 +1,577 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Encodes literals and back-references as DEFLATE or Deflate64 blocks using fixed or dynamic Huffman codes or stores them uncompressed, whichever is
+ * smaller.
+ * <p>
+ * Symbols are collected until {@link #MAX_BLOCK_SYMBOLS} have been seen, the codes of each block are built from the frequencies of its symbols.
+ * </p>
+ * <p>
+ * Both formats only differ in the window size and in length code 285, which DEFLATE uses for a length of 258 and Deflate64 for lengths from 3 to 65538.
+ * </p>
+ *
+ * @NotThreadSafe
+ */
+final class HuffmanEncoder {
+
+    /** Number of symbols collected before a block is written. */
+    static final int MAX_BLOCK_SYMBOLS = 16 * 1024;
+
+    /** Longest back-reference that is encoded with length codes 257 to 284, code 285 is used for all longer ones. */
+    static final int MAX_SHORT_LENGTH = 257;
+
+    private static final int END_OF_BLOCK = 256;
+    private static final int LONG_LENGTH_CODE = 285;
+    private static final int DEFLATE64_LONG_LENGTH_EXTRA_BITS = 16;
+    private static final int LITERAL_LENGTH_CODES = 286;
+    private static final int DISTANCE_CODES = 32;
+    private static final int MAX_CODE_LENGTH = 15;
+    private static final int MAX_CODE_LENGTH_CODE_LENGTH = 7;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_STORED_LENGTH = 65535;
+
+    // history holds the uncompressed bytes of the current block and the window before it, literal-only blocks of MAX_BLOCK_SYMBOLS bytes
+    // fit next to either window so they can always be stored
+    private static final int DEFLATE_HISTORY_SIZE = 1 << 16;
+    private static final int DEFLATE64_HISTORY_SIZE = 1 << 18;
+
+    /**
+     * The order in which the lengths of the code length codes are stored.
+     */
+    private static final int[] CODE_LENGTHS_ORDER = { 16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15 };
+
+    /** Smallest length of each of the length codes 257 to 284. */
+    private static final int[] LENGTH_BASE = { 3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195,
+            227 };
+
+    /** Length code minus 257 for each length from 3 to {@link #MAX_SHORT_LENGTH}. */
+    private static final byte[] LENGTH_CODE = new byte[MAX_SHORT_LENGTH - 2];
+
+    private static final int[] FIXED_LITERAL_LENGTHS = new int[288];
+
+    private static final int[] FIXED_LITERAL_CODES;
+
+    private static final int[] FIXED_DISTANCE_LENGTHS = new int[DISTANCE_CODES];
+
+    private static final int[] FIXED_DISTANCE_CODES;
+
+    static {
+        for (int code = 0; code < LENGTH_BASE.length; code++) {
+            final int end = code + 1 < LENGTH_BASE.length ? LENGTH_BASE[code + 1] : MAX_SHORT_LENGTH + 1;
+            Arrays.fill(LENGTH_CODE, LENGTH_BASE[code] - 3, end - 3, (byte) code);
+        }
+        Arrays.fill(FIXED_LITERAL_LENGTHS, 0, 144, 8);
+        Arrays.fill(FIXED_LITERAL_LENGTHS, 144, 256, 9);
+        Arrays.fill(FIXED_LITERAL_LENGTHS, 256, 280, 7);
+        Arrays.fill(FIXED_LITERAL_LENGTHS, 280, 288, 8);
+        FIXED_LITERAL_CODES = codes(FIXED_LITERAL_LENGTHS);
+        Arrays.fill(FIXED_DISTANCE_LENGTHS, 5);
+        FIXED_DISTANCE_CODES = codes(FIXED_DISTANCE_LENGTHS);
+    }
+
+    /**
+     * Builds the lengths of Huffman codes for the given symbol frequencies that are not longer than maxLength.
+     * <p>
+     * If the optimal codes would be too long the frequencies are halved until they fit, which is what most encoders do rather than computing optimal length
+     * limited codes.
+     * </p>
+     *
+     * @param frequencies the frequencies of the symbols, at least two symbols must have a frequency bigger than 0.
+     * @param maxLength   maximum length of a code.
+     * @return the code length of each symbol, 0 for symbols that never occur.
+     */
+    static int[] buildCodeLengths(final int[] frequencies, final int maxLength) {
+        int used = 0;
+        for (final int frequency : frequencies) {
+            if (frequency > 0) {
+                used++;
+            }
+        }
+        // leaves sorted by frequency with the symbol in the lower half
+        final long[] leaves = new long[used];
+        final int[] weights = new int[2 * used - 1];
+        final int[] parents = new int[2 * used - 1];
+        final int[] lengths = new int[frequencies.length];
+        int[] current = frequencies;
+        while (true) {
+            for (int symbol = 0, leaf = 0; symbol < current.length; symbol++) {
+                if (current[symbol] > 0) {
+                    leaves[leaf++] = (long) current[symbol] << Integer.SIZE | symbol;
+                }
+            }
+            Arrays.sort(leaves);
+            for (int leaf = 0; leaf < used; leaf++) {
+                weights[leaf] = (int) (leaves[leaf] >>> Integer.SIZE);
+            }
+            // leaves and inner nodes are both created in ascending order of weight, so the two lightest nodes are at the heads of these two queues
+            for (int node = used, nextLeaf = 0, nextInner = used; node < weights.length; node++) {
+                final int first = nextLeaf < used && (nextInner == node || weights[nextLeaf] <= weights[nextInner]) ? nextLeaf++ : nextInner++;
+                final int second = nextLeaf < used && (nextInner == node || weights[nextLeaf] <= weights[nextInner]) ? nextLeaf++ : nextInner++;
+                weights[node] = weights[first] + weights[second];
+                parents[first] = node;
+                parents[second] = node;
+            }
+            // reuse weights for the depths
+            final int[] depths = weights;
+            depths[depths.length - 1] = 0;
+            int longest = 0;
+            for (int node = depths.length - 2; node >= 0; node--) {
+                depths[node] = depths[parents[node]] + 1;
+                longest = Math.max(longest, depths[node]);
+            }
+            if (longest <= maxLength) {
+                for (int leaf = 0; leaf < used; leaf++) {
+                    lengths[(int) leaves[leaf]] = depths[leaf];
+                }
+                return lengths;
+            }
+            final int[] halved = new int[current.length];
+            for (int symbol = 0; symbol < current.length; symbol++) {
+                halved[symbol] = current[symbol] + 1 >>> 1;
+            }
+            current = halved;
+        }
+    }
+
+    /**
+     * Assigns the canonical Huffman codes to symbols with the given code lengths, bit-reversed as Deflate writes codes starting with their most significant
+     * bit.
+     */
+    private static int[] codes(final int[] lengths) {
+        final int[] lengthCount = new int[MAX_CODE_LENGTH + 1];
+        for (final int length : lengths) {
+            lengthCount[length]++;
+        }
+        lengthCount[0] = 0;
+        final int[] nextCode = new int[MAX_CODE_LENGTH + 1];
+        for (int length = 1, code = 0; length <= MAX_CODE_LENGTH; length++) {
+            code = code + lengthCount[length - 1] << 1;
+            nextCode[length] = code;
+        }
+        final int[] codes = new int[lengths.length];
+        for (int symbol = 0; symbol < lengths.length; symbol++) {
+            final int length = lengths[symbol];
+            if (length != 0) {
+                codes[symbol] = Integer.reverse(nextCode[length]++) >>> Integer.SIZE - length;
+            }
+        }
+        return codes;
+    }
+
+    private static int distanceCode(final int distance) {
+        final int d = distance - 1;
+        if (d < 4) {
+            return d;
+        }
+        // two codes per power of two, the bit below the highest one selects between them
+        final int highestBit = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(d);
+        return 2 * highestBit + (d >>> highestBit - 1 & 1);
+    }
+
+    private static int distanceExtraBits(final int distanceCode) {
+        return distanceCode < 4 ? 0 : distanceCode / 2 - 1;
+    }
+
+    private static int lastNonZero(final int[] values, final int minLength) {
+        int length = values.length;
+        while (length > minLength && values[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
+    private static int lengthCode(final int length) {
+        return length > MAX_SHORT_LENGTH ? LONG_LENGTH_CODE : END_OF_BLOCK + 1 + LENGTH_CODE[length - 3];
+    }
+
+    private static int distanceBase(final int distanceCode) {
+        return distanceCode < 4 ? distanceCode + 1 : ((2 | distanceCode & 1) << distanceExtraBits(distanceCode)) + 1;
+    }
+
+    private final OutputStream out;
+
+    private final boolean deflate64;
+
+    /** Length of each back-reference of the current block, 0 for literals. */
+    private final int[] lengths = new int[MAX_BLOCK_SYMBOLS];
+
+    /** Distance of each back-reference or the literal byte of the current block. */
+    private final int[] values = new int[MAX_BLOCK_SYMBOLS];
+
+    private int symbols;
+
+    private final int[] literalLengthFrequencies = new int[LITERAL_LENGTH_CODES];
+
+    private final int[] distanceFrequencies = new int[DISTANCE_CODES];
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int bufferPosition;
+
+    private long bitBuffer;
+
+    private int bitCount;
+
+    private final byte[] history;
+
+    private final int historyMask;
+
+    /** Blocks with more uncompressed bytes aren't considered for storing, they would have overwritten their start inside of history. */
+    private final int maxStoredBlockBytes;
+
+    private long historyLength;
+
+    private long blockStart;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param out       the stream to write the blocks to.
+     * @param deflate64 whether to encode Deflate64 rather than DEFLATE back-references.
+     */
+    HuffmanEncoder(final OutputStream out, final boolean deflate64) {
+        this.out = out;
+        this.deflate64 = deflate64;
+        this.history = new byte[deflate64 ? DEFLATE64_HISTORY_SIZE : DEFLATE_HISTORY_SIZE];
+        this.historyMask = history.length - 1;
+        this.maxStoredBlockBytes = history.length - (deflate64 ? LZ77HuffmanCompressor.MAX_DEFLATE64_DISTANCE : LZ77HuffmanCompressor.MAX_DEFLATE_DISTANCE);
+    }
+
+    /**
+     * Adds a back-reference to the current block.
+     *
+     * @param distance the distance of the back-reference, between 1 and {@link LZ77HuffmanCompressor#MAX_DEFLATE_DISTANCE} or
+     *                 {@link LZ77HuffmanCompressor#MAX_DEFLATE64_DISTANCE}.
+     * @param length   the length of the back-reference, between 3 and {@link LZ77HuffmanCompressor#MAX_DEFLATE_LENGTH} or
+     *                 {@link LZ77HuffmanCompressor#MAX_DEFLATE64_LENGTH}.
+     * @throws IOException if writing a full block fails.
+     */
+    void backReference(final int distance, final int length) throws IOException {
+        lengths[symbols] = length;
+        values[symbols] = distance;
+        literalLengthFrequencies[lengthCode(length)]++;
+        distanceFrequencies[distanceCode(distance)]++;
+        recordBackReference(distance, length);
+        if (++symbols == MAX_BLOCK_SYMBOLS) {
+            writeBlock(false);
+        }
+    }
+
+    /**
+     * Writes the last block and all buffered bytes.
+     *
+     * @throws IOException if writing fails.
+     */
+    void finish() throws IOException {
+        writeBlock(true);
+        alignToByte();
+        out.write(buffer, 0, bufferPosition);
+        bufferPosition = 0;
+    }
+
+    private int lengthBase(final int lengthCode) {
+        if (lengthCode == LONG_LENGTH_CODE) {
+            return deflate64 ? 3 : LZ77HuffmanCompressor.MAX_DEFLATE_LENGTH;
+        }
+        return LENGTH_BASE[lengthCode - END_OF_BLOCK - 1];
+    }
+
+    private int lengthExtraBits(final int lengthCode) {
+        if (lengthCode == LONG_LENGTH_CODE) {
+            return deflate64 ? DEFLATE64_LONG_LENGTH_EXTRA_BITS : 0;
+        }
+        return lengthCode < 265 ? 0 : (lengthCode - 261) / 4;
+    }
+
+    /**
+     * Adds literals to the current block.
+     *
+     * @param data   the array holding the literals.
+     * @param offset the position of the first literal.
+     * @param length the number of literals.
+     * @throws IOException if writing a full block fails.
+     */
+    void literals(final byte[] data, final int offset, final int length) throws IOException {
+        for (int done = 0; done < length;) {
+            // history must only contain the literals of the current block when it is written
+            final int count = Math.min(length - done, MAX_BLOCK_SYMBOLS - symbols);
+            recordLiterals(data, offset + done, count);
+            for (int i = offset + done; i < offset + done + count; i++) {
+                lengths[symbols] = 0;
+                values[symbols++] = data[i] & 0xff;
+                literalLengthFrequencies[data[i] & 0xff]++;
+            }
+            done += count;
+            if (symbols == MAX_BLOCK_SYMBOLS) {
+                writeBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Discards the current block and all buffered bytes so a new stream can be encoded.
+     */
+    void reset() {
+        symbols = 0;
+        Arrays.fill(literalLengthFrequencies, 0);
+        Arrays.fill(distanceFrequencies, 0);
+        bufferPosition = 0;
+        bitBuffer = 0;
+        bitCount = 0;
+        historyLength = 0;
+        blockStart = 0;
+    }
+
+    private void recordBackReference(final int distance, int length) {
+        // copies at most distance bytes at once so the source never overlaps bytes that haven't been copied, yet
+        while (length > 0) {
+            final int from = (int) (historyLength - distance) & historyMask;
+            final int to = (int) historyLength & historyMask;
+            final int len = Math.min(Math.min(length, distance), Math.min(history.length - from, history.length - to));
+            System.arraycopy(history, from, history, to, len);
+            historyLength += len;
+            length -= len;
+        }
+    }
+
+    private void recordLiterals(final byte[] data, final int offset, final int length) {
+        for (int done = 0; done < length;) {
+            final int to = (int) historyLength & historyMask;
+            final int len = Math.min(length - done, history.length - to);
+            System.arraycopy(data, offset + done, history, to, len);
+            historyLength += len;
+            done += len;
+        }
+    }
+
+    /**
+     * Pads the bits written so far to a full byte and writes them.
+     */
+    private void alignToByte() throws IOException {
+        writeBits(0, -bitCount & Byte.SIZE - 1);
+        while (bitCount > 0) {
+            writeByte((int) bitBuffer);
+            bitBuffer >>>= Byte.SIZE;
+            bitCount -= Byte.SIZE;
+        }
+        bitBuffer = 0;
+    }
+
+    private void writeBits(final int value, final int count) throws IOException {
+        bitBuffer |= (long) value << bitCount;
+        bitCount += count;
+        if (bitCount >= Integer.SIZE) {
+            writeByte((int) bitBuffer);
+            writeByte((int) (bitBuffer >>> 8));
+            writeByte((int) (bitBuffer >>> 16));
+            writeByte((int) (bitBuffer >>> 24));
+            bitBuffer >>>= Integer.SIZE;
+            bitCount -= Integer.SIZE;
+        }
+    }
+
+    private void writeBlock(final boolean last) throws IOException {
+        literalLengthFrequencies[END_OF_BLOCK] = 1;
+        final int[] literalLengthLengths = buildCodeLengths(atLeastTwoSymbols(literalLengthFrequencies), MAX_CODE_LENGTH);
+        final int[] distanceLengths = buildCodeLengths(atLeastTwoSymbols(distanceFrequencies), MAX_CODE_LENGTH);
+        final int literalLengthCodes = lastNonZero(literalLengthLengths, END_OF_BLOCK + 1);
+        final int distanceCodes = lastNonZero(distanceLengths, 1);
+
+        // the code lengths of both codes are run-length encoded with the code length codes 16 to 18
+        final int[] codeLengths = new int[literalLengthCodes + distanceCodes];
+        System.arraycopy(literalLengthLengths, 0, codeLengths, 0, literalLengthCodes);
+        System.arraycopy(distanceLengths, 0, codeLengths, literalLengthCodes, distanceCodes);
+        final int[] codeLengthSymbols = new int[codeLengths.length];
+        final int[] codeLengthExtra = new int[codeLengths.length];
+        final int[] codeLengthFrequencies = new int[CODE_LENGTHS_ORDER.length];
+        int codeLengthSymbolCount = 0;
+        for (int i = 0; i < codeLengths.length;) {
+            final int length = codeLengths[i];
+            int run = 1;
+            while (i + run < codeLengths.length && codeLengths[i + run] == length) {
+                run++;
+            }
+            i += run;
+            if (length == 0) {
+                while (run >= 11) {
+                    final int repeat = Math.min(run, 138);
+                    codeLengthSymbols[codeLengthSymbolCount] = 18;
+                    codeLengthExtra[codeLengthSymbolCount++] = repeat - 11;
+                    run -= repeat;
+                }
+                if (run >= 3) {
+                    codeLengthSymbols[codeLengthSymbolCount] = 17;
+                    codeLengthExtra[codeLengthSymbolCount++] = run - 3;
+                    run = 0;
+                }
+            } else {
+                codeLengthSymbols[codeLengthSymbolCount++] = length;
+                run--;
+                while (run >= 3) {
+                    final int repeat = Math.min(run, 6);
+                    codeLengthSymbols[codeLengthSymbolCount] = 16;
+                    codeLengthExtra[codeLengthSymbolCount++] = repeat - 3;
+                    run -= repeat;
+                }
+            }
+            while (run-- > 0) {
+                codeLengthSymbols[codeLengthSymbolCount++] = length;
+            }
+        }
+        for (int i = 0; i < codeLengthSymbolCount; i++) {
+            codeLengthFrequencies[codeLengthSymbols[i]]++;
+        }
+        final int[] codeLengthLengths = buildCodeLengths(atLeastTwoSymbols(codeLengthFrequencies), MAX_CODE_LENGTH_CODE_LENGTH);
+        int codeLengthCodes = CODE_LENGTHS_ORDER.length;
+        while (codeLengthCodes > 4 && codeLengthLengths[CODE_LENGTHS_ORDER[codeLengthCodes - 1]] == 0) {
+            codeLengthCodes--;
+        }
+
+        long extraBits = 0;
+        for (int symbol = END_OF_BLOCK + 1; symbol < LITERAL_LENGTH_CODES; symbol++) {
+            extraBits += (long) literalLengthFrequencies[symbol] * lengthExtraBits(symbol);
+        }
+        for (int symbol = 0; symbol < DISTANCE_CODES; symbol++) {
+            extraBits += (long) distanceFrequencies[symbol] * distanceExtraBits(symbol);
+        }
+        long dynamicBits = 2 + 5 + 5 + 4 + 3 * codeLengthCodes + extraBits;
+        long fixedBits = 2 + extraBits;
+        for (int i = 0; i < codeLengthSymbolCount; i++) {
+            final int symbol = codeLengthSymbols[i];
+            dynamicBits += codeLengthLengths[symbol] + (symbol == 16 ? 2 : symbol == 17 ? 3 : symbol == 18 ? 7 : 0);
+        }
+        for (int symbol = 0; symbol < LITERAL_LENGTH_CODES; symbol++) {
+            dynamicBits += (long) literalLengthFrequencies[symbol] * literalLengthLengths[symbol];
+            fixedBits += (long) literalLengthFrequencies[symbol] * FIXED_LITERAL_LENGTHS[symbol];
+        }
+        for (int symbol = 0; symbol < DISTANCE_CODES; symbol++) {
+            dynamicBits += (long) distanceFrequencies[symbol] * distanceLengths[symbol];
+            fixedBits += (long) distanceFrequencies[symbol] * FIXED_DISTANCE_LENGTHS[symbol];
+        }
+
+        final long blockLength = historyLength - blockStart;
+        // at most seven bits of padding, the block type and the length and its complement for each stored block
+        final long storedBits = blockLength > maxStoredBlockBytes ? Long.MAX_VALUE
+                : Math.max(1, (blockLength + MAX_STORED_LENGTH - 1) / MAX_STORED_LENGTH) * (7 + 2 + 32) + blockLength * Byte.SIZE;
+
+        if (storedBits < Math.min(dynamicBits, fixedBits)) {
+            writeStoredBlocks(last, (int) blockLength);
+        } else if (dynamicBits < fixedBits) {
+            writeBits(last ? 1 : 0, 1);
+            writeBits(2, 2);
+            writeBits(literalLengthCodes - END_OF_BLOCK - 1, 5);
+            writeBits(distanceCodes - 1, 5);
+            writeBits(codeLengthCodes - 4, 4);
+            for (int i = 0; i < codeLengthCodes; i++) {
+                writeBits(codeLengthLengths[CODE_LENGTHS_ORDER[i]], 3);
+            }
+            final int[] codeLengthCodesTable = codes(codeLengthLengths);
+            for (int i = 0; i < codeLengthSymbolCount; i++) {
+                final int symbol = codeLengthSymbols[i];
+                writeBits(codeLengthCodesTable[symbol], codeLengthLengths[symbol]);
+                if (symbol >= 16) {
+                    writeBits(codeLengthExtra[i], symbol == 16 ? 2 : symbol == 17 ? 3 : 7);
+                }
+            }
+            writeSymbols(codes(literalLengthLengths), literalLengthLengths, codes(distanceLengths), distanceLengths);
+        } else {
+            writeBits(last ? 1 : 0, 1);
+            writeBits(1, 2);
+            writeSymbols(FIXED_LITERAL_CODES, FIXED_LITERAL_LENGTHS, FIXED_DISTANCE_CODES, FIXED_DISTANCE_LENGTHS);
+        }
+        symbols = 0;
+        blockStart = historyLength;
+        Arrays.fill(literalLengthFrequencies, 0);
+        Arrays.fill(distanceFrequencies, 0);
+    }
+
+    /**
+     * Returns frequencies where at least two symbols occur, some decoders reject codes with a single symbol.
+     */
+    private static int[] atLeastTwoSymbols(final int[] frequencies) {
+        int used = 0;
+        for (final int frequency : frequencies) {
+            if (frequency > 0) {
+                used++;
+            }
+        }
+        if (used >= 2) {
+            return frequencies;
+        }
+        final int[] result = frequencies.clone();
+        for (int symbol = 0; used < 2; symbol++) {
+            if (result[symbol] == 0) {
+                result[symbol] = 1;
+                used++;
+            }
+        }
+        return result;
+    }
+
+    private void writeByte(final int b) throws IOException {
+        if (bufferPosition == buffer.length) {
+            out.write(buffer, 0, bufferPosition);
+            bufferPosition = 0;
+        }
+        buffer[bufferPosition++] = (byte) b;
+    }
+
+    private void writeStoredBlocks(final boolean last, final int blockLength) throws IOException {
+        int written = 0;
+        do {
+            final int length = Math.min(blockLength - written, MAX_STORED_LENGTH);
+            writeBits(last && written + length == blockLength ? 1 : 0, 1);
+            writeBits(0, 2);
+            alignToByte();
+            writeBits(length, 16);
+            writeBits(~length & 0xffff, 16);
+            alignToByte();
+            for (int i = 0; i < length; i++) {
+                writeByte(history[(int) (blockStart + written + i) & historyMask]);
+            }
+            written += length;
+        } while (written < blockLength);
+    }
+
+    private void writeSymbols(final int[] literalLengthCodes, final int[] literalLengthLengths, final int[] distanceCodes, final int[] distanceLengths)
+            throws IOException {
+        for (int i = 0; i < symbols; i++) {
+            final int length = lengths[i];
+            if (length == 0) {
+                final int literal = values[i];
+                writeBits(literalLengthCodes[literal], literalLengthLengths[literal]);
+            } else {
+                final int lengthCode = lengthCode(length);
+                writeBits(literalLengthCodes[lengthCode], literalLengthLengths[lengthCode]);
+                writeBits(length - lengthBase(lengthCode), lengthExtraBits(lengthCode));
+                final int distance = values[i];
+                final int distanceCode = distanceCode(distance);
+                writeBits(distanceCodes[distanceCode], distanceLengths[distanceCode]);
+                writeBits(distance - distanceBase(distanceCode), distanceExtraBits(distanceCode));
+            }
+        }
+        writeBits(literalLengthCodes[END_OF_BLOCK], literalLengthLengths[END_OF_BLOCK]);
+    }
+}
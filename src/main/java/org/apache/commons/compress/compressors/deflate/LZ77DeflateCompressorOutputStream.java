@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz77support.LZ77Compressor;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+
+/**
+ * Raw DEFLATE compressor written in Java.
+ * <p>
+ * Back-references are found by {@link LZ77Compressor} within a window of 32 KiB and may be up to 258 bytes long, they are encoded in blocks using fixed or
+ * dynamic Huffman codes or stored, whichever is smallest. Unlike {@link java.util.zip.Deflater} no native code is involved, which avoids the cost of a JNI
+ * call for small writes.
+ * </p>
+ * <p>
+ * The output doesn't contain a zlib header, use {@link DeflateCompressorOutputStream} with {@link DeflateParameters#setEncoder} to get one.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class LZ77DeflateCompressorOutputStream extends CompressorOutputStream {
+
+    /**
+     * Predefined trade-offs between compression speed and ratio.
+     * <p>
+     * Each level is a {@link DeflateEncoder} creating streams of this class.
+     * </p>
+     */
+    public enum Level implements DeflateEncoder {
+
+        /**
+         * Probes a single candidate per position and takes the first back-reference it finds, see {@link Parameters.MatchFinder#FAST}.
+         */
+        FASTEST,
+
+        /**
+         * Searches chains of up to 128 candidates and uses lazy matching for back-references shorter than 16 bytes, resembling the default compression
+         * level of zlib.
+         */
+        LAZY,
+
+        /**
+         * Searches chains of up to 4096 candidates and defers every back-reference for as long as the next position provides a longer one, see
+         * {@link Parameters.MatchFinder#HIGH_COMPRESSION}.
+         */
+        SLOW;
+
+        @Override
+        public OutputStream createOutputStream(final OutputStream out) {
+            return new LZ77DeflateCompressorOutputStream(out, this) {
+                @Override
+                public void close() throws IOException {
+                    finish();
+                }
+            };
+        }
+    }
+
+    /*
+     * The window of LZ77Compressor must be a power of two and offsets are smaller than the window size, so a window twice as big as the one of DEFLATE is
+     * used with the maximum offset limited to what DEFLATE supports.
+     */
+    private static final int WINDOW_SIZE = 2 * LZ77HuffmanCompressor.MAX_DEFLATE_DISTANCE;
+
+    /**
+     * Returns a builder correctly configured for the DEFLATE algorithm at the given level.
+     *
+     * @param level the trade-off between compression speed and ratio.
+     * @return a builder correctly configured for the DEFLATE algorithm
+     */
+    public static Parameters.Builder createParameterBuilder(final Level level) {
+        final Parameters.Builder builder = Parameters.builder(WINDOW_SIZE).withMaxOffset(LZ77HuffmanCompressor.MAX_DEFLATE_DISTANCE)
+                .withMaxBackReferenceLength(LZ77HuffmanCompressor.MAX_DEFLATE_LENGTH);
+        switch (level) {
+        case FASTEST:
+            return builder.withMatchFinder(Parameters.MatchFinder.FAST);
+        case SLOW:
+            return builder.withMatchFinder(Parameters.MatchFinder.HIGH_COMPRESSION)
+                    .withNiceBackReferenceLength(LZ77HuffmanCompressor.MAX_DEFLATE_LENGTH).withMaxNumberOfCandidates(4096);
+        default:
+            return builder.withNiceBackReferenceLength(128).withMaxNumberOfCandidates(128).withLazyMatching(true).withLazyThreshold(16);
+        }
+    }
+
+    private final OutputStream out;
+
+    private final LZ77HuffmanCompressor compressor;
+
+    // used in one-arg write method
+    private final byte[] oneByte = new byte[1];
+
+    /**
+     * Creates a new DEFLATE output stream using {@link Level#LAZY}.
+     *
+     * @param out the stream to write the compressed data to.
+     */
+    public LZ77DeflateCompressorOutputStream(final OutputStream out) {
+        this(out, Level.LAZY);
+    }
+
+    /**
+     * Creates a new DEFLATE output stream using the parameters of {@link #createParameterBuilder(Level)}.
+     *
+     * @param out   the stream to write the compressed data to.
+     * @param level the trade-off between compression speed and ratio.
+     */
+    public LZ77DeflateCompressorOutputStream(final OutputStream out, final Level level) {
+        this(out, createParameterBuilder(level).build());
+    }
+
+    /**
+     * Creates a new DEFLATE output stream.
+     *
+     * @param out    the stream to write the compressed data to.
+     * @param params the parameters to use for LZ77 compression.
+     * @throws IllegalArgumentException if the parameters allow back-references DEFLATE can't encode.
+     */
+    public LZ77DeflateCompressorOutputStream(final OutputStream out, final Parameters params) {
+        this.out = out;
+        this.compressor = new LZ77HuffmanCompressor(out, params, false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Compresses all remaining data and writes it to the stream, doesn't close the underlying stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    public void finish() throws IOException {
+        compressor.finish();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void write(final byte[] data, final int off, final int len) throws IOException {
+        compressor.compress(data, off, len);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        oneByte[0] = (byte) (b & 0xff);
+        write(oneByte);
+    }
+}
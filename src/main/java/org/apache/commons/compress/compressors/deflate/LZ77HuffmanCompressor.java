@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.lz77support.LZ77Compressor;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+
+/**
+ * Compresses data to DEFLATE or Deflate64 blocks: back-references found by {@link LZ77Compressor} are encoded using fixed or dynamic Huffman codes or
+ * stored, whichever is smallest.
+ * <p>
+ * This class is used internally by {@link LZ77DeflateCompressorOutputStream},
+ * {@link org.apache.commons.compress.compressors.deflate64.Deflate64CompressorOutputStream} and
+ * {@link org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream}, it is not meant to be used directly and may change without notice.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public final class LZ77HuffmanCompressor {
+
+    /** Maximum length of a DEFLATE back-reference. */
+    public static final int MAX_DEFLATE_LENGTH = 258;
+
+    /** Maximum distance of a DEFLATE back-reference. */
+    public static final int MAX_DEFLATE_DISTANCE = 32768;
+
+    /** Maximum length of a Deflate64 back-reference. */
+    public static final int MAX_DEFLATE64_LENGTH = 65538;
+
+    /** Maximum distance of a Deflate64 back-reference. */
+    public static final int MAX_DEFLATE64_DISTANCE = 65536;
+
+    private final HuffmanEncoder encoder;
+
+    private final LZ77Compressor compressor;
+
+    private boolean finished;
+
+    /**
+     * Creates a new compressor.
+     *
+     * @param out       the stream to write the compressed data to.
+     * @param params    the parameters to use for LZ77 compression.
+     * @param deflate64 whether to write Deflate64 rather than DEFLATE data.
+     * @throws IllegalArgumentException if the parameters allow back-references the format can't encode.
+     */
+    public LZ77HuffmanCompressor(final OutputStream out, final Parameters params, final boolean deflate64) {
+        final int maxDistance = deflate64 ? MAX_DEFLATE64_DISTANCE : MAX_DEFLATE_DISTANCE;
+        final int maxLength = deflate64 ? MAX_DEFLATE64_LENGTH : MAX_DEFLATE_LENGTH;
+        if (params.getMaxOffset() > maxDistance) {
+            throw new IllegalArgumentException("maxOffset(" + params.getMaxOffset() + ") > " + maxDistance);
+        }
+        if (params.getMaxBackReferenceLength() > maxLength) {
+            throw new IllegalArgumentException("maxBackReferenceLength(" + params.getMaxBackReferenceLength() + ") > " + maxLength);
+        }
+        encoder = new HuffmanEncoder(out, deflate64);
+        compressor = new LZ77Compressor(params, new LZ77Compressor.BlockCallback() {
+
+            @Override
+            public void onBackReference(final int offset, final int length) throws IOException {
+                encoder.backReference(offset, length);
+            }
+
+            @Override
+            public void onEndOfData() throws IOException {
+                encoder.finish();
+            }
+
+            @Override
+            public void onLiteral(final byte[] data, final int offset, final int length) throws IOException {
+                encoder.literals(data, offset, length);
+            }
+        });
+    }
+
+    /**
+     * Compresses data, full blocks are written to the stream.
+     *
+     * @param data the data to compress.
+     * @param off  the start offset of the data.
+     * @param len  the number of bytes to compress.
+     * @throws IOException if the compressor has been finished or writing fails.
+     */
+    public void compress(final byte[] data, final int off, final int len) throws IOException {
+        if (finished) {
+            throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
+        }
+        compressor.compress(data, off, len);
+    }
+
+    /**
+     * Compresses all remaining data and writes it to the stream, does nothing if the compressor has been finished already.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            compressor.finish();
+            finished = true;
+        }
+    }
+
+    /**
+     * Discards all state so the compressor can write a new stream to the same output, reusing its buffers. Data that hasn't been written by
+     * {@link #finish()} is dropped.
+     */
+    public void reset() {
+        compressor.reset();
+        encoder.reset();
+        finished = false;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate64;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.LZ77HuffmanCompressor;
+import org.apache.commons.compress.compressors.lz77support.LZ77Compressor;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+
+/**
+ * Deflate64 compressor.
+ * <p>
+ * Back-references are found by {@link LZ77Compressor} within a window of 64 KiB and may be up to 65538 bytes long, they are encoded in blocks using fixed or
+ * dynamic Huffman codes or stored, whichever is smallest. Streams written by this class can be read by {@link Deflate64CompressorInputStream}.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class Deflate64CompressorOutputStream extends CompressorOutputStream {
+
+    /*
+     * The window of LZ77Compressor must be a power of two and offsets are smaller than the window size, so a window twice as big as the one of Deflate64 is
+     * used with the maximum offset limited to what Deflate64 supports.
+     */
+    private static final int WINDOW_SIZE = 2 * LZ77HuffmanCompressor.MAX_DEFLATE64_DISTANCE;
+
+    /**
+     * Returns a builder correctly configured for the Deflate64 algorithm.
+     * <p>
+     * Its defaults resemble the default compression level of zlib: chains of up to 128 candidates are searched, lazy matching is used for matches shorter than
+     * 16 bytes and the search stops at matches of 128 bytes or more.
+     * </p>
+     *
+     * @return a builder correctly configured for the Deflate64 algorithm
+     */
+    public static Parameters.Builder createParameterBuilder() {
+        return Parameters.builder(WINDOW_SIZE).withMaxOffset(LZ77HuffmanCompressor.MAX_DEFLATE64_DISTANCE)
+                .withMaxBackReferenceLength(LZ77HuffmanCompressor.MAX_DEFLATE64_LENGTH).withNiceBackReferenceLength(128).withMaxNumberOfCandidates(128)
+                .withLazyMatching(true).withLazyThreshold(16);
+    }
+
+    private final OutputStream out;
+
+    private final LZ77HuffmanCompressor compressor;
+
+    // used in one-arg write method
+    private final byte[] oneByte = new byte[1];
+
+    /**
+     * Creates a new Deflate64 output stream using the parameters of {@link #createParameterBuilder()}.
+     *
+     * @param out the stream to write the compressed data to.
+     */
+    public Deflate64CompressorOutputStream(final OutputStream out) {
+        this(out, createParameterBuilder().build());
+    }
+
+    /**
+     * Creates a new Deflate64 output stream.
+     *
+     * @param out    the stream to write the compressed data to.
+     * @param params the parameters to use for LZ77 compression.
+     * @throws IllegalArgumentException if the parameters allow back-references Deflate64 can't encode.
+     */
+    public Deflate64CompressorOutputStream(final OutputStream out, final Parameters params) {
+        this.out = out;
+        this.compressor = new LZ77HuffmanCompressor(out, params, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Compresses all remaining data and writes it to the stream, doesn't close the underlying stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    public void finish() throws IOException {
+        compressor.finish();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void write(final byte[] data, final int off, final int len) throws IOException {
+        compressor.compress(data, off, len);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        oneByte[0] = (byte) (b & 0xff);
+        write(oneByte);
+    }
+}
@@ -37,34 +37,131 @@
  */
 class HuffmanDecoder implements Closeable {
 
-    private static final class BinaryTreeNode {
-        private final int bits;
-        int literal = -1;
-        BinaryTreeNode leftNode;
-        BinaryTreeNode rightNode;
-
-        private BinaryTreeNode(final int bits) {
-            this.bits = bits;
-        }
-
-        void leaf(final int symbol) {
-            literal = symbol;
-            leftNode = null;
-            rightNode = null;
+    /**
+     * Decodes Huffman codes by looking up the next bits in a table rather than walking a tree bit by bit.
+     * <p>
+     * The primary table is indexed by the next {@link #PRIMARY_BITS} bits of the stream. Its entries either hold the symbol and length of a code that is not
+     * longer than that or point to a subtable indexed by the bits following the primary ones. Deflate stores Huffman codes starting with their most
+     * significant bit, so the tables are indexed by bit-reversed codes.
+     * </p>
+     */
+    private static final class DecodingTable {
+        private static final int PRIMARY_BITS = 9;
+        private static final int MAX_CODE_LENGTH = 15;
+        private static final int LENGTH_BITS = 4;
+        private static final int LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+
+        private static int reverse(final int code, final int length) {
+            return Integer.reverse(code) >>> Integer.SIZE - length;
+        }
+
+        /**
+         * Entries are 0 for bit sequences no code starts with, {@code symbol << LENGTH_BITS | codeLength} for codes and
+         * {@code ~(subtableOffset << LENGTH_BITS | subtableBits)} for subtables.
+         */
+        private final int[] entries;
+
+        DecodingTable(final int[] codeLengths) {
+            final int[] codes = getCodes(codeLengths);
+            // number of bits used to index the subtable, per primary index
+            final int[] subtableBits = new int[1 << PRIMARY_BITS];
+            for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+                final int length = codeLengths[symbol];
+                if (length > PRIMARY_BITS) {
+                    final int primary = codes[symbol] & (1 << PRIMARY_BITS) - 1;
+                    subtableBits[primary] = Math.max(subtableBits[primary], length - PRIMARY_BITS);
+                }
+            }
+            int size = 1 << PRIMARY_BITS;
+            final int[] subtableOffsets = new int[1 << PRIMARY_BITS];
+            for (int primary = 0; primary < subtableBits.length; primary++) {
+                if (subtableBits[primary] > 0) {
+                    subtableOffsets[primary] = size;
+                    size += 1 << subtableBits[primary];
+                }
+            }
+            entries = new int[size];
+            for (int primary = 0; primary < subtableBits.length; primary++) {
+                if (subtableBits[primary] > 0) {
+                    entries[primary] = ~(subtableOffsets[primary] << LENGTH_BITS | subtableBits[primary]);
+                }
+            }
+            for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+                final int length = codeLengths[symbol];
+                if (length == 0) {
+                    continue;
+                }
+                final int entry = symbol << LENGTH_BITS | length;
+                if (length <= PRIMARY_BITS) {
+                    // all indexes that start with the code
+                    for (int i = codes[symbol]; i < 1 << PRIMARY_BITS; i += 1 << length) {
+                        entries[i] = entry;
+                    }
+                } else {
+                    final int primary = codes[symbol] & (1 << PRIMARY_BITS) - 1;
+                    final int offset = subtableOffsets[primary];
+                    for (int i = codes[symbol] >>> PRIMARY_BITS; i < 1 << subtableBits[primary]; i += 1 << length - PRIMARY_BITS) {
+                        entries[offset + i] = entry;
+                    }
+                }
+            }
         }
 
-        BinaryTreeNode left() {
-            if (leftNode == null && literal == -1) {
-                leftNode = new BinaryTreeNode(bits + 1);
+        /**
+         * Assigns the canonical Huffman codes, bit-reversed, to the symbols.
+         */
+        private static int[] getCodes(final int[] codeLengths) {
+            final int[] lengthCount = new int[MAX_CODE_LENGTH + 1];
+            for (final int length : codeLengths) {
+                if (length < 0 || length > MAX_CODE_LENGTH) {
+                    throw new IllegalArgumentException("Invalid code " + length + " in literal table");
+                }
+                lengthCount[length]++;
+            }
+            lengthCount[0] = 0;
+            final int[] nextCode = new int[MAX_CODE_LENGTH + 1];
+            for (int length = 1, code = 0; length <= MAX_CODE_LENGTH; length++) {
+                code = code + lengthCount[length - 1] << 1;
+                nextCode[length] = code;
+            }
+            final int[] codes = new int[codeLengths.length];
+            for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+                final int length = codeLengths[symbol];
+                if (length != 0) {
+                    final int code = nextCode[length]++;
+                    if (code >= 1 << length) {
+                        throw new IllegalStateException("node doesn't exist in Huffman tree");
+                    }
+                    codes[symbol] = reverse(code, length);
+                }
             }
-            return leftNode;
+            return codes;
         }
 
-        BinaryTreeNode right() {
-            if (rightNode == null && literal == -1) {
-                rightNode = new BinaryTreeNode(bits + 1);
+        private int lookup(final int bits) {
+            final int entry = entries[bits & (1 << PRIMARY_BITS) - 1];
+            if (entry >= 0) {
+                return entry;
+            }
+            final int subtable = ~entry;
+            return entries[(subtable >>> LENGTH_BITS) + (bits >>> PRIMARY_BITS & (1 << (subtable & LENGTH_MASK)) - 1)];
+        }
+
+        int nextSymbol(final BitInputStream reader) throws IOException {
+            // Only look at bits that have been cached already and read more bytes if they don't contain a complete code, the stream must not be read
+            // beyond its end as the data following it may be read by someone else.
+            int available = Math.min(Math.max(reader.bitsCached(), 1), MAX_CODE_LENGTH);
+            while (true) {
+                final int entry = lookup((int) reader.peekBits(available));
+                if (entry != 0 && (entry & LENGTH_MASK) <= available) {
+                    readBits(reader, entry & LENGTH_MASK);
+                    return entry >>> LENGTH_BITS;
+                }
+                if (available == MAX_CODE_LENGTH) {
+                    throw new IllegalStateException("Invalid Huffman code");
+                }
+                available = Math.min(Math.max(available + 1, reader.bitsCached()), MAX_CODE_LENGTH);
             }
-            return rightNode;
         }
     }
 
@@ -130,8 +227,8 @@ void recordToBuffer(final int distance, final int length, final byte[] buff) {
     private final class HuffmanCodes extends DecoderState {
         private boolean endOfBlock;
         private final HuffmanState state;
-        private final BinaryTreeNode lengthTree;
-        private final BinaryTreeNode distanceTree;
+        private final DecodingTable lengthTable;
+        private final DecodingTable distanceTable;
 
         private int runBufferPos;
         private byte[] runBuffer = ByteUtils.EMPTY_BYTE_ARRAY;
@@ -139,8 +236,8 @@ private final class HuffmanCodes extends DecoderState {
 
         HuffmanCodes(final HuffmanState state, final int[] lengths, final int[] distance) {
             this.state = state;
-            lengthTree = buildTree(lengths);
-            distanceTree = buildTree(distance);
+            lengthTable = new DecodingTable(lengths);
+            distanceTable = new DecodingTable(distance);
         }
 
         @Override
@@ -166,7 +263,7 @@ private int decodeNext(final byte[] b, final int off, final int len) throws IOEx
             int result = copyFromRunBuffer(b, off, len);
 
             while (result < len) {
-                final int symbol = nextSymbol(reader, lengthTree);
+                final int symbol = lengthTable.nextSymbol(reader);
                 if (symbol < 256) {
                     b[off + result++] = memory.add((byte) symbol);
                 } else if (symbol > 256) {
@@ -175,7 +272,7 @@ private int decodeNext(final byte[] b, final int off, final int len) throws IOEx
                     final int runXtra = runMask & 0x1F;
                     run = ExactMath.add(run, readBits(runXtra));
 
-                    final int distSym = nextSymbol(reader, distanceTree);
+                    final int distSym = distanceTable.nextSymbol(reader);
 
                     final int distMask = DISTANCE_TABLE[distSym];
                     int dist = distMask >>> 4;
@@ -365,62 +462,6 @@ HuffmanState state() {
         Arrays.fill(FIXED_DISTANCE, 5);
     }
 
-    private static BinaryTreeNode buildTree(final int[] litTable) {
-        final int[] literalCodes = getCodes(litTable);
-
-        final BinaryTreeNode root = new BinaryTreeNode(0);
-
-        for (int i = 0; i < litTable.length; i++) {
-            final int len = litTable[i];
-            if (len != 0) {
-                BinaryTreeNode node = root;
-                final int lit = literalCodes[len - 1];
-                for (int p = len - 1; p >= 0; p--) {
-                    final int bit = lit & 1 << p;
-                    node = bit == 0 ? node.left() : node.right();
-                    if (node == null) {
-                        throw new IllegalStateException("node doesn't exist in Huffman tree");
-                    }
-                }
-                node.leaf(i);
-                literalCodes[len - 1]++;
-            }
-        }
-        return root;
-    }
-
-    private static int[] getCodes(final int[] litTable) {
-        int max = 0;
-        int[] blCount = new int[65];
-
-        for (final int aLitTable : litTable) {
-            if (aLitTable < 0 || aLitTable > 64) {
-                throw new IllegalArgumentException("Invalid code " + aLitTable + " in literal table");
-            }
-            max = Math.max(max, aLitTable);
-            blCount[aLitTable]++;
-        }
-        blCount = Arrays.copyOf(blCount, max + 1);
-
-        int code = 0;
-        final int[] nextCode = new int[max + 1];
-        for (int i = 0; i <= max; i++) {
-            code = code + blCount[i] << 1;
-            nextCode[i] = code;
-        }
-
-        return nextCode;
-    }
-
-    private static int nextSymbol(final BitInputStream reader, final BinaryTreeNode tree) throws IOException {
-        BinaryTreeNode node = tree;
-        while (node != null && node.literal == -1) {
-            final long bit = readBits(reader, 1);
-            node = bit == 0 ? node.leftNode : node.rightNode;
-        }
-        return node != null ? node.literal : -1;
-    }
-
     private static void populateDynamicTables(final BitInputStream reader, final int[] literals, final int[] distances) throws IOException {
         final int codeLengths = (int) (readBits(reader, 4) + 4);
 
@@ -429,7 +470,7 @@ private static void populateDynamicTables(final BitInputStream reader, final int
             codeLengthValues[CODE_LENGTHS_ORDER[cLen]] = (int) readBits(reader, 3);
         }
 
-        final BinaryTreeNode codeLengthTree = buildTree(codeLengthValues);
+        final DecodingTable codeLengthTable = new DecodingTable(codeLengthValues);
 
         final int[] auxBuffer = new int[literals.length + distances.length];
 
@@ -441,7 +482,7 @@ private static void populateDynamicTables(final BitInputStream reader, final int
                 auxBuffer[off++] = value;
                 length--;
             } else {
-                final int symbol = nextSymbol(reader, codeLengthTree);
+                final int symbol = codeLengthTable.nextSymbol(reader);
                 if (symbol < 16) {
                     value = symbol;
                     auxBuffer[off++] = value;
@@ -18,6 +18,6 @@
  */
 
 /**
- * Provides a stream that allows decompressing streams using the DEFLATE64(tm) algorithm. DEFLATE64 is a trademark of PKWARE, Inc.
+ * Provides stream classes that allow (de)compressing streams using the DEFLATE64(tm) algorithm. DEFLATE64 is a trademark of PKWARE, Inc.
  */
 package org.apache.commons.compress.compressors.deflate64;
@@ -31,6 +31,7 @@
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflateEncoder;
 
 /**
  * Compressed output stream using the gzip format. This implementation improves over the standard {@link GZIPOutputStream} class by allowing the configuration
@@ -49,12 +50,21 @@ public class GzipCompressorOutputStream extends CompressorOutputStream {
     /** The underlying stream */
     private final OutputStream out;
 
-    /** Deflater used to compress the data */
+    /** Deflater used to compress the data, {@code null} if an encoder is used */
     private final Deflater deflater;
 
     /** The buffer receiving the compressed data from the deflater */
     private final byte[] deflateBuffer;
 
+    /** Stream compressing the data if {@link GzipParameters#getDeflateEncoder()} provides an encoder */
+    private final OutputStream encoder;
+
+    /** Number of uncompressed bytes written to the encoder */
+    private long encoderTotalIn;
+
+    /** Indicates if the compressed data has been finished */
+    private boolean finished;
+
     /** Indicates if the stream has been closed */
     private boolean closed;
 
@@ -82,10 +92,18 @@ public GzipCompressorOutputStream(final OutputStream out) throws IOException {
      */
     public GzipCompressorOutputStream(final OutputStream out, final GzipParameters parameters) throws IOException {
         this.out = out;
-        this.deflater = new Deflater(parameters.getCompressionLevel(), true);
-        this.deflater.setStrategy(parameters.getDeflateStrategy());
-        this.deflateBuffer = new byte[parameters.getBufferSize()];
-        writeHeader(parameters);
+        final DeflateEncoder deflateEncoder = parameters.getDeflateEncoder();
+        if (deflateEncoder == null) {
+            this.deflater = new Deflater(parameters.getCompressionLevel(), true);
+            this.deflater.setStrategy(parameters.getDeflateStrategy());
+            this.deflateBuffer = new byte[parameters.getBufferSize()];
+            this.encoder = null;
+        } else {
+            this.deflater = null;
+            this.deflateBuffer = null;
+            this.encoder = deflateEncoder.createOutputStream(out);
+        }
+        writeHeader(out, parameters);
     }
 
     @Override
@@ -94,7 +112,9 @@ public void close() throws IOException {
             try {
                 finish();
             } finally {
-                deflater.end();
+                if (deflater != null) {
+                    deflater.end();
+                }
                 out.close();
                 closed = true;
             }
@@ -115,11 +135,16 @@ private void deflate() throws IOException {
      * @throws IOException on error
      */
     public void finish() throws IOException {
-        if (!deflater.finished()) {
-            deflater.finish();
-
-            while (!deflater.finished()) {
-                deflate();
+        if (!finished) {
+            finished = true;
+            if (encoder != null) {
+                encoder.close();
+            } else {
+                deflater.finish();
+
+                while (!deflater.finished()) {
+                    deflate();
+                }
             }
 
             writeTrailer();
@@ -146,7 +171,7 @@ public void flush() throws IOException {
      * @return
      * @throws IOException
      */
-    private byte[] getBytes(final String string) throws IOException {
+    private static byte[] getBytes(final String string) throws IOException {
         if (GzipUtils.GZIP_ENCODING.newEncoder().canEncode(string)) {
             return string.getBytes(GzipUtils.GZIP_ENCODING);
         }
@@ -174,14 +199,19 @@ public void write(final byte[] buffer) throws IOException {
      */
     @Override
     public void write(final byte[] buffer, final int offset, final int length) throws IOException {
-        if (deflater.finished()) {
+        if (finished) {
             throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
         }
         if (length > 0) {
-            deflater.setInput(buffer, offset, length);
-
-            while (!deflater.needsInput()) {
-                deflate();
+            if (encoder != null) {
+                encoder.write(buffer, offset, length);
+                encoderTotalIn += length;
+            } else {
+                deflater.setInput(buffer, offset, length);
+
+                while (!deflater.needsInput()) {
+                    deflate();
+                }
             }
 
             crc.update(buffer, offset, length);
@@ -193,7 +223,14 @@ public void write(final int b) throws IOException {
         write(new byte[] { (byte) (b & 0xff) }, 0, 1);
     }
 
-    private void writeHeader(final GzipParameters parameters) throws IOException {
+    /**
+     * Writes the gzip member header for the given parameters, shared with {@link ParallelGzipCompressorOutputStream}.
+     *
+     * @param out        the stream to write to.
+     * @param parameters the parameters providing the header fields.
+     * @throws IOException if writing fails.
+     */
+    static void writeHeader(final OutputStream out, final GzipParameters parameters) throws IOException {
         final String fileName = parameters.getFileName();
         final String comment = parameters.getComment();
 
@@ -233,7 +270,7 @@ private void writeTrailer() throws IOException {
         final ByteBuffer buffer = ByteBuffer.allocate(8);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.putInt((int) crc.getValue());
-        buffer.putInt(deflater.getTotalIn());
+        buffer.putInt(encoder != null ? (int) encoderTotalIn : deflater.getTotalIn());
 
         out.write(buffer.array());
     }
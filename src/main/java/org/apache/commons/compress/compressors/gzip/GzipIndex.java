@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+/**
+ * A checkpoint index of a gzip file that allows random access to its uncompressed content, see {@link IndexedGzipByteChannel}.
+ * <p>
+ * Like zlib's {@code zran} example, the index records a checkpoint at the start of each gzip member and at the first deflate block boundary after every
+ * {@code span} bytes of uncompressed content. A checkpoint stores the bit position of the block in the compressed file, the position in the uncompressed
+ * content and the last 32 KiB of uncompressed content preceding it, which is all that is needed to resume decompression at the checkpoint. Reading a byte
+ * thus decompresses at most about {@code span} bytes.
+ * </p>
+ * <p>
+ * Building an index reads and verifies the whole file. An index can be written to a sidecar file and read back later, it stores the windows deflated.
+ * </p>
+ *
+ * @since 1.26.0
+ * @Immutable
+ */
+public final class GzipIndex {
+
+    /**
+     * A position where decompression can be resumed.
+     */
+    static final class Checkpoint {
+
+        /** Bit position of a deflate block in the compressed file. */
+        final long compressedBit;
+
+        /** Position in the uncompressed content. */
+        final long uncompressedPosition;
+
+        /** Whether this is the first block of a gzip member. */
+        final boolean memberStart;
+
+        /** The uncompressed content of the member preceding the checkpoint, at most 32 KiB. */
+        final byte[] window;
+
+        Checkpoint(final long compressedBit, final long uncompressedPosition, final boolean memberStart, final byte[] window) {
+            this.compressedBit = compressedBit;
+            this.uncompressedPosition = uncompressedPosition;
+            this.memberStart = memberStart;
+            this.window = window;
+        }
+    }
+
+    /** The default distance between checkpoints in uncompressed bytes, 1 MiB. */
+    public static final long DEFAULT_SPAN = 1024 * 1024;
+
+    /** The size of the deflate window. */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    /** "CCGZIDX" followed by the format version. */
+    private static final long MAGIC = 0x4343475a49445801L;
+
+    /**
+     * Builds the index of a gzip file using the {@link #DEFAULT_SPAN default span}.
+     *
+     * @param channel the gzip file, read from its start.
+     * @return the index.
+     * @throws IOException if the file is not a valid gzip file or an I/O error occurs.
+     */
+    public static GzipIndex build(final SeekableByteChannel channel) throws IOException {
+        return build(channel, DEFAULT_SPAN);
+    }
+
+    /**
+     * Builds the index of a gzip file.
+     *
+     * @param channel the gzip file, read from its start.
+     * @param span    the minimum distance between two checkpoints in uncompressed bytes.
+     * @return the index.
+     * @throws IOException              if the file is not a valid gzip file or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code span < 1}.
+     */
+    public static GzipIndex build(final SeekableByteChannel channel, final long span) throws IOException {
+        if (span < 1) {
+            throw new IllegalArgumentException("span(" + span + ") < 1");
+        }
+        return new GzipIndexScanner(channel, span).scan();
+    }
+
+    /**
+     * Reads an index written by {@link #write(OutputStream)}.
+     *
+     * @param in the stream to read from, it is not closed.
+     * @return the index.
+     * @throws IOException if the stream does not contain an index or an I/O error occurs.
+     */
+    public static GzipIndex read(final InputStream in) throws IOException {
+        final DataInputStream header = new DataInputStream(CloseShieldInputStream.wrap(in));
+        if (header.readLong() != MAGIC) {
+            throw new IOException("Input is not a gzip index");
+        }
+        final Inflater inflater = new Inflater();
+        try (DataInputStream data = new DataInputStream(new InflaterInputStream(CloseShieldInputStream.wrap(in), inflater))) {
+            final long compressedSize = data.readLong();
+            final long uncompressedSize = data.readLong();
+            final int count = data.readInt();
+            if (count < 1) {
+                throw new IOException("Corrupted gzip index, checkpoint count " + count);
+            }
+            final List<Checkpoint> checkpoints = new ArrayList<>();
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                final long compressedBit = data.readLong();
+                final long uncompressedPosition = data.readLong();
+                final boolean memberStart = data.readBoolean();
+                final int windowLength = data.readUnsignedShort();
+                if (compressedBit < 0 || compressedBit >= compressedSize * Byte.SIZE || uncompressedPosition < previous
+                        || uncompressedPosition > uncompressedSize || windowLength > WINDOW_SIZE || i == 0 && !memberStart) {
+                    throw new IOException("Corrupted gzip index, checkpoint " + i);
+                }
+                final byte[] window = new byte[windowLength];
+                data.readFully(window);
+                checkpoints.add(new Checkpoint(compressedBit, uncompressedPosition, memberStart, window));
+                previous = uncompressedPosition;
+            }
+            return new GzipIndex(compressedSize, uncompressedSize, checkpoints);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private final long compressedSize;
+
+    private final long uncompressedSize;
+
+    private final List<Checkpoint> checkpoints;
+
+    GzipIndex(final long compressedSize, final long uncompressedSize, final List<Checkpoint> checkpoints) {
+        this.compressedSize = compressedSize;
+        this.uncompressedSize = uncompressedSize;
+        this.checkpoints = Collections.unmodifiableList(checkpoints);
+    }
+
+    /**
+     * Finds the index of the last checkpoint at or before the given position in the uncompressed content.
+     */
+    int findCheckpoint(final long uncompressedPosition) {
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        while (low < high) {
+            final int mid = low + high + 1 >>> 1;
+            if (checkpoints.get(mid).uncompressedPosition <= uncompressedPosition) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    Checkpoint getCheckpoint(final int index) {
+        return checkpoints.get(index);
+    }
+
+    /**
+     * Gets the number of checkpoints.
+     *
+     * @return the number of checkpoints, at least one per gzip member.
+     */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    /**
+     * Gets the size of the indexed gzip file.
+     *
+     * @return the size of the compressed file in bytes.
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * Gets the size of the uncompressed content of all gzip members.
+     *
+     * @return the size of the uncompressed content in bytes.
+     */
+    public long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    /**
+     * Writes this index, for example to a sidecar file next to the gzip file.
+     *
+     * @param out the stream to write to, it is not closed.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(final OutputStream out) throws IOException {
+        final DataOutputStream header = new DataOutputStream(CloseShieldOutputStream.wrap(out));
+        header.writeLong(MAGIC);
+        header.flush();
+        final Deflater deflater = new Deflater();
+        try (DataOutputStream data = new DataOutputStream(new DeflaterOutputStream(CloseShieldOutputStream.wrap(out), deflater))) {
+            data.writeLong(compressedSize);
+            data.writeLong(uncompressedSize);
+            data.writeInt(checkpoints.size());
+            for (final Checkpoint checkpoint : checkpoints) {
+                data.writeLong(checkpoint.compressedBit);
+                data.writeLong(checkpoint.uncompressedPosition);
+                data.writeBoolean(checkpoint.memberStart);
+                data.writeShort(checkpoint.window.length);
+                data.write(checkpoint.window);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+}
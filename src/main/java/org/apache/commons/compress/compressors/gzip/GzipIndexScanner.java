@@ -0,0 +1,450 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.gzip.GzipIndex.Checkpoint;
+
+/**
+ * Decompresses a whole gzip file to build its {@link GzipIndex}.
+ * <p>
+ * {@link java.util.zip.Inflater} does not report the boundaries of deflate blocks, so this class contains a small inflater of its own, following RFC 1951.
+ * It verifies the CRC32 and size of every member.
+ * </p>
+ *
+ * @NotThreadSafe
+ */
+final class GzipIndexScanner {
+
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int FRESERVED = 0xE0;
+
+    private static final int MAX_BITS = 15;
+
+    /** The order of the code length code lengths in a dynamic block header. */
+    private static final int[] CODE_LENGTH_ORDER = { 16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15 };
+
+    private static final int[] LENGTH_BASE = { 3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31, 35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227,
+            258 };
+
+    private static final int[] LENGTH_EXTRA = { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0 };
+
+    private static final int[] DISTANCE_BASE = { 1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193, 257, 385, 513, 769, 1025, 1537, 2049, 3073, 4097,
+            6145, 8193, 12289, 16385, 24577 };
+
+    private static final int[] DISTANCE_EXTRA = { 0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13 };
+
+    private static final int[] FIXED_LITERAL_TABLE;
+
+    private static final int[] FIXED_DISTANCE_TABLE;
+
+    static {
+        final int[] lengths = new int[288];
+        Arrays.fill(lengths, 0, 144, 8);
+        Arrays.fill(lengths, 144, 256, 9);
+        Arrays.fill(lengths, 256, 280, 7);
+        Arrays.fill(lengths, 280, 288, 8);
+        FIXED_LITERAL_TABLE = buildTable(lengths, lengths.length);
+        final int[] distances = new int[30];
+        Arrays.fill(distances, 5);
+        FIXED_DISTANCE_TABLE = buildTable(distances, distances.length);
+    }
+
+    /**
+     * Builds a lookup table for canonical Huffman codes with the given lengths.
+     * <p>
+     * The table is indexed by the next {@code maxLength} bits of input, element 0 holds {@code maxLength}, all other elements hold
+     * {@code symbol << 4 | length} or -1 for invalid codes.
+     * </p>
+     */
+    private static int[] buildTable(final int[] lengths, final int count) {
+        final int[] lengthCounts = new int[MAX_BITS + 1];
+        int maxLength = 0;
+        for (int i = 0; i < count; i++) {
+            lengthCounts[lengths[i]]++;
+            maxLength = Math.max(maxLength, lengths[i]);
+        }
+        lengthCounts[0] = 0;
+        final int[] nextCode = new int[MAX_BITS + 2];
+        for (int bits = 1, code = 0; bits <= MAX_BITS; bits++) {
+            code = code + lengthCounts[bits - 1] << 1;
+            nextCode[bits] = code;
+        }
+        final int[] table = new int[(1 << maxLength) + 1];
+        Arrays.fill(table, -1);
+        table[0] = maxLength;
+        for (int symbol = 0; symbol < count; symbol++) {
+            final int length = lengths[symbol];
+            if (length == 0) {
+                continue;
+            }
+            final int code = nextCode[length]++;
+            if (code >= 1 << length) {
+                return null;
+            }
+            // deflate sends codes starting with their most significant bit, the bit buffer is filled starting with its least significant bit
+            final int reversed = Integer.reverse(code) >>> Integer.SIZE - length;
+            for (int index = reversed; index < 1 << maxLength; index += 1 << length) {
+                table[index + 1] = symbol << 4 | length;
+            }
+        }
+        return table;
+    }
+
+    private final SeekableByteChannel channel;
+
+    private final long span;
+
+    private final long size;
+
+    private final ByteBuffer input = ByteBuffer.allocate(64 * 1024);
+
+    /** Position in the channel of the next byte to read into {@link #input}. */
+    private long inputPosition;
+
+    /** Bits read from the input but not yet consumed, least significant bit first. */
+    private long bitBuffer;
+
+    private int bitCount;
+
+    /** The uncompressed content, a ring buffer holding at least the deflate window and the last match. */
+    private final byte[] window = new byte[2 * GzipIndex.WINDOW_SIZE];
+
+    /** Number of bytes of uncompressed content of all members so far. */
+    private long totalOut;
+
+    /** Uncompressed position of the current member. */
+    private long memberStart;
+
+    /** Uncompressed position up to which the CRC has been updated. */
+    private long crcPosition;
+
+    private final CRC32 crc = new CRC32();
+
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    private final int[] lengths = new int[288 + 32];
+
+    GzipIndexScanner(final SeekableByteChannel channel, final long span) throws IOException {
+        this.channel = channel;
+        this.span = span;
+        this.size = channel.size();
+        input.limit(0);
+    }
+
+    private void addCheckpoint(final boolean isMemberStart) {
+        final int windowLength = (int) Math.min(GzipIndex.WINDOW_SIZE, totalOut - memberStart);
+        final byte[] checkpointWindow = new byte[windowLength];
+        copyFromWindow(totalOut - windowLength, checkpointWindow);
+        checkpoints.add(new Checkpoint(getBitPosition(), totalOut, isMemberStart, checkpointWindow));
+    }
+
+    private void copyFromWindow(final long position, final byte[] dest) {
+        final int mask = window.length - 1;
+        final int start = (int) position & mask;
+        final int first = Math.min(dest.length, window.length - start);
+        System.arraycopy(window, start, dest, 0, first);
+        System.arraycopy(window, 0, dest, first, dest.length - first);
+    }
+
+    /**
+     * Decodes the next symbol using a table built by {@link #buildTable(int[], int)}.
+     */
+    private int decodeSymbol(final int[] table) throws IOException {
+        final int maxLength = table[0];
+        fill(maxLength);
+        final int entry = table[(int) (bitBuffer & (1L << maxLength) - 1) + 1];
+        if (entry < 0) {
+            throw new IOException("Invalid Huffman code in the deflate stream");
+        }
+        dropBits(entry & 0xf);
+        return entry >>> 4;
+    }
+
+    private void dropBits(final int count) throws EOFException {
+        if (count > bitCount) {
+            throw new EOFException("Truncated .gz file");
+        }
+        bitBuffer >>>= count;
+        bitCount -= count;
+    }
+
+    /**
+     * Fills the bit buffer with at least {@code count} bits unless the end of the file is reached.
+     */
+    private void fill(final int count) throws IOException {
+        while (bitCount < count) {
+            if (!input.hasRemaining()) {
+                if (inputPosition >= size) {
+                    return;
+                }
+                input.clear();
+                channel.position(inputPosition);
+                final int n = channel.read(input);
+                input.flip();
+                if (n <= 0) {
+                    return;
+                }
+                inputPosition += n;
+            }
+            bitBuffer |= (long) (input.get() & 0xff) << bitCount;
+            bitCount += Byte.SIZE;
+        }
+    }
+
+    private long getBitPosition() {
+        return (inputPosition - input.remaining()) * Byte.SIZE - bitCount;
+    }
+
+    private void inflateBlock(final int[] literalTable, final int[] distanceTable) throws IOException {
+        final int mask = window.length - 1;
+        while (true) {
+            final int symbol = decodeSymbol(literalTable);
+            if (symbol < 256) {
+                window[(int) totalOut++ & mask] = (byte) symbol;
+            } else if (symbol == 256) {
+                return;
+            } else {
+                if (symbol > 285 || distanceTable == null) {
+                    throw new IOException("Invalid length symbol " + symbol + " in the deflate stream");
+                }
+                final int length = LENGTH_BASE[symbol - 257] + readBits(LENGTH_EXTRA[symbol - 257]);
+                final int distanceSymbol = decodeSymbol(distanceTable);
+                if (distanceSymbol > 29) {
+                    throw new IOException("Invalid distance symbol " + distanceSymbol + " in the deflate stream");
+                }
+                final int distance = DISTANCE_BASE[distanceSymbol] + readBits(DISTANCE_EXTRA[distanceSymbol]);
+                if (distance > totalOut - memberStart) {
+                    throw new IOException("Distance " + distance + " too far back in the deflate stream");
+                }
+                for (int i = 0; i < length; i++, totalOut++) {
+                    window[(int) totalOut & mask] = window[(int) (totalOut - distance) & mask];
+                }
+            }
+            if (totalOut - crcPosition >= GzipIndex.WINDOW_SIZE) {
+                updateCrc();
+            }
+        }
+    }
+
+    private void inflateDynamicBlock() throws IOException {
+        final int literalCount = readBits(5) + 257;
+        final int distanceCount = readBits(5) + 1;
+        final int codeLengthCount = readBits(4) + 4;
+        if (literalCount > 286 || distanceCount > 30) {
+            throw new IOException("Invalid dynamic block header in the deflate stream");
+        }
+        Arrays.fill(lengths, 0);
+        for (int i = 0; i < codeLengthCount; i++) {
+            lengths[CODE_LENGTH_ORDER[i]] = readBits(3);
+        }
+        final int[] codeLengthTable = buildTable(lengths, 19);
+        if (codeLengthTable == null) {
+            throw new IOException("Invalid code lengths in the deflate stream");
+        }
+        Arrays.fill(lengths, 0);
+        for (int i = 0; i < literalCount + distanceCount;) {
+            final int symbol = decodeSymbol(codeLengthTable);
+            if (symbol < 16) {
+                lengths[i++] = symbol;
+                continue;
+            }
+            int value = 0;
+            final int repeat;
+            if (symbol == 16) {
+                if (i == 0) {
+                    throw new IOException("Repeated code length without a previous one in the deflate stream");
+                }
+                value = lengths[i - 1];
+                repeat = 3 + readBits(2);
+            } else if (symbol == 17) {
+                repeat = 3 + readBits(3);
+            } else {
+                repeat = 11 + readBits(7);
+            }
+            if (i + repeat > literalCount + distanceCount) {
+                throw new IOException("Too many code lengths in the deflate stream");
+            }
+            Arrays.fill(lengths, i, i + repeat, value);
+            i += repeat;
+        }
+        if (lengths[256] == 0) {
+            throw new IOException("Missing end of block code in the deflate stream");
+        }
+        final int[] literalTable = buildTable(lengths, literalCount);
+        final int[] distanceTable = buildTable(Arrays.copyOfRange(lengths, literalCount, literalCount + distanceCount), distanceCount);
+        if (literalTable == null || distanceTable == null) {
+            throw new IOException("Invalid code lengths in the deflate stream");
+        }
+        inflateBlock(literalTable, distanceTable[0] == 0 ? null : distanceTable);
+    }
+
+    /**
+     * Inflates the deflate stream of a member, adding checkpoints at block boundaries.
+     */
+    private void inflateMember() throws IOException {
+        long lastCheckpoint = totalOut;
+        boolean lastBlock;
+        do {
+            if (totalOut - lastCheckpoint >= span) {
+                addCheckpoint(false);
+                lastCheckpoint = totalOut;
+            }
+            lastBlock = readBits(1) == 1;
+            switch (readBits(2)) {
+            case 0:
+                inflateStoredBlock();
+                break;
+            case 1:
+                inflateBlock(FIXED_LITERAL_TABLE, FIXED_DISTANCE_TABLE);
+                break;
+            case 2:
+                inflateDynamicBlock();
+                break;
+            default:
+                throw new IOException("Invalid block type in the deflate stream");
+            }
+            updateCrc();
+        } while (!lastBlock);
+    }
+
+    private void inflateStoredBlock() throws IOException {
+        dropBits(bitCount % Byte.SIZE);
+        final int length = readBits(16);
+        if ((length ^ 0xffff) != readBits(16)) {
+            throw new IOException("Invalid stored block length in the deflate stream");
+        }
+        final int mask = window.length - 1;
+        for (int i = 0; i < length; i++) {
+            window[(int) totalOut++ & mask] = (byte) readBits(Byte.SIZE);
+            if (totalOut - crcPosition >= GzipIndex.WINDOW_SIZE) {
+                updateCrc();
+            }
+        }
+    }
+
+    private int readBits(final int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        fill(count);
+        final int bits = (int) (bitBuffer & (1L << count) - 1);
+        dropBits(count);
+        return bits;
+    }
+
+    private int readByte() throws IOException {
+        return readBits(Byte.SIZE);
+    }
+
+    /**
+     * Reads a member header.
+     *
+     * @return false if the end of the file has been reached after a member.
+     */
+    private boolean readHeader(final boolean isFirstMember) throws IOException {
+        fill(16);
+        if (bitCount == 0 && !isFirstMember) {
+            return false;
+        }
+        if (bitCount < 16 && !isFirstMember) {
+            throw new IOException("Garbage after a valid .gz stream");
+        }
+        if (bitCount == 0 || readBits(16) != GZIPInputStream.GZIP_MAGIC) {
+            throw new IOException(isFirstMember ? "Input is not in the .gz format" : "Garbage after a valid .gz stream");
+        }
+        final int method = readByte();
+        if (method != Deflater.DEFLATED) {
+            throw new IOException("Unsupported compression method " + method + " in the .gz header");
+        }
+        final int flg = readByte();
+        if ((flg & FRESERVED) != 0) {
+            throw new IOException("Reserved flags are set in the .gz header");
+        }
+        // modification time, extra flags and operating system
+        for (int i = 0; i < 6; i++) {
+            readByte();
+        }
+        if ((flg & FEXTRA) != 0) {
+            int xlen = readBits(16);
+            while (xlen-- > 0) {
+                readByte();
+            }
+        }
+        if ((flg & FNAME) != 0) {
+            while (readByte() != 0) {
+                // skip the file name
+            }
+        }
+        if ((flg & FCOMMENT) != 0) {
+            while (readByte() != 0) {
+                // skip the comment
+            }
+        }
+        if ((flg & FHCRC) != 0) {
+            readBits(16);
+        }
+        return true;
+    }
+
+    GzipIndex scan() throws IOException {
+        channel.position(0);
+        boolean isFirstMember = true;
+        while (readHeader(isFirstMember)) {
+            isFirstMember = false;
+            memberStart = totalOut;
+            crc.reset();
+            addCheckpoint(true);
+            inflateMember();
+            dropBits(bitCount % Byte.SIZE);
+            final long expectedCrc = readBits(16) | (long) readBits(16) << 16;
+            final long expectedSize = readBits(16) | (long) readBits(16) << 16;
+            if (expectedCrc != crc.getValue()) {
+                throw new IOException("Gzip-compressed data is corrupt");
+            }
+            if (expectedSize != (totalOut - memberStart & 0xffffffffL)) {
+                throw new IOException("Gzip-compressed data is corrupt (uncompressed size mismatch)");
+            }
+        }
+        return new GzipIndex(size, totalOut, checkpoints);
+    }
+
+    private void updateCrc() {
+        final int mask = window.length - 1;
+        while (crcPosition < totalOut) {
+            final int start = (int) crcPosition & mask;
+            final int length = (int) Math.min(totalOut - crcPosition, window.length - start);
+            crc.update(window, start, length);
+            crcPosition += length;
+        }
+    }
+}
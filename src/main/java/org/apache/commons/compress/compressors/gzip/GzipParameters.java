@@ -22,6 +22,8 @@
 import java.io.OutputStream;
 import java.util.zip.Deflater;
 
+import org.apache.commons.compress.compressors.deflate.DeflateEncoder;
+
 /**
  * Parameters for the GZIP compressor.
  *
@@ -38,6 +40,7 @@ public class GzipParameters {
     private int operatingSystem = 255; // Unknown OS by default
     private int bufferSize = 512;
     private int deflateStrategy = Deflater.DEFAULT_STRATEGY;
+    private DeflateEncoder deflateEncoder;
 
     /**
      * Gets size of the buffer used to retrieve compressed data.
@@ -58,6 +61,17 @@ public int getCompressionLevel() {
         return compressionLevel;
     }
 
+    /**
+     * Gets the encoder used instead of {@link Deflater}.
+     *
+     * @return the encoder or {@code null} if {@link Deflater} is used, the default.
+     * @see #setDeflateEncoder(DeflateEncoder)
+     * @since 1.26.0
+     */
+    public DeflateEncoder getDeflateEncoder() {
+        return deflateEncoder;
+    }
+
     /**
      * Gets the deflater strategy.
      *
@@ -132,6 +146,18 @@ public void setCompressionLevel(final int compressionLevel) {
         this.compressionLevel = compressionLevel;
     }
 
+    /**
+     * Sets the encoder to use instead of {@link Deflater} in {@link GzipCompressorOutputStream}, the deflater strategy and buffer size are ignored when an
+     * encoder is set.
+     *
+     * @param deflateEncoder the encoder or {@code null} to use {@link Deflater}.
+     * @see org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream.Level
+     * @since 1.26.0
+     */
+    public void setDeflateEncoder(final DeflateEncoder deflateEncoder) {
+        this.deflateEncoder = deflateEncoder;
+    }
+
     /**
      * Sets the deflater strategy.
      *
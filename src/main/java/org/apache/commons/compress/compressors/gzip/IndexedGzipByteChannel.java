@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.commons.compress.compressors.gzip.GzipIndex.Checkpoint;
+
+/**
+ * A read-only {@link SeekableByteChannel} over the uncompressed content of a gzip file, using a {@link GzipIndex} to start decompressing close to the
+ * requested position.
+ * <p>
+ * Reading sequentially decompresses the file only once. After a change of position, decompression resumes at the last checkpoint at or before the new
+ * position unless the new position lies ahead of the current one and before the next checkpoint. Concatenated gzip members are read as one content.
+ * </p>
+ * <p>
+ * CRC32 values are verified when the index is built, not while reading.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class IndexedGzipByteChannel implements SeekableByteChannel {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Deflate blocks without content, the one at index {@code k} is {@code 8 * n + k} bits long, see {@link #buildPrimer(int)}.
+     */
+    private static final byte[][] PRIMERS = new byte[Byte.SIZE][];
+
+    static {
+        for (int k = 1; k < Byte.SIZE; k++) {
+            PRIMERS[k] = buildPrimer(k);
+        }
+    }
+
+    /**
+     * Builds a non-final dynamic Huffman block without content whose length is congruent to {@code k} modulo 8 bits.
+     * <p>
+     * {@link Inflater} can only start at a byte boundary, while a checkpoint may start at any bit. Replacing the {@code k} bits preceding the checkpoint with
+     * the end of such a block keeps the deflate data byte aligned like in the file, which matters for stored blocks. This is what zlib's {@code inflatePrime}
+     * is used for in the {@code zran} example.
+     * </p>
+     * <p>
+     * The literal/length code consists of 128 codes of 7 bits for the literals 0 to 126 and the end of block symbol, the code length code of 2 bit codes for
+     * the code lengths 0, 7, 16 and 18. The number of code length code lengths sent adjusts the length of the block in steps of 3 bits.
+     * </p>
+     */
+    private static byte[] buildPrimer(final int k) {
+        // 123 bits plus 3 bits per code length code length, at least 6 are needed to reach the one for 7
+        int codeLengthCodes = 6;
+        while ((123 + 3 * codeLengthCodes) % Byte.SIZE != k) {
+            codeLengthCodes++;
+        }
+        final byte[] primer = new byte[(123 + 3 * codeLengthCodes + Byte.SIZE - 1) / Byte.SIZE];
+        // not the final block, dynamic Huffman codes
+        int bit = writeBits(primer, 0, 0, 1);
+        bit = writeBits(primer, bit, 2, 2);
+        // 257 literal/length codes, 1 distance code, number of code length codes
+        bit = writeBits(primer, bit, 0, 5);
+        bit = writeBits(primer, bit, 0, 5);
+        bit = writeBits(primer, bit, codeLengthCodes - 4, 4);
+        // code length code lengths in the order 16, 17, 18, 0, 8, 7, ...
+        final int[] codeLengthCodeLengths = { 2, 0, 2, 2, 0, 2 };
+        for (int i = 0; i < codeLengthCodes; i++) {
+            bit = writeBits(primer, bit, i < codeLengthCodeLengths.length ? codeLengthCodeLengths[i] : 0, 3);
+        }
+        // canonical code length codes: 0 -> 00, 7 -> 01, 16 -> 10, 18 -> 11
+        // literals 0 to 126 have length 7: one 7 followed by 21 repetitions of 6
+        bit = writeCode(primer, bit, 1, 2);
+        for (int i = 0; i < 21; i++) {
+            bit = writeCode(primer, bit, 2, 2);
+            bit = writeBits(primer, bit, 6 - 3, 2);
+        }
+        // literals 127 to 255 are unused: 129 zeros
+        bit = writeCode(primer, bit, 3, 2);
+        bit = writeBits(primer, bit, 129 - 11, 7);
+        // end of block has length 7, the only distance code is unused
+        bit = writeCode(primer, bit, 1, 2);
+        bit = writeCode(primer, bit, 0, 2);
+        // end of block is the last of the 7 bit literal/length codes
+        writeCode(primer, bit, 127, 7);
+        return primer;
+    }
+
+    /**
+     * Writes the {@code count} least significant bits of {@code value} starting with the least significant one, like deflate sends numbers.
+     *
+     * @return the bit position after the value.
+     */
+    private static int writeBits(final byte[] dest, final int bit, final int value, final int count) {
+        for (int i = 0; i < count; i++) {
+            dest[(bit + i) / Byte.SIZE] |= (value >>> i & 1) << (bit + i) % Byte.SIZE;
+        }
+        return bit + count;
+    }
+
+    /**
+     * Writes a Huffman code starting with its most significant bit, like deflate sends codes.
+     *
+     * @return the bit position after the code.
+     */
+    private static int writeCode(final byte[] dest, final int bit, final int code, final int length) {
+        return writeBits(dest, bit, Integer.reverse(code) >>> Integer.SIZE - length, length);
+    }
+
+    private final SeekableByteChannel channel;
+
+    private final GzipIndex index;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final byte[] inputBuffer = new byte[BUFFER_SIZE];
+
+    private final byte[] skipBuffer = new byte[BUFFER_SIZE];
+
+    /** The position requested by the user. */
+    private long position;
+
+    /** The position the inflater is at, -1 if it has not been set up. */
+    private long inflaterPosition = -1;
+
+    /** The index of the checkpoint the inflater started at. */
+    private int checkpointIndex;
+
+    /** Position in the compressed file of the next byte to read. */
+    private long inputPosition;
+
+    /** Bit offset of the checkpoint in its first byte, the primer for it still has to be passed to the inflater if not 0. */
+    private int primerBits;
+
+    private boolean open = true;
+
+    /**
+     * Constructs a new channel over a gzip file and its index.
+     *
+     * @param channel the gzip file, it is closed when this channel is closed.
+     * @param index   the index of the gzip file, as built by {@link GzipIndex#build(SeekableByteChannel)} or read by
+     *                {@link GzipIndex#read(java.io.InputStream)}.
+     * @throws IOException if the index does not match the size of the file or an I/O error occurs.
+     */
+    public IndexedGzipByteChannel(final SeekableByteChannel channel, final GzipIndex index) throws IOException {
+        if (channel.size() != index.getCompressedSize()) {
+            throw new IOException("The gzip index does not match the file, it has been built for " + index.getCompressedSize() + " bytes but the file has "
+                    + channel.size() + " bytes");
+        }
+        this.channel = channel;
+        this.index = index;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            open = false;
+            inflater.end();
+            channel.close();
+        }
+    }
+
+    /**
+     * Inflates into the given buffer, moving on to the next member at the end of the current one.
+     *
+     * @return the number of bytes inflated or -1 at the end of the content.
+     */
+    private int inflate(final byte[] b, final int off, final int len) throws IOException {
+        while (true) {
+            final int n;
+            try {
+                n = inflater.inflate(b, off, len);
+            } catch (final DataFormatException e) {
+                throw new IOException("Gzip-compressed data is corrupt", e);
+            }
+            if (n > 0) {
+                inflaterPosition += n;
+                return n;
+            }
+            if (inflater.finished()) {
+                if (!nextMember()) {
+                    return -1;
+                }
+            } else if (inflater.needsInput()) {
+                if (!readInput()) {
+                    throw new IOException("Truncated .gz file");
+                }
+            } else if (inflater.needsDictionary()) {
+                throw new IOException("Gzip-compressed data is corrupt");
+            }
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Resets the inflater to the next member after the one just finished.
+     *
+     * @return false if there is no next member.
+     */
+    private boolean nextMember() {
+        for (int i = checkpointIndex + 1; i < index.getCheckpointCount(); i++) {
+            if (index.getCheckpoint(i).memberStart) {
+                start(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("newPosition(" + newPosition + ") < 0");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (position >= index.getUncompressedSize()) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        seek();
+        final int n;
+        if (dst.hasArray()) {
+            n = inflate(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (n > 0) {
+                dst.position(dst.position() + n);
+            }
+        } else {
+            n = inflate(skipBuffer, 0, Math.min(skipBuffer.length, dst.remaining()));
+            if (n > 0) {
+                dst.put(skipBuffer, 0, n);
+            }
+        }
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    /**
+     * Passes the next chunk of the compressed file to the inflater.
+     *
+     * @return false at the end of the file.
+     */
+    private boolean readInput() throws IOException {
+        final int read;
+        if (primerBits != 0) {
+            // the primer takes the place of the bits preceding the checkpoint in its first byte
+            final byte[] primer = PRIMERS[primerBits];
+            System.arraycopy(primer, 0, inputBuffer, 0, primer.length);
+            channel.position(inputPosition);
+            if (channel.read(ByteBuffer.wrap(inputBuffer, primer.length - 1, 1)) <= 0) {
+                return false;
+            }
+            final int mask = (1 << primerBits) - 1;
+            inputBuffer[primer.length - 1] = (byte) (primer[primer.length - 1] & mask | inputBuffer[primer.length - 1] & ~mask);
+            read = primer.length;
+            inputPosition++;
+            primerBits = 0;
+        } else {
+            channel.position(inputPosition);
+            read = channel.read(ByteBuffer.wrap(inputBuffer));
+            if (read <= 0) {
+                return false;
+            }
+            inputPosition += read;
+        }
+        inflater.setInput(inputBuffer, 0, read);
+        return true;
+    }
+
+    /**
+     * Moves the inflater to {@link #position}.
+     */
+    private void seek() throws IOException {
+        if (inflaterPosition != position) {
+            final int checkpoint = index.findCheckpoint(position);
+            if (inflaterPosition < 0 || inflaterPosition > position || checkpoint > checkpointIndex) {
+                start(checkpoint);
+            }
+            while (inflaterPosition < position) {
+                if (inflate(skipBuffer, 0, (int) Math.min(skipBuffer.length, position - inflaterPosition)) < 0) {
+                    throw new IOException("Truncated .gz file");
+                }
+            }
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return index.getUncompressedSize();
+    }
+
+    /**
+     * Resets the inflater to the given checkpoint.
+     */
+    private void start(final int checkpointIndex) {
+        final Checkpoint checkpoint = index.getCheckpoint(checkpointIndex);
+        this.checkpointIndex = checkpointIndex;
+        inflater.reset();
+        if (checkpoint.window.length > 0) {
+            inflater.setDictionary(checkpoint.window);
+        }
+        inflaterPosition = checkpoint.uncompressedPosition;
+        inputPosition = checkpoint.compressedBit >>> 3;
+        primerBits = (int) (checkpoint.compressedBit & 7);
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws NonWritableChannelException always.
+     */
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws NonWritableChannelException always.
+     */
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+}
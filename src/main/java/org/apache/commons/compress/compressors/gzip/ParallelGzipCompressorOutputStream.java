@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.parallel.ParallelBlockWriter;
+
+/**
+ * Compressed output stream using the gzip format that deflates chunks of the input on several threads, like {@code pigz} does.
+ * <p>
+ * The input is split into chunks which are deflated independently, using the last 32 KiB of the preceding chunk as preset dictionary so that the compression
+ * ratio is close to the one of {@link GzipCompressorOutputStream}. All chunks but the last one end with a sync flush, so their output can be concatenated to a
+ * single deflate stream. The CRC32 values of the chunks are combined for the trailer. The result is a single standard gzip member that can be read by any
+ * gzip implementation.
+ * </p>
+ * <p>
+ * The header is written from the {@link GzipParameters} the same way {@link GzipCompressorOutputStream} does, the buffer size is ignored. Chunks are always
+ * deflated by {@link Deflater}, a {@link GzipParameters#getDeflateEncoder() DeflateEncoder} is rejected as it can neither use a preset dictionary nor
+ * sync flush its output.
+ * </p>
+ *
+ * @see <a href="https://zlib.net/pigz/">pigz</a>
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class ParallelGzipCompressorOutputStream extends CompressorOutputStream {
+
+    /**
+     * The compressed content of a chunk.
+     */
+    private static final class DeflatedChunk {
+
+        final byte[] bytes;
+        final int crc;
+        final int length;
+
+        DeflatedChunk(final byte[] bytes, final int crc, final int length) {
+            this.bytes = bytes;
+            this.crc = crc;
+            this.length = length;
+        }
+    }
+
+    /** The default size of the chunks deflated by a single thread. */
+    public static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+
+    /** The size of the deflate window and thus the maximum useful dictionary size. */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /** The reversed CRC32 polynomial. */
+    private static final int CRC32_POLYNOMIAL = 0xedb88320;
+
+    private static GzipParameters checkParameters(final GzipParameters parameters) {
+        if (parameters.getDeflateEncoder() != null) {
+            throw new IllegalArgumentException("A DeflateEncoder is not supported, chunks are deflated by Deflater");
+        }
+        return parameters;
+    }
+
+    /**
+     * Computes the CRC32 of the concatenation of two blocks of data from the CRC32 values of both blocks, like zlib's {@code crc32_combine}.
+     *
+     * @param crc1    the CRC32 of the first block.
+     * @param crc2    the CRC32 of the second block.
+     * @param length2 the length of the second block.
+     * @return the CRC32 of the concatenation.
+     */
+    static int combineCrc32(final int crc1, final int crc2, final long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+        // operator for one zero bit
+        int[] odd = new int[Integer.SIZE];
+        odd[0] = CRC32_POLYNOMIAL;
+        for (int n = 1, row = 1; n < Integer.SIZE; n++, row <<= 1) {
+            odd[n] = row;
+        }
+        // operator for two and four zero bits
+        int[] even = gf2MatrixSquare(odd);
+        odd = gf2MatrixSquare(even);
+        int crc = crc1;
+        long remaining = length2;
+        // apply length2 zero bytes to crc1, the first squaring yields the operator for one zero byte
+        do {
+            even = gf2MatrixSquare(odd);
+            if ((remaining & 1) != 0) {
+                crc = gf2MatrixTimes(even, crc);
+            }
+            remaining >>>= 1;
+            if (remaining == 0) {
+                break;
+            }
+            odd = gf2MatrixSquare(even);
+            if ((remaining & 1) != 0) {
+                crc = gf2MatrixTimes(odd, crc);
+            }
+            remaining >>>= 1;
+        } while (remaining != 0);
+        return crc ^ crc2;
+    }
+
+    private static int[] gf2MatrixSquare(final int[] matrix) {
+        final int[] square = new int[Integer.SIZE];
+        for (int n = 0; n < Integer.SIZE; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+        return square;
+    }
+
+    private static int gf2MatrixTimes(final int[] matrix, final int vector) {
+        int sum = 0;
+        int v = vector;
+        for (int i = 0; v != 0; i++, v >>>= 1) {
+            if ((v & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    /** The underlying stream */
+    private final OutputStream out;
+
+    private final int compressionLevel;
+
+    private final int deflateStrategy;
+
+    /** Deflates chunks on worker threads */
+    private final ParallelBlockWriter<DeflatedChunk> chunkWriter;
+
+    /** The chunk submitted last, its tail is the dictionary of the next chunk */
+    private byte[] previousChunk;
+
+    /** The checksum of the uncompressed data written so far */
+    private int crc;
+
+    /** The number of uncompressed bytes written so far */
+    private long totalIn;
+
+    /** Indicates if the stream has been finished */
+    private boolean finished;
+
+    /** Indicates if the stream has been closed */
+    private boolean closed;
+
+    /**
+     * Creates a gzip compressed output stream with the specified parameters that deflates chunks of {@code chunkSize} bytes using the given executor service,
+     * which is not shut down by this stream.
+     *
+     * @param out               the stream to compress to.
+     * @param parameters        the parameters to use.
+     * @param executorService   the executor service that deflates chunks.
+     * @param chunkSize         the number of uncompressed bytes deflated by a single task.
+     * @param maxChunksInFlight the maximum number of chunks compressed but not yet written.
+     * @throws IOException              if writing fails.
+     * @throws IllegalArgumentException if {@code chunkSize < 1}, {@code maxChunksInFlight < 1} or the parameters provide a
+     *                                  {@link GzipParameters#getDeflateEncoder() DeflateEncoder}.
+     */
+    public ParallelGzipCompressorOutputStream(final OutputStream out, final GzipParameters parameters, final ExecutorService executorService,
+            final int chunkSize, final int maxChunksInFlight) throws IOException {
+        this(out, checkParameters(parameters), chunkSize, new OrderedTaskQueue<>(executorService, maxChunksInFlight));
+    }
+
+    /**
+     * Creates a gzip compressed output stream with the specified parameters that deflates chunks of {@value #DEFAULT_CHUNK_SIZE} bytes using {@code threads}
+     * threads of its own.
+     * <p>
+     * At most {@code 2 * threads} chunks are in flight at any time. The threads are stopped when the stream is finished.
+     * </p>
+     *
+     * @param out        the stream to compress to.
+     * @param parameters the parameters to use.
+     * @param threads    the number of threads that deflate chunks.
+     * @throws IOException              if writing fails.
+     * @throws IllegalArgumentException if {@code threads < 1} or the parameters provide a {@link GzipParameters#getDeflateEncoder() DeflateEncoder}.
+     */
+    public ParallelGzipCompressorOutputStream(final OutputStream out, final GzipParameters parameters, final int threads) throws IOException {
+        this(out, checkParameters(parameters), DEFAULT_CHUNK_SIZE, new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    private ParallelGzipCompressorOutputStream(final OutputStream out, final GzipParameters parameters, final int chunkSize,
+            final OrderedTaskQueue<DeflatedChunk> deflaterQueue) throws IOException {
+        this.out = out;
+        this.compressionLevel = parameters.getCompressionLevel();
+        this.deflateStrategy = parameters.getDeflateStrategy();
+        this.chunkWriter = new ParallelBlockWriter<>(deflaterQueue, chunkSize, this::createTask, this::writeChunk);
+        try {
+            GzipCompressorOutputStream.writeHeader(out, parameters);
+        } catch (final IOException e) {
+            chunkWriter.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                chunkWriter.close();
+                out.close();
+                closed = true;
+            }
+        }
+    }
+
+    private Callable<DeflatedChunk> createTask(final byte[] input, final int length, final boolean last) {
+        final byte[] dictionary = previousChunk;
+        previousChunk = length == input.length ? input : null;
+        return () -> deflate(input, length, dictionary, last);
+    }
+
+    /**
+     * Deflates a chunk, runs on a worker thread.
+     */
+    private DeflatedChunk deflate(final byte[] input, final int length, final byte[] dictionary, final boolean last) {
+        final Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setStrategy(deflateStrategy);
+            if (dictionary != null) {
+                final int dictionaryLength = Math.min(DICTIONARY_SIZE, dictionary.length);
+                deflater.setDictionary(dictionary, dictionary.length - dictionaryLength, dictionaryLength);
+            }
+            deflater.setInput(input, 0, length);
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream(length / 2 + 64);
+            final byte[] buffer = new byte[Math.min(length + 64, 64 * 1024)];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    bos.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    bos.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            final CRC32 chunkCrc = new CRC32();
+            chunkCrc.update(input, 0, length);
+            return new DeflatedChunk(bos.toByteArray(), (int) chunkCrc.getValue(), length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Finishes writing compressed data to the underlying stream without closing it.
+     *
+     * @throws IOException on error
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            chunkWriter.finish();
+            writeTrailer();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only flushes the underlying stream, chunks being compressed are written as soon as they are complete.
+     * </p>
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (finished) {
+            throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
+        }
+        chunkWriter.write(buffer, offset, length);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) (b & 0xff) }, 0, 1);
+    }
+
+    private void writeChunk(final DeflatedChunk deflated) throws IOException {
+        out.write(deflated.bytes);
+        crc = combineCrc32(crc, deflated.crc, deflated.length);
+        totalIn += deflated.length;
+    }
+
+    private void writeTrailer() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(crc);
+        buffer.putInt((int) totalIn);
+
+        out.write(buffer.array());
+    }
+}
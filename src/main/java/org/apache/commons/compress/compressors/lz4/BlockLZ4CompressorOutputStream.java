@@ -20,8 +20,8 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
 
@@ -55,7 +55,7 @@ private static void writeLength(int length, final OutputStream out) throws IOExc
             out.write(length);
         }
 
-        private final Deque<byte[]> literals = new LinkedList<>();
+        private byte[] literals = ByteUtils.EMPTY_BYTE_ARRAY;
 
         private int literalLength;
 
@@ -63,11 +63,14 @@ private static void writeLength(int length, final OutputStream out) throws IOExc
 
         private boolean written;
 
-        byte[] addLiteral(final LZ77Compressor.LiteralBlock block) {
-            final byte[] copy = Arrays.copyOfRange(block.getData(), block.getOffset(), block.getOffset() + block.getLength());
-            literals.add(copy);
-            literalLength += copy.length;
-            return copy;
+        void addLiteral(final byte[] data, final int off, final int len) {
+            ensureLiteralCapacity(literalLength + len);
+            System.arraycopy(data, off, literals, literalLength, len);
+            literalLength += len;
+        }
+
+        void addLiteral(final LZ77Compressor.LiteralBlock block) {
+            addLiteral(block.getData(), block.getOffset(), block.getLength());
         }
 
         private int backReferenceLength() {
@@ -90,41 +93,52 @@ int length() {
             return literalLength() + brLength;
         }
 
-        private int literalLength() {
-            // This method is performance sensitive
-            if (literalLength != 0) {
-                return literalLength;
+        private void ensureLiteralCapacity(final int capacity) {
+            if (capacity > literals.length) {
+                literals = Arrays.copyOf(literals, (int) Math.max(capacity, Math.min(2L * literals.length, Integer.MAX_VALUE - 8)));
             }
-            int length = 0;
-            for (final byte[] b : literals) {
-                length += b.length;
-            }
-            return literalLength = length;
+        }
+
+        private int literalLength() {
+            return literalLength;
         }
 
         private void prependLiteral(final byte[] data) {
-            literals.addFirst(data);
+            ensureLiteralCapacity(literalLength + data.length);
+            System.arraycopy(literals, 0, literals, data.length, literalLength);
+            System.arraycopy(data, 0, literals, 0, data.length);
             literalLength += data.length;
         }
 
         private void prependTo(final Pair other) {
-            final Iterator<byte[]> listBackwards = literals.descendingIterator();
-            while (listBackwards.hasNext()) {
-                other.prependLiteral(listBackwards.next());
-            }
+            other.prependLiteral(Arrays.copyOf(literals, literalLength));
         }
 
-        void setBackReference(final LZ77Compressor.BackReference block) {
+        /**
+         * Empties this pair so it can be reused, keeps the buffer for literals.
+         */
+        private void reset() {
+            literalLength = 0;
+            brOffset = 0;
+            brLength = 0;
+            written = false;
+        }
+
+        void setBackReference(final int offset, final int length) {
             if (hasBackReference()) {
                 throw new IllegalStateException();
             }
-            brOffset = block.getOffset();
-            brLength = block.getLength();
+            brOffset = offset;
+            brLength = length;
+        }
+
+        void setBackReference(final LZ77Compressor.BackReference block) {
+            setBackReference(block.getOffset(), block.getLength());
         }
 
         private Pair splitWithNewBackReferenceLengthOf(final int newBackReferenceLength) {
             final Pair p = new Pair();
-            p.literals.addAll(literals);
+            p.addLiteral(literals, 0, literalLength);
             p.brOffset = brOffset;
             p.brLength = newBackReferenceLength;
             return p;
@@ -136,9 +150,7 @@ void writeTo(final OutputStream out) throws IOException {
             if (litLength >= BlockLZ4CompressorInputStream.BACK_REFERENCE_SIZE_MASK) {
                 writeLength(litLength - BlockLZ4CompressorInputStream.BACK_REFERENCE_SIZE_MASK, out);
             }
-            for (final byte[] b : literals) {
-                out.write(b);
-            }
+            out.write(literals, 0, litLength);
             if (hasBackReference()) {
                 ByteUtils.toLittleEndian(out, brOffset, 2);
                 if (brLength - MIN_BACK_REFERENCE_LENGTH >= BlockLZ4CompressorInputStream.BACK_REFERENCE_SIZE_MASK) {
@@ -172,6 +184,11 @@ void writeTo(final OutputStream out) throws IOException {
 
     private static final int MIN_OFFSET_OF_LAST_BACK_REFERENCE = 12;
 
+    // holds more than the window size so the final pairs can be expanded, even if the last back-reference has the maximal offset
+    private static final int HISTORY_SIZE = 2 * BlockLZ4CompressorInputStream.WINDOW_SIZE;
+
+    private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+
     /**
      * Returns a builder correctly configured for the LZ4 algorithm.
      *
@@ -191,11 +208,21 @@ public static Parameters.Builder createParameterBuilder() {
     private final byte[] oneByte = new byte[1];
     private boolean finished;
 
-    private final Deque<Pair> pairs = new LinkedList<>();
+    // pairs that haven't been written, yet
+    private final ArrayDeque<Pair> pairs = new ArrayDeque<>();
 
-    // keeps track of the last window-size bytes (64k) in order to be
-    // able to expand back-references when needed
-    private final Deque<byte[]> expandedBlocks = new LinkedList<>();
+    // sum of the lengths of pairs
+    private int pairsLength;
+
+    // written pairs that can be reused
+    private final ArrayDeque<Pair> unusedPairs = new ArrayDeque<>();
+
+    // keeps track of the last HISTORY_SIZE uncompressed bytes in order
+    // to be able to expand back-references when needed
+    private final byte[] history = new byte[HISTORY_SIZE];
+
+    // total number of uncompressed bytes recorded in history
+    private long historyLength;
 
     /**
      * Creates a new LZ4 output stream.
@@ -214,74 +241,37 @@ public BlockLZ4CompressorOutputStream(final OutputStream os) {
      */
     public BlockLZ4CompressorOutputStream(final OutputStream os, final Parameters params) {
         this.os = os;
-        compressor = new LZ77Compressor(params, block -> {
-            switch (block.getType()) {
-            case LITERAL:
-                addLiteralBlock((LZ77Compressor.LiteralBlock) block);
-                break;
-            case BACK_REFERENCE:
-                addBackReference((LZ77Compressor.BackReference) block);
-                break;
-            case EOD:
-                writeFinalLiteralBlock();
-                break;
-            }
-        });
-    }
+        compressor = new LZ77Compressor(params, new LZ77Compressor.BlockCallback() {
 
-    private void addBackReference(final LZ77Compressor.BackReference block) throws IOException {
-        final Pair last = writeBlocksAndReturnUnfinishedPair(block.getLength());
-        last.setBackReference(block);
-        recordBackReference(block);
-        clearUnusedBlocksAndPairs();
-    }
+            @Override
+            public void onBackReference(final int offset, final int length) throws IOException {
+                addBackReference(offset, length);
+            }
 
-    private void addLiteralBlock(final LZ77Compressor.LiteralBlock block) throws IOException {
-        final Pair last = writeBlocksAndReturnUnfinishedPair(block.getLength());
-        recordLiteral(last.addLiteral(block));
-        clearUnusedBlocksAndPairs();
-    }
+            @Override
+            public void onEndOfData() throws IOException {
+                writeFinalLiteralBlock();
+            }
 
-    private void clearUnusedBlocks() {
-        int blockLengths = 0;
-        int blocksToKeep = 0;
-        for (final byte[] b : expandedBlocks) {
-            blocksToKeep++;
-            blockLengths += b.length;
-            if (blockLengths >= BlockLZ4CompressorInputStream.WINDOW_SIZE) {
-                break;
+            @Override
+            public void onLiteral(final byte[] data, final int offset, final int length) throws IOException {
+                addLiteralBlock(data, offset, length);
             }
-        }
-        final int size = expandedBlocks.size();
-        for (int i = blocksToKeep; i < size; i++) {
-            expandedBlocks.removeLast();
-        }
+        });
     }
 
-    private void clearUnusedBlocksAndPairs() {
-        clearUnusedBlocks();
-        clearUnusedPairs();
+    private void addBackReference(final int offset, final int length) throws IOException {
+        final Pair last = writeBlocksAndReturnUnfinishedPair(length);
+        last.setBackReference(offset, length);
+        pairsLength += length;
+        recordBackReference(offset, length);
     }
 
-    private void clearUnusedPairs() {
-        int pairLengths = 0;
-        int pairsToKeep = 0;
-        for (final Iterator<Pair> it = pairs.descendingIterator(); it.hasNext();) {
-            final Pair p = it.next();
-            pairsToKeep++;
-            pairLengths += p.length();
-            if (pairLengths >= BlockLZ4CompressorInputStream.WINDOW_SIZE) {
-                break;
-            }
-        }
-        final int size = pairs.size();
-        for (int i = pairsToKeep; i < size; i++) {
-            final Pair p = pairs.peekFirst();
-            if (!p.hasBeenWritten()) {
-                break;
-            }
-            pairs.removeFirst();
-        }
+    private void addLiteralBlock(final byte[] data, final int off, final int len) throws IOException {
+        final Pair last = writeBlocksAndReturnUnfinishedPair(len);
+        last.addLiteral(data, off, len);
+        pairsLength += len;
+        recordLiteral(data, off, len);
     }
 
     @Override
@@ -293,57 +283,16 @@ public void close() throws IOException {
         }
     }
 
+    // pre-condition: length <= offset <= HISTORY_SIZE
     private byte[] expand(final int offset, final int length) {
         final byte[] expanded = new byte[length];
-        if (offset == 1) { // surprisingly common special case
-            final byte[] block = expandedBlocks.peekFirst();
-            final byte b = block[block.length - 1];
-            if (b != 0) { // the fresh array contains 0s anyway
-                Arrays.fill(expanded, b);
-            }
-        } else {
-            expandFromList(expanded, offset, length);
-        }
+        final int start = (int) (historyLength - offset) & HISTORY_MASK;
+        final int firstPart = Math.min(length, HISTORY_SIZE - start);
+        System.arraycopy(history, start, expanded, 0, firstPart);
+        System.arraycopy(history, 0, expanded, firstPart, length - firstPart);
         return expanded;
     }
 
-    private void expandFromList(final byte[] expanded, final int offset, final int length) {
-        int offsetRemaining = offset;
-        int lengthRemaining = length;
-        int writeOffset = 0;
-        while (lengthRemaining > 0) {
-            // find block that contains offsetRemaining
-            byte[] block = null;
-            final int copyLen;
-            final int copyOffset;
-            if (offsetRemaining > 0) {
-                int blockOffset = 0;
-                for (final byte[] b : expandedBlocks) {
-                    if (b.length + blockOffset >= offsetRemaining) {
-                        block = b;
-                        break;
-                    }
-                    blockOffset += b.length;
-                }
-                if (block == null) {
-                    // should not be possible
-                    throw new IllegalStateException("Failed to find a block containing offset " + offset);
-                }
-                copyOffset = blockOffset + block.length - offsetRemaining;
-                copyLen = Math.min(lengthRemaining, block.length - copyOffset);
-            } else {
-                // offsetRemaining is negative or 0 and points into the expanded bytes
-                block = expanded;
-                copyOffset = -offsetRemaining;
-                copyLen = Math.min(lengthRemaining, writeOffset + offsetRemaining);
-            }
-            System.arraycopy(block, copyOffset, expanded, writeOffset, copyLen);
-            offsetRemaining -= copyLen;
-            lengthRemaining -= copyLen;
-            writeOffset += copyLen;
-        }
-    }
-
     /**
      * Compresses all remaining data and writes it to the stream, doesn't close the underlying stream.
      *
@@ -369,16 +318,33 @@ public void prefill(final byte[] data, final int off, final int len) {
         if (len > 0) {
             final byte[] b = Arrays.copyOfRange(data, off, off + len);
             compressor.prefill(b);
-            recordLiteral(b);
+            recordLiteral(b, 0, b.length);
         }
     }
 
-    private void recordBackReference(final LZ77Compressor.BackReference block) {
-        expandedBlocks.addFirst(expand(block.getOffset(), block.getLength()));
+    private void recordBackReference(final int offset, int length) {
+        // copies at most offset bytes at once so the source never overlaps bytes that haven't been copied, yet
+        while (length > 0) {
+            final int from = (int) (historyLength - offset) & HISTORY_MASK;
+            final int to = (int) historyLength & HISTORY_MASK;
+            final int len = Math.min(Math.min(length, offset), Math.min(HISTORY_SIZE - from, HISTORY_SIZE - to));
+            System.arraycopy(history, from, history, to, len);
+            historyLength += len;
+            length -= len;
+        }
     }
 
-    private void recordLiteral(final byte[] b) {
-        expandedBlocks.addFirst(b);
+    private void recordLiteral(final byte[] data, int off, int len) {
+        if (len > HISTORY_SIZE) {
+            historyLength += len - HISTORY_SIZE;
+            off += len - HISTORY_SIZE;
+            len = HISTORY_SIZE;
+        }
+        final int to = (int) historyLength & HISTORY_MASK;
+        final int firstPart = Math.min(len, HISTORY_SIZE - to);
+        System.arraycopy(data, off, history, to, firstPart);
+        System.arraycopy(data, off + firstPart, history, 0, len - firstPart);
+        historyLength += len;
     }
 
     private void rewriteLastPairs() {
@@ -462,7 +428,10 @@ private Pair writeBlocksAndReturnUnfinishedPair(final int length) throws IOExcep
         writeWritablePairs(length);
         Pair last = pairs.peekLast();
         if (last == null || last.hasBackReference()) {
-            last = new Pair();
+            last = unusedPairs.pollFirst();
+            if (last == null) {
+                last = new Pair();
+            }
             pairs.addLast(last);
         }
         return last;
@@ -479,23 +448,18 @@ private void writeFinalLiteralBlock() throws IOException {
     }
 
     private void writeWritablePairs(final int lengthOfBlocksAfterLastPair) throws IOException {
-        int unwrittenLength = lengthOfBlocksAfterLastPair;
-        for (final Iterator<Pair> it = pairs.descendingIterator(); it.hasNext();) {
-            final Pair p = it.next();
-            if (p.hasBeenWritten()) {
-                break;
-            }
-            unwrittenLength += p.length();
-        }
-        for (final Pair p : pairs) {
-            if (p.hasBeenWritten()) {
-                continue;
-            }
+        int unwrittenLength = pairsLength + lengthOfBlocksAfterLastPair;
+        Pair p;
+        while ((p = pairs.peekFirst()) != null) {
             unwrittenLength -= p.length();
             if (!p.canBeWritten(unwrittenLength)) {
                 break;
             }
             p.writeTo(os);
+            pairs.removeFirst();
+            pairsLength -= p.length();
+            p.reset();
+            unusedPairs.addLast(p);
         }
     }
 }
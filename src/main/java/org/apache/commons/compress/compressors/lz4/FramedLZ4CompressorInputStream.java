@@ -18,12 +18,15 @@
  */
 package org.apache.commons.compress.compressors.lz4;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.CheckedInputStream;
 
 import org.apache.commons.compress.compressors.CompressorInputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
 import org.apache.commons.compress.utils.BoundedInputStream;
 import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.IOUtils;
@@ -37,6 +40,11 @@
  * Based on the "spec" in the version "1.5.1 (31/03/2015)"
  * </p>
  *
+ * <p>
+ * Frames whose blocks are independent of each other can be decompressed on several threads, see
+ * {@link #FramedLZ4CompressorInputStream(InputStream, boolean, ExecutorService, int)}.
+ * </p>
+ *
  * @see <a href="https://lz4.github.io/lz4/lz4_Frame_format.html">LZ4 Frame Format Description</a>
  * @since 1.14
  * @NotThreadSafe
@@ -118,6 +126,26 @@ public static boolean matches(final byte[] signature, final int length) {
     /** Only created if the frame doesn't set the block independence flag. */
     private byte[] blockDependencyBuffer;
 
+    /** Decompresses blocks of frames with independent blocks on worker threads, null if blocks are decompressed on the calling thread. */
+    private final OrderedTaskQueue<byte[]> blockQueue;
+
+    /** Whether the blocks of the current frame are decompressed by blockQueue. */
+    private boolean inParallelFrame;
+
+    /** Whether the end mark of the current frame decompressed by blockQueue has been read. */
+    private boolean parallelFrameEndReached;
+
+    /** The content checksum read after the end mark of the current frame decompressed by blockQueue. */
+    private long parallelFrameContentChecksum;
+
+    /** The block maximum size declared by the descriptor of the current frame. */
+    private int blockMaxSize;
+
+    /** The decompressed block being read, if the frame is decompressed by blockQueue. */
+    private byte[] decompressedBlock = ByteUtils.EMPTY_BYTE_ARRAY;
+
+    private int decompressedBlockOffset;
+
     /**
      * Creates a new input stream that decompresses streams compressed using the LZ4 frame format and stops after decompressing the first frame.
      *
@@ -137,9 +165,64 @@ public FramedLZ4CompressorInputStream(final InputStream in) throws IOException {
      * @throws IOException if reading fails
      */
     public FramedLZ4CompressorInputStream(final InputStream in, final boolean decompressConcatenated) throws IOException {
+        this(in, decompressConcatenated, (OrderedTaskQueue<byte[]>) null);
+    }
+
+    /**
+     * Creates a new input stream that decompresses the blocks of frames with independent blocks using the given executor service, which is not shut down by
+     * this stream.
+     * <p>
+     * Up to {@code maxBlocksInFlight} blocks are read ahead and decompressed concurrently, block checksums are verified by the workers. Bytes are still
+     * delivered in order and the content checksum is verified on the calling thread. Frames whose blocks depend on previous blocks are decompressed on the
+     * calling thread.
+     * </p>
+     *
+     * @param in                     the InputStream from which to read the compressed data
+     * @param decompressConcatenated if true, decompress until the end of the input; if false, stop after the first LZ4 frame and leave the input position to
+     *                               point to the next byte after the frame stream
+     * @param executorService        the executor service that decompresses blocks.
+     * @param maxBlocksInFlight      the maximum number of blocks read ahead.
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if {@code maxBlocksInFlight < 1}.
+     * @since 1.26.0
+     */
+    public FramedLZ4CompressorInputStream(final InputStream in, final boolean decompressConcatenated, final ExecutorService executorService,
+            final int maxBlocksInFlight) throws IOException {
+        this(in, decompressConcatenated, new OrderedTaskQueue<>(executorService, maxBlocksInFlight));
+    }
+
+    /**
+     * Creates a new input stream that decompresses the blocks of frames with independent blocks using {@code threads} threads of its own.
+     * <p>
+     * At most {@code 2 * threads} blocks are read ahead. The threads are stopped when the stream is closed.
+     * </p>
+     *
+     * @param in                     the InputStream from which to read the compressed data
+     * @param decompressConcatenated if true, decompress until the end of the input; if false, stop after the first LZ4 frame and leave the input position to
+     *                               point to the next byte after the frame stream
+     * @param threads                the number of threads that decompress blocks.
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     * @see #FramedLZ4CompressorInputStream(InputStream, boolean, ExecutorService, int)
+     * @since 1.26.0
+     */
+    public FramedLZ4CompressorInputStream(final InputStream in, final boolean decompressConcatenated, final int threads) throws IOException {
+        this(in, decompressConcatenated, new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    private FramedLZ4CompressorInputStream(final InputStream in, final boolean decompressConcatenated, final OrderedTaskQueue<byte[]> blockQueue)
+            throws IOException {
         this.inputStream = new CountingInputStream(in);
         this.decompressConcatenated = decompressConcatenated;
-        init(true);
+        this.blockQueue = blockQueue;
+        try {
+            init(true);
+        } catch (final IOException | RuntimeException e) {
+            if (blockQueue != null) {
+                blockQueue.close();
+            }
+            throw e;
+        }
     }
 
     private void appendToBlockDependencyBuffer(final byte[] b, final int off, int len) {
@@ -164,10 +247,37 @@ public void close() throws IOException {
                 currentBlock = null;
             }
         } finally {
+            if (blockQueue != null) {
+                blockQueue.close();
+            }
             inputStream.close();
         }
     }
 
+    /**
+     * Decompresses a block and verifies its checksum, runs on a worker thread.
+     */
+    private byte[] decompressBlock(final byte[] block, final boolean uncompressed, final long checksum, final int maxSize) throws IOException {
+        if (expectBlockChecksum) {
+            final org.apache.commons.codec.digest.XXHash32 hash = new org.apache.commons.codec.digest.XXHash32();
+            hash.update(block, 0, block.length);
+            if (hash.getValue() != checksum) {
+                throw new IOException("block checksum mismatch.");
+            }
+        }
+        if (uncompressed) {
+            return block;
+        }
+        // reads at most one byte more than allowed to detect blocks that decompress past the block maximum size
+        try (InputStream in = new BoundedInputStream(new BlockLZ4CompressorInputStream(new ByteArrayInputStream(block)), maxSize + 1L)) {
+            final byte[] decompressed = org.apache.commons.io.IOUtils.toByteArray(in);
+            if (decompressed.length > maxSize) {
+                throw new IOException("Block decompresses to more than the block maximum size of " + maxSize + " bytes");
+            }
+            return decompressed;
+        }
+    }
+
     /**
      * @since 1.17
      */
@@ -177,9 +287,16 @@ public long getCompressedCount() {
     }
 
     private void init(final boolean firstFrame) throws IOException {
+        inParallelFrame = false;
         if (readSignature(firstFrame)) {
             readFrameDescriptor();
-            nextBlock();
+            if (blockQueue != null && !expectBlockDependency) {
+                inParallelFrame = true;
+                parallelFrameEndReached = false;
+                readAheadBlocks();
+            } else {
+                nextBlock();
+            }
         }
     }
 
@@ -240,9 +357,16 @@ public int read(final byte[] b, final int off, final int len) throws IOException
         if (endReached) {
             return -1;
         }
+        if (inParallelFrame) {
+            return readParallel(b, off, len);
+        }
         int r = readOnce(b, off, len);
         if (r == -1) {
             nextBlock();
+            if (inParallelFrame) {
+                // the next frame's blocks are independent
+                return readParallel(b, off, len);
+            }
             if (!endReached) {
                 r = readOnce(b, off, len);
             }
@@ -279,10 +403,12 @@ private void readFrameDescriptor() throws IOException {
         expectContentSize = (flags & CONTENT_SIZE_MASK) != 0;
         expectContentChecksum = (flags & CONTENT_CHECKSUM_MASK) != 0;
         final int bdByte = readOneByte();
-        if (bdByte == -1) { // max size is irrelevant for this implementation
+        if (bdByte == -1) {
             throw new IOException("Premature end of stream while reading frame BD byte");
         }
         contentHash.update(bdByte);
+        // 64 KiB for index 4 up to 4 MiB for index 7, only enforced if blocks are decompressed by blockQueue
+        blockMaxSize = 1 << 2 * ((bdByte & BLOCK_MAX_SIZE_MASK) >> 4) + 8;
         if (expectContentSize) { // for now, we don't care, contains the uncompressed size
             final byte[] contentSize = new byte[8];
             final int skipped = IOUtils.readFully(inputStream, contentSize);
@@ -303,6 +429,44 @@ private void readFrameDescriptor() throws IOException {
         }
     }
 
+    /**
+     * Reads blocks of the current frame and submits them to blockQueue until it is full or the end mark has been read.
+     */
+    private void readAheadBlocks() throws IOException {
+        while (!parallelFrameEndReached && !blockQueue.isFull()) {
+            final long len = ByteUtils.fromLittleEndian(supplier, 4);
+            final boolean uncompressed = (len & UNCOMPRESSED_FLAG_MASK) != 0;
+            final int realLen = (int) (len & ~UNCOMPRESSED_FLAG_MASK);
+            if (realLen == 0) {
+                parallelFrameEndReached = true;
+                if (expectContentChecksum) {
+                    parallelFrameContentChecksum = readChecksum("content");
+                }
+                return;
+            }
+            if (realLen > blockMaxSize) {
+                throw new IOException("Block size " + realLen + " exceeds the block maximum size of " + blockMaxSize + " bytes");
+            }
+            final byte[] block = IOUtils.readRange(inputStream, realLen);
+            if (block.length != realLen) {
+                throw new IOException("Premature end of stream while reading block");
+            }
+            final long checksum = expectBlockChecksum ? readChecksum("block") : 0;
+            final int maxSize = blockMaxSize;
+            blockQueue.submit(() -> decompressBlock(block, uncompressed, checksum, maxSize));
+        }
+    }
+
+    private long readChecksum(final String kind) throws IOException {
+        final byte[] checksum = new byte[4];
+        final int read = IOUtils.readFully(inputStream, checksum);
+        count(read);
+        if (4 != read) {
+            throw new IOException("Premature end of stream while reading " + kind + " checksum");
+        }
+        return ByteUtils.fromLittleEndian(checksum);
+    }
+
     private int readOnce(final byte[] b, final int off, final int len) throws IOException {
         if (inUncompressed) {
             final int cnt = currentBlock.read(b, off, len);
@@ -316,6 +480,35 @@ private int readOnce(final byte[] b, final int off, final int len) throws IOExce
         return cnt;
     }
 
+    private int readParallel(final byte[] b, final int off, final int len) throws IOException {
+        while (decompressedBlockOffset == decompressedBlock.length) {
+            if (blockQueue.isEmpty()) {
+                // all blocks of the frame have been read
+                if (expectContentChecksum && contentHash.getValue() != parallelFrameContentChecksum) {
+                    throw new IOException("content checksum mismatch.");
+                }
+                contentHash.reset();
+                if (!decompressConcatenated) {
+                    endReached = true;
+                } else {
+                    init(false);
+                }
+                return endReached || !inParallelFrame ? read(b, off, len) : readParallel(b, off, len);
+            }
+            decompressedBlock = blockQueue.take();
+            decompressedBlockOffset = 0;
+            if (expectContentChecksum) {
+                contentHash.update(decompressedBlock, 0, decompressedBlock.length);
+            }
+            readAheadBlocks();
+        }
+        final int n = Math.min(len, decompressedBlock.length - decompressedBlockOffset);
+        System.arraycopy(decompressedBlock, decompressedBlockOffset, b, off, n);
+        decompressedBlockOffset += n;
+        count(n);
+        return n;
+    }
+
     private int readOneByte() throws IOException {
         final int b = inputStream.read();
         if (b != -1) {
@@ -377,14 +570,9 @@ private int skipSkippableFrame(final byte[] b) throws IOException {
     }
 
     private void verifyChecksum(final org.apache.commons.codec.digest.XXHash32 hash, final String kind) throws IOException {
-        final byte[] checksum = new byte[4];
-        final int read = IOUtils.readFully(inputStream, checksum);
-        count(read);
-        if (4 != read) {
-            throw new IOException("Premature end of stream while reading " + kind + " checksum");
-        }
+        final long checksum = readChecksum(kind);
         final long expectedHash = hash.getValue();
-        if (expectedHash != ByteUtils.fromLittleEndian(checksum)) {
+        if (expectedHash != checksum) {
             throw new IOException(kind + " checksum mismatch.");
         }
     }
@@ -137,6 +137,26 @@ public Parameters(final BlockSize blockSize, final org.apache.commons.compress.c
             this(blockSize, true, false, false, lz77params);
         }
 
+        BlockSize getBlockSize() {
+            return blockSize;
+        }
+
+        org.apache.commons.compress.compressors.lz77support.Parameters getLz77Parameters() {
+            return lz77params;
+        }
+
+        boolean isWithBlockChecksum() {
+            return withBlockChecksum;
+        }
+
+        boolean isWithBlockDependency() {
+            return withBlockDependency;
+        }
+
+        boolean isWithContentChecksum() {
+            return withContentChecksum;
+        }
+
         @Override
         public String toString() {
             return "LZ4 Parameters with BlockSize " + blockSize + ", withContentChecksum " + withContentChecksum + ", withBlockChecksum " + withBlockChecksum
@@ -145,6 +165,67 @@ public String toString() {
     }
 
     private static final byte[] END_MARK = new byte[4];
+
+    /**
+     * Writes the frame descriptor of the given parameters.
+     */
+    static void writeFrameDescriptor(final OutputStream out, final Parameters params) throws IOException {
+        int flags = FramedLZ4CompressorInputStream.SUPPORTED_VERSION;
+        if (!params.withBlockDependency) {
+            flags |= FramedLZ4CompressorInputStream.BLOCK_INDEPENDENCE_MASK;
+        }
+        if (params.withContentChecksum) {
+            flags |= FramedLZ4CompressorInputStream.CONTENT_CHECKSUM_MASK;
+        }
+        if (params.withBlockChecksum) {
+            flags |= FramedLZ4CompressorInputStream.BLOCK_CHECKSUM_MASK;
+        }
+        final org.apache.commons.codec.digest.XXHash32 headerHash = new org.apache.commons.codec.digest.XXHash32();
+        out.write(flags);
+        headerHash.update(flags);
+        final int bd = params.blockSize.getIndex() << 4 & FramedLZ4CompressorInputStream.BLOCK_MAX_SIZE_MASK;
+        out.write(bd);
+        headerHash.update(bd);
+        out.write((int) (headerHash.getValue() >> 8 & 0xff));
+    }
+
+    /**
+     * Writes a block and its checksum, if requested, as compressed data or as uncompressed data if compression didn't make it smaller.
+     *
+     * @param blockHash reset after use, null if no block checksum is requested.
+     */
+    static void writeBlock(final OutputStream out, final byte[] data, final int length, final byte[] compressed,
+            final org.apache.commons.codec.digest.XXHash32 blockHash) throws IOException {
+        if (compressed.length > length) { // compression increased size, maybe beyond blocksize
+            ByteUtils.toLittleEndian(out, length | FramedLZ4CompressorInputStream.UNCOMPRESSED_FLAG_MASK, 4);
+            out.write(data, 0, length);
+            if (blockHash != null) {
+                blockHash.update(data, 0, length);
+            }
+        } else {
+            ByteUtils.toLittleEndian(out, compressed.length, 4);
+            out.write(compressed);
+            if (blockHash != null) {
+                blockHash.update(compressed, 0, compressed.length);
+            }
+        }
+        if (blockHash != null) {
+            ByteUtils.toLittleEndian(out, blockHash.getValue(), 4);
+            blockHash.reset();
+        }
+    }
+
+    /**
+     * Writes the end mark and the content checksum, if requested.
+     */
+    static void writeTrailer(final OutputStream out, final Parameters params, final org.apache.commons.codec.digest.XXHash32 contentHash)
+            throws IOException {
+        out.write(END_MARK);
+        if (params.withContentChecksum) {
+            ByteUtils.toLittleEndian(out, contentHash.getValue(), 4);
+        }
+    }
+
     // used in one-arg write method
     private final byte[] oneByte = new byte[1];
     private final byte[] blockData;
@@ -153,7 +234,7 @@ public String toString() {
 
     private boolean finished;
 
-    // used for frame header checksum and content checksum, if requested
+    // used for content checksum, if requested
     private final org.apache.commons.codec.digest.XXHash32 contentHash = new org.apache.commons.codec.digest.XXHash32();
     // used for block checksum, if requested
     private final org.apache.commons.codec.digest.XXHash32 blockHash;
@@ -187,7 +268,7 @@ public FramedLZ4CompressorOutputStream(final OutputStream out, final Parameters
         this.out = out;
         blockHash = params.withBlockChecksum ? new org.apache.commons.codec.digest.XXHash32() : null;
         out.write(FramedLZ4CompressorInputStream.LZ4_SIGNATURE);
-        writeFrameDescriptor();
+        writeFrameDescriptor(out, params);
         blockDependencyBuffer = params.withBlockDependency ? new byte[BlockLZ4CompressorInputStream.WINDOW_SIZE] : null;
     }
 
@@ -242,24 +323,7 @@ private void flushBlock() throws IOException {
         if (withBlockDependency) {
             appendToBlockDependencyBuffer(blockData, 0, currentIndex);
         }
-        final byte[] b = baos.toByteArray();
-        if (b.length > currentIndex) { // compression increased size, maybe beyond blocksize
-            ByteUtils.toLittleEndian(out, currentIndex | FramedLZ4CompressorInputStream.UNCOMPRESSED_FLAG_MASK, 4);
-            out.write(blockData, 0, currentIndex);
-            if (params.withBlockChecksum) {
-                blockHash.update(blockData, 0, currentIndex);
-            }
-        } else {
-            ByteUtils.toLittleEndian(out, b.length, 4);
-            out.write(b);
-            if (params.withBlockChecksum) {
-                blockHash.update(b, 0, b.length);
-            }
-        }
-        if (params.withBlockChecksum) {
-            ByteUtils.toLittleEndian(out, blockHash.getValue(), 4);
-            blockHash.reset();
-        }
+        writeBlock(out, blockData, currentIndex, baos.toByteArray(), blockHash);
         currentIndex = 0;
     }
 
@@ -289,31 +353,8 @@ public void write(final int b) throws IOException {
         write(oneByte);
     }
 
-    private void writeFrameDescriptor() throws IOException {
-        int flags = FramedLZ4CompressorInputStream.SUPPORTED_VERSION;
-        if (!params.withBlockDependency) {
-            flags |= FramedLZ4CompressorInputStream.BLOCK_INDEPENDENCE_MASK;
-        }
-        if (params.withContentChecksum) {
-            flags |= FramedLZ4CompressorInputStream.CONTENT_CHECKSUM_MASK;
-        }
-        if (params.withBlockChecksum) {
-            flags |= FramedLZ4CompressorInputStream.BLOCK_CHECKSUM_MASK;
-        }
-        out.write(flags);
-        contentHash.update(flags);
-        final int bd = params.blockSize.getIndex() << 4 & FramedLZ4CompressorInputStream.BLOCK_MAX_SIZE_MASK;
-        out.write(bd);
-        contentHash.update(bd);
-        out.write((int) (contentHash.getValue() >> 8 & 0xff));
-        contentHash.reset();
-    }
-
     private void writeTrailer() throws IOException {
-        out.write(END_MARK);
-        if (params.withContentChecksum) {
-            ByteUtils.toLittleEndian(out, contentHash.getValue(), 4);
-        }
+        writeTrailer(out, params, contentHash);
     }
 
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.lz4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.codec.digest.XXHash32;
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.parallel.ParallelBlockWriter;
+
+/**
+ * CompressorOutputStream for the LZ4 frame format that compresses blocks on several threads.
+ * <p>
+ * Only frames with independent blocks can be written, that is {@link FramedLZ4CompressorOutputStream.Parameters} without block dependency. Every block
+ * is compressed, and its checksum computed if requested, on a worker thread while the blocks are written in order, so the output is the same as the one of
+ * {@link FramedLZ4CompressorOutputStream} with the same parameters. The content checksum covers all the data and is computed on the thread writing to this
+ * stream.
+ * </p>
+ * <p>
+ * Every block in flight keeps its uncompressed and compressed data in memory.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class ParallelFramedLZ4CompressorOutputStream extends CompressorOutputStream {
+
+    /** The underlying stream */
+    private final OutputStream out;
+
+    private final FramedLZ4CompressorOutputStream.Parameters params;
+
+    /** Compresses blocks on worker threads, the results are the blocks as written to the frame */
+    private final ParallelBlockWriter<byte[]> blockWriter;
+
+    /** Used for the content checksum, if requested */
+    private final XXHash32 contentHash = new XXHash32();
+
+    /** Indicates if the stream has been finished */
+    private boolean finished;
+
+    /** Indicates if the stream has been closed */
+    private boolean closed;
+
+    /**
+     * Creates a new LZ4 frame compressor that compresses blocks using the given executor service, which is not shut down by this stream.
+     *
+     * @param out               the stream to compress to.
+     * @param params            the parameters of the frame, blocks must be independent.
+     * @param executorService   the executor service that compresses blocks.
+     * @param maxBlocksInFlight the maximum number of blocks compressed but not yet written.
+     * @throws IOException              if writing the signature fails.
+     * @throws IllegalArgumentException if {@code params} require block dependency or {@code maxBlocksInFlight < 1}.
+     */
+    public ParallelFramedLZ4CompressorOutputStream(final OutputStream out, final FramedLZ4CompressorOutputStream.Parameters params,
+            final ExecutorService executorService, final int maxBlocksInFlight) throws IOException {
+        this(out, params, new OrderedTaskQueue<>(executorService, maxBlocksInFlight));
+    }
+
+    /**
+     * Creates a new LZ4 frame compressor that compresses blocks using {@code threads} threads of its own.
+     * <p>
+     * At most {@code 2 * threads} blocks are in flight at any time. The threads are stopped when the stream is finished.
+     * </p>
+     *
+     * @param out     the stream to compress to.
+     * @param params  the parameters of the frame, blocks must be independent.
+     * @param threads the number of threads that compress blocks.
+     * @throws IOException              if writing the signature fails.
+     * @throws IllegalArgumentException if {@code params} require block dependency or {@code threads < 1}.
+     */
+    public ParallelFramedLZ4CompressorOutputStream(final OutputStream out, final FramedLZ4CompressorOutputStream.Parameters params, final int threads)
+            throws IOException {
+        this(out, params, new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    private ParallelFramedLZ4CompressorOutputStream(final OutputStream out, final FramedLZ4CompressorOutputStream.Parameters params,
+            final OrderedTaskQueue<byte[]> compressorQueue) throws IOException {
+        if (params.isWithBlockDependency()) {
+            compressorQueue.close();
+            throw new IllegalArgumentException("Blocks depending on previous blocks can't be compressed in parallel");
+        }
+        this.out = out;
+        this.params = params;
+        this.blockWriter = new ParallelBlockWriter<>(compressorQueue, params.getBlockSize().getSize(), this::createTask, out::write);
+        try {
+            out.write(FramedLZ4CompressorInputStream.LZ4_SIGNATURE);
+            FramedLZ4CompressorOutputStream.writeFrameDescriptor(out, params);
+        } catch (final IOException e) {
+            blockWriter.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                blockWriter.close();
+                out.close();
+                closed = true;
+            }
+        }
+    }
+
+    /**
+     * Compresses a block and computes its checksum, if requested, runs on a worker thread.
+     *
+     * @return the block as written to the frame.
+     */
+    private byte[] compress(final byte[] input, final int length) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 1024);
+        try (BlockLZ4CompressorOutputStream o = new BlockLZ4CompressorOutputStream(compressed, params.getLz77Parameters())) {
+            o.write(input, 0, length);
+        }
+        final ByteArrayOutputStream frameBlock = new ByteArrayOutputStream(Math.min(compressed.size(), length) + 8);
+        FramedLZ4CompressorOutputStream.writeBlock(frameBlock, input, length, compressed.toByteArray(), params.isWithBlockChecksum() ? new XXHash32() : null);
+        return frameBlock.toByteArray();
+    }
+
+    private Callable<byte[]> createTask(final byte[] input, final int length, final boolean last) {
+        return length == 0 ? null : () -> compress(input, length);
+    }
+
+    /**
+     * Compresses all remaining data, writes it and the end of the frame to the underlying stream without closing it.
+     *
+     * @throws IOException if an error occurs.
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            blockWriter.finish();
+            FramedLZ4CompressorOutputStream.writeTrailer(out, params, contentHash);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only flushes the underlying stream, blocks being compressed are written as soon as they are complete.
+     * </p>
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (finished) {
+            throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
+        }
+        if (params.isWithContentChecksum()) {
+            contentHash.update(buffer, offset, length);
+        }
+        blockWriter.write(buffer, offset, length);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) (b & 0xff) }, 0, 1);
+    }
+}
@@ -312,18 +312,17 @@ private void tryToCopy(final int bytesToCopy) {
             writeIndex += copy;
         } else {
             // back-reference overlaps with the bytes created from it
-            // like go back two bytes and then copy six (by copying
-            // the last two bytes three time).
-            final int fullRots = copy / backReferenceOffset;
-            for (int i = 0; i < fullRots; i++) {
-                System.arraycopy(buf, writeIndex - backReferenceOffset, buf, writeIndex, backReferenceOffset);
-                writeIndex += backReferenceOffset;
-            }
-
-            final int pad = copy - backReferenceOffset * fullRots;
-            if (pad > 0) {
-                System.arraycopy(buf, writeIndex - backReferenceOffset, buf, writeIndex, pad);
-                writeIndex += pad;
+            // like go back two bytes and then copy six. Everything
+            // from the start of the back-reference on repeats with
+            // a period of backReferenceOffset, so each copy may take
+            // all bytes written so far, doubling the chunk size
+            // instead of copying backReferenceOffset bytes at a time.
+            final int start = writeIndex - backReferenceOffset;
+            final int end = writeIndex + copy;
+            while (writeIndex < end) {
+                final int chunk = Math.min(writeIndex - start, end - writeIndex);
+                System.arraycopy(buf, start, buf, writeIndex, chunk);
+                writeIndex += chunk;
             }
         }
         bytesRemaining -= copy;
@@ -19,6 +19,8 @@
 package org.apache.commons.compress.compressors.lz77support;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -34,8 +36,13 @@
  *
  * <p>
  * This class attempts to extract the core logic - finding back-references - so it can be re-used. It follows the algorithm explained in section 4 of RFC 1951
- * (DEFLATE) and currently doesn't implement the "lazy match" optimization. The three-byte hash function used in this class is the same as the one used by zlib
- * and InfoZIP's ZIP implementation of DEFLATE. The whole class is strongly inspired by InfoZIP's implementation.
+ * (DEFLATE) including the "lazy match" optimization. The three-byte hash function used in this class is the same as the one used by zlib and InfoZIP's ZIP
+ * implementation of DEFLATE. The whole class is strongly inspired by InfoZIP's implementation.
+ * </p>
+ *
+ * <p>
+ * How back-references are searched for is determined by the {@link Parameters.MatchFinder match finder} of the parameters, trading compression ratio for
+ * speed.
  * </p>
  *
  * <p>
@@ -50,6 +57,10 @@
  * </p>
  *
  * <p>
+ * Alternatively the compressor emits the same blocks to a {@link BlockCallback} as primitive values, which doesn't allocate any object per block.
+ * </p>
+ *
+ * <p>
  * Several parameters influence the outcome of the "compression":
  * </p>
  * <dl>
@@ -134,6 +145,50 @@ public enum BlockType {
         public abstract BlockType getType();
     }
 
+    /**
+     * Callback invoked with the blocks found while the compressor processes data, without allocating {@link Block} instances.
+     *
+     * <p>
+     * The callback is invoked on the same thread that receives the bytes to compress and may be invoked multiple times during the execution of
+     * {@link #compress} or {@link #finish}.
+     * </p>
+     *
+     * @since 1.26.0
+     */
+    public interface BlockCallback {
+
+        /**
+         * Consumes a back-reference.
+         *
+         * @param offset the offset of the back-reference
+         * @param length the length of the back-reference
+         * @throws IOException in case of an error
+         */
+        void onBackReference(int offset, int length) throws IOException;
+
+        /**
+         * Consumes the end of data marker.
+         *
+         * @throws IOException in case of an error
+         */
+        void onEndOfData() throws IOException;
+
+        /**
+         * Consumes a literal block.
+         *
+         * <p>
+         * For performance reasons {@code data} is the compressor's window, not a copy of it. Don't modify the data and process it immediately as it will get
+         * overwritten sooner or later.
+         * </p>
+         *
+         * @param data   the array holding the literal block
+         * @param offset the offset of the literal block in {@code data}
+         * @param length the length of the literal block
+         * @throws IOException in case of an error
+         */
+        void onLiteral(byte[] data, int offset, int length) throws IOException;
+    }
+
     /**
      * Callback invoked while the compressor processes data.
      *
@@ -230,11 +285,17 @@ public String toString() {
     private static final int HASH_MASK = HASH_SIZE - 1;
 
     private static final int H_SHIFT = 5;
+
+    // the fast match finder skips one more position for each 2^SKIP_SHIFT consecutive positions without a back-reference
+    private static final int SKIP_SHIFT = 6;
+
     private final Parameters params;
-    private final Callback callback;
+    private final BlockCallback callback;
 
     // the sliding window, twice as big as "windowSize" parameter
     private final byte[] window;
+    // little endian view of window used to compare eight bytes at a time
+    private final ByteBuffer windowWords;
 
     // the head of hash-chain - indexed by hash-code, points to the
     // location inside of window of the latest sequence of bytes with
@@ -243,8 +304,12 @@ public String toString() {
     // for each window-location points to the latest earlier location
     // with the same hash. Only stores values for the latest
     // "windowSize" elements, the index is "window location modulo
-    // windowSize".
+    // windowSize". Null for the fast match finder which only
+    // looks at the head of the chain.
     private final int[] prev;
+    // whether lazy matching goes on as long as the next position
+    // provides a longer match
+    private final boolean repeatLazyMatching;
     // bit mask used when indexing into prev
     private final int wMask;
     private boolean initialized;
@@ -268,6 +333,10 @@ public String toString() {
     // data has been read
     private int missedInserts;
 
+    // number of positions looked at without finding a match, used
+    // by the fast match finder to skip positions
+    private int misses;
+
     /**
      * Initializes a compressor with parameters and a callback.
      *
@@ -276,6 +345,18 @@ public String toString() {
      * @throws NullPointerException if either parameter is {@code null}
      */
     public LZ77Compressor(final Parameters params, final Callback callback) {
+        this(params, toBlockCallback(Objects.requireNonNull(callback, "callback")));
+    }
+
+    /**
+     * Initializes a compressor with parameters and a callback that receives blocks as primitive values.
+     *
+     * @param params   the parameters
+     * @param callback the callback
+     * @throws NullPointerException if either parameter is {@code null}
+     * @since 1.26.0
+     */
+    public LZ77Compressor(final Parameters params, final BlockCallback callback) {
         Objects.requireNonNull(params, "params");
         Objects.requireNonNull(callback, "callback");
 
@@ -284,10 +365,32 @@ public LZ77Compressor(final Parameters params, final Callback callback) {
 
         final int wSize = params.getWindowSize();
         window = new byte[wSize * 2];
+        windowWords = ByteBuffer.wrap(window).order(ByteOrder.LITTLE_ENDIAN);
         wMask = wSize - 1;
         head = new int[HASH_SIZE];
         Arrays.fill(head, NO_MATCH);
-        prev = new int[wSize];
+        prev = params.getMatchFinder() == Parameters.MatchFinder.FAST ? null : new int[wSize];
+        repeatLazyMatching = params.getMatchFinder() == Parameters.MatchFinder.HIGH_COMPRESSION;
+    }
+
+    private static BlockCallback toBlockCallback(final Callback callback) {
+        return new BlockCallback() {
+
+            @Override
+            public void onBackReference(final int offset, final int length) throws IOException {
+                callback.accept(new BackReference(offset, length));
+            }
+
+            @Override
+            public void onEndOfData() throws IOException {
+                callback.accept(THE_EOD);
+            }
+
+            @Override
+            public void onLiteral(final byte[] data, final int offset, final int length) throws IOException {
+                callback.accept(new LiteralBlock(data, offset, length));
+            }
+        };
     }
 
     private void catchUpMissedInserts() {
@@ -311,7 +414,12 @@ private void compress() throws IOException {
 
                 if (lazy && matchLength <= lazyThreshold && lookahead > minMatch) {
                     // try to find a longer match using the next position
-                    matchLength = longestMatchForNextPosition(matchLength);
+                    int prevMatchLength;
+                    do {
+                        prevMatchLength = matchLength;
+                        matchLength = longestMatchForNextPosition(matchLength);
+                    } while (repeatLazyMatching && matchLength > prevMatchLength && matchLength <= lazyThreshold && lookahead > minMatch
+                            && currentPosition - blockStart < params.getMaxLiteralLength());
                 }
             }
             if (matchLength >= minMatch) {
@@ -325,13 +433,16 @@ private void compress() throws IOException {
                 lookahead -= matchLength;
                 currentPosition += matchLength;
                 blockStart = currentPosition;
+                misses = 0;
             } else {
                 // no match, append to current or start a new literal
-                lookahead--;
-                currentPosition++;
-                if (currentPosition - blockStart >= params.getMaxLiteralLength()) {
-                    flushLiteralBlock();
-                    blockStart = currentPosition;
+                skipPosition();
+                if (prev == null) {
+                    // fast match finder, don't look for matches at the next positions
+                    for (int skip = misses++ >> SKIP_SHIFT; skip > 0 && lookahead >= minMatch; skip--) {
+                        insertHash = nextHash(insertHash, window[currentPosition - 1 + NUMBER_OF_BYTES_IN_HASH]);
+                        skipPosition();
+                    }
                 }
             }
         }
@@ -397,15 +508,15 @@ public void finish() throws IOException {
             currentPosition += lookahead;
             flushLiteralBlock();
         }
-        callback.accept(THE_EOD);
+        callback.onEndOfData();
     }
 
     private void flushBackReference(final int matchLength) throws IOException {
-        callback.accept(new BackReference(currentPosition - matchStart, matchLength));
+        callback.onBackReference(currentPosition - matchStart, matchLength);
     }
 
     private void flushLiteralBlock() throws IOException {
-        callback.accept(new LiteralBlock(window, blockStart, currentPosition - blockStart));
+        callback.onLiteral(window, blockStart, currentPosition - blockStart);
     }
 
     private void initialize() {
@@ -425,7 +536,9 @@ private void initialize() {
     private int insertString(final int pos) {
         insertHash = nextHash(insertHash, window[pos - 1 + NUMBER_OF_BYTES_IN_HASH]);
         final int hashHead = head[insertHash];
-        prev[pos & wMask] = hashHead;
+        if (prev != null) {
+            prev[pos & wMask] = hashHead;
+        }
         head[insertHash] = pos;
         return hashHead;
     }
@@ -456,13 +569,7 @@ private int longestMatch(int matchHead) {
         final int niceBackReferenceLength = Math.min(maxPossibleLength, params.getNiceBackReferenceLength());
         final int maxCandidates = params.getMaxCandidates();
         for (int candidates = 0; candidates < maxCandidates && matchHead >= minIndex; candidates++) {
-            int currentLength = 0;
-            for (int i = 0; i < maxPossibleLength; i++) {
-                if (window[matchHead + i] != window[currentPosition + i]) {
-                    break;
-                }
-                currentLength++;
-            }
+            final int currentLength = matchLength(matchHead, maxPossibleLength);
             if (currentLength > longestMatchLength) {
                 longestMatchLength = currentLength;
                 matchStart = matchHead;
@@ -471,11 +578,30 @@ private int longestMatch(int matchHead) {
                     break;
                 }
             }
-            matchHead = prev[matchHead & wMask];
+            matchHead = prev != null ? prev[matchHead & wMask] : NO_MATCH;
         }
         return longestMatchLength; // < minLength if no matches have been found, will be ignored in compress()
     }
 
+    /**
+     * Returns the number of bytes (at most maxLength) starting at matchHead that are equal to the ones starting at currentPosition.
+     */
+    private int matchLength(final int matchHead, final int maxLength) {
+        int length = 0;
+        while (length + Long.BYTES <= maxLength) {
+            // the lowest set bit of the difference belongs to the first byte that doesn't match
+            final long difference = windowWords.getLong(matchHead + length) ^ windowWords.getLong(currentPosition + length);
+            if (difference != 0) {
+                return length + (Long.numberOfTrailingZeros(difference) >>> 3);
+            }
+            length += Long.BYTES;
+        }
+        while (length < maxLength && window[matchHead + length] == window[currentPosition + length]) {
+            length++;
+        }
+        return length;
+    }
+
     private int longestMatchForNextPosition(final int prevMatchLength) {
         // save a bunch of values to restore them if the next match isn't better than the current one
         final int prevMatchStart = matchStart;
@@ -514,6 +640,15 @@ private int nextHash(final int oldHash, final byte nextByte) {
         return (oldHash << H_SHIFT ^ nextVal) & HASH_MASK;
     }
 
+    private void skipPosition() throws IOException {
+        lookahead--;
+        currentPosition++;
+        if (currentPosition - blockStart >= params.getMaxLiteralLength()) {
+            flushLiteralBlock();
+            blockStart = currentPosition;
+        }
+    }
+
     /**
      * Adds some initial data to fill the window with.
      *
@@ -547,6 +682,29 @@ public void prefill(final byte[] data) {
         blockStart = currentPosition = len;
     }
 
+    /**
+     * Discards all data seen so far so the compressor can be used for a new stream, keeping the buffers allocated by the constructor.
+     *
+     * <p>
+     * Data that has been passed to {@link #compress(byte[], int, int)} but not been sent to the callback, yet, is dropped, call {@link #finish()} first to
+     * avoid this.
+     * </p>
+     *
+     * @since 1.26.0
+     */
+    public void reset() {
+        // prev doesn't need to be cleared, its entries are only reached through head
+        Arrays.fill(head, NO_MATCH);
+        initialized = false;
+        currentPosition = 0;
+        lookahead = 0;
+        insertHash = 0;
+        blockStart = 0;
+        matchStart = NO_MATCH;
+        missedInserts = 0;
+        misses = 0;
+    }
+
     private void slide() throws IOException {
         final int wSize = params.getWindowSize();
         if (blockStart != currentPosition && blockStart < wSize) {
@@ -561,9 +719,11 @@ private void slide() throws IOException {
             final int h = head[i];
             head[i] = h >= wSize ? h - wSize : NO_MATCH;
         }
-        for (int i = 0; i < wSize; i++) {
-            final int p = prev[i];
-            prev[i] = p >= wSize ? p - wSize : NO_MATCH;
+        if (prev != null) {
+            for (int i = 0; i < wSize; i++) {
+                final int p = prev[i];
+                prev[i] = p >= wSize ? p - wSize : NO_MATCH;
+            }
         }
     }
 }
@@ -18,10 +18,46 @@
  */
 package org.apache.commons.compress.compressors.lz77support;
 
+import java.util.Objects;
+
 /**
  * Parameters of the {@link LZ77Compressor compressor}.
  */
 public final class Parameters {
+
+    /**
+     * Strategies used by the {@link LZ77Compressor compressor} to find back-references.
+     *
+     * @since 1.26.0
+     */
+    public enum MatchFinder {
+
+        /**
+         * Probes a single candidate per position and doesn't keep hash chains, like the "fast" mode of LZ4.
+         *
+         * <p>
+         * The compressor looks at fewer positions the longer it hasn't found any back-reference, which makes it skip over incompressible data quickly. Lazy
+         * matching is never performed, "maximum number of candidates" is ignored.
+         * </p>
+         */
+        FAST,
+
+        /**
+         * Follows the hash chain of each position up to "maximum number of candidates" and optionally performs lazy matching for the next position.
+         *
+         * <p>
+         * This is the default.
+         * </p>
+         */
+        HASH_CHAIN,
+
+        /**
+         * Follows hash chains like {@link #HASH_CHAIN} and always performs lazy matching, as long as the next position provides a longer back-reference, for
+         * improved compression ratio at the cost of compression speed.
+         */
+        HIGH_COMPRESSION
+    }
+
     /**
      * Builder for {@link Parameters} instances.
      */
@@ -30,6 +66,7 @@ public static class Builder {
         private int minBackReferenceLength, maxBackReferenceLength, maxOffset, maxLiteralLength;
         private Integer niceBackReferenceLength, maxCandidates, lazyThreshold;
         private Boolean lazyMatches;
+        private MatchFinder matchFinder = MatchFinder.HASH_CHAIN;
 
         private Builder(final int windowSize) {
             if (windowSize < 2 || !isPowerOfTwo(windowSize)) {
@@ -51,11 +88,11 @@ public Parameters build() {
             // default settings tuned for a compromise of good compression and acceptable speed
             final int niceLen = niceBackReferenceLength != null ? niceBackReferenceLength : Math.max(minBackReferenceLength, maxBackReferenceLength / 2);
             final int candidates = maxCandidates != null ? maxCandidates : Math.max(256, windowSize / 128);
-            final boolean lazy = lazyMatches == null || lazyMatches;
+            final boolean lazy = matchFinder == MatchFinder.HIGH_COMPRESSION || matchFinder == MatchFinder.HASH_CHAIN && (lazyMatches == null || lazyMatches);
             final int threshold = lazy ? lazyThreshold != null ? lazyThreshold : niceLen : minBackReferenceLength;
 
             return new Parameters(windowSize, minBackReferenceLength, maxBackReferenceLength, maxOffset, maxLiteralLength, niceLen, candidates, lazy,
-                    threshold);
+                    threshold, matchFinder);
         }
 
         /**
@@ -129,6 +166,23 @@ public Builder withLazyThreshold(final int threshold) {
             return this;
         }
 
+        /**
+         * Sets the strategy used to find back-references, default is {@link MatchFinder#HASH_CHAIN}.
+         *
+         * <p>
+         * {@link MatchFinder#FAST} disables lazy matching and {@link MatchFinder#HIGH_COMPRESSION} enables it, whatever {@link #withLazyMatching} says.
+         * </p>
+         *
+         * @param matchFinder the strategy used to find back-references
+         * @return the builder
+         * @throws NullPointerException if {@code matchFinder} is {@code null}
+         * @since 1.26.0
+         */
+        public Builder withMatchFinder(final MatchFinder matchFinder) {
+            this.matchFinder = Objects.requireNonNull(matchFinder, "matchFinder");
+            return this;
+        }
+
         /**
          * Sets the maximal length of a back-reference.
          *
@@ -276,8 +330,11 @@ private static boolean isPowerOfTwo(final int x) {
 
     private final boolean lazyMatching;
 
+    private final MatchFinder matchFinder;
+
     private Parameters(final int windowSize, final int minBackReferenceLength, final int maxBackReferenceLength, final int maxOffset,
-            final int maxLiteralLength, final int niceBackReferenceLength, final int maxCandidates, final boolean lazyMatching, final int lazyThreshold) {
+            final int maxLiteralLength, final int niceBackReferenceLength, final int maxCandidates, final boolean lazyMatching, final int lazyThreshold,
+            final MatchFinder matchFinder) {
         this.windowSize = windowSize;
         this.minBackReferenceLength = minBackReferenceLength;
         this.maxBackReferenceLength = maxBackReferenceLength;
@@ -287,6 +344,7 @@ private Parameters(final int windowSize, final int minBackReferenceLength, final
         this.maxCandidates = maxCandidates;
         this.lazyMatching = lazyMatching;
         this.lazyThreshold = lazyThreshold;
+        this.matchFinder = matchFinder;
     }
 
     /**
@@ -307,6 +365,16 @@ public int getLazyMatchingThreshold() {
         return lazyThreshold;
     }
 
+    /**
+     * Gets the strategy used to find back-references.
+     *
+     * @return the strategy used to find back-references
+     * @since 1.26.0
+     */
+    public MatchFinder getMatchFinder() {
+        return matchFinder;
+    }
+
     /**
      * Gets the maximal length of a back-reference found.
      *
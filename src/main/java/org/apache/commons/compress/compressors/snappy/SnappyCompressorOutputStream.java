@@ -141,16 +141,21 @@ public SnappyCompressorOutputStream(final OutputStream os, final long uncompress
     public SnappyCompressorOutputStream(final OutputStream os, final long uncompressedSize, final Parameters params) throws IOException {
         this.os = os;
         consumer = new ByteUtils.OutputStreamByteConsumer(os);
-        compressor = new LZ77Compressor(params, block -> {
-            switch (block.getType()) {
-            case LITERAL:
-                writeLiteralBlock((LZ77Compressor.LiteralBlock) block);
-                break;
-            case BACK_REFERENCE:
-                writeBackReference((LZ77Compressor.BackReference) block);
-                break;
-            case EOD:
-                break;
+        compressor = new LZ77Compressor(params, new LZ77Compressor.BlockCallback() {
+
+            @Override
+            public void onBackReference(final int offset, final int length) throws IOException {
+                writeBackReference(offset, length);
+            }
+
+            @Override
+            public void onEndOfData() {
+                // nothing to write
+            }
+
+            @Override
+            public void onLiteral(final byte[] data, final int offset, final int length) throws IOException {
+                writeLiteralBlock(data, offset, length);
             }
         });
         writeUncompressedSize(uncompressedSize);
@@ -188,9 +193,7 @@ public void write(final int b) throws IOException {
         write(oneByte);
     }
 
-    private void writeBackReference(final LZ77Compressor.BackReference block) throws IOException {
-        final int len = block.getLength();
-        final int offset = block.getOffset();
+    private void writeBackReference(final int offset, final int len) throws IOException {
         if (len >= MIN_MATCH_LENGTH_WITH_ONE_OFFSET_BYTE && len <= MAX_MATCH_LENGTH_WITH_ONE_OFFSET_BYTE && offset <= MAX_OFFSET_WITH_ONE_OFFSET_BYTE) {
             writeBackReferenceWithOneOffsetByte(len, offset);
         } else if (offset < MAX_OFFSET_WITH_TWO_OFFSET_BYTES) {
@@ -218,45 +221,44 @@ private void writeBackReferenceWithTwoOffsetBytes(final int len, final int offse
         writeBackReferenceWithLittleEndianOffset(TWO_BYTE_COPY_TAG, 2, len, offset);
     }
 
-    private void writeLiteralBlock(final LZ77Compressor.LiteralBlock block) throws IOException {
-        final int len = block.getLength();
+    private void writeLiteralBlock(final byte[] data, final int off, final int len) throws IOException {
         if (len <= MAX_LITERAL_SIZE_WITHOUT_SIZE_BYTES) {
-            writeLiteralBlockNoSizeBytes(block, len);
+            writeLiteralBlockNoSizeBytes(data, off, len);
         } else if (len <= MAX_LITERAL_SIZE_WITH_ONE_SIZE_BYTE) {
-            writeLiteralBlockOneSizeByte(block, len);
+            writeLiteralBlockOneSizeByte(data, off, len);
         } else if (len <= MAX_LITERAL_SIZE_WITH_TWO_SIZE_BYTES) {
-            writeLiteralBlockTwoSizeBytes(block, len);
+            writeLiteralBlockTwoSizeBytes(data, off, len);
         } else if (len <= MAX_LITERAL_SIZE_WITH_THREE_SIZE_BYTES) {
-            writeLiteralBlockThreeSizeBytes(block, len);
+            writeLiteralBlockThreeSizeBytes(data, off, len);
         } else {
-            writeLiteralBlockFourSizeBytes(block, len);
+            writeLiteralBlockFourSizeBytes(data, off, len);
         }
     }
 
-    private void writeLiteralBlockFourSizeBytes(final LZ77Compressor.LiteralBlock block, final int len) throws IOException {
-        writeLiteralBlockWithSize(FOUR_SIZE_BYTE_MARKER, 4, len, block);
+    private void writeLiteralBlockFourSizeBytes(final byte[] data, final int off, final int len) throws IOException {
+        writeLiteralBlockWithSize(FOUR_SIZE_BYTE_MARKER, 4, data, off, len);
     }
 
-    private void writeLiteralBlockNoSizeBytes(final LZ77Compressor.LiteralBlock block, final int len) throws IOException {
-        writeLiteralBlockWithSize(len - 1 << 2, 0, len, block);
+    private void writeLiteralBlockNoSizeBytes(final byte[] data, final int off, final int len) throws IOException {
+        writeLiteralBlockWithSize(len - 1 << 2, 0, data, off, len);
     }
 
-    private void writeLiteralBlockOneSizeByte(final LZ77Compressor.LiteralBlock block, final int len) throws IOException {
-        writeLiteralBlockWithSize(ONE_SIZE_BYTE_MARKER, 1, len, block);
+    private void writeLiteralBlockOneSizeByte(final byte[] data, final int off, final int len) throws IOException {
+        writeLiteralBlockWithSize(ONE_SIZE_BYTE_MARKER, 1, data, off, len);
     }
 
-    private void writeLiteralBlockThreeSizeBytes(final LZ77Compressor.LiteralBlock block, final int len) throws IOException {
-        writeLiteralBlockWithSize(THREE_SIZE_BYTE_MARKER, 3, len, block);
+    private void writeLiteralBlockThreeSizeBytes(final byte[] data, final int off, final int len) throws IOException {
+        writeLiteralBlockWithSize(THREE_SIZE_BYTE_MARKER, 3, data, off, len);
     }
 
-    private void writeLiteralBlockTwoSizeBytes(final LZ77Compressor.LiteralBlock block, final int len) throws IOException {
-        writeLiteralBlockWithSize(TWO_SIZE_BYTE_MARKER, 2, len, block);
+    private void writeLiteralBlockTwoSizeBytes(final byte[] data, final int off, final int len) throws IOException {
+        writeLiteralBlockWithSize(TWO_SIZE_BYTE_MARKER, 2, data, off, len);
     }
 
-    private void writeLiteralBlockWithSize(final int tagByte, final int sizeBytes, final int len, final LZ77Compressor.LiteralBlock block) throws IOException {
+    private void writeLiteralBlockWithSize(final int tagByte, final int sizeBytes, final byte[] data, final int off, final int len) throws IOException {
         os.write(tagByte);
         writeLittleEndian(sizeBytes, len - 1);
-        os.write(block.getData(), block.getOffset(), len);
+        os.write(data, off, len);
     }
 
     private void writeLittleEndian(final int numBytes, final int num) throws IOException {
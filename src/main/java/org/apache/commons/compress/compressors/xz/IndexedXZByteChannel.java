@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+import org.apache.commons.compress.MemoryLimitException;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * A read-only {@link SeekableByteChannel} over the uncompressed content of an .xz file, using the block index stored in the file to start decompressing at
+ * the block containing the requested position.
+ * <p>
+ * Reading sequentially decompresses the file only once. After a change of position, decompression restarts at the beginning of the block containing the new
+ * position, unless the new position lies ahead of the current one in the same block. Random access is only efficient for files made of many blocks, like
+ * those written by {@link ParallelXZCompressorOutputStream} or {@code xz -T}; a single-block file has to be decompressed from its start. Concatenated .xz
+ * streams are read as one content.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class IndexedXZByteChannel implements SeekableByteChannel {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final SeekableByteChannel channel;
+
+    private final SeekableXZInputStream in;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /** The position requested by the user. */
+    private long position;
+
+    private boolean open = true;
+
+    /**
+     * Constructs a new channel over an .xz file without a memory limit.
+     *
+     * @param channel the .xz file, it is closed when this channel is closed.
+     * @throws IOException if the file is not in the .xz format, its index is corrupt or an I/O error occurs.
+     */
+    public IndexedXZByteChannel(final SeekableByteChannel channel) throws IOException {
+        this(channel, -1);
+    }
+
+    /**
+     * Constructs a new channel over an .xz file.
+     *
+     * @param channel         the .xz file, it is closed when this channel is closed.
+     * @param memoryLimitInKb memory limit used when reading the index and blocks, -1 for no limit. If the estimated memory needed is exceeded a
+     *                        {@link MemoryLimitException} is thrown.
+     * @throws IOException if the file is not in the .xz format, its index is corrupt or an I/O error occurs.
+     */
+    public IndexedXZByteChannel(final SeekableByteChannel channel, final int memoryLimitInKb) throws IOException {
+        try {
+            this.in = new SeekableXZInputStream(new SeekableChannelInputStream(channel), memoryLimitInKb);
+        } catch (final org.tukaani.xz.MemoryLimitException e) {
+            throw new MemoryLimitException(e.getMemoryNeeded(), e.getMemoryLimit(), e);
+        }
+        this.channel = channel;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            open = false;
+            try {
+                in.close();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of blocks of the file, the granularity of random access.
+     *
+     * @return the number of blocks.
+     * @throws ClosedChannelException if the channel is closed.
+     */
+    public int getBlockCount() throws ClosedChannelException {
+        checkOpen();
+        return in.getBlockCount();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("newPosition(" + newPosition + ") < 0");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (position >= in.length()) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        try {
+            if (in.position() != position) {
+                in.seek(position);
+            }
+            final int n;
+            if (dst.hasArray()) {
+                n = in.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+                if (n > 0) {
+                    dst.position(dst.position() + n);
+                }
+            } else {
+                n = in.read(buffer, 0, Math.min(buffer.length, dst.remaining()));
+                if (n > 0) {
+                    dst.put(buffer, 0, n);
+                }
+            }
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        } catch (final org.tukaani.xz.MemoryLimitException e) {
+            throw new MemoryLimitException(e.getMemoryNeeded(), e.getMemoryLimit(), e);
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return in.length();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws NonWritableChannelException always.
+     */
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws NonWritableChannelException always.
+     */
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.compress.compressors.CompressorInputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * An input stream that decompresses an .xz file from a {@link SeekableByteChannel}, decoding several blocks in parallel.
+ * <p>
+ * The index at the end of an .xz stream records the position and sizes of every block, and blocks are independent of each other. This stream reads the index
+ * once, decodes the blocks on worker threads and hands out their content in order. Each worker verifies the integrity check of the blocks it decodes.
+ * Concatenated .xz streams are read as one content.
+ * </p>
+ * <p>
+ * A file made of a single block, which is what {@link XZCompressorOutputStream} and {@code xz} without {@code -T} write, gains nothing from this stream;
+ * {@link ParallelXZCompressorOutputStream} and {@code xz -T} write files made of many blocks. Each block in flight is held in memory, blocks too large for an
+ * array are decoded by the reading thread instead.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class ParallelXZCompressorInputStream extends CompressorInputStream implements InputStreamStatistics {
+
+    /** The largest block held in memory. */
+    private static final long MAX_BUFFERED_BLOCK_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final byte[] EMPTY = {};
+
+    private final SeekableByteChannel channel;
+
+    /** Reads the index and decodes the blocks too large to be held in memory. */
+    private final SeekableXZInputStream in;
+
+    /** Decoders not used by any worker, each worker needs its own as a decoder keeps the state of its block. */
+    private final Queue<SeekableXZInputStream> decoders = new ConcurrentLinkedQueue<>();
+
+    private final OrderedTaskQueue<byte[]> decoderQueue;
+
+    private final int blockCount;
+
+    /** The next block to submit. */
+    private int submitted;
+
+    /** The block being read, -1 before the first one. */
+    private int block = -1;
+
+    /** The content of the current block, null if it is read from {@link #in}. */
+    private byte[] content = EMPTY;
+
+    private int contentPosition;
+
+    /** The number of bytes of the current block left in {@link #in}. */
+    private long remaining;
+
+    private long compressedCount;
+
+    private boolean closed;
+
+    /**
+     * Constructs a new stream that decompresses the given channel using the given executor service, which is not shut down by this stream.
+     * <p>
+     * The channel is closed when this stream is closed.
+     * </p>
+     *
+     * @param channel           the channel to read from.
+     * @param executorService   the executor service that decodes blocks.
+     * @param maxBlocksInFlight the maximum number of blocks decoded ahead of the reader.
+     * @throws IOException              if the channel does not contain an .xz file, its index is corrupt or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code maxBlocksInFlight < 1}.
+     */
+    public ParallelXZCompressorInputStream(final SeekableByteChannel channel, final ExecutorService executorService, final int maxBlocksInFlight)
+            throws IOException {
+        this(channel, new OrderedTaskQueue<>(executorService, maxBlocksInFlight));
+    }
+
+    /**
+     * Constructs a new stream that decompresses the given channel using {@code threads} threads of its own.
+     * <p>
+     * At most {@code 2 * threads} blocks are decoded ahead of the reader. The channel is closed when this stream is closed.
+     * </p>
+     *
+     * @param channel the channel to read from.
+     * @param threads the number of threads that decode blocks.
+     * @throws IOException              if the channel does not contain an .xz file, its index is corrupt or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelXZCompressorInputStream(final SeekableByteChannel channel, final int threads) throws IOException {
+        this(channel, new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    private ParallelXZCompressorInputStream(final SeekableByteChannel channel, final OrderedTaskQueue<byte[]> decoderQueue) throws IOException {
+        this.channel = channel;
+        this.decoderQueue = decoderQueue;
+        try {
+            this.in = new SeekableXZInputStream(new SeekableChannelInputStream(channel));
+        } catch (final IOException e) {
+            decoderQueue.close();
+            throw e;
+        }
+        this.blockCount = in.getBlockCount();
+    }
+
+    /**
+     * Constructs a new stream that decompresses the given file using {@code threads} threads of its own.
+     *
+     * @param path    the file to read.
+     * @param threads the number of threads that decode blocks.
+     * @throws IOException              if the file is not an .xz file, its index is corrupt or an I/O error occurs.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelXZCompressorInputStream(final Path path, final int threads) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), threads);
+    }
+
+    @Override
+    public int available() {
+        if (content == null) {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+        return content.length - contentPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                decoderQueue.close();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Decodes a block, runs on a worker thread.
+     */
+    private byte[] decode(final int blockNumber) throws IOException {
+        SeekableXZInputStream decoder = decoders.poll();
+        if (decoder == null) {
+            decoder = new SeekableXZInputStream(new SeekableChannelInputStream(channel));
+        }
+        decoder.seekToBlock(blockNumber);
+        final byte[] blockContent = new byte[(int) decoder.getBlockSize(blockNumber)];
+        if (IOUtils.readFully(decoder, blockContent) != blockContent.length) {
+            throw new IOException("Truncated .xz file");
+        }
+        decoders.add(decoder);
+        return blockContent;
+    }
+
+    /**
+     * Submits blocks until enough blocks are in flight or all blocks have been submitted.
+     */
+    private void fill() {
+        while (!decoderQueue.isFull() && submitted < blockCount) {
+            final int blockNumber = submitted++;
+            decoderQueue.submit(in.getBlockSize(blockNumber) > MAX_BUFFERED_BLOCK_SIZE ? () -> null : () -> decode(blockNumber));
+        }
+    }
+
+    /**
+     * @since 1.26.0
+     */
+    @Override
+    public long getCompressedCount() {
+        return compressedCount;
+    }
+
+    /**
+     * Moves on to the next block, returns false at the end of the input.
+     */
+    private boolean nextBlock() throws IOException {
+        if (block + 1 >= blockCount) {
+            return false;
+        }
+        fill();
+        content = decoderQueue.take();
+        block++;
+        contentPosition = 0;
+        compressedCount += in.getBlockCompSize(block);
+        if (content == null) {
+            in.seekToBlock(block);
+            remaining = in.getBlockSize(block);
+        }
+        fill();
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] single = new byte[1];
+        final int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] dest, final int offs, final int len) throws IOException {
+        if (offs < 0) {
+            throw new IndexOutOfBoundsException("offs(" + offs + ") < 0.");
+        }
+        if (len < 0) {
+            throw new IndexOutOfBoundsException("len(" + len + ") < 0.");
+        }
+        if (offs + len > dest.length) {
+            throw new IndexOutOfBoundsException("offs(" + offs + ") + len(" + len + ") > dest.length(" + dest.length + ").");
+        }
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (content == null ? remaining == 0 : contentPosition >= content.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        final int n;
+        if (content == null) {
+            n = in.read(dest, offs, (int) Math.min(len, remaining));
+            if (n < 0) {
+                throw new IOException("Truncated .xz file");
+            }
+            remaining -= n;
+        } else {
+            n = Math.min(len, content.length - contentPosition);
+            System.arraycopy(content, contentPosition, dest, offs, n);
+            contentPosition += n;
+        }
+        count(n);
+        return n;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.parallel.OrderedTaskQueue;
+import org.apache.commons.compress.parallel.ParallelBlockWriter;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZ;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * XZ compressor that compresses blocks of the input on several threads, like {@code xz -T} does.
+ * <p>
+ * The input is split into blocks which are compressed independently. The output is a single standard XZ stream with one XZ block per input block and an
+ * index listing all blocks, so it can be read by any XZ implementation and allows random access with {@link org.tukaani.xz.SeekableXZInputStream}. As
+ * every block starts with an empty dictionary the output is slightly bigger than the one of {@link XZCompressorOutputStream}, the blocks should be
+ * considerably bigger than the dictionary to keep the difference small.
+ * </p>
+ * <p>
+ * Every thread runs its own LZMA2 encoder, which needs about 94&nbsp;MiB of memory for the default preset, and every block in flight keeps its
+ * uncompressed data in memory.
+ * </p>
+ *
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class ParallelXZCompressorOutputStream extends CompressorOutputStream {
+
+    /**
+     * The compressed content of a block.
+     */
+    private static final class CompressedBlock {
+
+        /** The block including its padding and check */
+        final byte[] bytes;
+        final int offset;
+        final int length;
+        /** The unpadded size and the uncompressed size of the block, -1 for an empty block */
+        final long unpaddedSize;
+        final long uncompressedSize;
+
+        CompressedBlock(final byte[] bytes, final int offset, final int length, final long unpaddedSize, final long uncompressedSize) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            this.unpaddedSize = unpaddedSize;
+            this.uncompressedSize = uncompressedSize;
+        }
+    }
+
+    /** The minimum size of the blocks if the block size is derived from the dictionary size. */
+    private static final int MIN_DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final byte[] HEADER_MAGIC = { (byte) 0xFD, '7', 'z', 'X', 'Z', 0 };
+
+    private static final byte[] FOOTER_MAGIC = { 'Y', 'Z' };
+
+    /** The stream flags for CRC64 checks, the default check of {@link XZOutputStream} */
+    private static final byte[] STREAM_FLAGS = { 0, XZ.CHECK_CRC64 };
+
+    private static final int STREAM_HEADER_SIZE = 12;
+
+    private static final int STREAM_FOOTER_SIZE = 12;
+
+    /**
+     * Gets the block size {@code xz -T} uses for the given options, three times the dictionary size but at least 1&nbsp;MiB.
+     *
+     * @param options the LZMA2 options.
+     * @return the default block size.
+     */
+    public static int getDefaultBlockSize(final LZMA2Options options) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_DEFAULT_BLOCK_SIZE, 3L * options.getDictSize()));
+    }
+
+    private static long readVarInt(final byte[] buf, final int[] pos) throws IOException {
+        long value = 0;
+        for (int i = 0; i < 9; i++) {
+            final int b = buf[pos[0]++] & 0xff;
+            value |= (long) (b & 0x7f) << i * 7;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt XZ index");
+    }
+
+    private static void writeInt(final OutputStream out, final int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static void writeVarInt(final OutputStream out, final long value) throws IOException {
+        long v = value;
+        while (v >= 0x80) {
+            out.write((int) (v | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    /** The underlying stream */
+    private final OutputStream out;
+
+    private final LZMA2Options options;
+
+    /** Compresses blocks on worker threads */
+    private final ParallelBlockWriter<CompressedBlock> blockWriter;
+
+    /** The records of the blocks written so far */
+    private final ByteArrayOutputStream indexRecords = new ByteArrayOutputStream();
+
+    /** The number of blocks written so far */
+    private long recordCount;
+
+    /** Indicates if the stream has been finished */
+    private boolean finished;
+
+    /** Indicates if the stream has been closed */
+    private boolean closed;
+
+    /**
+     * Creates a new XZ compressor that compresses blocks of {@code blockSize} bytes using the given executor service, which is not shut down by this stream.
+     *
+     * @param out               the stream to compress to.
+     * @param options           the LZMA2 options of every block.
+     * @param executorService   the executor service that compresses blocks.
+     * @param blockSize         the number of uncompressed bytes compressed by a single task.
+     * @param maxBlocksInFlight the maximum number of blocks compressed but not yet written.
+     * @throws IOException              if writing fails.
+     * @throws IllegalArgumentException if {@code blockSize < 1} or {@code maxBlocksInFlight < 1}.
+     */
+    public ParallelXZCompressorOutputStream(final OutputStream out, final LZMA2Options options, final ExecutorService executorService, final int blockSize,
+            final int maxBlocksInFlight) throws IOException {
+        this(out, options, blockSize, new OrderedTaskQueue<>(executorService, maxBlocksInFlight));
+    }
+
+    /**
+     * Creates a new XZ compressor that compresses blocks of the {@link #getDefaultBlockSize(LZMA2Options) default size} using {@code threads} threads of its
+     * own.
+     * <p>
+     * At most {@code 2 * threads} blocks are in flight at any time. The threads are stopped when the stream is finished.
+     * </p>
+     *
+     * @param out     the stream to compress to.
+     * @param options the LZMA2 options of every block.
+     * @param threads the number of threads that compress blocks.
+     * @throws IOException              if writing fails.
+     * @throws IllegalArgumentException if {@code threads < 1}.
+     */
+    public ParallelXZCompressorOutputStream(final OutputStream out, final LZMA2Options options, final int threads) throws IOException {
+        this(out, options, getDefaultBlockSize(options), new OrderedTaskQueue<>(threads, 2 * threads));
+    }
+
+    private ParallelXZCompressorOutputStream(final OutputStream out, final LZMA2Options options, final int blockSize,
+            final OrderedTaskQueue<CompressedBlock> compressorQueue) throws IOException {
+        this.out = out;
+        this.options = (LZMA2Options) options.clone();
+        this.blockWriter = new ParallelBlockWriter<>(compressorQueue, blockSize, this::createTask, this::writeBlock);
+        try {
+            writeStreamHeader();
+        } catch (final IOException e) {
+            blockWriter.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                blockWriter.close();
+                out.close();
+                closed = true;
+            }
+        }
+    }
+
+    /**
+     * Compresses a block into a single block XZ stream and extracts the block and its index record, runs on a worker thread.
+     */
+    private CompressedBlock compress(final byte[] input, final int length) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(length / 2 + 1024);
+        try (XZOutputStream xz = new XZOutputStream(bos, (LZMA2Options) options.clone(), XZ.CHECK_CRC64)) {
+            xz.write(input, 0, length);
+        }
+        final byte[] bytes = bos.toByteArray();
+        final int footer = bytes.length - STREAM_FOOTER_SIZE;
+        final int backwardSize = ((bytes[footer + 4] & 0xff) | (bytes[footer + 5] & 0xff) << 8 | (bytes[footer + 6] & 0xff) << 16
+                | (bytes[footer + 7] & 0xff) << 24) + 1 << 2;
+        final int index = footer - backwardSize;
+        final int[] pos = { index + 1 };
+        if (readVarInt(bytes, pos) == 0) {
+            return new CompressedBlock(bytes, 0, 0, -1, -1);
+        }
+        final long unpaddedSize = readVarInt(bytes, pos);
+        final long uncompressedSize = readVarInt(bytes, pos);
+        return new CompressedBlock(bytes, STREAM_HEADER_SIZE, index - STREAM_HEADER_SIZE, unpaddedSize, uncompressedSize);
+    }
+
+    private Callable<CompressedBlock> createTask(final byte[] input, final int length, final boolean last) {
+        return length == 0 ? null : () -> compress(input, length);
+    }
+
+    /**
+     * Finishes writing compressed data to the underlying stream without closing it.
+     *
+     * @throws IOException on error
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            blockWriter.finish();
+            writeIndexAndFooter();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only flushes the underlying stream, blocks being compressed are written as soon as they are complete.
+     * </p>
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (finished) {
+            throw new IOException("Cannot write more data, the end of the compressed data stream has been reached");
+        }
+        blockWriter.write(buffer, offset, length);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) (b & 0xff) }, 0, 1);
+    }
+
+    private void writeBlock(final CompressedBlock compressed) throws IOException {
+        if (compressed.length == 0) {
+            return;
+        }
+        out.write(compressed.bytes, compressed.offset, compressed.length);
+        writeVarInt(indexRecords, compressed.unpaddedSize);
+        writeVarInt(indexRecords, compressed.uncompressedSize);
+        recordCount++;
+    }
+
+    private void writeIndexAndFooter() throws IOException {
+        final ByteArrayOutputStream index = new ByteArrayOutputStream(indexRecords.size() + 16);
+        // index indicator
+        index.write(0);
+        writeVarInt(index, recordCount);
+        indexRecords.writeTo(index);
+        while (index.size() % 4 != 0) {
+            index.write(0);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(index.toByteArray());
+        writeInt(index, (int) crc.getValue());
+        index.writeTo(out);
+
+        final ByteArrayOutputStream footer = new ByteArrayOutputStream(STREAM_FOOTER_SIZE);
+        writeInt(footer, index.size() / 4 - 1);
+        footer.write(STREAM_FLAGS);
+        crc.reset();
+        crc.update(footer.toByteArray());
+        writeInt(out, (int) crc.getValue());
+        footer.writeTo(out);
+        out.write(FOOTER_MAGIC);
+    }
+
+    private void writeStreamHeader() throws IOException {
+        out.write(HEADER_MAGIC);
+        out.write(STREAM_FLAGS);
+        final CRC32 crc = new CRC32();
+        crc.update(STREAM_FLAGS);
+        writeInt(out, (int) crc.getValue());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.tukaani.xz.SeekableInputStream;
+
+/**
+ * Adapts a {@link SeekableByteChannel} to the {@link SeekableInputStream} expected by {@link org.tukaani.xz.SeekableXZInputStream}.
+ * <p>
+ * Each instance keeps its own position and reads with positional reads, so several instances can share one channel. Closing the stream doesn't close the
+ * channel.
+ * </p>
+ *
+ * @NotThreadSafe
+ */
+final class SeekableChannelInputStream extends SeekableInputStream {
+
+    private final SeekableByteChannel channel;
+
+    private long position;
+
+    SeekableChannelInputStream(final SeekableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public long length() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] single = new byte[1];
+        final int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n;
+        do {
+            n = IOUtils.read(channel, ByteBuffer.wrap(b, off, len), position);
+        } while (n == 0);
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public void seek(final long pos) throws IOException {
+        if (pos < 0) {
+            throw new IOException("Negative seek offset");
+        }
+        position = pos;
+    }
+}
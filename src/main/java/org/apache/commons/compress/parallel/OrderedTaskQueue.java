@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.parallel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs tasks on an {@link ExecutorService} and hands their results back in submission order, keeping at most a fixed number of tasks in flight.
+ * <p>
+ * This is the building block of the block-parallel compressor streams: the client thread cuts its input into independent blocks, submits one task per block
+ * and writes the results in order. Once {@link #isFull()} returns {@code true} the client has to {@link #take()} the oldest result before it may submit
+ * another task, which bounds the memory used by blocks waiting to be written.
+ * </p>
+ * <p>
+ * Instances are meant to be used by a single client thread.
+ * </p>
+ *
+ * @param <T> the result type of the tasks.
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public class OrderedTaskQueue<T> implements Closeable {
+
+    private static int checkThreads(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads(" + threads + ") < 1");
+        }
+        return threads;
+    }
+
+    /**
+     * Creates a fixed thread pool of daemon threads so an unclosed stream does not keep the VM alive.
+     *
+     * @param threads the number of threads.
+     * @return a new executor service.
+     */
+    private static ExecutorService newExecutorService(final int threads) {
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        return Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = defaultFactory.newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final ExecutorService executorService;
+    private final boolean shutdownExecutorService;
+    private final int maxInFlight;
+    private final Deque<Future<T>> futures = new ArrayDeque<>();
+
+    /**
+     * Constructs a queue that uses the given executor service, which is not shut down when this queue is closed.
+     *
+     * @param executorService the executor service that runs the tasks.
+     * @param maxInFlight     the maximum number of submitted tasks whose results have not been taken yet.
+     * @throws IllegalArgumentException if {@code maxInFlight < 1}.
+     */
+    public OrderedTaskQueue(final ExecutorService executorService, final int maxInFlight) {
+        this(executorService, false, maxInFlight);
+    }
+
+    private OrderedTaskQueue(final ExecutorService executorService, final boolean shutdownExecutorService, final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight(" + maxInFlight + ") < 1");
+        }
+        this.executorService = executorService;
+        this.shutdownExecutorService = shutdownExecutorService;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Constructs a queue with its own pool of {@code threads} threads, which is shut down when this queue is closed.
+     *
+     * @param threads     the number of worker threads.
+     * @param maxInFlight the maximum number of submitted tasks whose results have not been taken yet.
+     * @throws IllegalArgumentException if {@code threads < 1} or {@code maxInFlight < 1}.
+     */
+    public OrderedTaskQueue(final int threads, final int maxInFlight) {
+        this(newExecutorService(checkThreads(threads)), true, maxInFlight);
+    }
+
+    /**
+     * Cancels all tasks whose results have not been taken and shuts down the executor service if this queue created it.
+     */
+    @Override
+    public void close() {
+        Future<T> future;
+        while ((future = futures.poll()) != null) {
+            future.cancel(true);
+        }
+        if (shutdownExecutorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests whether there are no results left to take.
+     *
+     * @return whether there are no results left to take.
+     */
+    public boolean isEmpty() {
+        return futures.isEmpty();
+    }
+
+    /**
+     * Tests whether the maximum number of tasks is in flight, in which case {@link #take()} must be called before the next {@link #submit(Callable)}.
+     *
+     * @return whether the maximum number of tasks is in flight.
+     */
+    public boolean isFull() {
+        return futures.size() >= maxInFlight;
+    }
+
+    /**
+     * Gets the number of submitted tasks whose results have not been taken yet.
+     *
+     * @return the number of tasks in flight.
+     */
+    public int size() {
+        return futures.size();
+    }
+
+    /**
+     * Submits a task.
+     *
+     * @param task the task.
+     * @throws IllegalStateException if the queue {@link #isFull() is full}.
+     */
+    public void submit(final Callable<T> task) {
+        if (isFull()) {
+            throw new IllegalStateException("Too many tasks in flight, take a result first");
+        }
+        futures.add(executorService.submit(task));
+    }
+
+    /**
+     * Waits for the oldest task to complete and returns its result.
+     *
+     * @return the result of the oldest task.
+     * @throws IOException              if the task failed, an {@link IOException}, {@link RuntimeException} or {@link Error} thrown by the task is rethrown
+     *                                  as is, any other exception is wrapped.
+     * @throws InterruptedIOException   if the client thread was interrupted while waiting.
+     * @throws IllegalStateException    if there is no task in flight.
+     */
+    public T take() throws IOException {
+        final Future<T> future = futures.poll();
+        if (future == null) {
+            throw new IllegalStateException("No task in flight");
+        }
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            final InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for a parallel task");
+            ex.initCause(e);
+            throw ex;
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
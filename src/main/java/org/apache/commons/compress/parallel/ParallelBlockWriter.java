@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.parallel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.io.function.IOConsumer;
+
+/**
+ * Collects the input of a block-parallel compressor stream in blocks of a fixed size, compresses every block on an {@link OrderedTaskQueue} and writes the
+ * results in order.
+ * <p>
+ * Block arrays are never reused, so tasks may keep a reference to the block they have been created for or to an earlier one.
+ * </p>
+ *
+ * @param <T> the result type of the tasks.
+ * @since 1.26.0
+ * @NotThreadSafe
+ */
+public final class ParallelBlockWriter<T> implements Closeable {
+
+    /**
+     * Creates the task that compresses a block, called on the thread writing to the stream in the order of the blocks.
+     *
+     * @param <T> the result type of the task.
+     */
+    @FunctionalInterface
+    public interface TaskFactory<T> {
+
+        /**
+         * Creates the task that compresses a block.
+         *
+         * @param input  the block, only the first {@code length} bytes are used.
+         * @param length the number of bytes in the block, 0 if the stream is finished at the end of a block.
+         * @param last   whether this is the last block of the stream.
+         * @return the task or {@code null} if nothing needs to be written for the block.
+         */
+        Callable<T> createTask(byte[] input, int length, boolean last);
+    }
+
+    /** Compresses blocks on worker threads */
+    private final OrderedTaskQueue<T> compressorQueue;
+
+    private final TaskFactory<T> taskFactory;
+
+    /** Writes the results of the tasks in the order of the blocks */
+    private final IOConsumer<T> resultWriter;
+
+    /** The block being filled */
+    private byte[] block;
+
+    /** The number of bytes in the block being filled */
+    private int blockLength;
+
+    /**
+     * Constructs a new instance, the queue is closed if this constructor fails.
+     *
+     * @param compressorQueue the queue that runs the tasks, closed by this writer.
+     * @param blockSize       the number of uncompressed bytes compressed by a single task.
+     * @param taskFactory     creates the task that compresses a block.
+     * @param resultWriter    writes the result of a task, called on the thread writing to the stream in the order of the blocks.
+     * @throws IllegalArgumentException if {@code blockSize < 1}.
+     */
+    public ParallelBlockWriter(final OrderedTaskQueue<T> compressorQueue, final int blockSize, final TaskFactory<T> taskFactory,
+            final IOConsumer<T> resultWriter) {
+        this.compressorQueue = compressorQueue;
+        if (blockSize < 1) {
+            compressorQueue.close();
+            throw new IllegalArgumentException("blockSize(" + blockSize + ") < 1");
+        }
+        this.taskFactory = taskFactory;
+        this.resultWriter = resultWriter;
+        this.block = new byte[blockSize];
+    }
+
+    /**
+     * Stops the tasks still in flight and closes the queue.
+     */
+    @Override
+    public void close() {
+        compressorQueue.close();
+    }
+
+    /**
+     * Submits the last block and writes the results of all blocks, then closes the queue.
+     *
+     * @throws IOException if a task or writing a result fails.
+     */
+    public void finish() throws IOException {
+        try {
+            submitBlock(true);
+            while (!compressorQueue.isEmpty()) {
+                resultWriter.accept(compressorQueue.take());
+            }
+        } finally {
+            compressorQueue.close();
+        }
+    }
+
+    /**
+     * Submits the block being filled, after writing the results of completed blocks if too many blocks are in flight.
+     */
+    private void submitBlock(final boolean last) throws IOException {
+        final byte[] input = block;
+        final int length = blockLength;
+        final Callable<T> task = taskFactory.createTask(input, length, last);
+        if (task != null) {
+            while (compressorQueue.isFull()) {
+                resultWriter.accept(compressorQueue.take());
+            }
+            compressorQueue.submit(task);
+        }
+        block = last ? null : new byte[input.length];
+        blockLength = 0;
+    }
+
+    /**
+     * Adds bytes to the blocks, submitting every block that is full.
+     *
+     * @param buffer the data.
+     * @param offset the start offset in the data.
+     * @param length the number of bytes to write.
+     * @throws IOException if a task or writing a result fails.
+     */
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        int off = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int n = Math.min(remaining, block.length - blockLength);
+            System.arraycopy(buffer, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            remaining -= n;
+            if (blockLength == block.length) {
+                submitBlock(false);
+            }
+        }
+    }
+}
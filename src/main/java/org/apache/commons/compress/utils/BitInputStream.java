@@ -31,6 +31,7 @@
  */
 public class BitInputStream implements Closeable {
     private static final int MAXIMUM_CACHE_SIZE = 63; // bits in long minus sign bit
+    private static final int MAXIMUM_PEEK_SIZE = 56; // bits the cache is guaranteed to be filled up to
     private static final long[] MASKS = new long[MAXIMUM_CACHE_SIZE + 1];
 
     static {
@@ -39,7 +40,9 @@ public class BitInputStream implements Closeable {
         }
     }
 
-    private final org.apache.commons.io.input.CountingInputStream in;
+    private final InputStream in;
+    // counted here rather than by a CountingInputStream as every byte is read on its own
+    private long bytesRead;
     private final ByteOrder byteOrder;
     private long bitsCached;
     private int bitsCachedSize;
@@ -51,7 +54,7 @@ public class BitInputStream implements Closeable {
      * @param byteOrder the bit arrangement across byte boundaries, either BIG_ENDIAN (aaaaabbb bb000000) or LITTLE_ENDIAN (bbbaaaaa 000000bb)
      */
     public BitInputStream(final InputStream in, final ByteOrder byteOrder) {
-        this.in = new org.apache.commons.io.input.CountingInputStream(in);
+        this.in = in;
         this.byteOrder = byteOrder;
     }
 
@@ -115,6 +118,7 @@ private boolean ensureCache(final int count) throws IOException {
             if (nextByte < 0) {
                 return true;
             }
+            bytesRead++;
             if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
                 bitsCached |= nextByte << bitsCachedSize;
             } else {
@@ -136,7 +140,33 @@ private boolean ensureCache(final int count) throws IOException {
      * @since 1.17
      */
     public long getBytesRead() {
-        return in.getByteCount();
+        return bytesRead;
+    }
+
+    /**
+     * Returns at most 56 bits from the underlying stream without consuming them, a subsequent {@link #readBits} returns the same bits.
+     * <p>
+     * If the end of the underlying stream is reached before {@code count} bits could be cached the missing bits are returned as zeros, the end of the stream
+     * is signalled once the bits are actually read.
+     * </p>
+     *
+     * @param count the number of bits to return, must be a positive number not bigger than 56.
+     * @return the bits concatenated as a long using the stream's byte order.
+     * @throws IOException on error
+     * @since 1.26.0
+     */
+    public long peekBits(final int count) throws IOException {
+        if (count < 0 || count > MAXIMUM_PEEK_SIZE) {
+            throw new IOException("count must not be negative or greater than " + MAXIMUM_PEEK_SIZE);
+        }
+        ensureCache(count);
+        if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+            return bitsCached & MASKS[count];
+        }
+        if (bitsCachedSize < count) {
+            return bitsCached << count - bitsCachedSize & MASKS[count];
+        }
+        return bitsCached >> bitsCachedSize - count & MASKS[count];
     }
 
     private long processBitsGreater57(final int count) throws IOException {
@@ -151,6 +181,7 @@ private long processBitsGreater57(final int count) throws IOException {
         if (nextByte < 0) {
             return nextByte;
         }
+        bytesRead++;
         if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
             final long bitsToAdd = nextByte & MASKS[bitsToAddCount];
             bitsCached |= bitsToAdd << bitsCachedSize;
@@ -22,6 +22,10 @@
 
 /**
  * InputStream that delegates requests to the underlying SeekableByteChannel, making sure that only bytes from a certain range can be read.
+ * <p>
+ * {@link java.nio.channels.FileChannel}s and {@link PositionedReadableByteChannel}s are read with positional reads, other channels are locked while they are
+ * positioned and read.
+ * </p>
  *
  * @ThreadSafe
  * @since 1.21
@@ -44,11 +48,7 @@ public BoundedSeekableByteChannelInputStream(final long start, final long remain
 
     @Override
     protected int read(final long pos, final ByteBuffer buf) throws IOException {
-        int read;
-        synchronized (channel) {
-            channel.position(pos);
-            read = channel.read(buf);
-        }
+        final int read = IOUtils.read(channel, buf, pos);
         buf.flip();
         return read;
     }
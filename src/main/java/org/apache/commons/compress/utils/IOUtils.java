@@ -26,7 +26,10 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 
@@ -41,6 +44,11 @@ public final class IOUtils {
 
     private static final int COPY_BUF_SIZE = 8024;
 
+    /**
+     * Size of the views written at once when copying from a memory-mapped channel.
+     */
+    private static final int MAPPED_COPY_SIZE = 64 * 1024 * 1024;
+
     /**
      * Empty array of type {@link LinkOption}.
      *
@@ -150,6 +158,82 @@ public static long copyRange(final InputStream input, final long len, final Outp
         return count;
     }
 
+    /**
+     * Copies a range of a channel to another channel, without using or modifying the position of the source channel where possible.
+     * <p>
+     * A {@link FileChannel} source uses {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets the operating system move the bytes
+     * without copying them into the JVM heap if the target is a file or a socket. A {@link MemoryMappedByteChannel} source writes views of the mapped file.
+     * Other sources are copied through a heap buffer using {@link #read(SeekableByteChannel, ByteBuffer, long)}.
+     * </p>
+     *
+     * @param source   the channel to copy from.
+     * @param position the position of the first byte to copy.
+     * @param length   the number of bytes to copy.
+     * @param target   the channel to write to, at its current position.
+     * @throws IOException  if an I/O error occurs.
+     * @throws EOFException if the source ends before all bytes are copied.
+     * @since 1.26.0
+     */
+    public static void copyRange(final SeekableByteChannel source, final long position, final long length, final WritableByteChannel target)
+            throws IOException {
+        long pos = position;
+        final long end = position + length;
+        if (source instanceof FileChannel) {
+            while (pos < end) {
+                final long transferred = ((FileChannel) source).transferTo(pos, end - pos, target);
+                if (transferred <= 0) {
+                    throw new EOFException();
+                }
+                pos += transferred;
+            }
+        } else if (source instanceof MemoryMappedByteChannel) {
+            while (pos < end) {
+                final int chunk = (int) Math.min(end - pos, MAPPED_COPY_SIZE);
+                writeFully(target, ((MemoryMappedByteChannel) source).slice(pos, chunk));
+                pos += chunk;
+            }
+        } else {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(COPY_BUF_SIZE, Math.max(0, length)));
+            while (pos < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - pos));
+                final int read = read(source, buffer, pos);
+                if (read <= 0) {
+                    throw new EOFException();
+                }
+                buffer.flip();
+                writeFully(target, buffer);
+                pos += read;
+            }
+        }
+    }
+
+    /**
+     * Reads a sequence of bytes from the channel into the given buffer, starting at the given position.
+     * <p>
+     * {@link FileChannel}s and {@link PositionedReadableByteChannel}s are read without using their position, so concurrent callers don't block each other. Any
+     * other channel is locked, positioned and then read; concurrent callers are serialized and the channel's position is modified.
+     * </p>
+     *
+     * @param channel  the channel to read from.
+     * @param dst      the buffer into which the data is read.
+     * @param position the position at which the read starts.
+     * @return the number of bytes read, possibly zero, or -1 if the position is at or after the end of the channel.
+     * @throws IOException if an I/O error occurs.
+     * @since 1.26.0
+     */
+    public static int read(final SeekableByteChannel channel, final ByteBuffer dst, final long position) throws IOException {
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).read(dst, position);
+        }
+        if (channel instanceof PositionedReadableByteChannel) {
+            return ((PositionedReadableByteChannel) channel).read(dst, position);
+        }
+        synchronized (channel) {
+            channel.position(position);
+            return channel.read(dst);
+        }
+    }
+
     /**
      * Reads as much from the file as possible to fill the given array.
      * <p>
@@ -225,6 +309,27 @@ public static void readFully(final ReadableByteChannel channel, final ByteBuffer
         }
     }
 
+    /**
+     * Reads the given buffer full from the channel, starting at the given position, see {@link #read(SeekableByteChannel, ByteBuffer, long)}.
+     *
+     * @param channel    the channel to read from.
+     * @param byteBuffer the buffer into which the data is read.
+     * @param position   the position at which the read starts.
+     * @throws IOException  if an I/O error occurs.
+     * @throws EOFException if the channel reaches the end before reading all the bytes.
+     * @since 1.26.0
+     */
+    public static void readFully(final SeekableByteChannel channel, final ByteBuffer byteBuffer, final long position) throws IOException {
+        long pos = position;
+        while (byteBuffer.hasRemaining()) {
+            final int read = read(channel, byteBuffer, pos);
+            if (read <= 0) {
+                throw new EOFException();
+            }
+            pos += read;
+        }
+    }
+
     /**
      * Gets part of the contents of an {@code InputStream} as a {@code byte[]}.
      *
@@ -308,6 +413,12 @@ public static byte[] toByteArray(final InputStream input) throws IOException {
         return org.apache.commons.io.IOUtils.toByteArray(input);
     }
 
+    private static void writeFully(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
     /** Private constructor to prevent instantiation of this utility class. */
     private IOUtils() {
     }
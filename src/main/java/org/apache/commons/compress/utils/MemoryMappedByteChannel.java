@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A read-only {@link SeekableByteChannel} that serves the content of a file from memory mappings.
+ * <p>
+ * The file is mapped once when the channel is created, in overlapping segments so that files bigger than 2 GiB can be mapped as well. Reads copy directly from
+ * the mapped memory without any system call and {@link #slice(long, int)} provides views of the file without copying it at all. Use an instance of this class
+ * as the channel of {@link org.apache.commons.compress.archivers.zip.ZipFile}, {@link org.apache.commons.compress.archivers.tar.TarFile} or
+ * {@link org.apache.commons.compress.archivers.sevenz.SevenZFile} to open an archive through memory mappings.
+ * </p>
+ * <p>
+ * The file must not be modified or truncated while it is mapped. Mappings are released when they are garbage collected, not when this channel is closed.
+ * </p>
+ * <p>
+ * {@link #read(ByteBuffer, long) Positional reads} and {@link #slice(long, int) slices} don't modify any state and may be used concurrently.
+ * </p>
+ *
+ * @NotThreadSafe
+ * @since 1.26.0
+ */
+public class MemoryMappedByteChannel implements PositionedReadableByteChannel {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    /**
+     * Opens and maps the given file.
+     *
+     * @param path the file to map.
+     * @return a new channel.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    @SuppressWarnings("resource") // closed by the returned channel
+    public static MemoryMappedByteChannel open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MemoryMappedByteChannel(channel);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private final FileChannel channel;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final long size;
+    private final int segmentSize;
+    /**
+     * Segment {@code i} maps the file from {@code i * segmentSize} for up to {@code 2 * segmentSize - 1} bytes, so any range of at most {@code segmentSize}
+     * bytes is contained in a single segment.
+     */
+    private final MappedByteBuffer[] segments;
+    private long position;
+
+    /**
+     * Maps the current content of the given channel.
+     *
+     * @param channel the file channel to map, it must be readable and is closed when this channel is closed.
+     * @throws IOException if the file cannot be mapped.
+     */
+    public MemoryMappedByteChannel(final FileChannel channel) throws IOException {
+        this(channel, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MemoryMappedByteChannel(final FileChannel channel, final int segmentSize) throws IOException {
+        if (segmentSize < 1 || segmentSize > DEFAULT_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize(" + segmentSize + ") out of range");
+        }
+        this.channel = channel;
+        this.segmentSize = segmentSize;
+        this.size = channel.size();
+        segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < segments.length; i++) {
+            final long start = (long) i * segmentSize;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 2L * segmentSize - 1));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position: " + newPosition);
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        final int read = read(dst, position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst, final long position) throws IOException {
+        ensureOpen();
+        if (position < 0) {
+            throw new IllegalArgumentException("Negative position: " + position);
+        }
+        if (position >= size) {
+            return -1;
+        }
+        final int length = (int) Math.min(Math.min(dst.remaining(), size - position), segmentSize);
+        dst.put(view(position, length));
+        return length;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    /**
+     * Gets a read-only view of a range of the file.
+     * <p>
+     * Ranges of at most 1 GiB are served from the mapped memory without copying them. Bigger ranges are copied into a new heap buffer.
+     * </p>
+     *
+     * @param position the position of the first byte of the range.
+     * @param length   the length of the range.
+     * @return a read-only buffer whose position is zero and whose limit is {@code length}.
+     * @throws IOException              if this channel is closed or the range exceeds the size of the file.
+     * @throws IllegalArgumentException if position or length are negative.
+     */
+    public ByteBuffer slice(final long position, final int length) throws IOException {
+        ensureOpen();
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException("position(" + position + ") or length(" + length + ") negative");
+        }
+        if (position + length > size) {
+            throw new IOException("Range exceeds the file, position=" + position + ", length=" + length + ", size=" + size);
+        }
+        if (length == 0) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        if (length <= segmentSize) {
+            return view(position, length).slice();
+        }
+        final ByteBuffer copy = ByteBuffer.allocate(length);
+        while (copy.hasRemaining()) {
+            copy.put(view(position + copy.position(), Math.min(copy.remaining(), segmentSize)));
+        }
+        copy.flip();
+        return copy.asReadOnlyBuffer();
+    }
+
+    /**
+     * @throws NonWritableChannelException since this implementation is read-only.
+     */
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    private ByteBuffer view(final long position, final int length) {
+        final int segment = (int) (position / segmentSize);
+        final int offset = (int) (position - (long) segment * segmentSize);
+        final ByteBuffer view = segments[segment].asReadOnlyBuffer();
+        view.position(offset).limit(offset + length);
+        return view;
+    }
+
+    /**
+     * @throws NonWritableChannelException since this implementation is read-only.
+     */
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+}
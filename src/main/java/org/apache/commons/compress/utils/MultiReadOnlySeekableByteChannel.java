@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
@@ -40,10 +41,14 @@
  * MultiReadOnlySeekableByteChannel</a>
  * by Tim Underwood.
  * </p>
+ * <p>
+ * {@link #read(ByteBuffer, long) Positional reads} use positional reads of the concatenated channels when these are {@link java.nio.channels.FileChannel}s or
+ * {@link PositionedReadableByteChannel}s, so concurrent readers of different regions don't block each other.
+ * </p>
  *
  * @since 1.19
  */
-public class MultiReadOnlySeekableByteChannel implements SeekableByteChannel {
+public class MultiReadOnlySeekableByteChannel implements PositionedReadableByteChannel {
 
     private static final Path[] EMPTY_PATH_ARRAY = {};
 
@@ -105,6 +110,11 @@ public static SeekableByteChannel forSeekableByteChannels(final SeekableByteChan
 
     private int currentChannelIdx;
 
+    /**
+     * Start offsets of the channels plus the total size, computed on the first positional read.
+     */
+    private volatile long[] channelStarts;
+
     /**
      * Concatenates the given channels.
      *
@@ -132,6 +142,18 @@ public void close() throws IOException {
         }
     }
 
+    private long[] channelStarts() throws IOException {
+        long[] starts = channelStarts;
+        if (starts == null) {
+            starts = new long[channels.size() + 1];
+            for (int i = 0; i < channels.size(); i++) {
+                starts[i + 1] = starts[i] + channels.get(i).size();
+            }
+            channelStarts = starts;
+        }
+        return starts;
+    }
+
     @Override
     public boolean isOpen() {
         return channels.stream().allMatch(SeekableByteChannel::isOpen);
@@ -237,6 +259,68 @@ public synchronized int read(final ByteBuffer dst) throws IOException {
         return -1;
     }
 
+    /**
+     * Reads from the given position without modifying this channel's position.
+     * <p>
+     * The sizes of the concatenated channels are determined on the first invocation and must not change afterwards.
+     * </p>
+     *
+     * @since 1.26.0
+     */
+    @Override
+    public int read(final ByteBuffer dst, final long position) throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+        if (position < 0) {
+            throw new IllegalArgumentException("Negative position: " + position);
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        final long[] starts = channelStarts();
+        int idx = Arrays.binarySearch(starts, position);
+        if (idx < 0) {
+            idx = Math.max(0, -idx - 2);
+        }
+        long pos = position;
+        int totalBytesRead = 0;
+        while (dst.hasRemaining() && idx < channels.size()) {
+            final long relativePosition = pos - starts[idx];
+            if (relativePosition >= starts[idx + 1] - starts[idx]) {
+                idx++;
+                continue;
+            }
+            final int newBytesRead = read(channels.get(idx), dst, relativePosition);
+            if (newBytesRead == 0) {
+                break;
+            }
+            if (newBytesRead == -1) {
+                idx++;
+                continue;
+            }
+            totalBytesRead += newBytesRead;
+            pos += newBytesRead;
+        }
+        return totalBytesRead == 0 && position >= starts[channels.size()] ? -1 : totalBytesRead;
+    }
+
+    private int read(final SeekableByteChannel channel, final ByteBuffer dst, final long position) throws IOException {
+        if (channel instanceof FileChannel || channel instanceof PositionedReadableByteChannel) {
+            return IOUtils.read(channel, dst, position);
+        }
+        // the position of the concatenated channels is owned by the sequential read methods
+        synchronized (this) {
+            final long oldPosition = channel.position();
+            try {
+                channel.position(position);
+                return channel.read(dst);
+            } finally {
+                channel.position(oldPosition);
+            }
+        }
+    }
+
     @Override
     public long size() throws IOException {
         if (!isOpen()) {
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A {@link SeekableByteChannel} that can read from an absolute position without using or modifying its own position.
+ * <p>
+ * Positional reads don't depend on any state shared between callers, implementations must allow several threads to read different regions concurrently. The
+ * archive readers use this to read entries of the same archive in parallel without locking the channel. {@link java.nio.channels.FileChannel} provides the
+ * same method and is treated the same way, see {@link IOUtils#read(SeekableByteChannel, ByteBuffer, long)}.
+ * </p>
+ *
+ * @ThreadSafe for positional reads
+ * @since 1.26.0
+ */
+public interface PositionedReadableByteChannel extends SeekableByteChannel {
+
+    /**
+     * Reads a sequence of bytes from this channel into the given buffer, starting at the given position.
+     * <p>
+     * This method works like {@link #read(ByteBuffer)}, except that bytes are read starting at the given position rather than at the channel's current
+     * position. This method does not modify this channel's position. If the given position is greater than or equal to the channel's current size then no
+     * bytes are read and -1 is returned.
+     * </p>
+     *
+     * @param dst      The buffer into which bytes are to be transferred.
+     * @param position The position at which the transfer is to begin; must be non-negative.
+     * @return The number of bytes read, possibly zero, or -1 if the given position is greater than or equal to the channel's current size.
+     * @throws IllegalArgumentException if the position is negative.
+     * @throws IOException              if an I/O error occurs.
+     */
+    int read(ByteBuffer dst, long position) throws IOException;
+}
@@ -31,11 +31,14 @@
  * and it is not possible to {@link #position(long) set the position} or {@link #truncate truncate} to a value bigger than that. Internal buffer can be accessed
  * via {@link SeekableInMemoryByteChannel#array()}.
  * </p>
+ * <p>
+ * {@link #read(ByteBuffer, long) Positional reads} don't modify any state and may be performed concurrently as long as nobody writes to the channel.
+ * </p>
  *
  * @since 1.13
  * @NotThreadSafe
  */
-public class SeekableInMemoryByteChannel implements SeekableByteChannel {
+public class SeekableInMemoryByteChannel implements PositionedReadableByteChannel {
 
     private static final int NAIVE_RESIZE_LIMIT = Integer.MAX_VALUE >> 1;
 
@@ -141,6 +144,25 @@ public int read(final ByteBuffer buf) throws IOException {
         return wanted;
     }
 
+    /**
+     * Reads from the given position without modifying this channel's position.
+     *
+     * @since 1.26.0
+     */
+    @Override
+    public int read(final ByteBuffer buf, final long position) throws IOException {
+        ensureOpen();
+        if (position < 0L) {
+            throw new IllegalArgumentException("Negative position: " + position);
+        }
+        if (position >= size) {
+            return -1;
+        }
+        final int wanted = Math.min(buf.remaining(), size - (int) position);
+        buf.put(data, (int) position, wanted);
+        return wanted;
+    }
+
     private void resize(final int newLength) {
         int len = data.length;
         if (len <= 0) {
@@ -35,6 +35,11 @@
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.archivers.ArchiveEntry;
@@ -42,9 +47,14 @@
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.StreamingNotSupportedException;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.junit.jupiter.api.Test;
 
@@ -210,6 +220,140 @@ public void testFileCantEscapeViaAbsolutePath() throws IOException, ArchiveExcep
         assertFalse(new File(tempResultDir, "tmp/foo").isFile());
     }
 
+    @Test
+    public void testParallelDuplicateNames() throws IOException {
+        // entries with the same name and different lengths, the last one wins like in the sequential expansion
+        final Random random = new Random(42);
+        final byte[][] contents = new byte[20][];
+        final File zip = newTempFile("duplicates.zip");
+        final File tar = newTempFile("duplicates.tar");
+        final File sevenZ = newTempFile("duplicates.7z");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(zip);
+                TarArchiveOutputStream tos = new TarArchiveOutputStream(Files.newOutputStream(tar.toPath()));
+                SevenZOutputFile sos = new SevenZOutputFile(sevenZ)) {
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = new byte[i % 2 == 0 ? 300_000 - i : 1000 + i];
+                random.nextBytes(contents[i]);
+                final String name = i % 4 == 3 ? "other" + i : "dir/duplicate";
+                zos.putArchiveEntry(new ZipArchiveEntry(name));
+                zos.write(contents[i]);
+                zos.closeArchiveEntry();
+                final TarArchiveEntry tarEntry = new TarArchiveEntry(name);
+                tarEntry.setSize(contents[i].length);
+                tos.putArchiveEntry(tarEntry);
+                tos.write(contents[i]);
+                tos.closeArchiveEntry();
+                final SevenZArchiveEntry sevenZEntry = new SevenZArchiveEntry();
+                sevenZEntry.setName(name);
+                sos.putArchiveEntry(sevenZEntry);
+                sos.write(contents[i]);
+                sos.closeArchiveEntry();
+            }
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            try (ZipFile f = ZipFile.builder().setFile(zip).get()) {
+                new Expander().expand(f, tempResultDir.toPath().resolve("zip"), executorService, 8);
+            }
+            try (TarFile f = new TarFile(tar)) {
+                new Expander().expand(f, tempResultDir.toPath().resolve("tar"), executorService, 8);
+            }
+            try (SevenZFile f = SevenZFile.builder().setFile(sevenZ).get()) {
+                new Expander().expand(f, tempResultDir.toPath().resolve("7z"), executorService, 8);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        for (final String format : new String[] { "zip", "tar", "7z" }) {
+            assertArrayEquals(contents[contents.length - 2], Files.readAllBytes(tempResultDir.toPath().resolve(format).resolve("dir/duplicate")), format);
+            for (int i = 3; i < contents.length; i += 4) {
+                assertArrayEquals(contents[i], Files.readAllBytes(tempResultDir.toPath().resolve(format).resolve("other" + i)), format);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelFileCantEscapeDoubleDotPath() throws IOException, ArchiveException {
+        setupZip("../foo");
+        try (ZipFile f = ZipFile.builder().setFile(archive).get()) {
+            assertThrows(IOException.class, () -> new Expander().expand(f, tempResultDir.toPath(), 2));
+        }
+        assertFalse(new File(tempResultDir.getParentFile(), "foo").exists());
+    }
+
+    @Test
+    public void testParallelLargeEntries() throws IOException {
+        // sizes around the chunk size of the 7z pipeline and both stored and deflated zip entries
+        final int[] sizes = { 0, 1, 1000, 256 * 1024 - 1, 256 * 1024, 256 * 1024 + 1, 700_000 };
+        final Random random = new Random(42);
+        final byte[][] contents = new byte[sizes.length][];
+        final File zip = newTempFile("parallel.zip");
+        final File sevenZ = newTempFile("parallel.7z");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(zip);
+                SevenZOutputFile sos = new SevenZOutputFile(sevenZ)) {
+            for (int i = 0; i < sizes.length; i++) {
+                contents[i] = new byte[sizes[i]];
+                // half random, half compressible
+                random.nextBytes(contents[i]);
+                Arrays.fill(contents[i], contents[i].length / 2, contents[i].length, (byte) i);
+                final ZipArchiveEntry entry = new ZipArchiveEntry("dir" + i % 3 + "/file" + i);
+                entry.setMethod(i % 2 == 0 ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                zos.putArchiveEntry(entry);
+                zos.write(contents[i]);
+                zos.closeArchiveEntry();
+                final SevenZArchiveEntry sevenZEntry = new SevenZArchiveEntry();
+                sevenZEntry.setName("dir" + i % 3 + "/file" + i);
+                sos.putArchiveEntry(sevenZEntry);
+                sos.write(contents[i]);
+                sos.closeArchiveEntry();
+            }
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            try (ZipFile f = ZipFile.builder().setFile(zip).get()) {
+                new Expander().expand(f, tempResultDir.toPath().resolve("zip"), executorService, 3);
+            }
+            try (SevenZFile f = SevenZFile.builder().setFile(sevenZ).get()) {
+                new Expander().expand(f, tempResultDir.toPath().resolve("7z"), executorService, 3);
+            }
+            assertFalse(executorService.isShutdown());
+        } finally {
+            executorService.shutdown();
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            final String name = "dir" + i % 3 + "/file" + i;
+            assertArrayEquals(contents[i], Files.readAllBytes(tempResultDir.toPath().resolve("zip").resolve(name)), name);
+            assertArrayEquals(contents[i], Files.readAllBytes(tempResultDir.toPath().resolve("7z").resolve(name)), name);
+        }
+    }
+
+    @Test
+    public void testParallelSevenZFileVersion() throws IOException {
+        setup7z();
+        try (SevenZFile file = SevenZFile.builder().setFile(archive).get()) {
+            new Expander().expand(file, tempResultDir.toPath(), 2);
+        }
+        verifyTargetDir();
+    }
+
+    @Test
+    public void testParallelTarFileVersion() throws IOException, ArchiveException {
+        setupTar();
+        try (TarFile f = new TarFile(archive)) {
+            new Expander().expand(f, tempResultDir.toPath(), 2);
+        }
+        verifyTargetDir();
+    }
+
+    @Test
+    public void testParallelZipFileVersion() throws IOException, ArchiveException {
+        setupZip();
+        try (ZipFile f = ZipFile.builder().setFile(archive).get()) {
+            new Expander().expand(f, tempResultDir.toPath(), 2);
+        }
+        verifyTargetDir();
+    }
+
     @Test
     public void testSevenZChannelVersion() throws IOException, ArchiveException {
         setup7z();
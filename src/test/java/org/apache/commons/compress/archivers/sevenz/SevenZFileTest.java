@@ -45,6 +45,12 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import javax.crypto.Cipher;
@@ -440,6 +446,22 @@ public void testLimitExtractionMemory() {
         });
     }
 
+    @Test
+    public void testMemoryMapped() throws Exception {
+        for (final String archive : new String[] { "bla.7z", "bla.deflate64.7z", "bla.encrypted.7z" }) {
+            try (SevenZFile expected = SevenZFile.builder().setFile(getFile(archive)).setPassword("foo").get();
+                    SevenZFile actual = SevenZFile.builder().setFile(getFile(archive)).setPassword("foo").setMemoryMapped(true).get()) {
+                SevenZArchiveEntry entry;
+                while ((entry = expected.getNextEntry()) != null) {
+                    final SevenZArchiveEntry actualEntry = actual.getNextEntry();
+                    assertEquals(entry.getName(), actualEntry.getName());
+                    assertArrayEquals(IOUtils.toByteArray(expected.getInputStream(entry)), IOUtils.toByteArray(actual.getInputStream(actualEntry)));
+                }
+                assertNull(actual.getNextEntry());
+            }
+        }
+    }
+
     @Test
     public void testNoNameCanBeReplacedByDefaultName() throws Exception {
         try (SevenZFile sevenZFile = SevenZFile.builder().setFile(getFile("bla-nonames.7z")).setUseDefaultNameForUnnamedEntries(true).get()) {
@@ -495,6 +517,114 @@ public void testNoOOMOnCorruptedHeader() throws IOException {
         }
     }
 
+    @Test
+    public void testParallelExtract() throws Exception {
+        final Map<String, byte[]> entriesByName = new HashMap<>();
+        try (SevenZFile archive = getSevenZFile("COMPRESS-320/Copy.7z")) {
+            SevenZArchiveEntry entry;
+            while ((entry = archive.getNextEntry()) != null) {
+                if (entry.hasStream()) {
+                    entriesByName.put(entry.getName(), readFully(archive));
+                }
+            }
+        }
+        final String[] variants = { "BZip2-solid.7z", "BZip2.7z", "Copy-solid.7z", "Copy.7z", "Deflate-solid.7z", "Deflate.7z", "LZMA-solid.7z", "LZMA.7z",
+                "LZMA2-solid.7z", "LZMA2.7z" };
+        for (final String fileName : variants) {
+            for (final boolean all : new boolean[] { true, false }) {
+                final Map<String, byte[]> extracted = new ConcurrentHashMap<>();
+                final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+                try (SevenZFile archive = getSevenZFile("COMPRESS-320/" + fileName)) {
+                    // every other entry, the content of the others is skipped
+                    archive.extract(entry -> all || entry.getName().hashCode() % 2 == 0, (entry, in) -> {
+                        if (entry.hasStream()) {
+                            assertNotNull(entry.getContentMethods());
+                            assertNull(extracted.put(entry.getName(), IOUtils.toByteArray(in)));
+                            threadNames.add(Thread.currentThread().getName());
+                        } else {
+                            assertEquals(-1, in.read());
+                        }
+                    }, 3);
+                    // the sequential reader isn't affected
+                    assertNotNull(archive.getNextEntry());
+                }
+                final Map<String, byte[]> expected = new HashMap<>(entriesByName);
+                expected.keySet().removeIf(name -> !all && name.hashCode() % 2 != 0);
+                assertEquals(expected.keySet(), extracted.keySet(), fileName);
+                expected.forEach((name, content) -> assertArrayEquals(content, extracted.get(name), fileName + "!" + name));
+                assertFalse(threadNames.contains(Thread.currentThread().getName()));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelExtractConsumerFailure() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (SevenZFile archive = getSevenZFile("COMPRESS-320/LZMA2.7z")) {
+            final IOException e = assertThrows(IOException.class, () -> archive.extract(entry -> true, (entry, in) -> {
+                calls.incrementAndGet();
+                throw new IOException("failed");
+            }, executorService, 2));
+            assertEquals("failed", e.getMessage());
+        } finally {
+            executorService.shutdown();
+        }
+        final int failures = calls.get();
+        assertTrue(failures > 0);
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        // no task has been left running
+        assertEquals(failures, calls.get());
+    }
+
+    @Test
+    public void testParallelExtractSkipsContentConcurrently() throws Exception {
+        // the CRCs of skipped entries are verified on several threads at the same time
+        final File file = newTempFile("skip.7z");
+        final Random random = new Random(42);
+        try (SevenZOutputFile out = new SevenZOutputFile(file)) {
+            for (int i = 0; i < 16; i++) {
+                final byte[] content = new byte[200_000];
+                random.nextBytes(content);
+                final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+                entry.setName("entry" + i);
+                out.putArchiveEntry(entry);
+                out.write(content);
+                out.closeArchiveEntry();
+            }
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try (SevenZFile archive = SevenZFile.builder().setFile(file).get()) {
+            for (int i = 0; i < 50; i++) {
+                archive.extract(e -> true, (e, in) -> {
+                    // content isn't read
+                }, executorService, 8);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelExtractVerifiesCrc() throws Exception {
+        final File file = newTempFile("crc.7z");
+        try (SevenZOutputFile out = new SevenZOutputFile(file)) {
+            final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+            entry.setName("a");
+            out.putArchiveEntry(entry);
+            out.write(new byte[] { 1, 2, 3 });
+            out.closeArchiveEntry();
+        }
+        try (SevenZFile archive = SevenZFile.builder().setFile(file).get()) {
+            final SevenZArchiveEntry entry = archive.getEntries().iterator().next();
+            entry.setHasCrc(true);
+            entry.setCrcValue(0);
+            assertThrows(IOException.class, () -> archive.extract(e -> true, (e, in) -> {
+                // content isn't read
+            }, 1));
+        }
+    }
+
     @Test
     public void testRandomAccessMultipleReadSameFile() throws Exception {
         try (SevenZFile sevenZFile = getSevenZFile("COMPRESS-256.7z")) {
@@ -917,4 +1047,52 @@ public void testSignatureCheck() {
         assertTrue(SevenZFile.matches(new byte[] { '7', 'z', (byte) 0xBC, (byte) 0xAF, 0x27, 0x1C }, 6));
         assertFalse(SevenZFile.matches(new byte[] { '7', 'z', (byte) 0xBC, (byte) 0xAF, 0x27, 0x1D }, 6));
     }
+
+    /**
+     * Reads the entries of solid archives in random order with the solid block cache, alternating with sequential access.
+     */
+    @Test
+    public void testSolidBlockCache() throws Exception {
+        final Map<String, byte[]> entriesByName = new HashMap<>();
+        long totalSize = 0;
+        try (SevenZFile archive = getSevenZFile("COMPRESS-320/Copy.7z")) {
+            SevenZArchiveEntry entry;
+            while ((entry = archive.getNextEntry()) != null) {
+                if (entry.hasStream()) {
+                    entriesByName.put(entry.getName(), readFully(archive));
+                    totalSize += entry.getSize();
+                }
+            }
+        }
+        final String[] variants = { "BZip2-solid.7z", "Copy-solid.7z", "Deflate-solid.7z", "LZMA-solid.7z", "LZMA2-solid.7z", "LZMA2.7z" };
+        // the whole content, less than the whole content and thus no caching at all, no limit
+        final long[] cacheSizes = { totalSize, totalSize - 1, Long.MAX_VALUE };
+        final Random rnd = new Random(0xdeadbeef);
+        for (final String fileName : variants) {
+            for (final long cacheSize : cacheSizes) {
+                try (SevenZFile archive = SevenZFile.builder().setFile(getFile("COMPRESS-320/" + fileName)).setSolidBlockCacheSize(cacheSize).get()) {
+                    final List<SevenZArchiveEntry> entries = new ArrayList<>();
+                    archive.getEntries().forEach(entries::add);
+                    final List<SevenZArchiveEntry> all = new ArrayList<>(entries);
+                    Collections.shuffle(entries, rnd);
+                    SevenZArchiveEntry last = null;
+                    for (final SevenZArchiveEntry entry : entries) {
+                        if (entry.hasStream()) {
+                            assertArrayEquals(entriesByName.get(entry.getName()), read(archive, entry), fileName + "!" + entry.getName());
+                            assertNotNull(entry.getContentMethods());
+                            last = entry;
+                        }
+                    }
+                    // sequential access goes on after the last entry read
+                    SevenZArchiveEntry entry;
+                    for (int i = all.indexOf(last) + 1; (entry = archive.getNextEntry()) != null; i++) {
+                        assertEquals(all.get(i).getName(), entry.getName());
+                        if (entry.hasStream()) {
+                            assertArrayEquals(entriesByName.get(entry.getName()), readFully(archive), fileName + "!" + entry.getName());
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
@@ -21,12 +21,14 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
@@ -37,12 +39,15 @@
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.PasswordRequiredException;
 import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.compress.utils.TimeUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.tukaani.xz.LZMA2Options;
 
@@ -236,6 +241,11 @@ public void testCopyRoundtrip() throws Exception {
         testRoundTrip(SevenZMethod.COPY);
     }
 
+    @Test
+    public void testDeflate64Roundtrip() throws Exception {
+        testRoundTrip(SevenZMethod.DEFLATE64);
+    }
+
     @Test
     public void testDeflateRoundtrip() throws Exception {
         testRoundTrip(SevenZMethod.DEFLATE);
@@ -527,6 +537,29 @@ public void testLzma2WithOptionsConfiguration() throws Exception {
         createAndReadBack(output, Collections.singletonList(new SevenZMethodConfiguration(SevenZMethod.LZMA2, opts)));
     }
 
+    @Test
+    public void testLzma2WithParallelOptionsConfiguration() throws Exception {
+        final File output = newTempFile("lzma2-parallel.7z");
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // the first entry fits into a single block, the second one spans several blocks
+            final Iterable<SevenZMethodConfiguration> methods = Collections.singletonList(
+                    new SevenZMethodConfiguration(SevenZMethod.LZMA2, new ParallelLZMA2Options(new LZMA2Options(1), executorService, 100_000, 3)));
+            try (SevenZOutputFile outArchive = new SevenZOutputFile(output)) {
+                outArchive.setContentMethods(methods);
+                addFile(outArchive, 0, 1000, null);
+                addFile(outArchive, 1, 1_234_567, null);
+            }
+            try (SevenZFile archive = SevenZFile.builder().setFile(output).get()) {
+                assertEquals(Boolean.TRUE, verifyFile(archive, 0, 1000, methods));
+                assertEquals(Boolean.TRUE, verifyFile(archive, 1, 1_234_567, methods));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLZMA2Options(new LZMA2Options(), 0));
+    }
+
     @Test
     public void testLzmaWithIntConfiguration() throws Exception {
         final File output = newTempFile("lzma-options.7z");
@@ -558,6 +591,123 @@ private void testRoundTrip(final SevenZMethod method) throws Exception {
         createAndReadBack(output, methods);
     }
 
+    private static byte[] writeMixedArchive(final ExecutorService executorService, final char[] password) throws IOException {
+        try (SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel();
+                SevenZOutputFile out = new SevenZOutputFile(channel, password)) {
+            out.setContentMethods(Arrays.asList(new SevenZMethodConfiguration(SevenZMethod.DELTA_FILTER), new SevenZMethodConfiguration(SevenZMethod.LZMA2)));
+            if (executorService != null) {
+                out.setParallelCompression(executorService, 3);
+                assertThrows(IllegalStateException.class, () -> out.setParallelCompression(1));
+            }
+            for (int i = 0; i < 20; i++) {
+                final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+                entry.setName("entry" + i);
+                if (i % 7 == 3) {
+                    entry.setDirectory(true);
+                    out.addArchiveEntry(entry, () -> new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY));
+                } else if (i % 5 == 4) {
+                    // sequentially written entries may be mixed with the others
+                    out.putArchiveEntry(entry);
+                    out.write(mixedContent(i));
+                    out.closeArchiveEntry();
+                } else {
+                    if (i == 11) {
+                        entry.setContentMethods(new SevenZMethodConfiguration(SevenZMethod.BZIP2));
+                    }
+                    final byte[] content = mixedContent(i);
+                    out.addArchiveEntry(entry, () -> new ByteArrayInputStream(content));
+                }
+            }
+            out.finish();
+            return Arrays.copyOf(channel.array(), (int) channel.size());
+        }
+    }
+
+    private static byte[] mixedContent(final int i) {
+        final byte[] content = new byte[i % 3 == 0 ? 0 : 1000 * i * i];
+        for (int j = 0; j < content.length; j++) {
+            content[j] = (byte) (j / (i + 1) + j % 7);
+        }
+        return content;
+    }
+
+    private static void verifyMixedArchive(final byte[] archive, final char[] password) throws IOException {
+        try (SevenZFile in = SevenZFile.builder().setSeekableByteChannel(new SeekableInMemoryByteChannel(archive)).setPassword(password).get()) {
+            for (int i = 0; i < 20; i++) {
+                final SevenZArchiveEntry entry = in.getNextEntry();
+                assertEquals("entry" + i, entry.getName());
+                assertEquals(i % 7 == 3, entry.isDirectory());
+                final byte[] expected = i % 7 == 3 ? ByteUtils.EMPTY_BYTE_ARRAY : mixedContent(i);
+                assertEquals(expected.length > 0, entry.hasStream());
+                assertArrayEquals(expected, IOUtils.toByteArray(in.getInputStream(entry)), entry.getName());
+            }
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testParallelCompression() throws IOException {
+        final byte[] sequential = writeMixedArchive(null, null);
+        verifyMixedArchive(sequential, null);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // no dates are set so the archives are identical
+            assertArrayEquals(sequential, writeMixedArchive(executorService, null));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelCompressionEncrypted() throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            verifyMixedArchive(writeMixedArchive(executorService, "foo".toCharArray()), "foo".toCharArray());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelCompressionFailure() throws IOException {
+        try (SevenZOutputFile out = new SevenZOutputFile(new SeekableInMemoryByteChannel())) {
+            out.setParallelCompression(2);
+            final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+            entry.setName("broken");
+            out.addArchiveEntry(entry, () -> new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("broken");
+                }
+            });
+            assertEquals("broken", assertThrows(IOException.class, out::finish).getMessage());
+        }
+    }
+
+    @Test
+    public void testParallelCompressionWithThreads() throws IOException {
+        final byte[] content = mixedContent(5);
+        try (SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel()) {
+            try (SevenZOutputFile out = new SevenZOutputFile(channel)) {
+                out.setParallelCompression(2);
+                for (int i = 0; i < 10; i++) {
+                    final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+                    entry.setName("entry" + i);
+                    out.addArchiveEntry(entry, () -> new ByteArrayInputStream(content));
+                }
+            }
+            final byte[] archive = Arrays.copyOf(channel.array(), (int) channel.size());
+            try (SevenZFile in = SevenZFile.builder().setSeekableByteChannel(new SeekableInMemoryByteChannel(archive)).get()) {
+                int entries = 0;
+                for (SevenZArchiveEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                    assertArrayEquals(content, IOUtils.toByteArray(in.getInputStream(entry)));
+                    entries++;
+                }
+                assertEquals(10, entries);
+            }
+        }
+    }
+
     @Test
     public void testSevenEmptyFiles() throws Exception {
         testCompress252(7, 0);
@@ -16,6 +16,7 @@
  */
 package org.apache.commons.compress.archivers.tar;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -40,6 +41,7 @@
 
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.utils.CharsetNames;
+import org.apache.commons.compress.utils.MemoryMappedByteChannel;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
@@ -175,6 +177,28 @@ public void testDirectoryWithLongNameEndsWithSlash() throws IOException {
         }
     }
 
+    @Test
+    public void testGetByteBuffer() throws Exception {
+        for (final String archive : new String[] { "bla.tar", "oldgnu_sparse.tar", "pax_gnu_sparse.tar" }) {
+            // sparse entries can only be read once per TarFile
+            try (TarFile tarFile = new TarFile(getPath(archive));
+                    TarFile heap = new TarFile(getPath(archive));
+                    TarFile mapped = new TarFile(MemoryMappedByteChannel.open(getPath(archive)))) {
+                final List<TarArchiveEntry> entries = mapped.getEntries();
+                for (int i = 0; i < entries.size(); i++) {
+                    final byte[] expected;
+                    try (InputStream in = tarFile.getInputStream(tarFile.getEntries().get(i))) {
+                        expected = IOUtils.toByteArray(in);
+                    }
+                    assertArrayEquals(expected, toByteArray(heap.getByteBuffer(heap.getEntries().get(i))));
+                    final ByteBuffer buffer = mapped.getByteBuffer(entries.get(i));
+                    assertTrue(buffer.isReadOnly());
+                    assertArrayEquals(expected, toByteArray(buffer));
+                }
+            }
+        }
+    }
+
     @Test
     public void testMultiByteReadConsistentlyReturnsMinusOneAtEof() throws Exception {
         final byte[] buf = new byte[2];
@@ -361,4 +385,10 @@ public void testWorkaroundForBrokenTimeHeader() throws IOException {
             assertTrue(entry.isCheckSumOK());
         }
     }
+
+    private byte[] toByteArray(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.commons.compress.archivers.zip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link BufferedPushbackInputStream}.
+ */
+public class BufferedPushbackInputStreamTest {
+
+    private static final byte[] DATA = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+    @Test
+    public void testBulkReadBypassesEmptyBuffer() throws IOException {
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(new ByteArrayInputStream(DATA), 4)) {
+            final byte[] buffer = new byte[10];
+            assertEquals(1, in.read());
+            assertEquals(9, in.read(buffer, 0, 10));
+            assertArrayEquals(new byte[] { 2, 3, 4, 5, 6, 7, 8, 9, 10, 0 }, buffer);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testFillAndRewind() throws Exception {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(DATA);
+        deflater.finish();
+        final byte[] compressed = new byte[100];
+        final int length = deflater.deflate(compressed);
+        deflater.end();
+        final byte[] archive = new byte[length + 3];
+        System.arraycopy(compressed, 0, archive, 0, length);
+        archive[length] = 42;
+        final Inflater inflater = new Inflater(true);
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(new ByteArrayInputStream(archive), 100)) {
+            assertEquals(archive.length, in.fill(inflater, Long.MAX_VALUE));
+            final byte[] inflated = new byte[DATA.length];
+            assertEquals(DATA.length, inflater.inflate(inflated));
+            assertArrayEquals(DATA, inflated);
+            assertEquals(3, inflater.getRemaining());
+            in.rewind(inflater.getRemaining());
+            assertEquals(42, in.read());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    public void testFillReadsAtMostMaxRead() throws IOException {
+        final ByteArrayInputStream wrapped = new ByteArrayInputStream(DATA);
+        final Inflater inflater = new Inflater(true);
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(wrapped, 8)) {
+            assertEquals(3, in.fill(inflater, 3));
+            assertEquals(7, wrapped.available());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    public void testReadsTakeNoMoreThanRequestedFromWrappedStream() throws IOException {
+        final ByteArrayInputStream wrapped = new ByteArrayInputStream(DATA);
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(wrapped, 8)) {
+            assertEquals(1, in.read());
+            assertEquals(9, wrapped.available());
+            assertEquals(2, in.read(new byte[2], 0, 2));
+            assertEquals(7, wrapped.available());
+            assertEquals(3, in.skip(3));
+            assertEquals(4, wrapped.available());
+        }
+    }
+
+    @Test
+    public void testRewindRejectsBytesNotReadFromBuffer() throws IOException {
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(new ByteArrayInputStream(DATA), 4)) {
+            in.read();
+            assertThrows(IllegalStateException.class, () -> in.rewind(2));
+        }
+    }
+
+    @Test
+    public void testUnreadBeyondBuffer() throws IOException {
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(new ByteArrayInputStream(DATA), 4)) {
+            assertEquals(1, in.read());
+            in.unread(new byte[] { 20, 21, 22, 23, 24, 25 }, 1, 5);
+            assertArrayEquals(new byte[] { 21, 22, 23, 24, 25, 2, 3, 4, 5, 6, 7, 8, 9, 10 }, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testUnreadWithinBuffer() throws IOException {
+        try (BufferedPushbackInputStream in = new BufferedPushbackInputStream(new ByteArrayInputStream(DATA), 4)) {
+            assertEquals(1, in.read());
+            assertEquals(2, in.read());
+            in.unread(new byte[] { 30, 31 }, 0, 2);
+            assertArrayEquals(new byte[] { 30, 31, 3, 4, 5, 6, 7, 8, 9, 10 }, IOUtils.toByteArray(in));
+        }
+    }
+}
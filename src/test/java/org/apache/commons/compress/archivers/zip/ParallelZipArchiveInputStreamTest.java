@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.archivers.zip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+
+import org.apache.commons.compress.AbstractTest;
+import org.apache.commons.compress.utils.CharsetNames;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link ParallelZipArchiveInputStream}.
+ */
+public class ParallelZipArchiveInputStreamTest extends AbstractTest {
+
+    private static final int ENTRIES = 20;
+
+    private static byte[] content(final int entry) {
+        final Random random = new Random(entry);
+        final byte[] content = new byte[entry * 10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(i % 1000 < 500 ? 4 : 26));
+        }
+        return content;
+    }
+
+    /**
+     * Writes DEFLATED and STORED entries, the DEFLATED ones use data descriptors if the archive is written to a stream.
+     */
+    private static byte[] createArchive(final boolean seekable) throws IOException {
+        final SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream out = seekable ? new ZipArchiveOutputStream(channel) : new ZipArchiveOutputStream(bos)) {
+            for (int i = 0; i < ENTRIES; i++) {
+                final byte[] content = content(i);
+                final ZipArchiveEntry entry = new ZipArchiveEntry("entry-" + i);
+                if (i % 3 == 0) {
+                    final CRC32 crc = new CRC32();
+                    crc.update(content);
+                    entry.setMethod(ZipArchiveEntry.STORED);
+                    entry.setSize(content.length);
+                    entry.setCrc(crc.getValue());
+                }
+                out.putArchiveEntry(entry);
+                out.write(content);
+                out.closeArchiveEntry();
+            }
+        }
+        return seekable ? Arrays.copyOf(channel.array(), (int) channel.size()) : bos.toByteArray();
+    }
+
+    private static void readArchive(final ParallelZipArchiveInputStream in) throws IOException {
+        for (int i = 0; i < ENTRIES; i++) {
+            final ZipArchiveEntry entry = in.getNextEntry();
+            assertEquals("entry-" + i, entry.getName());
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[3_000];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, n);
+            }
+            assertArrayEquals(content(i), bos.toByteArray());
+            assertEquals(bos.size(), in.getUncompressedCount());
+        }
+        assertNull(in.getNextEntry());
+    }
+
+    @Test
+    public void testBadCrc() throws IOException {
+        final byte[] archive = createArchive(true);
+        // CRC of the local file header of the second entry, the first one is empty and STORED
+        final int crcOffset = 30 + "entry-0".length() + 14;
+        archive[crcOffset] ^= 1;
+        try (ParallelZipArchiveInputStream in = new ParallelZipArchiveInputStream(new ByteArrayInputStream(archive), 2)) {
+            assertEquals("entry-0", in.getNextEntry().getName());
+            assertEquals("entry-1", in.getNextEntry().getName());
+            assertThrows(ZipException.class, () -> IOUtils.toByteArray(in));
+            assertEquals("entry-2", in.getNextEntry().getName());
+            assertArrayEquals(content(2), IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        final ParallelZipArchiveInputStream in = new ParallelZipArchiveInputStream(new ByteArrayInputStream(createArchive(true)), 1);
+        in.getNextEntry();
+        in.close();
+        assertThrows(IOException.class, in::read);
+        assertNull(in.getNextEntry());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void testEntriesNotBufferedAreReadInOrder(final boolean seekable) throws IOException {
+        // entries of up to 100000 bytes are buffered, the bigger ones are read by the client thread
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (ParallelZipArchiveInputStream in = new ParallelZipArchiveInputStream(new ByteArrayInputStream(createArchive(seekable)), CharsetNames.UTF_8,
+                executorService, 3, 100_000)) {
+            readArchive(in);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testMatchesZipArchiveInputStream() throws IOException {
+        final byte[] archive = readAllBytes("mixed.zip");
+        try (ZipArchiveInputStream expected = new ZipArchiveInputStream(new ByteArrayInputStream(archive));
+                ParallelZipArchiveInputStream actual = new ParallelZipArchiveInputStream(new ByteArrayInputStream(archive), 2)) {
+            ZipArchiveEntry expectedEntry;
+            while ((expectedEntry = expected.getNextEntry()) != null) {
+                final ZipArchiveEntry actualEntry = actual.getNextEntry();
+                assertEquals(expectedEntry.getName(), actualEntry.getName());
+                assertEquals(expectedEntry.getDataOffset(), actualEntry.getDataOffset());
+                assertArrayEquals(IOUtils.toByteArray(expected), IOUtils.toByteArray(actual));
+            }
+            assertNull(actual.getNextEntry());
+            assertEquals(archive.length, actual.getBytesRead());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 4, ENTRIES + 1 })
+    public void testRoundTrip(final int maxEntriesInFlight) throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try (ParallelZipArchiveInputStream in = new ParallelZipArchiveInputStream(new ByteArrayInputStream(createArchive(true)), executorService,
+                maxEntriesInFlight)) {
+            readArchive(in);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSkipsUnreadEntries() throws IOException {
+        final byte[] archive = createArchive(true);
+        try (ParallelZipArchiveInputStream in = new ParallelZipArchiveInputStream(new ByteArrayInputStream(archive), 2)) {
+            for (int i = 0; i < ENTRIES; i++) {
+                assertEquals("entry-" + i, in.getNextEntry().getName());
+                if (i == ENTRIES / 2) {
+                    assertArrayEquals(content(i), IOUtils.toByteArray(in));
+                }
+            }
+            assertNull(in.getNextEntry());
+            assertEquals(archive.length, in.getBytesRead());
+        }
+    }
+}
@@ -168,6 +168,34 @@ private void singleByteReadConsistentlyReturnsMinusOneAtEof(final File file) thr
         }
     }
 
+    /**
+     * Reads deflated and stored entries with read buffers smaller and bigger than the entries and with reads bigger than the buffer.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 7, 512, ZipArchiveInputStream.DEFAULT_BUFFER_SIZE, 1 << 20 })
+    public void testBufferSize(final int bufferSize) throws Exception {
+        final byte[] archive = readAllBytes("mixed.zip");
+        try (ZipArchiveInputStream expected = new ZipArchiveInputStream(new ByteArrayInputStream(archive));
+                ZipArchiveInputStream actual = new ZipArchiveInputStream(new ByteArrayInputStream(archive), CharsetNames.UTF_8, true, false, false,
+                        bufferSize)) {
+            ZipArchiveEntry expectedEntry;
+            while ((expectedEntry = expected.getNextEntry()) != null) {
+                final ZipArchiveEntry actualEntry = actual.getNextEntry();
+                assertEquals(expectedEntry.getName(), actualEntry.getName());
+                assertEquals(expectedEntry.getDataOffset(), actualEntry.getDataOffset());
+                final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[3 * bufferSize / 2 + 1];
+                int n;
+                while ((n = actual.read(buffer, 0, buffer.length)) != -1) {
+                    bos.write(buffer, 0, n);
+                }
+                assertArrayEquals(IOUtils.toByteArray(expected), bos.toByteArray());
+            }
+            assertNull(actual.getNextEntry());
+            assertEquals(archive.length, actual.getBytesRead());
+        }
+    }
+
     /**
      * Test case for <a href="https://issues.apache.org/jira/browse/COMPRESS-351" >COMPRESS-351</a>.
      */
@@ -270,6 +298,19 @@ public void testOffsets() throws Exception {
         }
     }
 
+    @Test
+    public void testOffsetsOfStoredEntriesWithDataDescriptor() throws IOException {
+        try (InputStream fs = newInputStream("bla-stored-dd.zip");
+                ZipArchiveInputStream archive = new ZipArchiveInputStream(fs, CharsetNames.UTF_8, true, true)) {
+            assertEquals(67, archive.getNextEntry().getDataOffset());
+            IOUtils.toByteArray(archive);
+            assertEquals(760, archive.getNextEntry().getDataOffset());
+            IOUtils.toByteArray(archive);
+            assertNull(archive.getNextEntry());
+            assertEquals(1022, archive.getBytesRead());
+        }
+    }
+
     @Test
     public void testProperlyMarksEntriesAsUnreadableIfUncompressedSizeIsUnknown() throws Exception {
         // we never read any data
@@ -16,13 +16,22 @@
  */
 package org.apache.commons.compress.archivers.zip;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.compress.AbstractTempDirTest;
+import org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -30,6 +39,109 @@
  */
 public class ZipArchiveOutputStreamTest extends AbstractTempDirTest {
 
+    private static final byte[] DATA = "Deflate64 entry, Deflate64 entry, Deflate64 entry\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static void writeDeflate64Entries(final ZipArchiveOutputStream stream) throws IOException {
+        for (final String name : new String[] { "a.txt", "empty.txt" }) {
+            final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setMethod(ZipMethod.ENHANCED_DEFLATED.getCode());
+            stream.putArchiveEntry(entry);
+            if (name.equals("a.txt")) {
+                stream.write(DATA);
+            }
+            stream.closeArchiveEntry();
+        }
+    }
+
+    @Test
+    public void testDeflate64EntriesWrittenToFile() throws IOException {
+        final File file = createTempFile();
+        try (ZipArchiveOutputStream stream = new ZipArchiveOutputStream(file)) {
+            writeDeflate64Entries(stream);
+        }
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            final ZipArchiveEntry entry = zipFile.getEntry("a.txt");
+            assertEquals(ZipMethod.ENHANCED_DEFLATED.getCode(), entry.getMethod());
+            assertEquals(DATA.length, entry.getSize());
+            assertEquals(21, entry.getVersionRequired());
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                assertArrayEquals(DATA, IOUtils.toByteArray(in));
+            }
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("empty.txt"))) {
+                assertEquals(0, IOUtils.toByteArray(in).length);
+            }
+        }
+    }
+
+    @Test
+    public void testDeflate64EntriesWrittenToStream() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream stream = new ZipArchiveOutputStream(bos)) {
+            writeDeflate64Entries(stream);
+        }
+        // version needed to extract of the first local file header
+        assertEquals(21, ZipShort.getValue(bos.toByteArray(), 4));
+        try (ZipArchiveInputStream in = new ZipArchiveInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            ZipArchiveEntry entry = in.getNextEntry();
+            assertEquals("a.txt", entry.getName());
+            assertEquals(ZipMethod.ENHANCED_DEFLATED.getCode(), entry.getMethod());
+            assertTrue(entry.getGeneralPurposeBit().usesDataDescriptor());
+            assertArrayEquals(DATA, IOUtils.toByteArray(in));
+            entry = in.getNextEntry();
+            assertEquals("empty.txt", entry.getName());
+            assertEquals(0, IOUtils.toByteArray(in).length);
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testDeflateEncoder() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream stream = new ZipArchiveOutputStream(bos)) {
+            stream.setDeflateEncoder(LZ77DeflateCompressorOutputStream.Level.LAZY);
+            for (final String name : new String[] { "a.txt", "empty.txt" }) {
+                stream.putArchiveEntry(new ZipArchiveEntry(name));
+                if (name.equals("a.txt")) {
+                    stream.write(DATA);
+                }
+                stream.closeArchiveEntry();
+            }
+        }
+        try (ZipArchiveInputStream in = new ZipArchiveInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            ZipArchiveEntry entry = in.getNextEntry();
+            assertEquals(ZipMethod.DEFLATED.getCode(), entry.getMethod());
+            assertArrayEquals(DATA, IOUtils.toByteArray(in));
+            entry = in.getNextEntry();
+            assertEquals(0, IOUtils.toByteArray(in).length);
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testEncodersReusedAcrossEntries() throws IOException {
+        final File file = createTempFile();
+        try (ZipArchiveOutputStream stream = new ZipArchiveOutputStream(file)) {
+            stream.setDeflateEncoder(LZ77DeflateCompressorOutputStream.Level.LAZY);
+            for (int i = 0; i < 6; i++) {
+                final ZipArchiveEntry entry = new ZipArchiveEntry("entry" + i);
+                entry.setMethod(i % 2 == 0 ? ZipMethod.DEFLATED.getCode() : ZipMethod.ENHANCED_DEFLATED.getCode());
+                stream.putArchiveEntry(entry);
+                stream.write(DATA);
+                stream.closeArchiveEntry();
+            }
+        }
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            for (int i = 0; i < 6; i++) {
+                final ZipArchiveEntry entry = zipFile.getEntry("entry" + i);
+                // no state of the previous entries is carried over
+                assertEquals(zipFile.getEntry("entry" + i % 2).getCompressedSize(), entry.getCompressedSize());
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(DATA, IOUtils.toByteArray(in));
+                }
+            }
+        }
+    }
+
     @Test
     public void testFileBasics() throws IOException {
         try (ZipArchiveOutputStream stream = new ZipArchiveOutputStream(createTempFile())) {
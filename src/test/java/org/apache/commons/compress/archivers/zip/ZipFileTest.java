@@ -34,11 +34,15 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -56,6 +60,7 @@
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.CharsetNames;
+import org.apache.commons.compress.utils.MultiReadOnlySeekableByteChannel;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.function.IORunnable;
@@ -82,6 +87,12 @@ private static void nameSource(final String archive, final String entry, final Z
         }
     }
 
+    private static List<ZipArchiveEntry> toList(final Iterable<ZipArchiveEntry> entries) {
+        final List<ZipArchiveEntry> list = new ArrayList<>();
+        entries.forEach(list::add);
+        return list;
+    }
+
     private ZipFile zf;
 
     private void assertAllReadMethods(final byte[] expected, final ZipFile zipFile, final ZipArchiveEntry entry) throws IOException {
@@ -288,6 +299,42 @@ public void testConcurrentReadFile() throws Exception {
         assertEquals(2, passedCount.get());
     }
 
+    @Test
+    public void testConcurrentReadMultiSegment() throws Exception {
+        // mixed.zip contains both inflated and stored files
+        byte[] data;
+        try (InputStream fis = newInputStream("mixed.zip")) {
+            data = IOUtils.toByteArray(fis);
+        }
+        final SeekableByteChannel channel = MultiReadOnlySeekableByteChannel.forSeekableByteChannels(
+                new SeekableInMemoryByteChannel(Arrays.copyOfRange(data, 0, data.length / 3)),
+                new SeekableInMemoryByteChannel(Arrays.copyOfRange(data, data.length / 3, data.length / 2)),
+                new SeekableInMemoryByteChannel(Arrays.copyOfRange(data, data.length / 2, data.length)));
+        zf = ZipFile.builder().setSeekableByteChannel(channel).setCharset(StandardCharsets.UTF_8).get();
+
+        final Map<String, byte[]> content = new HashMap<>();
+        for (final ZipArchiveEntry entry : Collections.list(zf.getEntries())) {
+            try (InputStream inputStream = zf.getInputStream(entry)) {
+                content.put(entry.getName(), IOUtils.toByteArray(inputStream));
+            }
+        }
+
+        final AtomicInteger passedCount = new AtomicInteger();
+        final IORunnable run = () -> {
+            for (final ZipArchiveEntry entry : Collections.list(zf.getEntries())) {
+                assertAllReadMethods(content.get(entry.getName()), zf, entry);
+            }
+            passedCount.incrementAndGet();
+        };
+        final Thread t0 = new Thread(run.asRunnable());
+        final Thread t1 = new Thread(run.asRunnable());
+        t0.start();
+        t1.start();
+        t0.join();
+        t1.join();
+        assertEquals(2, passedCount.get());
+    }
+
     @Test
     public void testConcurrentReadSeekable() throws Exception {
         // mixed.zip contains both inflated and stored files
@@ -325,6 +372,40 @@ public void testConcurrentReadSeekable() throws Exception {
     /**
      * Test correct population of header and data offsets when they are written after stream.
      */
+    @Test
+    public void testCopyRawEntriesTransfersChannels() throws Exception {
+        final File output = createTempFile("commons-compress-zipfiletest", ".zip");
+        // mixed.zip contains both inflated and stored files, the mapped archive writes views of the mapping
+        for (final boolean memoryMapped : new boolean[] { false, true }) {
+            final SeekableInMemoryByteChannel inMemory = new SeekableInMemoryByteChannel();
+            try (ZipFile source = ZipFile.builder().setFile(getFile("mixed.zip")).setMemoryMapped(memoryMapped).get()) {
+                try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(output)) {
+                    source.copyRawEntries(zos, entry -> true);
+                }
+                try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(inMemory)) {
+                    source.copyRawEntries(zos, entry -> true);
+                }
+                final byte[] copiedInMemory = Arrays.copyOf(inMemory.array(), (int) inMemory.size());
+                for (final ZipFile copy : new ZipFile[] { ZipFile.builder().setFile(output).get(),
+                        ZipFile.builder().setSeekableByteChannel(new SeekableInMemoryByteChannel(copiedInMemory)).get() }) {
+                    try (ZipFile actual = copy) {
+                        final List<ZipArchiveEntry> entries = Collections.list(source.getEntriesInPhysicalOrder());
+                        assertEquals(entries.size(), Collections.list(actual.getEntries()).size());
+                        for (final ZipArchiveEntry entry : entries) {
+                            final ZipArchiveEntry copied = actual.getEntry(entry.getName());
+                            assertEquals(entry.getMethod(), copied.getMethod());
+                            assertEquals(entry.getCrc(), copied.getCrc());
+                            try (InputStream expected = source.getInputStream(entry);
+                                    InputStream in = actual.getInputStream(copied)) {
+                                assertArrayEquals(IOUtils.toByteArray(expected), IOUtils.toByteArray(in));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void testDelayedOffsetsAndSizes() throws Exception {
         final ByteArrayOutputStream zipContent = new ByteArrayOutputStream();
@@ -568,6 +649,92 @@ public void testInvalidAlignment() {
         assertThrows(IllegalArgumentException.class, () -> new ZipArchiveEntry("dummy").setAlignment(3));
     }
 
+    @Test
+    public void testLazyCentralDirectory() throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(bos)) {
+            for (int i = 0; i < 1000; i++) {
+                // every tenth name is used twice
+                final int n = i % 10 == 0 ? i + 1 : i;
+                final ZipArchiveEntry entry = new ZipArchiveEntry("dir" + n % 7 + "/file" + n + ".txt");
+                final byte[] content = ("content of " + i).getBytes(UTF_8);
+                if (i % 2 == 0) {
+                    final CRC32 crc = new CRC32();
+                    crc.update(content);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(content.length);
+                    entry.setCrc(crc.getValue());
+                }
+                zos.putArchiveEntry(entry);
+                zos.write(content);
+                zos.closeArchiveEntry();
+            }
+        }
+        try (ZipFile eager = ZipFile.builder().setByteArray(bos.toByteArray()).get();
+                ZipFile lazy = ZipFile.builder().setByteArray(bos.toByteArray()).setLazyCentralDirectory(true).get()) {
+            final List<ZipArchiveEntry> eagerEntries = Collections.list(eager.getEntries());
+            assertEquals(eagerEntries, Collections.list(lazy.getEntries()));
+            assertEquals(Collections.list(eager.getEntriesInPhysicalOrder()), Collections.list(lazy.getEntriesInPhysicalOrder()));
+            final List<ZipArchiveEntry> lazyEntries = Collections.list(lazy.getEntries());
+            for (int i = 0; i < eagerEntries.size(); i++) {
+                final ZipArchiveEntry entry = eagerEntries.get(i);
+                final ZipArchiveEntry lazyEntry = lazyEntries.get(i);
+                assertEquals(eager.getEntry(entry.getName()), lazy.getEntry(entry.getName()));
+                assertEquals(eager.getEntry(entry.getName()).getDataOffset(), lazy.getEntry(entry.getName()).getDataOffset());
+                assertEquals(entry.getDataOffset(), lazyEntry.getDataOffset());
+                assertEquals(toList(eager.getEntries(entry.getName())), toList(lazy.getEntries(entry.getName())));
+                try (InputStream expected = eager.getInputStream(entry);
+                        InputStream actual = lazy.getInputStream(lazyEntry)) {
+                    assertArrayEquals(IOUtils.toByteArray(expected), IOUtils.toByteArray(actual));
+                }
+            }
+            assertEquals(2, toList(lazy.getEntries("dir1/file1.txt")).size());
+            assertNull(lazy.getEntry("dir0/file0.txt"));
+            assertFalse(lazy.getEntries("missing").iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testLazyCentralDirectoryUnicodeExtraField() throws Exception {
+        try (ZipFile zf = ZipFile.builder().setFile(getFile("utf8-winzip-test.zip")).setLazyCentralDirectory(true).get()) {
+            final ZipArchiveEntry ze = zf.getEntry("\u20AC_for_Dollar.txt");
+            assertNotNull(ze);
+            assertEquals(ZipArchiveEntry.NameSource.UNICODE_EXTRA_FIELD, ze.getNameSource());
+        }
+    }
+
+    @Test
+    public void testMemoryMapped() throws Exception {
+        // mixed.zip contains both inflated and stored files
+        try (ZipFile expected = ZipFile.builder().setFile(getFile("mixed.zip")).get();
+                ZipFile actual = ZipFile.builder().setFile(getFile("mixed.zip")).setMemoryMapped(true).get()) {
+            for (final ZipArchiveEntry entry : Collections.list(actual.getEntries())) {
+                final byte[] raw;
+                try (InputStream in = expected.getRawInputStream(expected.getEntry(entry.getName()))) {
+                    raw = IOUtils.toByteArray(in);
+                }
+                final ByteBuffer buffer = actual.getRawByteBuffer(entry);
+                assertTrue(buffer.isReadOnly());
+                assertTrue(buffer.isDirect());
+                final byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                assertArrayEquals(raw, bytes);
+                final ByteBuffer heapBuffer = expected.getRawByteBuffer(expected.getEntry(entry.getName()));
+                assertEquals(ByteBuffer.wrap(raw), heapBuffer);
+                if (entry.getMethod() == ZipEntry.STORED) {
+                    try (InputStream in = expected.getInputStream(expected.getEntry(entry.getName()))) {
+                        assertArrayEquals(IOUtils.toByteArray(in), bytes);
+                    }
+                }
+                try (InputStream in = expected.getInputStream(expected.getEntry(entry.getName()));
+                        InputStream mapped = actual.getInputStream(entry)) {
+                    assertArrayEquals(IOUtils.toByteArray(in), IOUtils.toByteArray(mapped));
+                }
+            }
+            assertNull(actual.getRawByteBuffer(new ZipArchiveEntry("foo")));
+        }
+    }
+
     @Test
     public void testMultiByteReadConsistentlyReturnsMinusOneAtEofUsingBzip2() throws Exception {
         multiByteReadConsistentlyReturnsMinusOneAtEof(getFile("bzip2-zip.zip"));
@@ -879,6 +1046,28 @@ public void testThrowsExceptionWhenWritingPreamble() throws IOException {
         assertThrows(IllegalStateException.class, () -> outputStream.writePreamble(ByteUtils.EMPTY_BYTE_ARRAY));
     }
 
+    @Test
+    public void testTransferRawTo() throws Exception {
+        final Path output = createTempFile("commons-compress-zipfiletest", ".bin").toPath();
+        for (final boolean memoryMapped : new boolean[] { false, true }) {
+            try (ZipFile zf = ZipFile.builder().setFile(getFile("mixed.zip")).setMemoryMapped(memoryMapped).get()) {
+                for (final ZipArchiveEntry entry : Collections.list(zf.getEntries())) {
+                    try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        assertEquals(entry.getCompressedSize(), zf.transferRawTo(entry, channel));
+                    }
+                    try (InputStream raw = zf.getRawInputStream(entry)) {
+                        assertArrayEquals(IOUtils.toByteArray(raw), Files.readAllBytes(output));
+                    }
+                }
+                final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                final ZipArchiveEntry entry = zf.getEntries().nextElement();
+                assertEquals(entry.getCompressedSize(), zf.transferRawTo(entry, Channels.newChannel(bos)));
+                assertEquals(zf.getRawByteBuffer(entry), ByteBuffer.wrap(bos.toByteArray()));
+                assertEquals(-1, zf.transferRawTo(new ZipArchiveEntry("foo"), Channels.newChannel(bos)));
+            }
+        }
+    }
+
     @Test
     public void testUnixSymlinkSampleFile() throws Exception {
         final String entryPrefix = "COMPRESS-214_unix_symlinks/";
@@ -37,6 +37,7 @@ public static Stream<Arguments> data() {
         return Stream.of(
                 Arguments.of(CompressorStreamFactory.BZIP2),
                 Arguments.of(CompressorStreamFactory.DEFLATE),
+                Arguments.of(CompressorStreamFactory.DEFLATE64),
                 Arguments.of(CompressorStreamFactory.GZIP),
                 // CompressorStreamFactory.LZMA, // Not implemented yet
                 // CompressorStreamFactory.PACK200, // Bug
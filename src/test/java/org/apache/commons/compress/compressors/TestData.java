@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors;
+
+import java.util.Random;
+
+/**
+ * Generates compressible test data, the same size always yields the same data.
+ */
+public final class TestData {
+
+    /**
+     * Generates lower case letters, the alphabet grows every {@code stretch} bytes so the data gets harder to compress.
+     *
+     * @param size    the number of bytes.
+     * @param stretch the number of bytes drawn from the same alphabet.
+     * @return the data.
+     */
+    public static byte[] letters(final int size, final int stretch) {
+        final Random random = new Random(size);
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(i / stretch % 26 + 1));
+        }
+        return data;
+    }
+
+    /**
+     * Generates {@link #letters(int, int) letters} in stretches of 1000 bytes, interrupted by incompressible stretches of 20000 random bytes.
+     *
+     * @param size the number of bytes.
+     * @return the data.
+     */
+    public static byte[] lettersAndRandomBytes(final int size) {
+        final Random random = new Random(size);
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i / 20_000 % 3 == 0 ? random.nextInt() : 'a' + random.nextInt(i / 1000 % 26 + 1));
+        }
+        return data;
+    }
+
+    /**
+     * Generates letters with occasional runs of up to 300 equal bytes, which exercise the run-length encoding of bzip2.
+     *
+     * @param size the number of bytes.
+     * @return the data.
+     */
+    public static byte[] runs(final int size) {
+        final Random random = new Random(size);
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size;) {
+            final int run = random.nextInt(8) == 0 ? random.nextInt(300) : 1;
+            final byte b = (byte) ('a' + random.nextInt(random.nextBoolean() ? 4 : 26));
+            for (int j = 0; j < run && i < size; j++) {
+                data[i++] = b;
+            }
+        }
+        return data;
+    }
+
+    private TestData() {
+        // no instances
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.bzip2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class BZip2CompressorOutputStreamTest {
+
+    private static byte[] compress(final byte[] data, final int blockSize) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(bos, blockSize)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        try (BZip2CompressorInputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(compressed))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    @Test
+    public void testParallelEmptyStream() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(bos, 1, 2)) {
+            // nothing written
+        }
+        assertArrayEquals(compress(new byte[0], 1), bos.toByteArray());
+    }
+
+    @Test
+    public void testParallelInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BZip2CompressorOutputStream(new ByteArrayOutputStream(), 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BZip2CompressorOutputStream(new ByteArrayOutputStream(), 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> new BZip2CompressorOutputStream(new ByteArrayOutputStream(), 0, 2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 9 })
+    public void testParallelOutputIsIdenticalToSerialOutput(final int blockSize) throws IOException {
+        final byte[] data = TestData.runs(2_500_000);
+        final byte[] serial = compress(data, blockSize);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(bos, blockSize, 3)) {
+            for (int off = 0; off < data.length; off += 10_000) {
+                out.write(data, off, Math.min(10_000, data.length - off));
+            }
+        }
+        assertArrayEquals(serial, bos.toByteArray());
+        assertArrayEquals(data, decompress(bos.toByteArray()));
+    }
+
+    @Test
+    public void testParallelWithExecutorService() throws IOException {
+        final byte[] data = TestData.runs(1_000_000);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(bos, 1, executorService, 1)) {
+                out.write(data);
+            }
+            assertArrayEquals(compress(data, 1), bos.toByteArray());
+            // the executor service is still usable
+            executorService.submit(() -> null);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.bzip2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ParallelBZip2CompressorInputStreamTest {
+
+    private static byte[] compress(final byte[] data, final int blockSize) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(bos, blockSize)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+        final byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static byte[] decompress(final byte[] compressed, final boolean decompressConcatenated) throws IOException {
+        try (ParallelBZip2CompressorInputStream in = new ParallelBZip2CompressorInputStream(new SeekableInMemoryByteChannel(compressed),
+                decompressConcatenated, 3)) {
+            final byte[] result = IOUtils.toByteArray(in);
+            assertEquals(compressed.length, in.getCompressedCount(), "compressed count");
+            return result;
+        }
+    }
+
+    private static byte[] decompressSerial(final byte[] compressed, final boolean decompressConcatenated) throws IOException {
+        try (BZip2CompressorInputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(compressed), decompressConcatenated)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 9 })
+    public void testContentIsIdenticalToSerialDecompression(final int blockSize) throws IOException {
+        final byte[] data = TestData.runs(2_500_000);
+        final byte[] compressed = compress(data, blockSize);
+        assertArrayEquals(decompressSerial(compressed, false), decompress(compressed, false));
+    }
+
+    @Test
+    public void testConcatenatedStreams() throws IOException {
+        final byte[] first = TestData.runs(300_000);
+        final byte[] second = TestData.runs(1_200_000);
+        final byte[] compressed = concat(compress(first, 9), concat(compress(second, 1), compress(new byte[0], 5)));
+        assertArrayEquals(concat(first, second), decompress(compressed, true));
+        assertArrayEquals(decompressSerial(compressed, true), decompress(compressed, true));
+    }
+
+    @Test
+    public void testConcatenatedStreamsNotDecompressed() throws IOException {
+        final byte[] first = TestData.runs(300_000);
+        final byte[] compressed = concat(compress(first, 1), compress(TestData.runs(1_000), 1));
+        try (ParallelBZip2CompressorInputStream in = new ParallelBZip2CompressorInputStream(new SeekableInMemoryByteChannel(compressed), false, 2)) {
+            assertArrayEquals(first, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testCorruptedBlock() throws IOException {
+        final byte[] compressed = compress(TestData.runs(250_000), 1);
+        // somewhere in the Huffman coded data of the second block
+        compressed[compressed.length * 3 / 4] ^= 0x10;
+        assertThrows(IOException.class, () -> decompress(compressed, false));
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        assertArrayEquals(new byte[0], decompress(compress(new byte[0], 9), false));
+    }
+
+    @Test
+    public void testGarbageAfterStream() throws IOException {
+        final byte[] compressed = concat(compress(TestData.runs(1_000), 1), new byte[] { 'B', 'Z', 'x', '1', 0, 0 });
+        assertThrows(IOException.class, () -> decompress(compressed, true));
+    }
+
+    @Test
+    public void testNotBZip2() {
+        assertThrows(IOException.class, () -> decompress(new byte[] { 'B', 'Z', 'h', '0', 0 }, false));
+        assertThrows(IOException.class, () -> decompress(new byte[0], false));
+    }
+}
@@ -18,11 +18,15 @@
  */
 package org.apache.commons.compress.compressors.deflate;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 public class DeflateCompressorOutputStreamTest {
@@ -38,4 +42,19 @@ public void testCanReadASingleByteFlushAndFinish() throws IOException {
         }
     }
 
+    @Test
+    public void testEncoderWithZlibHeader() throws IOException {
+        final byte[] data = "abcabcabcabcabcxyz, abcabcabcabcabcxyz".getBytes(StandardCharsets.US_ASCII);
+        final DeflateParameters parameters = new DeflateParameters();
+        parameters.setEncoder(LZ77DeflateCompressorOutputStream.Level.FASTEST);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DeflateCompressorOutputStream cos = new DeflateCompressorOutputStream(bos, parameters)) {
+            cos.write(data, 0, 10);
+            cos.write(data, 10, data.length - 10);
+        }
+        try (DeflateCompressorInputStream in = new DeflateCompressorInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
 }
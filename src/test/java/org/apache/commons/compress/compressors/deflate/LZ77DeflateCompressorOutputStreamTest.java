@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class LZ77DeflateCompressorOutputStreamTest {
+
+    private static byte[] compress(final byte[] data, final LZ77DeflateCompressorOutputStream.Level level) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (LZ77DeflateCompressorOutputStream out = new LZ77DeflateCompressorOutputStream(bos, level)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] inflate(final byte[] compressed) throws IOException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed), new Inflater(true))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static byte[] text() {
+        final StringBuilder sb = new StringBuilder();
+        final Random random = new Random(42);
+        final String[] words = { "archive", "entry", "stream", "deflate", "huffman", "window", "length", "distance", "literal" };
+        while (sb.length() < 500000) {
+            sb.append(words[random.nextInt(words.length)]).append(random.nextInt(10) == 0 ? '\n' : ' ');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testCannotWriteAfterFinish() throws IOException {
+        try (LZ77DeflateCompressorOutputStream out = new LZ77DeflateCompressorOutputStream(new ByteArrayOutputStream())) {
+            out.write(1);
+            out.finish();
+            assertThrows(IOException.class, () -> out.write(2));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(LZ77DeflateCompressorOutputStream.Level.class)
+    public void testEmptyInput(final LZ77DeflateCompressorOutputStream.Level level) throws IOException {
+        assertArrayEquals(new byte[0], inflate(compress(new byte[0], level)));
+    }
+
+    @Test
+    public void testEncoderDoesNotCloseOutput() throws IOException {
+        final boolean[] closed = new boolean[1];
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        try (OutputStream out = LZ77DeflateCompressorOutputStream.Level.LAZY.createOutputStream(bos)) {
+            out.write(text());
+        }
+        assertFalse(closed[0]);
+        assertArrayEquals(text(), inflate(bos.toByteArray()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LZ77DeflateCompressorOutputStream.Level.class)
+    public void testIncompressibleDataIsStored(final LZ77DeflateCompressorOutputStream.Level level) throws IOException {
+        final byte[] data = new byte[200000];
+        new Random(42).nextBytes(data);
+        final byte[] compressed = compress(data, level);
+        assertTrue(compressed.length < data.length + 100, "compressed size " + compressed.length);
+        assertArrayEquals(data, inflate(compressed));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LZ77DeflateCompressorOutputStream.Level.class)
+    public void testLongRuns(final LZ77DeflateCompressorOutputStream.Level level) throws IOException {
+        final byte[] data = new byte[1 << 20];
+        final byte[] compressed = compress(data, level);
+        assertTrue(compressed.length < 5000, "compressed size " + compressed.length);
+        assertArrayEquals(data, inflate(compressed));
+    }
+
+    @Test
+    public void testRejectsParametersBeyondDeflateLimits() {
+        final Parameters offset = Parameters.builder(1 << 16).withMaxOffset(32769).build();
+        assertThrows(IllegalArgumentException.class, () -> new LZ77DeflateCompressorOutputStream(new ByteArrayOutputStream(), offset));
+        final Parameters length = Parameters.builder(1 << 16).withMaxBackReferenceLength(259).build();
+        assertThrows(IllegalArgumentException.class, () -> new LZ77DeflateCompressorOutputStream(new ByteArrayOutputStream(), length));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LZ77DeflateCompressorOutputStream.Level.class)
+    public void testRoundTrip(final LZ77DeflateCompressorOutputStream.Level level) throws IOException {
+        final byte[] data = text();
+        final byte[] compressed = compress(data, level);
+        assertTrue(compressed.length < data.length / 2, "compressed size " + compressed.length);
+        assertArrayEquals(data, inflate(compressed));
+    }
+
+    @Test
+    public void testSlowerLevelsCompressBetter() throws IOException {
+        final byte[] data = text();
+        final int fastest = compress(data, LZ77DeflateCompressorOutputStream.Level.FASTEST).length;
+        final int lazy = compress(data, LZ77DeflateCompressorOutputStream.Level.LAZY).length;
+        final int slow = compress(data, LZ77DeflateCompressorOutputStream.Level.SLOW).length;
+        assertTrue(fastest > lazy && lazy >= slow, fastest + " " + lazy + " " + slow);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.deflate64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+public class Deflate64CompressorOutputStreamTest {
+
+    private static byte[] compress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (Deflate64CompressorOutputStream out = new Deflate64CompressorOutputStream(bos)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        try (Deflate64CompressorInputStream in = new Deflate64CompressorInputStream(new ByteArrayInputStream(compressed))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    @Test
+    public void testBackReferencesBeyondDeflateWindow() throws IOException {
+        final byte[] block = new byte[40000];
+        new Random(42).nextBytes(block);
+        final byte[] data = new byte[2 * block.length];
+        System.arraycopy(block, 0, data, 0, block.length);
+        System.arraycopy(block, 0, data, block.length, block.length);
+        final byte[] compressed = compress(data);
+        // the second copy is a single back-reference 40000 bytes away, which plain DEFLATE cannot express
+        assertTrue(compressed.length < block.length + 1000, "compressed size " + compressed.length);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void testCannotWriteAfterFinish() throws IOException {
+        try (Deflate64CompressorOutputStream out = new Deflate64CompressorOutputStream(new ByteArrayOutputStream())) {
+            out.write(1);
+            out.finish();
+            assertThrows(IOException.class, () -> out.write(2));
+        }
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        assertArrayEquals(new byte[0], decompress(compress(new byte[0])));
+    }
+
+    @Test
+    public void testIncompressibleDataIsStored() throws IOException {
+        final byte[] data = new byte[200000];
+        new Random(42).nextBytes(data);
+        final byte[] compressed = compress(data);
+        assertTrue(compressed.length < data.length + 100, "compressed size " + compressed.length);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void testLongRuns() throws IOException {
+        final byte[] data = new byte[1 << 20];
+        final byte[] compressed = compress(data);
+        assertTrue(compressed.length < 100, "compressed size " + compressed.length);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void testRejectsParametersBeyondDeflate64Limits() {
+        final Parameters offset = Parameters.builder(1 << 17).withMaxOffset(65537).build();
+        assertThrows(IllegalArgumentException.class, () -> new Deflate64CompressorOutputStream(new ByteArrayOutputStream(), offset));
+        final Parameters length = Parameters.builder(1 << 17).withMaxBackReferenceLength(65539).build();
+        assertThrows(IllegalArgumentException.class, () -> new Deflate64CompressorOutputStream(new ByteArrayOutputStream(), length));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final Random random = new Random(42);
+        final String[] words = { "archive", "entry", "stream", "deflate", "huffman", "window", "length", "distance", "literal" };
+        while (sb.length() < 500000) {
+            sb.append(words[random.nextInt(words.length)]).append(random.nextInt(10) == 0 ? '\n' : ' ');
+        }
+        final byte[] data = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        final byte[] compressed = compress(data);
+        assertTrue(compressed.length < data.length / 2, "compressed size " + compressed.length);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void testSingleByteWritesAndFlush() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final byte[] data = "abcabcabcabcabcxyz".getBytes(StandardCharsets.US_ASCII);
+        try (Deflate64CompressorOutputStream out = new Deflate64CompressorOutputStream(bos)) {
+            for (final byte b : data) {
+                out.write(b);
+                out.flush();
+            }
+        }
+        assertArrayEquals(data, decompress(bos.toByteArray()));
+    }
+}
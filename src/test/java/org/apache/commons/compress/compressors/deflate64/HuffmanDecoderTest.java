@@ -16,16 +16,51 @@
  */
 package org.apache.commons.compress.compressors.deflate64;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
 
 import org.junit.jupiter.api.Test;
 
 public class HuffmanDecoderTest {
+    @Test
+    public void testDecodeDynamicHuffmanBlocksWithLongCodes() throws Exception {
+        // geometrically distributed symbols get codes of up to 15 bits
+        final Random random = new Random(42);
+        final byte[] data = new byte[1 << 20];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + Integer.numberOfTrailingZeros(random.nextInt() | 1 << 16));
+        }
+        // without back-references of length 258, Deflate streams are valid Deflate64 streams
+        for (final int strategy : new int[] { Deflater.HUFFMAN_ONLY, Deflater.DEFAULT_STRATEGY }) {
+            final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setStrategy(strategy);
+            deflater.setInput(data);
+            deflater.finish();
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            deflater.end();
+            final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            try (HuffmanDecoder decoder = new HuffmanDecoder(new ByteArrayInputStream(compressed.toByteArray()))) {
+                int len;
+                while ((len = decoder.decode(buffer)) != -1) {
+                    decoded.write(buffer, 0, len);
+                }
+            }
+            assertArrayEquals(data, decoded.toByteArray());
+        }
+    }
+
     @Test
     public void testDecodeFixedHuffmanBlockWithMemoryLookup() throws Exception {
         final byte[] data = {
@@ -19,14 +19,19 @@
 
 package org.apache.commons.compress.compressors.gzip;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -53,6 +58,20 @@ private void testFileName(final String expected, final String sourceFile) throws
         }
     }
 
+    @Test
+    public void testDeflateEncoder() throws IOException {
+        final byte[] data = "<text>Hello World!</text> <text>Hello World!</text>".getBytes(StandardCharsets.ISO_8859_1);
+        final GzipParameters parameters = new GzipParameters();
+        parameters.setDeflateEncoder(LZ77DeflateCompressorOutputStream.Level.SLOW);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (GzipCompressorOutputStream gos = new GzipCompressorOutputStream(bos, parameters)) {
+            gos.write(data);
+        }
+        try (GzipCompressorInputStream gis = new GzipCompressorInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(gis));
+        }
+    }
+
     @Test
     public void testFileNameAscii() throws IOException {
         testFileName("ASCII.xml", "ASCII.xml");
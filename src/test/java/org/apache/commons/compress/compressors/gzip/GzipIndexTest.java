@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link GzipIndex}.
+ */
+public class GzipIndexTest {
+
+    @Test
+    public void testCorruptedData() throws IOException {
+        final byte[] compressed = IndexedGzipByteChannelTest.compress(TestData.letters(10_000, 10_000), Deflater.DEFAULT_COMPRESSION);
+        // CRC32 in the trailer
+        compressed[compressed.length - 6] ^= 1;
+        assertThrows(IOException.class, () -> GzipIndex.build(new SeekableInMemoryByteChannel(compressed)));
+    }
+
+    @Test
+    public void testGarbageAfterMember() throws IOException {
+        final byte[] compressed = IndexedGzipByteChannelTest.compress(TestData.letters(10_000, 10_000), Deflater.DEFAULT_COMPRESSION);
+        final byte[] withGarbage = new byte[compressed.length + 3];
+        System.arraycopy(compressed, 0, withGarbage, 0, compressed.length);
+        assertThrows(IOException.class, () -> GzipIndex.build(new SeekableInMemoryByteChannel(withGarbage)));
+    }
+
+    @Test
+    public void testInvalidSpan() {
+        assertThrows(IllegalArgumentException.class, () -> GzipIndex.build(new SeekableInMemoryByteChannel(), 0));
+    }
+
+    @Test
+    public void testNotGzip() {
+        assertThrows(IOException.class, () -> GzipIndex.build(new SeekableInMemoryByteChannel(new byte[] { 'B', 'Z', 'h' })));
+        assertThrows(IOException.class, () -> GzipIndex.build(new SeekableInMemoryByteChannel()));
+        assertThrows(IOException.class, () -> GzipIndex.read(new ByteArrayInputStream(new byte[16])));
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        final byte[] compressed = IndexedGzipByteChannelTest.compress(TestData.letters(10_000, 10_000), Deflater.DEFAULT_COMPRESSION);
+        final byte[] truncated = new byte[compressed.length / 2];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> GzipIndex.build(new SeekableInMemoryByteChannel(truncated)));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final byte[] data = TestData.letters(1_000_000, 10_000);
+        final byte[] compressed = IndexedGzipByteChannelTest.compress(data, Deflater.BEST_COMPRESSION);
+        final GzipIndex index = GzipIndex.build(new SeekableInMemoryByteChannel(compressed), 100_000);
+        final ByteArrayOutputStream sidecar = new ByteArrayOutputStream();
+        index.write(sidecar);
+        final GzipIndex read = GzipIndex.read(new ByteArrayInputStream(sidecar.toByteArray()));
+        assertEquals(index.getCheckpointCount(), read.getCheckpointCount());
+        assertEquals(index.getCompressedSize(), read.getCompressedSize());
+        assertEquals(index.getUncompressedSize(), read.getUncompressedSize());
+        try (IndexedGzipByteChannel channel = new IndexedGzipByteChannel(new SeekableInMemoryByteChannel(compressed), read)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(1000);
+            channel.position(777_777);
+            while (buffer.hasRemaining()) {
+                channel.read(buffer);
+            }
+            final byte[] expected = new byte[1000];
+            System.arraycopy(data, 777_777, expected, 0, expected.length);
+            assertArrayEquals(expected, buffer.array());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link IndexedGzipByteChannel}.
+ */
+public class IndexedGzipByteChannelTest {
+
+    static byte[] compress(final byte[] data, final int level) throws IOException {
+        final GzipParameters parameters = new GzipParameters();
+        parameters.setCompressionLevel(level);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (GzipCompressorOutputStream out = new GzipCompressorOutputStream(bos, parameters)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static void assertRandomReads(final byte[] data, final byte[] compressed, final GzipIndex index) throws IOException {
+        final Random random = new Random(42);
+        try (IndexedGzipByteChannel channel = new IndexedGzipByteChannel(new SeekableInMemoryByteChannel(compressed), index)) {
+            assertEquals(data.length, channel.size());
+            for (int i = 0; i < 200; i++) {
+                final int position = random.nextInt(data.length);
+                final ByteBuffer buffer = i % 2 == 0 ? ByteBuffer.allocate(random.nextInt(20_000) + 1) : ByteBuffer.allocateDirect(random.nextInt(100) + 1);
+                channel.position(position);
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // fill the buffer
+                }
+                buffer.flip();
+                final byte[] actual = new byte[buffer.remaining()];
+                buffer.get(actual);
+                assertArrayEquals(Arrays.copyOfRange(data, position, Math.min(data.length, position + actual.length)), actual, () -> "at " + position);
+                assertEquals(position + actual.length, channel.position());
+            }
+            channel.position(data.length);
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        final byte[] compressed = compress(TestData.letters(1000, 10_000), Deflater.DEFAULT_COMPRESSION);
+        final GzipIndex index = GzipIndex.build(new SeekableInMemoryByteChannel(compressed));
+        final IndexedGzipByteChannel channel = new IndexedGzipByteChannel(new SeekableInMemoryByteChannel(compressed), index);
+        channel.close();
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+        assertThrows(ClosedChannelException.class, () -> channel.position(0));
+    }
+
+    @Test
+    public void testConcatenatedMembers() throws IOException {
+        final byte[] first = TestData.letters(700_000, 10_000);
+        final byte[] third = TestData.letters(500_000, 10_000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(compress(first, Deflater.BEST_SPEED));
+        compressed.write(compress(new byte[0], Deflater.DEFAULT_COMPRESSION));
+        compressed.write(compress(third, Deflater.NO_COMPRESSION));
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(first);
+        data.write(third);
+        final GzipIndex index = GzipIndex.build(new SeekableInMemoryByteChannel(compressed.toByteArray()), 100_000);
+        assertTrue(index.getCheckpointCount() > 3, () -> index.getCheckpointCount() + " checkpoints");
+        assertRandomReads(data.toByteArray(), compressed.toByteArray(), index);
+    }
+
+    @Test
+    public void testIndexDoesNotMatch() throws IOException {
+        final GzipIndex index = GzipIndex.build(new SeekableInMemoryByteChannel(compress(TestData.letters(1000, 10_000), Deflater.DEFAULT_COMPRESSION)));
+        final byte[] other = compress(TestData.letters(2000, 10_000), Deflater.DEFAULT_COMPRESSION);
+        assertThrows(IOException.class, () -> new IndexedGzipByteChannel(new SeekableInMemoryByteChannel(other), index));
+    }
+
+    @Test
+    public void testParallelCompressedFile() throws IOException {
+        final byte[] data = TestData.letters(1_000_000, 10_000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipCompressorOutputStream out = new ParallelGzipCompressorOutputStream(compressed, new GzipParameters(), 2)) {
+            out.write(data);
+        }
+        assertRandomReads(data, compressed.toByteArray(), GzipIndex.build(new SeekableInMemoryByteChannel(compressed.toByteArray()), 50_000));
+    }
+
+    @Test
+    public void testRandomReads() throws IOException {
+        final byte[] data = TestData.letters(3_000_000, 10_000);
+        final byte[] compressed = compress(data, Deflater.DEFAULT_COMPRESSION);
+        final GzipIndex index = GzipIndex.build(new SeekableInMemoryByteChannel(compressed), 64 * 1024);
+        assertEquals(compressed.length, index.getCompressedSize());
+        assertEquals(data.length, index.getUncompressedSize());
+        assertTrue(index.getCheckpointCount() > 10, () -> index.getCheckpointCount() + " checkpoints");
+        assertRandomReads(data, compressed, index);
+    }
+
+    @Test
+    public void testReadOnly() throws IOException {
+        final byte[] compressed = compress(TestData.letters(1000, 10_000), Deflater.DEFAULT_COMPRESSION);
+        try (IndexedGzipByteChannel channel = new IndexedGzipByteChannel(new SeekableInMemoryByteChannel(compressed),
+                GzipIndex.build(new SeekableInMemoryByteChannel(compressed)))) {
+            assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+            assertThrows(NonWritableChannelException.class, () -> channel.truncate(0));
+        }
+    }
+}
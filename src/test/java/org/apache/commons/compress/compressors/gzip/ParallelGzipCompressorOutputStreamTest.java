@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.gzip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link ParallelGzipCompressorOutputStream}.
+ */
+public class ParallelGzipCompressorOutputStreamTest {
+
+    private static byte[] compress(final byte[] data, final GzipParameters parameters) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelGzipCompressorOutputStream out = new ParallelGzipCompressorOutputStream(bos, parameters, 3)) {
+            for (int off = 0; off < data.length; off += 10_000) {
+                out.write(data, off, Math.min(10_000, data.length - off));
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static int crc32(final byte[] data, final int off, final int len) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, off, len);
+        return (int) crc.getValue();
+    }
+
+    @Test
+    public void testCombineCrc32() {
+        final byte[] data = TestData.letters(100_000, 1000);
+        for (final int split : new int[] { 0, 1, 77, 65_536, 99_999, 100_000 }) {
+            assertEquals(crc32(data, 0, data.length),
+                    ParallelGzipCompressorOutputStream.combineCrc32(crc32(data, 0, split), crc32(data, split, data.length - split), data.length - split));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { Deflater.NO_COMPRESSION, Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION })
+    public void testCompressionLevels(final int level) throws IOException {
+        final byte[] data = TestData.letters(1_000_000, 1000);
+        final GzipParameters parameters = new GzipParameters();
+        parameters.setCompressionLevel(level);
+        final byte[] compressed = compress(data, parameters);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        final byte[] compressed = compress(new byte[0], new GzipParameters());
+        try (GzipCompressorInputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(0, IOUtils.toByteArray(in).length);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipCompressorOutputStream(new ByteArrayOutputStream(), new GzipParameters(), 0));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ParallelGzipCompressorOutputStream(new ByteArrayOutputStream(), new GzipParameters(), executorService, 0, 1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ParallelGzipCompressorOutputStream(new ByteArrayOutputStream(), new GzipParameters(), executorService, 1, 0));
+            final GzipParameters withEncoder = new GzipParameters();
+            withEncoder.setDeflateEncoder(LZ77DeflateCompressorOutputStream.Level.FASTEST);
+            assertThrows(IllegalArgumentException.class, () -> new ParallelGzipCompressorOutputStream(new ByteArrayOutputStream(), withEncoder, 2));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ParallelGzipCompressorOutputStream(new ByteArrayOutputStream(), withEncoder, executorService, 1, 1));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSingleMemberWithMetaData() throws IOException {
+        final byte[] data = TestData.letters(1_000_000, 1000);
+        final GzipParameters parameters = new GzipParameters();
+        parameters.setFileName("data.txt");
+        parameters.setComment("generated");
+        parameters.setModificationTime(1_700_000_000_000L);
+        final byte[] compressed = compress(data, parameters);
+        // a reader that stops after the first member sees all data
+        try (GzipCompressorInputStream in = new GzipCompressorInputStream(new ByteArrayInputStream(compressed), false)) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+            assertEquals("data.txt", in.getMetaData().getFileName());
+            assertEquals("generated", in.getMetaData().getComment());
+            assertEquals(1_700_000_000_000L, in.getMetaData().getModificationTime());
+        }
+        // the preset dictionaries keep the ratio close to the serial one
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (GzipCompressorOutputStream out = new GzipCompressorOutputStream(bos, parameters)) {
+            out.write(data);
+        }
+        assertTrue(compressed.length < bos.size() * 1.05, () -> compressed.length + " vs. " + bos.size());
+    }
+
+    @Test
+    public void testWithExecutorService() throws IOException {
+        final byte[] data = TestData.letters(300_000, 1000);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ParallelGzipCompressorOutputStream out = new ParallelGzipCompressorOutputStream(bos, new GzipParameters(), executorService, 1000, 1)) {
+                out.write(data);
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+                assertArrayEquals(data, IOUtils.toByteArray(in));
+            }
+            // the executor service is still usable
+            executorService.submit(() -> null);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -23,11 +23,15 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.apache.commons.compress.compressors.lz77support.LZ77Compressor;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -297,6 +301,38 @@ public void testRewritingWithFinalBackreferenceAndOffsetBiggerThan1() throws IOE
         assertArrayEquals(expected, compressed);
     }
 
+    @Test
+    public void testRoundTripOfInputBiggerThanTwiceTheWindow() throws IOException {
+        final Random random = new Random(0x4c5a34);
+        final ByteArrayOutputStream input = new ByteArrayOutputStream();
+        final byte[] text = "I do not like them, Sam-I-am. I do not like green eggs and ham.\n".getBytes(StandardCharsets.US_ASCII);
+        while (input.size() < 400_000) {
+            final byte[] chunk = new byte[random.nextInt(70_000)];
+            switch (random.nextInt(3)) {
+            case 0:
+                for (int i = 0; i < chunk.length; i++) {
+                    chunk[i] = text[(i + random.nextInt(2)) % text.length];
+                }
+                break;
+            case 1:
+                random.nextBytes(chunk);
+                break;
+            default:
+                Arrays.fill(chunk, (byte) random.nextInt());
+                break;
+            }
+            input.write(chunk, 0, chunk.length);
+        }
+        final byte[] data = input.toByteArray();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (BlockLZ4CompressorOutputStream out = new BlockLZ4CompressorOutputStream(compressed)) {
+            out.write(data);
+        }
+        try (BlockLZ4CompressorInputStream in = new BlockLZ4CompressorInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
     @Test
     public void testWritesCompletePair() throws IOException {
         final BlockLZ4CompressorOutputStream.Pair p = new BlockLZ4CompressorOutputStream.Pair();
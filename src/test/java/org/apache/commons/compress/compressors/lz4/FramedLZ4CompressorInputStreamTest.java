@@ -29,14 +29,19 @@
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.compress.AbstractTest;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.TestData;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
@@ -61,6 +66,26 @@ private void expectIOException(final String fileName) {
         });
     }
 
+    private static byte[] compress(final byte[] data, final FramedLZ4CompressorOutputStream.Parameters params) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (FramedLZ4CompressorOutputStream out = new FramedLZ4CompressorOutputStream(bos, params)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Declares a block maximum size of 64 KiB in the descriptor of a single frame, blocks aren't changed.
+     */
+    private static byte[] declareK64BlockMaxSize(final byte[] frame) {
+        final byte[] result = frame.clone();
+        result[5] = (byte) (FramedLZ4CompressorOutputStream.BlockSize.K64.getIndex() << 4);
+        final org.apache.commons.codec.digest.XXHash32 hash = new org.apache.commons.codec.digest.XXHash32();
+        hash.update(result, 4, 2);
+        result[6] = (byte) (hash.getValue() >> 8 & 0xff);
+        return result;
+    }
+
     private void readDoubledBlaLz4(final StreamWrapper wrapper, final boolean expectDuplicateOutput) throws Exception {
         byte[] singleInput;
         try (InputStream i = newInputStream("bla.tar.lz4")) {
@@ -111,6 +136,97 @@ public void testMultiByteReadConsistentlyReturnsMinusOneAtEof() throws IOExcepti
         }
     }
 
+    @Test
+    public void testParallelDecompression() throws IOException {
+        final byte[] data = TestData.lettersAndRandomBytes(5 * 64 * 1024 + 321);
+        final FramedLZ4CompressorOutputStream.BlockSize k64 = FramedLZ4CompressorOutputStream.BlockSize.K64;
+        final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        frames.write(compress(data, new FramedLZ4CompressorOutputStream.Parameters(k64, true, true, false)));
+        frames.write(compress(data, new FramedLZ4CompressorOutputStream.Parameters(k64, true, true, true)));
+        frames.write(compress(new byte[0], new FramedLZ4CompressorOutputStream.Parameters(k64)));
+        frames.write(compress(data, new FramedLZ4CompressorOutputStream.Parameters(k64, false, false, false)));
+        final byte[] expected = new byte[3 * data.length];
+        for (int i = 0; i < 3; i++) {
+            System.arraycopy(data, 0, expected, i * data.length, data.length);
+        }
+        try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(frames.toByteArray()), true, 2)) {
+            assertArrayEquals(expected, IOUtils.toByteArray(in));
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(frames.toByteArray()), true, executorService, 1)) {
+                assertArrayEquals(expected, IOUtils.toByteArray(in));
+            }
+            try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(frames.toByteArray()), false, executorService, 3)) {
+                assertArrayEquals(data, IOUtils.toByteArray(in));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelDecompressionInvalidArguments() throws IOException {
+        final byte[] input = compress(new byte[0], FramedLZ4CompressorOutputStream.Parameters.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> new FramedLZ4CompressorInputStream(new ByteArrayInputStream(input), true, 0));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new FramedLZ4CompressorInputStream(new ByteArrayInputStream(input), true, executorService, 0));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelDecompressionRejectsBadChecksums() throws IOException {
+        final byte[] input = compress(TestData.lettersAndRandomBytes(3 * 64 * 1024),
+                new FramedLZ4CompressorOutputStream.Parameters(FramedLZ4CompressorOutputStream.BlockSize.K64, true, true, false));
+        final byte[] badBlock = input.clone();
+        // first byte of the first block, after the frame descriptor and the block size
+        badBlock[11] ^= 1;
+        IOException ex = assertThrows(IOException.class, () -> {
+            try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(badBlock), true, 2)) {
+                IOUtils.toByteArray(in);
+            }
+        });
+        assertThat(ex.getMessage(), containsString("block checksum mismatch"));
+        final byte[] badContent = input.clone();
+        badContent[badContent.length - 1] ^= 1;
+        ex = assertThrows(IOException.class, () -> {
+            try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(badContent), true, 2)) {
+                IOUtils.toByteArray(in);
+            }
+        });
+        assertThat(ex.getMessage(), containsString("content checksum mismatch"));
+    }
+
+    @Test
+    public void testParallelDecompressionRejectsBlocksLargerThanBlockMaxSize() throws IOException {
+        final FramedLZ4CompressorOutputStream.Parameters k256 = new FramedLZ4CompressorOutputStream.Parameters(
+                FramedLZ4CompressorOutputStream.BlockSize.K256, false, false, false);
+        // a compressed block of less than 64 KiB that decompresses to 256 KiB
+        final byte[] compressible = new byte[256 * 1024];
+        Arrays.fill(compressible, (byte) 'a');
+        final byte[] compressedBlock = declareK64BlockMaxSize(compress(compressible, k256));
+        IOException ex = assertThrows(IOException.class, () -> {
+            try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(compressedBlock), true, 2)) {
+                IOUtils.toByteArray(in);
+            }
+        });
+        assertThat(ex.getMessage(), containsString("block maximum size"));
+        // an uncompressed block of 256 KiB
+        final byte[] incompressible = new byte[256 * 1024];
+        new Random(1).nextBytes(incompressible);
+        final byte[] uncompressedBlock = declareK64BlockMaxSize(compress(incompressible, k256));
+        ex = assertThrows(IOException.class, () -> {
+            try (InputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(uncompressedBlock), true, 2)) {
+                IOUtils.toByteArray(in);
+            }
+        });
+        assertThat(ex.getMessage(), containsString("block maximum size"));
+    }
+
     @Test
     public void testReadBlaDumpLz4() throws IOException {
         try (InputStream a = new FramedLZ4CompressorInputStream(newInputStream("bla.dump.lz4"));
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.lz4;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link ParallelFramedLZ4CompressorOutputStream}.
+ */
+public class ParallelFramedLZ4CompressorOutputStreamTest {
+
+    /** The size of {@link FramedLZ4CompressorOutputStream.BlockSize#K64}. */
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private static byte[] write(final OutputStream out, final ByteArrayOutputStream bos, final byte[] data) throws IOException {
+        try (OutputStream o = out) {
+            for (int off = 0; off < data.length; off += 7_000) {
+                o.write(data, off, Math.min(7_000, data.length - off));
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    @Test
+    public void testBlockDependencyIsRejected() {
+        final FramedLZ4CompressorOutputStream.Parameters params = new FramedLZ4CompressorOutputStream.Parameters(FramedLZ4CompressorOutputStream.BlockSize.K64,
+                true, false, true);
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFramedLZ4CompressorOutputStream(new ByteArrayOutputStream(), params, 1));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelFramedLZ4CompressorOutputStream(bos, FramedLZ4CompressorOutputStream.Parameters.DEFAULT, 0));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ParallelFramedLZ4CompressorOutputStream(bos, FramedLZ4CompressorOutputStream.Parameters.DEFAULT, executorService, 0));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 7 * BLOCK_SIZE + 123 })
+    public void testSameOutputAsSequentialCompression(final int size) throws IOException {
+        final byte[] data = TestData.lettersAndRandomBytes(size);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            for (final boolean checksums : new boolean[] { false, true }) {
+                final FramedLZ4CompressorOutputStream.Parameters params = new FramedLZ4CompressorOutputStream.Parameters(
+                        FramedLZ4CompressorOutputStream.BlockSize.K64, checksums, checksums, false);
+                final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                write(new FramedLZ4CompressorOutputStream(expected, params), expected, data);
+                final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+                write(new ParallelFramedLZ4CompressorOutputStream(actual, params, executorService, 3), actual, data);
+                assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+                try (FramedLZ4CompressorInputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(actual.toByteArray()))) {
+                    assertArrayEquals(data, IOUtils.toByteArray(in));
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testThreads() throws IOException {
+        final byte[] data = TestData.lettersAndRandomBytes(3 * 1024 * 1024 + 17);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        write(new ParallelFramedLZ4CompressorOutputStream(bos, new FramedLZ4CompressorOutputStream.Parameters(FramedLZ4CompressorOutputStream.BlockSize.K256),
+                2), bos, data);
+        try (FramedLZ4CompressorInputStream in = new FramedLZ4CompressorInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testWriteAfterFinish() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelFramedLZ4CompressorOutputStream out = new ParallelFramedLZ4CompressorOutputStream(bos,
+                FramedLZ4CompressorOutputStream.Parameters.DEFAULT, 1)) {
+            out.finish();
+            assertThrows(IOException.class, () -> out.write(1));
+        }
+    }
+}
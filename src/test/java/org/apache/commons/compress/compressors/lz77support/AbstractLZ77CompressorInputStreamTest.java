@@ -25,6 +25,7 @@
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import org.apache.commons.compress.utils.ByteUtils;
 import org.junit.jupiter.api.Test;
@@ -77,6 +78,30 @@ public void testIfPrefillExceedsWindowSizeTheLastBytesAreUsed() throws IOExcepti
         }
     }
 
+    @Test
+    public void testOverlappingBackReferences() throws IOException {
+        final byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 };
+        for (int offset = 1; offset <= data.length; offset++) {
+            for (final int length : new int[] { 1, offset - 1, offset, offset + 1, 2 * offset + 3, 100, 1000 }) {
+                final byte[] expected = new byte[data.length + length];
+                System.arraycopy(data, 0, expected, 0, data.length);
+                for (int i = data.length; i < expected.length; i++) {
+                    expected[i] = expected[i - offset];
+                }
+                try (TestStream s = new TestStream(new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY))) {
+                    s.prefill(data);
+                    s.startBackReference(offset, length);
+                    final byte[] r = new byte[length];
+                    int read = 0;
+                    while (read < length) {
+                        read += s.read(r, read, length - read);
+                    }
+                    assertArrayEquals(Arrays.copyOfRange(expected, data.length, expected.length), r, "offset " + offset + ", length " + length);
+                }
+            }
+        }
+    }
+
     @Test
     public void testPrefillCanBeUsedForBackReferences() throws IOException {
         final byte[] data = { 1, 2, 3, 4 };
@@ -22,13 +22,18 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 public class LZ77CompressorTest {
 
@@ -247,6 +252,95 @@ public void testCantPrefillTwice() {
         assertThrows(IllegalStateException.class, () -> c.prefill(Arrays.copyOfRange(BLA, 2, 4)));
     }
 
+    @Test
+    public void testBlockCallbackReceivesSameBlocks() throws IOException {
+        final List<LZ77Compressor.Block> expected = compress(newParameters(1024), SAM);
+        final List<String> blocks = new ArrayList<>();
+        final LZ77Compressor c = new LZ77Compressor(newParameters(1024), new LZ77Compressor.BlockCallback() {
+
+            @Override
+            public void onBackReference(final int offset, final int length) {
+                blocks.add(new LZ77Compressor.BackReference(offset, length).toString());
+            }
+
+            @Override
+            public void onEndOfData() {
+                blocks.add("EOD");
+            }
+
+            @Override
+            public void onLiteral(final byte[] data, final int offset, final int length) {
+                blocks.add(new String(data, offset, length, US_ASCII));
+            }
+        });
+        c.compress(SAM);
+        c.finish();
+        assertEquals(expected.size(), blocks.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final LZ77Compressor.Block block = expected.get(i);
+            if (block instanceof LZ77Compressor.LiteralBlock) {
+                assertEquals(new String(((LZ77Compressor.LiteralBlock) block).getData(), US_ASCII), blocks.get(i));
+            } else if (block instanceof LZ77Compressor.BackReference) {
+                assertEquals(block.toString(), blocks.get(i));
+            } else {
+                assertEquals("EOD", blocks.get(i));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Parameters.MatchFinder.class)
+    public void testMatchFinderRoundTrip(final Parameters.MatchFinder matchFinder) throws IOException {
+        // compressible text, incompressible noise and runs, several times the window size
+        final Random random = new Random(0x1234);
+        final ByteArrayOutputStream input = new ByteArrayOutputStream();
+        while (input.size() < 20_000) {
+            switch (random.nextInt(3)) {
+            case 0:
+                input.write(SAM, 0, random.nextInt(SAM.length));
+                break;
+            case 1:
+                final byte[] noise = new byte[random.nextInt(1000)];
+                random.nextBytes(noise);
+                input.write(noise, 0, noise.length);
+                break;
+            default:
+                final byte[] run = new byte[random.nextInt(300)];
+                Arrays.fill(run, (byte) random.nextInt());
+                input.write(run, 0, run.length);
+                break;
+            }
+        }
+        final byte[] data = input.toByteArray();
+        final Parameters params = Parameters.builder(1024).withMaxBackReferenceLength(200).withMaxOffset(900).withMaxLiteralLength(100)
+                .withMatchFinder(matchFinder).build();
+        final byte[] decoded = new byte[data.length];
+        final int[] decodedLength = { 0 };
+        final LZ77Compressor c = new LZ77Compressor(params, block -> {
+            if (block instanceof LZ77Compressor.LiteralBlock) {
+                final LZ77Compressor.LiteralBlock b = (LZ77Compressor.LiteralBlock) block;
+                assertTrue(b.getLength() > 0 && b.getLength() <= 100, b::toString);
+                System.arraycopy(b.getData(), b.getOffset(), decoded, decodedLength[0], b.getLength());
+                decodedLength[0] += b.getLength();
+            } else if (block instanceof LZ77Compressor.BackReference) {
+                final LZ77Compressor.BackReference b = (LZ77Compressor.BackReference) block;
+                assertTrue(b.getOffset() > 0 && b.getOffset() <= 900, b::toString);
+                assertTrue(b.getLength() >= 3 && b.getLength() <= 200, b::toString);
+                for (int i = 0; i < b.getLength(); i++, decodedLength[0]++) {
+                    decoded[decodedLength[0]] = decoded[decodedLength[0] - b.getOffset()];
+                }
+            }
+        });
+        for (int off = 0; off < data.length;) {
+            final int len = Math.min(1 + random.nextInt(3000), data.length - off);
+            c.compress(data, off, len);
+            off += len;
+        }
+        c.finish();
+        assertEquals(data.length, decodedLength[0]);
+        assertArrayEquals(data, decoded);
+    }
+
     @Test
     public void testNonCompressableSentAsSingleBytes() throws IOException {
         final List<LZ77Compressor.Block> blocks = compress(newParameters(8), stagger(ONE_TO_TEN));
@@ -279,6 +373,32 @@ public void testNonCompressableWithLengthThatForcesWindowSlide() throws IOExcept
         assertLiteralBlock(new byte[] { 9, 10 }, blocks.get(2));
     }
 
+    @Test
+    public void testResetStartsNewStream() throws IOException {
+        final List<LZ77Compressor.Block> blocks = new ArrayList<>();
+        final LZ77Compressor c = new LZ77Compressor(newParameters(128), block -> {
+            if (block instanceof LZ77Compressor.LiteralBlock) {
+                final LZ77Compressor.LiteralBlock b = (LZ77Compressor.LiteralBlock) block;
+                block = new LZ77Compressor.LiteralBlock(Arrays.copyOfRange(b.getData(), b.getOffset(), b.getOffset() + b.getLength()), 0, b.getLength());
+            }
+            blocks.add(block);
+        });
+        c.compress(BLA);
+        c.finish();
+        // pending data of an unfinished stream is dropped
+        c.reset();
+        c.compress(ONE_TO_TEN);
+        c.reset();
+        blocks.clear();
+        // back-references must not reach into the earlier streams
+        c.compress(BLA);
+        c.finish();
+        assertSize(4, blocks);
+        assertLiteralBlock("Blah b", blocks.get(0));
+        assertBackReference(5, 18, blocks.get(1));
+        assertLiteralBlock("!", blocks.get(2));
+    }
+
     @Test
     public void testSamIAmExampleWithFullArrayAvailableForCompression() throws IOException {
         final List<LZ77Compressor.Block> blocks = compress(newParameters(1024), SAM);
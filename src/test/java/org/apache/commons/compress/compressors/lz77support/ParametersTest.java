@@ -19,7 +19,9 @@
 package org.apache.commons.compress.compressors.lz77support;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -55,6 +57,18 @@ public void testDefaultConstructor() {
         assertEquals(128, p.getMaxLiteralLength());
     }
 
+    @Test
+    public void testMatchFinderDeterminesLazyMatching() {
+        assertEquals(Parameters.MatchFinder.HASH_CHAIN, newParameters(128).getMatchFinder());
+        assertTrue(newParameters(128).getLazyMatching());
+        final Parameters fast = Parameters.builder(128).withLazyMatching(true).withMatchFinder(Parameters.MatchFinder.FAST).build();
+        assertEquals(Parameters.MatchFinder.FAST, fast.getMatchFinder());
+        assertFalse(fast.getLazyMatching());
+        final Parameters high = Parameters.builder(128).tunedForSpeed().withMatchFinder(Parameters.MatchFinder.HIGH_COMPRESSION).build();
+        assertEquals(Parameters.MatchFinder.HIGH_COMPRESSION, high.getMatchFinder());
+        assertTrue(high.getLazyMatching());
+    }
+
     @Test
     public void testMaxBackReferenceLengthIsMinBackReferenceLengthIfBothAreEqual() {
         final Parameters p = newParameters(128, 2, 3, 4, 5);
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+import org.tukaani.xz.LZMA2Options;
+
+/**
+ * Tests {@link IndexedXZByteChannel}.
+ */
+public class IndexedXZByteChannelTest {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    static byte[] compress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelXZCompressorOutputStream out = new ParallelXZCompressorOutputStream(bos, new LZMA2Options(1), 2)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    static byte[] compress(final byte[] data, final int blockSize) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (ParallelXZCompressorOutputStream out = new ParallelXZCompressorOutputStream(bos, new LZMA2Options(1), executorService, blockSize, 4)) {
+            out.write(data);
+        } finally {
+            executorService.shutdown();
+        }
+        return bos.toByteArray();
+    }
+
+    private static void assertRandomReads(final byte[] data, final byte[] compressed) throws IOException {
+        final Random random = new Random(42);
+        try (IndexedXZByteChannel channel = new IndexedXZByteChannel(new SeekableInMemoryByteChannel(compressed))) {
+            assertEquals(data.length, channel.size());
+            for (int i = 0; i < 200; i++) {
+                final int position = random.nextInt(data.length);
+                final ByteBuffer buffer = i % 2 == 0 ? ByteBuffer.allocate(random.nextInt(20_000) + 1) : ByteBuffer.allocateDirect(random.nextInt(100) + 1);
+                channel.position(position);
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // fill the buffer
+                }
+                buffer.flip();
+                final byte[] actual = new byte[buffer.remaining()];
+                buffer.get(actual);
+                assertArrayEquals(Arrays.copyOfRange(data, position, Math.min(data.length, position + actual.length)), actual, () -> "at " + position);
+                assertEquals(position + actual.length, channel.position());
+            }
+            channel.position(data.length);
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        final IndexedXZByteChannel channel = new IndexedXZByteChannel(new SeekableInMemoryByteChannel(compress(TestData.letters(1000, 10_000))));
+        channel.close();
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+        assertThrows(ClosedChannelException.class, () -> channel.position(0));
+        assertThrows(ClosedChannelException.class, channel::getBlockCount);
+    }
+
+    @Test
+    public void testConcatenatedStreams() throws IOException {
+        final byte[] first = TestData.letters(300_000, 10_000);
+        final byte[] second = TestData.letters(200_000, 10_000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(compress(first, BLOCK_SIZE));
+        compressed.write(compress(second, BLOCK_SIZE));
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(first);
+        data.write(second);
+        try (IndexedXZByteChannel channel = new IndexedXZByteChannel(new SeekableInMemoryByteChannel(compressed.toByteArray()))) {
+            assertEquals(5 + 4, channel.getBlockCount());
+        }
+        assertRandomReads(data.toByteArray(), compressed.toByteArray());
+    }
+
+    @Test
+    public void testNotXZ() {
+        assertThrows(IOException.class, () -> new IndexedXZByteChannel(new SeekableInMemoryByteChannel(TestData.letters(1000, 10_000))));
+    }
+
+    @Test
+    public void testRandomReads() throws IOException {
+        final byte[] data = TestData.letters(1_000_000, 10_000);
+        final byte[] compressed = compress(data, BLOCK_SIZE);
+        try (IndexedXZByteChannel channel = new IndexedXZByteChannel(new SeekableInMemoryByteChannel(compressed))) {
+            assertEquals((data.length + BLOCK_SIZE - 1) / BLOCK_SIZE, channel.getBlockCount());
+        }
+        assertRandomReads(data, compressed);
+    }
+
+    @Test
+    public void testReadOnly() throws IOException {
+        try (IndexedXZByteChannel channel = new IndexedXZByteChannel(new SeekableInMemoryByteChannel(compress(TestData.letters(1000, 10_000))))) {
+            assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+            assertThrows(NonWritableChannelException.class, () -> channel.truncate(0));
+        }
+    }
+
+    @Test
+    public void testSingleBlockFile() throws IOException {
+        final byte[] data = TestData.letters(200_000, 10_000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (XZCompressorOutputStream out = new XZCompressorOutputStream(compressed)) {
+            out.write(data);
+        }
+        assertRandomReads(data, compressed.toByteArray());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import static org.apache.commons.compress.compressors.xz.IndexedXZByteChannelTest.BLOCK_SIZE;
+import static org.apache.commons.compress.compressors.xz.IndexedXZByteChannelTest.compress;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link ParallelXZCompressorInputStream}.
+ */
+public class ParallelXZCompressorInputStreamTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testClosed() throws IOException {
+        final ParallelXZCompressorInputStream in = new ParallelXZCompressorInputStream(
+                new SeekableInMemoryByteChannel(compress(TestData.letters(1000, 10_000))), 1);
+        in.close();
+        assertThrows(IOException.class, in::read);
+    }
+
+    @Test
+    public void testConcatenatedStreams() throws IOException {
+        final byte[] first = TestData.letters(300_000, 10_000);
+        final byte[] second = TestData.letters(200_000, 10_000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(compress(first, BLOCK_SIZE));
+        compressed.write(compress(second, BLOCK_SIZE));
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(first);
+        data.write(second);
+        try (ParallelXZCompressorInputStream in = new ParallelXZCompressorInputStream(new SeekableInMemoryByteChannel(compressed.toByteArray()), 2)) {
+            assertArrayEquals(data.toByteArray(), IOUtils.toByteArray(in));
+            assertEquals(data.size(), in.getUncompressedCount());
+        }
+    }
+
+    @Test
+    public void testCorruptBlock() throws IOException {
+        final byte[] compressed = compress(TestData.letters(500_000, 10_000), BLOCK_SIZE);
+        compressed[compressed.length / 2] ^= 0x55;
+        try (ParallelXZCompressorInputStream in = new ParallelXZCompressorInputStream(new SeekableInMemoryByteChannel(compressed), 2)) {
+            assertThrows(IOException.class, () -> IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        final byte[] data = TestData.letters(600_000, 10_000);
+        final Path file = tempDir.resolve("test.xz");
+        Files.write(file, compress(data, BLOCK_SIZE));
+        try (ParallelXZCompressorInputStream in = new ParallelXZCompressorInputStream(file, 2)) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testNotXZ() {
+        assertThrows(IOException.class, () -> new ParallelXZCompressorInputStream(new SeekableInMemoryByteChannel(TestData.letters(1000, 10_000)), 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 7 * BLOCK_SIZE + 123 })
+    public void testRoundTrip(final int size) throws IOException {
+        final byte[] data = TestData.letters(size, 10_000);
+        final byte[] compressed = compress(data, BLOCK_SIZE);
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try (ParallelXZCompressorInputStream in = new ParallelXZCompressorInputStream(new SeekableInMemoryByteChannel(compressed), executorService, 2)) {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[5_000];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, n);
+            }
+            assertArrayEquals(data, bos.toByteArray());
+            assertEquals(-1, in.read());
+            assertEquals(size, in.getUncompressedCount());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
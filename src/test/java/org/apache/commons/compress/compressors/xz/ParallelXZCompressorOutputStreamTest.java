@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.compressors.xz;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.compress.compressors.TestData;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.SeekableInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * Tests {@link ParallelXZCompressorOutputStream}.
+ */
+public class ParallelXZCompressorOutputStreamTest {
+
+    private static final class SeekableByteArrayInputStream extends SeekableInputStream {
+
+        private final byte[] data;
+        private int position;
+
+        SeekableByteArrayInputStream(final byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public long length() {
+            return data.length;
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (position >= data.length) {
+                return -1;
+            }
+            final int n = Math.min(len, data.length - position);
+            System.arraycopy(data, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void seek(final long pos) {
+            position = (int) pos;
+        }
+    }
+
+    private static final int BLOCK_SIZE = 50_000;
+
+    private static byte[] compress(final byte[] data, final ExecutorService executorService) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelXZCompressorOutputStream out = new ParallelXZCompressorOutputStream(bos, new LZMA2Options(1), executorService, BLOCK_SIZE, 3)) {
+            for (int off = 0; off < data.length; off += 7_000) {
+                out.write(data, off, Math.min(7_000, data.length - off));
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 7 * BLOCK_SIZE + 123 })
+    public void testRoundTrip(final int size) throws IOException {
+        final byte[] data = TestData.letters(size, 1000);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final byte[] compressed;
+        try {
+            compressed = compress(data, executorService);
+        } finally {
+            executorService.shutdown();
+        }
+        try (XZCompressorInputStream in = new XZCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+        // the index lists every block
+        try (SeekableXZInputStream in = new SeekableXZInputStream(new SeekableByteArrayInputStream(compressed))) {
+            assertEquals((size + BLOCK_SIZE - 1) / BLOCK_SIZE, in.getBlockCount());
+            assertEquals(size, in.length());
+            if (size > BLOCK_SIZE) {
+                in.seek(BLOCK_SIZE);
+                assertEquals(data[BLOCK_SIZE] & 0xff, in.read());
+            }
+        }
+    }
+
+    @Test
+    public void testThreads() throws IOException {
+        final byte[] data = TestData.letters(3 * 1024 * 1024 + 17, 1000);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelXZCompressorOutputStream out = new ParallelXZCompressorOutputStream(bos, new LZMA2Options(0), 2)) {
+            out.write(data);
+        }
+        try (XZCompressorInputStream in = new XZCompressorInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> new ParallelXZCompressorOutputStream(bos, new LZMA2Options(), 0));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class, () -> new ParallelXZCompressorOutputStream(bos, new LZMA2Options(), executorService, 0, 1));
+            assertThrows(IllegalArgumentException.class, () -> new ParallelXZCompressorOutputStream(bos, new LZMA2Options(), executorService, 1, 0));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriteAfterFinish() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelXZCompressorOutputStream out = new ParallelXZCompressorOutputStream(bos, new LZMA2Options(), 1)) {
+            out.finish();
+            assertThrows(IOException.class, () -> out.write(1));
+        }
+    }
+}
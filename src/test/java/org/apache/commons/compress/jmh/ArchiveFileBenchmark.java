@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures opening and reading of random access archives ({@link ZipFile}, {@link TarFile} and {@link SevenZFile}) stored in a temporary file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveFileBenchmark {
+
+    @Param({ ArchiveStreamFactory.ZIP, ArchiveStreamFactory.TAR, ArchiveStreamFactory.SEVEN_Z })
+    public String format;
+
+    @Param({ "MANY_SMALL_FILES", "LARGE_FILES" })
+    public ArchiveLayout layout;
+
+    private Path archive;
+
+    private final byte[] buffer = new byte[CompressorOutputStreamBenchmark.CHUNK_SIZE];
+
+    private long drain(final InputStream in) throws IOException {
+        long count = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Opens the archive and reads its table of contents only.
+     */
+    @Benchmark
+    public int open() throws IOException {
+        int entries = 0;
+        switch (format) {
+        case ArchiveStreamFactory.ZIP:
+            try (ZipFile zipFile = ZipFile.builder().setPath(archive).get()) {
+                for (final Enumeration<ZipArchiveEntry> e = zipFile.getEntries(); e.hasMoreElements(); e.nextElement()) {
+                    entries++;
+                }
+            }
+            break;
+        case ArchiveStreamFactory.TAR:
+            try (TarFile tarFile = new TarFile(archive)) {
+                entries = tarFile.getEntries().size();
+            }
+            break;
+        default:
+            try (SevenZFile sevenZFile = SevenZFile.builder().setPath(archive).get()) {
+                for (final SevenZArchiveEntry ignored : sevenZFile.getEntries()) {
+                    entries++;
+                }
+            }
+            break;
+        }
+        return entries;
+    }
+
+    /**
+     * Opens the archive and reads the content of every entry.
+     */
+    @Benchmark
+    public long readAll(final Throughput throughput) throws IOException {
+        long count = 0;
+        switch (format) {
+        case ArchiveStreamFactory.ZIP:
+            try (ZipFile zipFile = ZipFile.builder().setPath(archive).get()) {
+                for (final Enumeration<ZipArchiveEntry> e = zipFile.getEntries(); e.hasMoreElements();) {
+                    try (InputStream in = zipFile.getInputStream(e.nextElement())) {
+                        count += drain(in);
+                    }
+                }
+            }
+            break;
+        case ArchiveStreamFactory.TAR:
+            try (TarFile tarFile = new TarFile(archive)) {
+                for (final TarArchiveEntry entry : tarFile.getEntries()) {
+                    try (InputStream in = tarFile.getInputStream(entry)) {
+                        count += drain(in);
+                    }
+                }
+            }
+            break;
+        default:
+            try (SevenZFile sevenZFile = SevenZFile.builder().setPath(archive).get()) {
+                int n;
+                while (sevenZFile.getNextEntry() != null) {
+                    while ((n = sevenZFile.read(buffer)) != -1) {
+                        count += n;
+                    }
+                }
+            }
+            break;
+        }
+        throughput.add(count);
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException, ArchiveException {
+        archive = Files.createTempFile("commons-compress-jmh", "." + format);
+        final byte[][] contents = layout.contents();
+        if (ArchiveStreamFactory.SEVEN_Z.equals(format)) {
+            layout.writeSevenZ(contents, archive);
+        } else {
+            try (OutputStream out = Files.newOutputStream(archive)) {
+                layout.write(format, contents, out);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+}
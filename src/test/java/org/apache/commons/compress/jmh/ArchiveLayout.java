@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveEntry;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveOutputStream;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZMethod;
+import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * Shapes of generated archives used by the archiver benchmarks.
+ */
+public enum ArchiveLayout {
+
+    /**
+     * Ten thousand small text files spread over a hundred directories, dominated by per-entry overhead.
+     */
+    MANY_SMALL_FILES(10_000, 256, 4 * 1024),
+
+    /**
+     * A few large files cycling through all corpora, dominated by content throughput.
+     */
+    LARGE_FILES(6, 4 * 1024 * 1024, 4 * 1024 * 1024);
+
+    private final int count;
+    private final int minSize;
+    private final int maxSize;
+
+    ArchiveLayout(final int count, final int minSize, final int maxSize) {
+        this.count = count;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Generates the content of all entries of this layout.
+     *
+     * @return the content of all entries, indexed by entry number.
+     */
+    public byte[][] contents() {
+        final byte[][] contents = new byte[count][];
+        for (int i = 0; i < contents.length; i++) {
+            final int size = minSize + (int) ((i * 2654435761L & 0xffffffffL) % (maxSize - minSize + 1));
+            contents[i] = Corpus.values()[i % Corpus.values().length].generate(new Random(i), size);
+        }
+        return contents;
+    }
+
+    private String name(final int index) {
+        return "dir" + index % 100 + "/file" + index + ".dat";
+    }
+
+    /**
+     * Writes this layout as a streaming archive.
+     *
+     * @param format   one of {@link ArchiveStreamFactory#ZIP}, {@link ArchiveStreamFactory#TAR} or {@link ArchiveStreamFactory#CPIO}.
+     * @param contents the entry contents as returned by {@link #contents()}.
+     * @param out      where to write the archive to.
+     * @throws IOException      if writing fails.
+     * @throws ArchiveException if the format is unknown.
+     */
+    public void write(final String format, final byte[][] contents, final OutputStream out) throws IOException, ArchiveException {
+        switch (format) {
+        case ArchiveStreamFactory.ZIP:
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(out)) {
+                for (int i = 0; i < contents.length; i++) {
+                    zos.putArchiveEntry(new ZipArchiveEntry(name(i)));
+                    zos.write(contents[i]);
+                    zos.closeArchiveEntry();
+                }
+            }
+            break;
+        case ArchiveStreamFactory.TAR:
+            try (TarArchiveOutputStream tos = new TarArchiveOutputStream(out)) {
+                tos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+                for (int i = 0; i < contents.length; i++) {
+                    final byte[] content = contents[i];
+                    final TarArchiveEntry entry = new TarArchiveEntry(name(i));
+                    entry.setSize(content.length);
+                    tos.putArchiveEntry(entry);
+                    tos.write(content);
+                    tos.closeArchiveEntry();
+                }
+            }
+            break;
+        case ArchiveStreamFactory.CPIO:
+            try (CpioArchiveOutputStream cos = new CpioArchiveOutputStream(out)) {
+                for (int i = 0; i < contents.length; i++) {
+                    final byte[] content = contents[i];
+                    cos.putArchiveEntry(new CpioArchiveEntry(name(i), content.length));
+                    cos.write(content);
+                    cos.closeArchiveEntry();
+                }
+            }
+            break;
+        default:
+            throw new ArchiveException("Unsupported benchmark format " + format);
+        }
+    }
+
+    /**
+     * Writes this layout as a streaming archive into memory.
+     *
+     * @param format   see {@link #write(String, byte[][], OutputStream)}.
+     * @param contents the entry contents as returned by {@link #contents()}.
+     * @return the archive.
+     * @throws IOException      if writing fails.
+     * @throws ArchiveException if the format is unknown.
+     */
+    public byte[] write(final String format, final byte[][] contents) throws IOException, ArchiveException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        write(format, contents, bos);
+        return bos.toByteArray();
+    }
+
+    /**
+     * Writes this layout as a 7z archive using Deflate as content compression.
+     * <p>
+     * The default LZMA2 compression allocates a large dictionary per entry which makes writing many small files very slow.
+     * </p>
+     *
+     * @param contents the entry contents as returned by {@link #contents()}.
+     * @param path     where to write the archive to.
+     * @throws IOException if writing fails.
+     */
+    public void writeSevenZ(final byte[][] contents, final Path path) throws IOException {
+        try (SevenZOutputFile out = new SevenZOutputFile(path.toFile())) {
+            out.setContentCompression(SevenZMethod.DEFLATE);
+            for (int i = 0; i < contents.length; i++) {
+                final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+                entry.setName(name(i));
+                out.putArchiveEntry(entry);
+                out.write(contents[i]);
+                out.closeArchiveEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading and writing of streaming archives (ZipArchiveInputStream, TarArchiveInputStream, CpioArchiveInputStream and their output
+ * counterparts).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveStreamBenchmark {
+
+    @Param({ ArchiveStreamFactory.ZIP, ArchiveStreamFactory.TAR, ArchiveStreamFactory.CPIO })
+    public String format;
+
+    @Param({ "MANY_SMALL_FILES", "LARGE_FILES" })
+    public ArchiveLayout layout;
+
+    private byte[] archive;
+
+    private byte[][] contents;
+
+    private final byte[] buffer = new byte[CompressorOutputStreamBenchmark.CHUNK_SIZE];
+
+    private long totalSize;
+
+    @Benchmark
+    public long read(final Throughput throughput) throws IOException, ArchiveException {
+        long count = 0;
+        try (ArchiveInputStream<?> in = ArchiveStreamFactory.DEFAULT.createArchiveInputStream(format, new ByteArrayInputStream(archive))) {
+            ArchiveEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (in.canReadEntryData(entry)) {
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        count += n;
+                    }
+                }
+            }
+        }
+        throughput.add(count);
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException, ArchiveException {
+        contents = layout.contents();
+        archive = layout.write(format, contents);
+        for (final byte[] content : contents) {
+            totalSize += content.length;
+        }
+    }
+
+    @Benchmark
+    public void write(final Throughput throughput) throws IOException, ArchiveException {
+        layout.write(format, contents, NullOutputStream.INSTANCE);
+        throughput.add(totalSize);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file against a stored baseline and reports throughput (MB/s), compression ratio, operation rate and allocation per operation.
+ * <p>
+ * Usage: {@code BenchmarkReport <baseline.csv> <result.csv> <report.txt> [threshold-percent]}. A metric is flagged as a regression when it is worse
+ * than the baseline by more than the threshold, which defaults to 10 percent. To refresh the baseline, copy the result file over the baseline file.
+ * </p>
+ */
+public final class BenchmarkReport {
+
+    /**
+     * One row of a JMH CSV result file.
+     */
+    static final class Result {
+
+        final String mode;
+        final double score;
+        final String unit;
+
+        Result(final String mode, final double score, final String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+
+        /**
+         * Tests whether a smaller score is better for this result, true for times and allocations.
+         */
+        boolean lowerIsBetter() {
+            return !"thrpt".equals(mode) || unit.endsWith("/op");
+        }
+    }
+
+    private static final String ALLOCATION = ":gc.alloc.rate.norm";
+
+    private static final String BYTES = ":bytes";
+
+    private static final String COMPRESSED_BYTES = ":compressedBytes";
+
+    private static final double MEGABYTE = 1_000_000d;
+
+    private static String describe(final String metric, final double score) {
+        if (metric.endsWith(COMPRESSED_BYTES)) {
+            return String.format(Locale.ROOT, "%.1f%%", score * 100);
+        }
+        if (metric.endsWith(BYTES)) {
+            return String.format(Locale.ROOT, "%.1f MB/s", score / MEGABYTE);
+        }
+        if (metric.endsWith(ALLOCATION)) {
+            return String.format(Locale.ROOT, "%.0f B/op", score);
+        }
+        return String.format(Locale.ROOT, "%.3f", score);
+    }
+
+    private static boolean isReported(final String metric) {
+        final int colon = metric.indexOf(':');
+        return colon < 0 || metric.endsWith(BYTES) || metric.endsWith(COMPRESSED_BYTES) || metric.endsWith(ALLOCATION);
+    }
+
+    /**
+     * Gets the score of a metric, compressed bytes are turned into the ratio of compressed to uncompressed bytes.
+     *
+     * @return null if the metric or the uncompressed bytes of a compressed bytes metric are missing.
+     */
+    private static Double score(final Map<String, Result> results, final String metric) {
+        final Result result = results.get(metric);
+        if (result == null) {
+            return null;
+        }
+        if (!metric.split(" ", 2)[0].endsWith(COMPRESSED_BYTES)) {
+            return result.score;
+        }
+        final Result bytes = results.get(metric.replaceFirst(COMPRESSED_BYTES, BYTES));
+        return bytes == null || bytes.score == 0 ? null : result.score / bytes.score;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: BenchmarkReport <baseline.csv> <result.csv> <report.txt> [threshold-percent]");
+            System.exit(1);
+        }
+        final Path baselineFile = Paths.get(args[0]);
+        final boolean hasBaseline = Files.exists(baselineFile);
+        final Map<String, Result> baseline = hasBaseline ? read(baselineFile) : new LinkedHashMap<>();
+        final Map<String, Result> current = read(Paths.get(args[1]));
+        final double threshold = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+        String report = report(baseline, current, threshold);
+        if (!hasBaseline) {
+            report = String.format(Locale.ROOT, "No baseline: %s does not exist, no result is compared. Copy %s there to create it.%n%n", baselineFile,
+                    args[1]) + report;
+        }
+        System.out.print(report);
+        Files.write(Paths.get(args[2]), report.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits a CSV line as written by JMH, fields may be quoted and quotes are escaped by doubling them.
+     */
+    static List<String> parseLine(final String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append(c);
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Reads a JMH CSV result file into a map keyed by benchmark name and parameters.
+     */
+    static Map<String, Result> read(final Path file) throws IOException {
+        final Map<String, Result> results = new LinkedHashMap<>();
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return results;
+        }
+        final List<String> header = parseLine(lines.get(0));
+        final int benchmark = header.indexOf("Benchmark");
+        final int mode = header.indexOf("Mode");
+        final int score = header.indexOf("Score");
+        final int unit = header.indexOf("Unit");
+        for (final String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            final List<String> fields = parseLine(line);
+            final StringBuilder key = new StringBuilder(fields.get(benchmark).replace("\u00b7", ""));
+            for (int i = 0; i < header.size(); i++) {
+                final String name = header.get(i);
+                if (name.startsWith("Param: ") && i < fields.size() && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(name.substring("Param: ".length())).append('=').append(fields.get(i));
+                }
+            }
+            results.put(key.toString(), new Result(fields.get(mode), Double.parseDouble(fields.get(score).replace(',', '.')), fields.get(unit)));
+        }
+        return results;
+    }
+
+    /**
+     * Formats the comparison of the current results against the baseline.
+     */
+    static String report(final Map<String, Result> baseline, final Map<String, Result> current, final double threshold) {
+        final StringWriter out = new StringWriter();
+        final PrintWriter writer = new PrintWriter(out);
+        int regressions = 0;
+        int missing = 0;
+        writer.printf(Locale.ROOT, "%-100s %16s %16s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (final Map.Entry<String, Result> entry : current.entrySet()) {
+            final String metric = entry.getKey();
+            final String name = metric.split(" ", 2)[0];
+            final Double now = score(current, metric);
+            if (!isReported(name) || now == null) {
+                continue;
+            }
+            final Double before = score(baseline, metric);
+            if (before == null || before == 0) {
+                missing++;
+                writer.printf(Locale.ROOT, "%-100s %16s %16s %9s%n", metric, "-", describe(name, now), "new");
+                continue;
+            }
+            double change = (now - before) * 100 / before;
+            if (name.endsWith(COMPRESSED_BYTES) || entry.getValue().lowerIsBetter()) {
+                change = -change;
+            }
+            final boolean regression = change < -threshold;
+            if (regression) {
+                regressions++;
+            }
+            writer.printf(Locale.ROOT, "%-100s %16s %16s %+8.1f%%%s%n", metric, describe(name, before), describe(name, now), change,
+                    regression ? "  REGRESSION" : "");
+        }
+        writer.printf(Locale.ROOT, "%n%d regression(s) worse than %.1f%% against the baseline, %d result(s) without baseline.%n", regressions, threshold,
+                missing);
+        writer.flush();
+        return out.toString();
+    }
+
+    private BenchmarkReport() {
+        // main class
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decompression throughput of every compressor that can read, over each generated {@link Corpus}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressorInputStreamBenchmark {
+
+    @Param({ CompressorStreamFactory.BZIP2, CompressorStreamFactory.DEFLATE, CompressorStreamFactory.DEFLATE64, CompressorStreamFactory.GZIP,
+            CompressorStreamFactory.LZ4_BLOCK, CompressorStreamFactory.LZ4_FRAMED, CompressorStreamFactory.LZMA, CompressorStreamFactory.SNAPPY_FRAMED,
+            CompressorStreamFactory.SNAPPY_RAW, CompressorStreamFactory.XZ, CompressorStreamFactory.ZSTANDARD })
+    public String codec;
+
+    @Param({ "TEXT", "BINARY", "COMPRESSED" })
+    public Corpus corpus;
+
+    private byte[] compressed;
+
+    private final byte[] buffer = new byte[CompressorOutputStreamBenchmark.CHUNK_SIZE];
+
+    private final CompressorStreamFactory factory = new CompressorStreamFactory();
+
+    @Benchmark
+    public long decompress(final Throughput throughput) throws IOException, CompressorException {
+        long count = 0;
+        try (InputStream in = factory.createCompressorInputStream(codec, new ByteArrayInputStream(compressed))) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                count += n;
+            }
+        }
+        throughput.add(count);
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException, CompressorException {
+        final byte[] data = corpus.generate(CompressorOutputStreamBenchmark.SIZE);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        if (CompressorStreamFactory.DEFLATE64.equals(codec)) {
+            // There is no Deflate64 encoder, plain DEFLATE is a valid Deflate64 stream as long as it never uses the 258 byte length code
+            final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try (OutputStream out = new DeflaterOutputStream(bos, deflater)) {
+                out.write(data);
+            } finally {
+                deflater.end();
+            }
+        } else {
+            try (OutputStream out = factory.createCompressorOutputStream(codec, bos)) {
+                out.write(data);
+            }
+        }
+        compressed = bos.toByteArray();
+        try (InputStream in = factory.createCompressorInputStream(codec, new ByteArrayInputStream(compressed))) {
+            if (!Arrays.equals(data, IOUtils.toByteArray(in))) {
+                throw new IllegalStateException(codec + " does not round-trip the " + corpus + " corpus");
+            }
+        }
+    }
+}
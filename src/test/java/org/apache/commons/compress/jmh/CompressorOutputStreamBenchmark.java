@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures compression throughput of every compressor that can write, over each generated {@link Corpus}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressorOutputStreamBenchmark {
+
+    /** Size of the uncompressed input per operation. */
+    static final int SIZE = 4 * 1024 * 1024;
+
+    /** Size of the chunks handed to {@code write}, a typical copy buffer. */
+    static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({ CompressorStreamFactory.BZIP2, CompressorStreamFactory.DEFLATE, CompressorStreamFactory.GZIP, CompressorStreamFactory.LZ4_BLOCK,
+            CompressorStreamFactory.LZ4_FRAMED, CompressorStreamFactory.LZMA, CompressorStreamFactory.SNAPPY_FRAMED, CompressorStreamFactory.SNAPPY_RAW,
+            CompressorStreamFactory.XZ, CompressorStreamFactory.ZSTANDARD })
+    public String codec;
+
+    @Param({ "TEXT", "BINARY", "COMPRESSED" })
+    public Corpus corpus;
+
+    private byte[] data;
+
+    private final CompressorStreamFactory factory = new CompressorStreamFactory();
+
+    @Benchmark
+    public void compress(final Throughput throughput) throws IOException, CompressorException {
+        try (OutputStream out = factory.createCompressorOutputStream(codec, NullOutputStream.INSTANCE)) {
+            for (int off = 0; off < data.length; off += CHUNK_SIZE) {
+                out.write(data, off, Math.min(CHUNK_SIZE, data.length - off));
+            }
+        }
+        throughput.add(data.length);
+    }
+
+    @Setup
+    public void setup() {
+        data = corpus.generate(SIZE);
+    }
+}
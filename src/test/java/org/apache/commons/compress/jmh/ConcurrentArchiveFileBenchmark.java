@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.MultiReadOnlySeekableByteChannel;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how reading the entries of one open {@link ZipFile} or {@link TarFile} scales with the number of reader threads.
+ * <p>
+ * Each operation reads all entries, distributed over {@code threads} workers sharing the archive. The archive is accessed through a file channel, an
+ * in-memory channel or a channel concatenating several in-memory segments (like a split archive); all of them support positional reads, so throughput is
+ * expected to grow linearly with the number of threads up to the number of available cores.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentArchiveFileBenchmark {
+
+    /**
+     * How the archive is accessed.
+     */
+    public enum Source {
+        FILE, IN_MEMORY, SEGMENTS
+    }
+
+    private static final int SEGMENTS = 4;
+
+    @Param({ ArchiveStreamFactory.ZIP, ArchiveStreamFactory.TAR })
+    public String format;
+
+    @Param({ "FILE", "IN_MEMORY", "SEGMENTS" })
+    public Source source;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private Path file;
+
+    private ZipFile zipFile;
+
+    private TarFile tarFile;
+
+    private List<?> entries;
+
+    private ExecutorService executor;
+
+    private long readEntry(final Object entry, final byte[] buffer) throws IOException {
+        long count = 0;
+        try (InputStream in = entry instanceof ZipArchiveEntry ? zipFile.getInputStream((ZipArchiveEntry) entry)
+                : tarFile.getInputStream((TarArchiveEntry) entry)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                count += n;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads all entries using {@code threads} workers.
+     */
+    @Benchmark
+    public long readAll(final Throughput throughput) throws InterruptedException, ExecutionException {
+        final AtomicInteger next = new AtomicInteger();
+        final List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                final byte[] buffer = new byte[CompressorOutputStreamBenchmark.CHUNK_SIZE];
+                long count = 0;
+                for (int i = next.getAndIncrement(); i < entries.size(); i = next.getAndIncrement()) {
+                    count += readEntry(entries.get(i), buffer);
+                }
+                return count;
+            }));
+        }
+        long count = 0;
+        for (final Future<Long> result : results) {
+            count += result.get();
+        }
+        throughput.add(count);
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException, ArchiveException {
+        final SeekableByteChannel channel;
+        final byte[] archive = ArchiveLayout.MANY_SMALL_FILES.write(format, ArchiveLayout.MANY_SMALL_FILES.contents());
+        switch (source) {
+        case FILE:
+            file = Files.createTempFile("commons-compress-jmh", "." + format);
+            Files.write(file, archive);
+            channel = Files.newByteChannel(file, StandardOpenOption.READ);
+            break;
+        case IN_MEMORY:
+            channel = new SeekableInMemoryByteChannel(archive);
+            break;
+        default:
+            final SeekableByteChannel[] segments = new SeekableByteChannel[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new SeekableInMemoryByteChannel(
+                        Arrays.copyOfRange(archive, archive.length * i / SEGMENTS, archive.length * (i + 1) / SEGMENTS));
+            }
+            channel = MultiReadOnlySeekableByteChannel.forSeekableByteChannels(segments);
+            break;
+        }
+        if (ArchiveStreamFactory.ZIP.equals(format)) {
+            zipFile = ZipFile.builder().setSeekableByteChannel(channel).get();
+            entries = Collections.list(zipFile.getEntries());
+        } else {
+            tarFile = new TarFile(channel);
+            entries = tarFile.getEntries();
+        }
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        if (zipFile != null) {
+            zipFile.close();
+        } else {
+            tarFile.close();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
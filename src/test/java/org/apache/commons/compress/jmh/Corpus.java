@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Deterministic, generated benchmark inputs.
+ * <p>
+ * All corpora are derived from a fixed seed so that results of different runs (and the stored baseline) are comparable.
+ * </p>
+ */
+public enum Corpus {
+
+    /**
+     * Natural-language-like text built from a fixed vocabulary, compresses well.
+     */
+    TEXT {
+        @Override
+        byte[] generate(final Random random, final int size) {
+            final StringBuilder sb = new StringBuilder(size + 32);
+            while (sb.length() < size) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+                sb.append(random.nextInt(12) == 0 ? ".\n" : " ");
+            }
+            sb.setLength(size);
+            return sb.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+    },
+
+    /**
+     * Fixed-size binary records with a running counter and small-range fields, compresses moderately.
+     */
+    BINARY {
+        @Override
+        byte[] generate(final Random random, final int size) {
+            final byte[] data = new byte[size];
+            for (int i = 0, counter = 0; i < size; counter++) {
+                final int[] fields = { counter, random.nextInt(256), 1000 + random.nextInt(64), random.nextInt() };
+                for (final int field : fields) {
+                    for (int b = 0; b < 4 && i < size; b++) {
+                        data[i++] = (byte) (field >> 8 * b);
+                    }
+                }
+            }
+            return data;
+        }
+    },
+
+    /**
+     * Already compressed data, barely compresses at all.
+     */
+    COMPRESSED {
+        @Override
+        byte[] generate(final Random random, final int size) {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream(size);
+            while (bos.size() < size) {
+                final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                try (DeflaterOutputStream out = new DeflaterOutputStream(bos, deflater)) {
+                    out.write(TEXT.generate(random, size));
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    deflater.end();
+                }
+            }
+            final byte[] data = new byte[size];
+            System.arraycopy(bos.toByteArray(), 0, data, 0, size);
+            return data;
+        }
+    };
+
+    private static final long SEED = 0x436f6d7072657373L;
+
+    private static final String[] WORDS = { "the", "of", "and", "archive", "entry", "stream", "compress", "block", "header", "size", "offset", "data",
+            "buffer", "read", "write", "file", "name", "method", "level", "window", "dictionary", "length", "literal", "match", "distance", "symbol",
+            "table", "checksum", "format", "version", "record", "directory", "central", "local", "extra", "field", "apache", "commons", "java", "input",
+            "output", "channel", "position", "limit", "capacity", "encoder", "decoder", "huffman", "tree", "code", "bits", "byte", "word", "long", "int",
+            "a", "to", "in", "is", "that", "for", "it", "as", "with", "on", "by", "be", "this", "from", "or", "an", "at", "which", "are", "not" };
+
+    /**
+     * Generates {@code size} bytes of this corpus.
+     *
+     * @param size the number of bytes.
+     * @return the generated bytes.
+     */
+    public byte[] generate(final int size) {
+        return generate(new Random(SEED + ordinal()), size);
+    }
+
+    abstract byte[] generate(Random random, int size);
+}
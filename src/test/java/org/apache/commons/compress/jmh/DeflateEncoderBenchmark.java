@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.compressors.deflate.DeflateCompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflateParameters;
+import org.apache.commons.compress.compressors.deflate.LZ77DeflateCompressorOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput and ratio of {@link LZ77DeflateCompressorOutputStream} levels with {@link java.util.zip.Deflater} levels 1, 6 and 9, both writing
+ * through {@link DeflateCompressorOutputStream}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeflateEncoderBenchmark {
+
+    @Param({ "TEXT", "BINARY", "COMPRESSED" })
+    public Corpus corpus;
+
+    /**
+     * {@code DEFLATER_<level>} or the name of a {@link LZ77DeflateCompressorOutputStream.Level}.
+     */
+    @Param({ "DEFLATER_1", "DEFLATER_6", "DEFLATER_9", "FASTEST", "LAZY", "SLOW" })
+    public String encoder;
+
+    /**
+     * Size of the writes, small writes show the cost of the JNI calls of {@link java.util.zip.Deflater}.
+     */
+    @Param({ "512", "65536" })
+    public int chunkSize;
+
+    private byte[] data;
+
+    private DeflateParameters parameters;
+
+    @Benchmark
+    public void compress(final Throughput throughput, final LZ77CompressorBenchmark.CompressedThroughput compressedThroughput) throws IOException {
+        final CountingOutputStream counter = new CountingOutputStream(NullOutputStream.INSTANCE);
+        try (DeflateCompressorOutputStream out = new DeflateCompressorOutputStream(counter, parameters)) {
+            for (int off = 0; off < data.length; off += chunkSize) {
+                out.write(data, off, Math.min(chunkSize, data.length - off));
+            }
+        }
+        throughput.add(data.length);
+        compressedThroughput.compressedBytes += counter.getByteCount();
+    }
+
+    @Setup
+    public void setup() {
+        data = corpus.generate(CompressorOutputStreamBenchmark.SIZE);
+        parameters = new DeflateParameters();
+        parameters.setWithZlibHeader(false);
+        if (encoder.startsWith("DEFLATER_")) {
+            parameters.setCompressionLevel(Integer.parseInt(encoder.substring("DEFLATER_".length())));
+        } else {
+            parameters.setEncoder(LZ77DeflateCompressorOutputStream.Level.valueOf(encoder));
+        }
+    }
+}
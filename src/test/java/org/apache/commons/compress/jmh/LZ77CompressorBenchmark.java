@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+import org.apache.commons.compress.compressors.snappy.SnappyCompressorInputStream;
+import org.apache.commons.compress.compressors.snappy.SnappyCompressorOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures compression throughput and ratio of the LZ77 based compressors for each {@link Parameters.MatchFinder match finder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LZ77CompressorBenchmark {
+
+    /**
+     * Counts the compressed bytes, {@link BenchmarkReport} turns the secondary {@code :compressedBytes} result into a ratio to the {@code :bytes} result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class CompressedThroughput {
+
+        /**
+         * Compressed bytes written in the current iteration.
+         */
+        public long compressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            compressedBytes = 0;
+        }
+    }
+
+    @Param({ CompressorStreamFactory.LZ4_BLOCK, CompressorStreamFactory.SNAPPY_RAW })
+    public String codec;
+
+    @Param({ "TEXT", "BINARY", "COMPRESSED" })
+    public Corpus corpus;
+
+    @Param({ "FAST", "HASH_CHAIN", "HIGH_COMPRESSION" })
+    public Parameters.MatchFinder matchFinder;
+
+    private byte[] data;
+
+    private Parameters params;
+
+    @Benchmark
+    public void compress(final Throughput throughput, final CompressedThroughput compressedThroughput) throws IOException {
+        final CountingOutputStream counter = new CountingOutputStream(NullOutputStream.INSTANCE);
+        try (OutputStream out = CompressorStreamFactory.LZ4_BLOCK.equals(codec) ? new BlockLZ4CompressorOutputStream(counter, params)
+                : new SnappyCompressorOutputStream(counter, data.length, params)) {
+            for (int off = 0; off < data.length; off += CompressorOutputStreamBenchmark.CHUNK_SIZE) {
+                out.write(data, off, Math.min(CompressorOutputStreamBenchmark.CHUNK_SIZE, data.length - off));
+            }
+        }
+        throughput.add(data.length);
+        compressedThroughput.compressedBytes += counter.getByteCount();
+    }
+
+    @Setup
+    public void setup() {
+        data = corpus.generate(CompressorOutputStreamBenchmark.SIZE);
+        final Parameters.Builder builder = CompressorStreamFactory.LZ4_BLOCK.equals(codec) ? BlockLZ4CompressorOutputStream.createParameterBuilder()
+                : SnappyCompressorOutputStream.createParameterBuilder(SnappyCompressorInputStream.DEFAULT_BLOCK_SIZE);
+        params = builder.withMatchFinder(matchFinder).build();
+    }
+}
@@ -139,6 +139,31 @@ public void testLittleEndianWithOverflow() throws Exception {
         }
     }
 
+    @Test
+    public void testPeekBitsInBigEndian() throws IOException {
+        try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.BIG_ENDIAN)) {
+            assertEquals(0x0F, bis.peekBits(4));
+            assertEquals(0x0F, bis.readBits(4));
+            assertEquals(0x84, bis.peekBits(8));
+            assertEquals(0x840012, bis.readBits(24));
+            // only 1111 is left, missing bits are zeros
+            assertEquals(0xF0, bis.peekBits(8));
+            assertEquals(-1, bis.readBits(8));
+        }
+    }
+
+    @Test
+    public void testPeekBitsInLittleEndian() throws IOException {
+        try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
+            assertEquals(0x0F8, bis.peekBits(12));
+            assertEquals(0x0F8, bis.readBits(12));
+            assertEquals(0x2F014, bis.peekBits(20));
+            // only 20 bits are left, missing bits are zeros
+            assertEquals(0x2F014, bis.peekBits(24));
+            assertEquals(-1, bis.readBits(24));
+        }
+    }
+
     @Test
     public void testReading17BitsInBigEndian() throws IOException {
         try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.BIG_ENDIAN)) {
@@ -198,6 +223,13 @@ public void testReading31BitsInLittleEndian() throws IOException {
         }
     }
 
+    @Test
+    public void testShouldNotAllowPeekingOfMoreThan56Bits() throws IOException {
+        try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
+            assertThrows(IOException.class, () -> bis.peekBits(57));
+        }
+    }
+
     @Test
     public void testShouldNotAllowReadingOfANegativeAmountOfBits() throws IOException {
         try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
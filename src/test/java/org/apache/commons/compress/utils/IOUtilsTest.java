@@ -31,6 +31,7 @@
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 
@@ -91,6 +92,18 @@ public void testCopyRangeDoesntCopyMoreThanAskedFor() throws IOException {
         }
     }
 
+    @Test
+    public void testCopyRangeOnChannel() throws IOException {
+        final byte[] data = { 1, 2, 3, 4, 5 };
+        try (SeekableInMemoryByteChannel source = new SeekableInMemoryByteChannel(data)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IOUtils.copyRange(source, 1, 3, Channels.newChannel(out));
+            assertArrayEquals(new byte[] { 2, 3, 4 }, out.toByteArray());
+            assertEquals(0, source.position());
+            assertThrows(EOFException.class, () -> IOUtils.copyRange(source, 3, 3, Channels.newChannel(new ByteArrayOutputStream())));
+        }
+    }
+
     @Test
     public void testCopyRangeStopsIfThereIsNothingToCopyAnymore() throws IOException {
         try (ByteArrayInputStream in = new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 });
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.compress.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MemoryMappedByteChannelTest {
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] data;
+
+    private MemoryMappedByteChannel map(final int size, final int segmentSize) throws IOException {
+        data = new byte[size];
+        new Random(size).nextBytes(data);
+        final Path file = tempDir.resolve("data.bin");
+        Files.write(file, data);
+        return new MemoryMappedByteChannel(FileChannel.open(file, StandardOpenOption.READ), segmentSize);
+    }
+
+    @Test
+    public void testCantWrite() throws IOException {
+        try (MemoryMappedByteChannel channel = map(10, 4)) {
+            assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+            assertThrows(NonWritableChannelException.class, () -> channel.truncate(1));
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        final MemoryMappedByteChannel channel = map(10, 4);
+        assertTrue(channel.isOpen());
+        channel.close();
+        assertFalse(channel.isOpen());
+        channel.close();
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+        assertThrows(ClosedChannelException.class, () -> channel.slice(0, 1));
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        try (MemoryMappedByteChannel channel = map(0, 4)) {
+            assertEquals(0, channel.size());
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+            assertEquals(0, channel.slice(0, 0).remaining());
+        }
+    }
+
+    @Test
+    public void testPositionalReadAcrossSegments() throws IOException {
+        try (MemoryMappedByteChannel channel = map(1000, 64)) {
+            for (int position = 0; position < data.length; position += 7) {
+                final ByteBuffer buffer = ByteBuffer.allocate(Math.min(100, data.length - position));
+                IOUtils.readFully(channel, buffer, position);
+                assertArrayEquals(Arrays.copyOfRange(data, position, position + buffer.capacity()), buffer.array());
+            }
+            assertEquals(0, channel.position());
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1), data.length));
+            assertThrows(IllegalArgumentException.class, () -> channel.read(ByteBuffer.allocate(1), -1));
+        }
+    }
+
+    @Test
+    public void testSequentialRead() throws IOException {
+        try (MemoryMappedByteChannel channel = map(1000, 64)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(data.length);
+            IOUtils.readFully(channel, buffer);
+            assertArrayEquals(data, buffer.array());
+            assertEquals(data.length, channel.position());
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+            channel.position(10);
+            final ByteBuffer single = ByteBuffer.allocate(1);
+            assertEquals(1, channel.read(single));
+            assertEquals(data[10], single.get(0));
+        }
+    }
+
+    @Test
+    public void testSlice() throws IOException {
+        try (MemoryMappedByteChannel channel = map(1000, 64)) {
+            for (final int length : new int[] { 0, 1, 63, 64, 65, 200 }) {
+                for (int position = 0; position + length <= data.length; position += 13) {
+                    final ByteBuffer slice = channel.slice(position, length);
+                    assertTrue(slice.isReadOnly());
+                    assertEquals(0, slice.position());
+                    assertEquals(length, slice.remaining());
+                    final byte[] bytes = new byte[length];
+                    slice.get(bytes);
+                    assertArrayEquals(Arrays.copyOfRange(data, position, position + length), bytes);
+                }
+            }
+            assertTrue(channel.slice(100, 64).isDirect());
+            assertThrows(IOException.class, () -> channel.slice(990, 11));
+            assertThrows(IllegalArgumentException.class, () -> channel.slice(-1, 1));
+        }
+    }
+}
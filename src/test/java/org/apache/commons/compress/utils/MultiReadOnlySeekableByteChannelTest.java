@@ -279,6 +279,32 @@ public void testForSeekableByteChannelsThrowsOnNullArg() {
         assertThrows(NullPointerException.class, () -> MultiReadOnlySeekableByteChannel.forSeekableByteChannels(null));
     }
 
+    @Test
+    public void testPositionalRead() throws IOException {
+        final byte[] expected = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".getBytes(UTF_8);
+        final byte[][] groups = grouped(expected, 7);
+        final SeekableByteChannel[] channels = new SeekableByteChannel[groups.length + 1];
+        for (int i = 0; i < groups.length; i++) {
+            channels[i < 3 ? i : i + 1] = makeSingle(groups[i]);
+        }
+        channels[3] = makeEmpty();
+        try (MultiReadOnlySeekableByteChannel channel = new MultiReadOnlySeekableByteChannel(Arrays.asList(channels))) {
+            channel.position(5);
+            for (int position = 0; position < expected.length; position++) {
+                final ByteBuffer buffer = ByteBuffer.allocate(10);
+                final int read = channel.read(buffer, position);
+                assertEquals(Math.min(10, expected.length - position), read);
+                assertArrayEquals(Arrays.copyOfRange(expected, position, position + read), Arrays.copyOf(buffer.array(), read));
+            }
+            assertEquals(-1, channel.read(ByteBuffer.allocate(10), expected.length));
+            assertEquals(5, channel.position());
+            final ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer);
+            assertEquals('f', buffer.get(0));
+            assertThrows(IllegalArgumentException.class, () -> channel.read(ByteBuffer.allocate(1), -1));
+        }
+    }
+
     /*
      * <q>Setting the position to a value that is greater than the current size is legal but does not change the size of the entity. A later attempt to read
      * bytes at such a position will immediately return an end-of-file indication</q>
@@ -50,6 +50,22 @@ public void testCloseIsIdempotent() throws Exception {
         }
     }
 
+    @Test
+    public void testPositionalRead() throws IOException {
+        try (SeekableInMemoryByteChannel c = new SeekableInMemoryByteChannel(testData)) {
+            c.position(1);
+            final ByteBuffer readBuffer = ByteBuffer.allocate(4);
+            assertEquals(4, c.read(readBuffer, 5));
+            assertArrayEquals("data".getBytes(UTF_8), readBuffer.array());
+            assertEquals(1, c.position());
+            assertEquals(-1, c.read(ByteBuffer.allocate(1), testData.length));
+            assertEquals(-1, c.read(ByteBuffer.allocate(1), Long.MAX_VALUE));
+            assertThrows(IllegalArgumentException.class, () -> c.read(ByteBuffer.allocate(1), -1));
+            c.close();
+            assertThrows(ClosedChannelException.class, () -> c.read(ByteBuffer.allocate(1), 0));
+        }
+    }
+
     /*
      * <q>Setting the position to a value that is greater than the current size is legal but does not change the size of the entity. A later attempt to read
      * bytes at such a position will immediately return an end-of-file indication</q>